@@ -0,0 +1,128 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.AnytimeSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.AnytimeSolution;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchBudget;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to a first answer: a full optimal A* solve against the first path of the anytime search,
+ * and against the anytime search run until it proves its path optimal. Queries are random
+ * connected cell pairs, solved round-robin. Setup prints how far the first path is from optimal
+ * on average and the bound it was published with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AnytimeBenchmark {
+    private static final int QUERIES = 32;
+
+    @Param({"0.0", "0.25"})
+    public double wallDensity;
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    private SearchContext optimal;
+    private AnytimeSearch anytime;
+    private final int[] starts = new int[QUERIES];
+    private final int[] goals = new int[QUERIES];
+    private int next;
+
+    // Stops the anytime search as soon as its first path is published
+    private boolean firstPathSeen;
+    private final SearchListener stopAtFirstPath = new SearchListener() {
+        @Override
+        public boolean shouldStop() {
+            return firstPathSeen;
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = MazeFixtures.squareMaze(size, wallDensity, true, MazeFixtures.SEED).getGrid();
+        optimal = new SearchContext(grid);
+        anytime = new AnytimeSearch(grid);
+        pickConnectedQueries(grid);
+
+        double ratio = 0;
+        double bound = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            optimal.solve(starts[i], goals[i], Integer.MAX_VALUE);
+            AnytimeSolution[] first = new AnytimeSolution[1];
+            anytime.solve(starts[i], goals[i], Integer.MAX_VALUE, SearchBudget.UNLIMITED, solution -> {
+                if (first[0] == null) {
+                    first[0] = solution;
+                }
+            });
+            ratio += first[0].cost() / Math.max(1, optimal.getGoalCost());
+            bound += first[0].suboptimalityBound();
+        }
+        System.out.printf("%n%dx%d at %.0f%% walls: first path %.3fx optimal on average, published bound %.2fx%n",
+                size, size, wallDensity * 100, ratio / QUERIES, bound / QUERIES);
+    }
+
+    private void pickConnectedQueries(MazeGrid grid) {
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            for (int i = 0; i < QUERIES; ) {
+                int start = random.nextInt(grid.size());
+                int goal = random.nextInt(grid.size());
+                if (grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)) {
+                    starts[i] = start;
+                    goals[i] = goal;
+                    i++;
+                }
+            }
+        }
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) % QUERIES;
+        return query;
+    }
+
+    @Benchmark
+    public MazePath optimal() {
+        int query = nextQuery();
+        return optimal.solve(starts[query], goals[query], Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public MazePath anytimeFirstPath() {
+        int query = nextQuery();
+        firstPathSeen = false;
+        return anytime.solve(starts[query], goals[query], Integer.MAX_VALUE, SearchBudget.UNLIMITED,
+                _ -> firstPathSeen = true, stopAtFirstPath);
+    }
+
+    @Benchmark
+    public MazePath anytimeToOptimal() {
+        int query = nextQuery();
+        return anytime.solve(starts[query], goals[query], Integer.MAX_VALUE, SearchBudget.UNLIMITED, _ -> {
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeSnapshot;
+import com.iyed_houhou.mazesolvationsemulation.application.search.BatchSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of BatchSolver.solveAll with the number of pool threads, on a fixed seeded batch of
+ * random start/goal queries. Ideal scaling halves the score each time threads doubles. With
+ * cached queries the batch is answered from the path cache after the first invocation, which is
+ * what a job repeating its queries sees; teardown prints the cache's hit rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BatchSolveBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"1000"})
+    public int size;
+
+    @Param({"256"})
+    public int queryCount;
+
+    @Param({"0", "512"})
+    public int cachedQueries;
+
+    private ForkJoinPool pool;
+    private BatchSolver solver;
+    private List<BatchSolver.Query> queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeSnapshot snapshot = MazeFixtures.squareMaze(size, 0.15, true, MazeFixtures.SEED).snapshot();
+        MazeGrid grid = snapshot.getGrid();
+        pool = new ForkJoinPool(threads);
+        solver = new BatchSolver(snapshot, pool, cachedQueries);
+
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        queries = new ArrayList<>(queryCount);
+        while (queries.size() < queryCount) {
+            int start = random.nextInt(grid.size());
+            int goal = random.nextInt(grid.size());
+            if (grid.isPassable(start) && grid.isPassable(goal)) {
+                queries.add(new BatchSolver.Query(
+                        new Coordinate(grid.rowOf(start), grid.colOf(start)),
+                        new Coordinate(grid.rowOf(goal), grid.colOf(goal)),
+                        Integer.MAX_VALUE / 2));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (solver.getCacheStats() != null) {
+            System.out.printf("%nPath cache: %.1f%% of queries answered, %s%n",
+                    solver.getCacheStats().hitRate() * 100, solver.getCacheStats());
+        }
+        solver.close();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<BatchSolver.Result> solveAll() {
+        return solver.solveAll(queries);
+    }
+}
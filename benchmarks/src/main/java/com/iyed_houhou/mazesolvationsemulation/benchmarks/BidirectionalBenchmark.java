@@ -0,0 +1,91 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.BidirectionalSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CountingSearchListener;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long (near) corner-to-corner queries: plain forward A* against bidirectional A*, run on one
+ * thread and with the backward frontier on a second. Setup prints how many cells each expands.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class BidirectionalBenchmark {
+
+    @Param({"0.0", "0.25"})
+    public double wallDensity;
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    private SearchContext forward;
+    private BidirectionalSearch bidirectional;
+    private int start;
+    private int goal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = MazeFixtures.squareMaze(size, wallDensity, true, MazeFixtures.SEED).getGrid();
+        forward = new SearchContext(grid);
+        bidirectional = new BidirectionalSearch(grid);
+        pickConnectedCorners(grid);
+
+        CountingSearchListener counter = new CountingSearchListener();
+        forward.solve(start, goal, Integer.MAX_VALUE, counter);
+        bidirectional.solve(start, goal, Integer.MAX_VALUE, false);
+        int sequentialExpansions = bidirectional.getExpansions();
+        bidirectional.solve(start, goal, Integer.MAX_VALUE, true);
+        System.out.printf("%nExpanded cells, %dx%d at %.0f%% walls: forward %d, bidirectional %d, in parallel %d (cost %.0f vs %.0f)%n",
+                size, size, wallDensity * 100, counter.getStats().nodesExpanded(), sequentialExpansions,
+                bidirectional.getExpansions(), forward.getGoalCost(), bidirectional.getGoalCost());
+    }
+
+    private void pickConnectedCorners(MazeGrid grid) {
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            for (int step = 0; step < size; step++) {
+                start = grid.index(step, step);
+                goal = grid.index(size - 1 - step, size - 1 - step);
+                if (grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)) {
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("No connected corner cells in the " + size + "x" + size + " fixture");
+    }
+
+    @Benchmark
+    public MazePath forward() {
+        return forward.solve(start, goal, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public MazePath bidirectional() {
+        return bidirectional.solve(start, goal, Integer.MAX_VALUE, false);
+    }
+
+    @Benchmark
+    public MazePath bidirectionalParallel() {
+        return bidirectional.solve(start, goal, Integer.MAX_VALUE, true);
+    }
+}
@@ -0,0 +1,113 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CooperativePlanner;
+import com.iyed_houhou.mazesolvationsemulation.application.search.LandmarkHeuristic;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plans a whole fleet on a 1000x1000 maze. {@code plan} starts from a fresh planner, so every
+ * per-goal distance search is paid; {@code replan} plans the same fleet again on a planner that
+ * kept its distance tables, as a fleet replanning on an unchanged maze would. Window 0 plans each
+ * robot to its goal in one go; 16 replans every 8 steps. Divide the agent count by the time for
+ * agents planned per second. Setup prints how many robots arrive, the conflicts left (0 unless a
+ * robot was blocked), and the peak size of the reservation and distance tables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class CooperativeBenchmark {
+    private static final int SIZE = 1000;
+    private static final double WALL_DENSITY = 0.25;
+    private static final int LANDMARKS = 8;
+
+    @Param({"50", "200", "500"})
+    public int agents;
+
+    @Param({"0", "16"})
+    public int window;
+
+    private MazeGrid grid;
+    private LandmarkHeuristic guide;
+    private List<CooperativePlanner.Agent> fleet;
+    private CooperativePlanner warmPlanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = MazeFixtures.squareMaze(SIZE, WALL_DENSITY, true, MazeFixtures.SEED).getGrid();
+        guide = new LandmarkHeuristic(grid, LANDMARKS);
+        fleet = pickFleet();
+
+        warmPlanner = new CooperativePlanner(grid, window, guide);
+        List<CooperativePlanner.Plan> plans = warmPlanner.plan(fleet);
+        long arrived = plans.stream().filter(CooperativePlanner.Plan::isArrived).count();
+        System.out.printf("%n%d robots, window %d: %d arrive, %d conflicts, %d expansions, "
+                        + "%d peak reservations (%.1f MB), %.0f MB distance tables%n",
+                agents, window, arrived, CooperativePlanner.countConflicts(plans), warmPlanner.getExpansions(),
+                warmPlanner.getPeakReservations(), warmPlanner.getReservationBytes() / (double) (1 << 20),
+                warmPlanner.getDistanceTableBytes() / (double) (1 << 20));
+    }
+
+    private List<CooperativePlanner.Agent> pickFleet() {
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        List<CooperativePlanner.Agent> picked = new ArrayList<>();
+        Set<Integer> starts = new HashSet<>();
+        Set<Integer> goals = new HashSet<>();
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            while (picked.size() < agents) {
+                int start = random.nextInt(grid.size());
+                int goal = random.nextInt(grid.size());
+                if (start != goal && grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)
+                        && !starts.contains(start) && !goals.contains(goal)) {
+                    starts.add(start);
+                    goals.add(goal);
+                    picked.add(new CooperativePlanner.Agent(
+                            new Coordinate(start / SIZE, start % SIZE), new Coordinate(goal / SIZE, goal % SIZE)));
+                }
+            }
+        }
+        return picked;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        warmPlanner.close();
+        guide.close();
+    }
+
+    @Benchmark
+    public List<CooperativePlanner.Plan> plan() {
+        try (CooperativePlanner planner = new CooperativePlanner(grid, window, guide)) {
+            return planner.plan(fleet);
+        }
+    }
+
+    @Benchmark
+    public List<CooperativePlanner.Plan> replan() {
+        return warmPlanner.plan(fleet);
+    }
+}
@@ -0,0 +1,98 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.FlowField;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes a number of robots from random cells to one shared goal, either with a search per robot
+ * or by building a flow field for the goal and reading every path from it; the field's build is
+ * part of each invocation. The crossover is the robot count from which one field is cheaper.
+ * {@code read} only reads paths from a field built in setup, the cost for every robot after the
+ * first batch until the terrain changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FlowFieldBenchmark {
+
+    @Param({"1", "4", "16", "64", "512"})
+    public int robots;
+
+    @Param({"1000"})
+    public int size;
+
+    private MazeGrid grid;
+    private ResourceConstrainedSearch solver;
+    private FlowField prebuilt;
+    private int goal;
+    private int[] starts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = MazeFixtures.squareMaze(size, 0.15, true, MazeFixtures.SEED).getGrid();
+        solver = new ResourceConstrainedSearch(new SearchContext(grid));
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        do {
+            goal = random.nextInt(grid.size());
+        } while (!grid.isPassable(goal));
+        starts = new int[robots];
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            for (int i = 0; i < robots; ) {
+                int start = random.nextInt(grid.size());
+                if (grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)) {
+                    starts[i++] = start;
+                }
+            }
+        }
+        prebuilt = new FlowField(grid, goal);
+        System.out.printf("%nFlow field over %dx%d built in %.0f ms, %.1f MB%n",
+                size, size, prebuilt.getBuildNanos() / 1e6, FlowField.tableBytes(grid) / (double) (1 << 20));
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) {
+        for (int start : starts) {
+            blackhole.consume(solver.solve(start, goal, Integer.MAX_VALUE / 2));
+        }
+    }
+
+    @Benchmark
+    public void flowField(Blackhole blackhole) {
+        try (FlowField field = new FlowField(grid, goal)) {
+            for (int start : starts) {
+                blackhole.consume(field.pathFrom(start));
+            }
+        }
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        for (int start : starts) {
+            MazePath path = prebuilt.pathFrom(start);
+            blackhole.consume(path);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.generation.ClusteredTerrainGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.MazeGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.NoiseGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.PerfectMazeGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Throughput of the maze generators on a preallocated maze, seeded so every run fills the same
+ * layout, on a pool of the given size. LEGACY is the single-threaded per-cell loop Maze used to
+ * run (java.util.Random and one setTerrain call per cell), kept as the baseline; it ignores the
+ * thread count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class GenerationBenchmark {
+
+    public enum Generator {
+        LEGACY(null),
+        NOISE(pool -> new NoiseGenerator(0.15, 0.20, 0.20, 0.20, pool)),
+        CLUSTERED(pool -> new ClusteredTerrainGenerator(3.0, pool)),
+        BACKTRACKER(pool -> new PerfectMazeGenerator(PerfectMazeGenerator.Algorithm.BACKTRACKER, pool)),
+        KRUSKAL(pool -> new PerfectMazeGenerator(PerfectMazeGenerator.Algorithm.KRUSKAL, pool));
+
+        final Function<ForkJoinPool, MazeGenerator> factory;
+
+        Generator(Function<ForkJoinPool, MazeGenerator> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"LEGACY", "NOISE", "CLUSTERED", "BACKTRACKER", "KRUSKAL"})
+    public Generator generator;
+
+    @Param({"100", "1000", "4000"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Maze maze;
+    private ForkJoinPool pool;
+    private MazeGenerator mazeGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = new Maze(size, size, new Coordinate(0, 0), new Coordinate(size - 1, size - 1));
+        pool = new ForkJoinPool(threads);
+        mazeGenerator = generator == Generator.LEGACY ? GenerationBenchmark::legacy : generator.factory.apply(pool);
+
+        maze.generateMaze(mazeGenerator, MazeFixtures.SEED);
+        int[] counts = new int[MazeCell.Terrain.values().length];
+        MazeGrid grid = maze.getGrid();
+        for (int cell = 0; cell < grid.size(); cell++) {
+            counts[grid.terrainCode(cell)]++;
+        }
+        System.out.printf("%n%s %dx%d on %d threads (%d cores): ", generator, size, size, threads,
+                Runtime.getRuntime().availableProcessors());
+        for (MazeCell.Terrain terrain : MazeCell.Terrain.values()) {
+            System.out.printf("%s %.1f%%  ", terrain, 100.0 * counts[terrain.ordinal()] / grid.size());
+        }
+        System.out.println();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Maze generate() {
+        maze.generateMaze(mazeGenerator, MazeFixtures.SEED);
+        return maze;
+    }
+
+    private static void legacy(MazeGrid grid, long seed) {
+        Random rand = new Random(seed);
+        for (int row = 0; row < grid.getRows(); row++) {
+            for (int col = 0; col < grid.getCols(); col++) {
+                double p = rand.nextDouble();
+                MazeCell.Terrain terrain;
+                if (p < 0.15) {
+                    terrain = MazeCell.Terrain.WALL;
+                } else if (p < 0.35) {
+                    terrain = MazeCell.Terrain.WATER;
+                } else if (p < 0.55) {
+                    terrain = MazeCell.Terrain.SAND;
+                } else if (p < 0.75) {
+                    terrain = MazeCell.Terrain.GRASS;
+                } else {
+                    terrain = MazeCell.Terrain.EMPTY;
+                }
+                grid.setTerrain(row, col, terrain);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.search.HierarchicalPathfinder;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-map queries answered by the hierarchical pathfinder versus the exact solver on the same
+ * maze. Setup prints the abstraction's build time and size and how much dearer its paths are
+ * than the exact ones, so the speedup can be read against the quality it costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class HierarchicalBenchmark {
+    private static final int BATTERY = Integer.MAX_VALUE / 2;
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    @Param({"16", "32"})
+    public int clusterSize;
+
+    @Param({"16"})
+    public int queryCount;
+
+    private HierarchicalPathfinder hierarchical;
+    private ResourceConstrainedSearch exact;
+    private int[] starts;
+    private int[] goals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = MazeFixtures.squareMaze(size, 0.15, true, MazeFixtures.SEED).getGrid();
+        hierarchical = new HierarchicalPathfinder(grid, clusterSize);
+        exact = new ResourceConstrainedSearch(new SearchContext(grid));
+
+        // Starts in the top-left eighth, goals in the bottom-right one: the long queries HPA* is for
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        int corner = Math.max(1, size / 8);
+        starts = new int[queryCount];
+        goals = new int[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            do {
+                starts[i] = grid.index(random.nextInt(corner), random.nextInt(corner));
+            } while (!grid.isPassable(starts[i]));
+            do {
+                goals[i] = grid.index(size - 1 - random.nextInt(corner), size - 1 - random.nextInt(corner));
+            } while (!grid.isPassable(goals[i]));
+        }
+
+        double ratioSum = 0;
+        double worstRatio = 1;
+        int compared = 0;
+        for (int i = 0; i < queryCount; i++) {
+            exact.solve(starts[i], goals[i], BATTERY);
+            hierarchical.solve(starts[i], goals[i], BATTERY);
+            if (exact.isGoalReached() && exact.getGoalCost() > 0) {
+                double ratio = hierarchical.getGoalCost() / exact.getGoalCost();
+                ratioSum += ratio;
+                worstRatio = Math.max(worstRatio, ratio);
+                compared++;
+            }
+        }
+        System.out.printf("%nHPA* %dx%d, clusters of %d: built in %.1f ms, %d nodes in %d clusters; "
+                        + "path cost vs exact over %d queries: mean %.4f, worst %.4f%n",
+                size, size, clusterSize, hierarchical.getBuildNanos() / 1e6, hierarchical.getNodeCount(),
+                hierarchical.getClusterCount(), compared, compared == 0 ? 1.0 : ratioSum / compared, worstRatio);
+    }
+
+    @Benchmark
+    public double hierarchical() {
+        double total = 0;
+        for (int i = 0; i < starts.length; i++) {
+            hierarchical.solve(starts[i], goals[i], BATTERY);
+            total += hierarchical.getGoalCost();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double exact() {
+        double total = 0;
+        for (int i = 0; i < starts.length; i++) {
+            exact.solve(starts[i], goals[i], BATTERY);
+            total += exact.getGoalCost();
+        }
+        return total;
+    }
+}
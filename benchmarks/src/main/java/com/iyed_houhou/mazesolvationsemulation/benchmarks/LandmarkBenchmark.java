@@ -0,0 +1,113 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CountingSearchListener;
+import com.iyed_houhou.mazesolvationsemulation.application.search.LandmarkHeuristic;
+import com.iyed_houhou.mazesolvationsemulation.application.search.OpenList;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A* between random connected cells guided by landmarks; 0 landmarks is plain Manhattan distance.
+ * Corner-to-corner queries would flatter ALT, since landmarks sit on the border and bound such
+ * queries exactly. Each invocation solves the next of a fixed set of queries. Setup prints the
+ * table build time and size and the average number of cells a query expands.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class LandmarkBenchmark {
+    private static final int QUERIES = 32;
+
+    @Param({"0", "4", "16"})
+    public int landmarks;
+
+    @Param({"0.0", "0.25"})
+    public double wallDensity;
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    private LandmarkHeuristic heuristic;
+    private SearchContext context;
+    private final int[] starts = new int[QUERIES];
+    private final int[] goals = new int[QUERIES];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = MazeFixtures.squareMaze(size, wallDensity, true, MazeFixtures.SEED).getGrid();
+        if (landmarks == 0) {
+            context = new SearchContext(grid);
+        } else {
+            heuristic = new LandmarkHeuristic(grid, landmarks);
+            context = new SearchContext(grid, OpenList.defaultKind(), heuristic);
+        }
+        pickConnectedQueries(grid);
+
+        long expanded = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            CountingSearchListener counter = new CountingSearchListener();
+            context.solve(starts[i], goals[i], Integer.MAX_VALUE, counter);
+            expanded += counter.getStats().nodesExpanded();
+        }
+        if (heuristic == null) {
+            System.out.printf("%nManhattan, %dx%d at %.0f%% walls: %d cells expanded per query%n",
+                    size, size, wallDensity * 100, expanded / QUERIES);
+        } else {
+            System.out.printf("%n%d landmarks, %dx%d at %.0f%% walls: built in %.0f ms, %.1f MB per landmark; "
+                            + "%d cells expanded per query%n",
+                    landmarks, size, size, wallDensity * 100, heuristic.getBuildNanos() / 1e6,
+                    heuristic.getTableBytes() / (double) landmarks / (1 << 20), expanded / QUERIES);
+        }
+    }
+
+    private void pickConnectedQueries(MazeGrid grid) {
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            for (int i = 0; i < QUERIES; ) {
+                int start = random.nextInt(grid.size());
+                int goal = random.nextInt(grid.size());
+                if (grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)) {
+                    starts[i] = start;
+                    goals[i] = goal;
+                    i++;
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (heuristic != null) {
+            heuristic.close();
+        }
+    }
+
+    @Benchmark
+    public MazePath solve() {
+        int query = next;
+        next = (next + 1) % QUERIES;
+        return context.solve(starts[query], goals[query], Integer.MAX_VALUE);
+    }
+}
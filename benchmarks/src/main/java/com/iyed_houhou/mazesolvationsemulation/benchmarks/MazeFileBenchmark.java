@@ -0,0 +1,134 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.io.MazeFile;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maze files on heap and mapped grids. HEAP loads the file into an ordinary grid; the MAPPED
+ * storages search the file in place at 8 or 4 bits per cell. load() is the time to get a
+ * solvable maze from the file, solve() a corner-to-corner A* on the loaded grid, write() the
+ * time to save the in-memory maze. The file sits in the page cache, so mapped solves measure
+ * the cost of reading tiled terrain, not of the disk. Setup prints the grid's heap footprint next
+ * to what the old MazeCell[][] layout would take for the same size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class MazeFileBenchmark {
+
+    public enum Storage {
+        HEAP(MazeFile.DEFAULT_BITS_PER_CELL),
+        MAPPED_8_BIT(8),
+        MAPPED_4_BIT(4);
+
+        final int bitsPerCell;
+
+        Storage(int bitsPerCell) {
+            this.bitsPerCell = bitsPerCell;
+        }
+    }
+
+    @Param({"HEAP", "MAPPED_8_BIT", "MAPPED_4_BIT"})
+    public Storage storage;
+
+    @Param({"1000", "4000"})
+    public int size;
+
+    private Maze source;
+    private Path file;
+    private Path scratch;
+    private MazeFile mapped;
+    private SearchContext context;
+    private int start;
+    private int goal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = MazeFixtures.squareMaze(size, 0.25, true, MazeFixtures.SEED);
+        file = Files.createTempFile("maze-bench", ".maze");
+        scratch = Files.createTempFile("maze-bench-write", ".maze");
+        MazeGrid grid = source.getGrid();
+        MazeFile.write(grid, new Coordinate(0, 0), new Coordinate(size - 1, size - 1), file,
+                storage.bitsPerCell, MazeFile.DEFAULT_TILE_SHIFT);
+
+        MazeGrid loaded;
+        if (storage == Storage.HEAP) {
+            loaded = MazeFile.read(file).getGrid();
+        } else {
+            mapped = MazeFile.map(file);
+            loaded = mapped.getGrid();
+        }
+        context = new SearchContext(loaded);
+
+        // Walk in from the corners to the first connected pair, as in OpenListSolveBenchmark
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            for (int step = 0; step < size; step++) {
+                start = grid.index(step, step);
+                goal = grid.index(size - 1 - step, size - 1 - step);
+                if (grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)) {
+                    break;
+                }
+            }
+        }
+        System.out.printf("%n%s %dx%d: %.1f MB file, %.1f MB of terrain on the heap (%.1f MB as MazeCell[][])%n",
+                storage, size, size, Files.size(file) / 1e6, loaded.footprintBytes() / 1e6,
+                MazeGrid.legacyFootprintBytes(size, size) / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (mapped != null) {
+            mapped.close();
+        }
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(scratch);
+    }
+
+    @Benchmark
+    public int load() throws IOException {
+        if (storage == Storage.HEAP) {
+            return MazeFile.read(file).getGrid().size();
+        }
+        try (MazeFile opened = MazeFile.map(file)) {
+            return opened.getGrid().size();
+        }
+    }
+
+    @Benchmark
+    public MazePath solve() {
+        return context.solve(start, goal, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        MazeFile.write(source.getGrid(), new Coordinate(0, 0), new Coordinate(size - 1, size - 1), scratch,
+                storage.bitsPerCell, MazeFile.DEFAULT_TILE_SHIFT);
+        return Files.size(scratch);
+    }
+}
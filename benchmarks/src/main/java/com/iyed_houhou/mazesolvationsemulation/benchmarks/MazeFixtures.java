@@ -0,0 +1,54 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded maze layouts shared by the benchmarks. The same (size, wall density, seed) always
+ * produces the same grid, so runs on different machines and commits are comparable.
+ */
+final class MazeFixtures {
+    static final long SEED = 0x5EED_2024L;
+
+    private MazeFixtures() {
+    }
+
+    /**
+     * Square maze with the given fraction of walls. The remaining cells keep the proportions of
+     * Maze.generateMaze (water 20 : sand 20 : grass 20 : empty 25). Start (top-left) and goal
+     * (bottom-right) are always EMPTY; an unreachable goal is boxed in by walls.
+     */
+    static Maze squareMaze(int size, double wallDensity, boolean goalReachable, long seed) {
+        Maze maze = new Maze(size, size, new Coordinate(0, 0), new Coordinate(size - 1, size - 1));
+        MazeGrid grid = maze.getGrid();
+        SplittableRandom random = new SplittableRandom(seed);
+        double open = 1.0 - wallDensity;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            double p = random.nextDouble();
+            MazeCell.Terrain terrain;
+            if (p < wallDensity) {
+                terrain = MazeCell.Terrain.WALL;
+            } else if (p < wallDensity + open * 20 / 85) {
+                terrain = MazeCell.Terrain.WATER;
+            } else if (p < wallDensity + open * 40 / 85) {
+                terrain = MazeCell.Terrain.SAND;
+            } else if (p < wallDensity + open * 60 / 85) {
+                terrain = MazeCell.Terrain.GRASS;
+            } else {
+                terrain = MazeCell.Terrain.EMPTY;
+            }
+            grid.setTerrainAt(cell, terrain);
+        }
+        grid.setTerrain(0, 0, MazeCell.Terrain.EMPTY);
+        grid.setTerrain(size - 1, size - 1, MazeCell.Terrain.EMPTY);
+        if (!goalReachable) {
+            grid.setTerrain(size - 2, size - 1, MazeCell.Terrain.WALL);
+            grid.setTerrain(size - 1, size - 2, MazeCell.Terrain.WALL);
+        }
+        return maze;
+    }
+}
@@ -0,0 +1,112 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building, encoding and reading back the path through a serpentine corridor that fills the
+ * grid, about size * size / 2 cells with a turn every row. boxedList builds the same path as a
+ * list of Coordinate objects, the way paths used to be stored. Setup prints the size of each form.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MazePathBenchmark {
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    private int[] parent;  // the goal's parent chain, as a solver leaves it
+    private int goal;
+    private MazePath path;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Even rows run left to right and right to left in turn, joined at alternating ends
+        parent = new int[size * size];
+        int previous = -1;
+        for (int row = 0; row < size; row += 2) {
+            for (int step = 0; step < size; step++) {
+                int col = (row / 2) % 2 == 0 ? step : size - 1 - step;
+                int cell = row * size + col;
+                parent[cell] = previous;
+                previous = cell;
+            }
+            if (row + 1 < size && row + 2 < size) {
+                int link = (row + 1) * size + ((row / 2) % 2 == 0 ? size - 1 : 0);
+                parent[link] = previous;
+                previous = link;
+            }
+        }
+        goal = previous;
+        path = buildFromParents();
+        encoded = path.encode();
+        System.out.printf("%n%d cells: %d bytes packed, %d bytes encoded, about %d bytes as boxed coordinates%n",
+                path.length(), path.length() * 4L, encoded.length, path.length() * (16L + 4));
+    }
+
+    @Benchmark
+    public MazePath buildFromParents() {
+        MazePath.Builder builder = MazePath.builder(size);
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            builder.prepend(cell);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<Coordinate> boxedList() {
+        int length = 0;
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            length++;
+        }
+        int[] cells = new int[length];
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            cells[--length] = cell;
+        }
+        List<Coordinate> coordinates = new ArrayList<>();
+        for (int cell : cells) {
+            coordinates.add(new Coordinate(cell / size, cell % size));
+        }
+        return coordinates;
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return path.encode();
+    }
+
+    @Benchmark
+    public MazePath decode() {
+        return MazePath.decode(encoded);
+    }
+
+    @Benchmark
+    public long walkCoordinates() {
+        long sum = 0;
+        for (Coordinate coordinate : path.getCoordinates()) {
+            sum += coordinate.row() + coordinate.col();
+        }
+        return sum;
+    }
+}
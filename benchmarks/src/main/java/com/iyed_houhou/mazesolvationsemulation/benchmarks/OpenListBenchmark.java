@@ -0,0 +1,75 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.search.OpenList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-list operations in isolation: a replayed, seeded trace of inserts, decrease-keys and polls
+ * shaped like an A* frontier (keys only ever grow by small integer steps).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenListBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int cells;
+
+    @Param({"BINARY_HEAP", "BUCKET_QUEUE"})
+    public OpenList.Kind kind;
+
+    private OpenList openList;
+    private int[] traceCells;
+    private double[] traceKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Trace keys sit at most 4 above the last polled one
+        openList = OpenList.create(kind, cells, 4);
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        traceCells = new int[cells];
+        traceKeys = new double[cells];
+        for (int i = 0; i < cells; i++) {
+            traceCells[i] = random.nextInt(cells);
+            traceKeys[i] = random.nextInt(1, 5);
+        }
+    }
+
+    @Benchmark
+    public int replayTrace() {
+        openList.clear();
+        double base = 0;
+        int polled = 0;
+        for (int i = 0; i < traceCells.length; i++) {
+            int cell = traceCells[i];
+            double key = base + traceKeys[i];
+            if (!openList.contains(cell)) {
+                openList.insert(cell, key);
+            } else if (key < openList.keyOf(cell)) {
+                openList.decreaseKey(cell, key);
+            }
+            // Roughly one poll per three pushes, like a 4-connected grid frontier
+            if (i % 3 == 0 && !openList.isEmpty()) {
+                base = openList.keyOf(polled = openList.poll());
+            }
+        }
+        return polled;
+    }
+}
@@ -0,0 +1,83 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.OpenList;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole (near) corner-to-corner A* solves with each open list. OPEN terrain has no walls, so the
+ * frontier is wide and the queue large; MAZE terrain is 25% walls, giving a narrower, more
+ * winding frontier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OpenListSolveBenchmark {
+
+    public enum Terrain {
+        OPEN(0.0),
+        MAZE(0.25);
+
+        final double wallDensity;
+
+        Terrain(double wallDensity) {
+            this.wallDensity = wallDensity;
+        }
+    }
+
+    @Param({"BINARY_HEAP", "BUCKET_QUEUE"})
+    public OpenList.Kind kind;
+
+    @Param({"OPEN", "MAZE"})
+    public Terrain terrain;
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    private SearchContext context;
+    private int start;
+    private int goal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = MazeFixtures.squareMaze(size, terrain.wallDensity, true, MazeFixtures.SEED).getGrid();
+        context = new SearchContext(grid, kind);
+
+        // Random walls can seal off a corner, so walk in from both corners to the first pair of
+        // cells that are connected
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            for (int step = 0; step < size; step++) {
+                start = grid.index(step, step);
+                goal = grid.index(size - 1 - step, size - 1 - step);
+                if (grid.isPassable(start) && !index.isDefinitelyUnreachable(start, goal)) {
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("No connected corner cells in the " + size + "x" + size + " fixture");
+    }
+
+    @Benchmark
+    public MazePath solve() {
+        return context.solve(start, goal, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,89 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The walled-in goal case: a full search that has to exhaust the start's region versus the
+ * reachability index, plus the index's cost to absorb a single edit before the next query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ReachabilityBenchmark {
+    private static final int BATTERY = Integer.MAX_VALUE / 2;
+
+    @Param({"1000", "2000"})
+    public int size;
+
+    private MazeGrid grid;
+    private ReachabilityIndex index;
+    private ResourceConstrainedSearch solver;
+    private int start;
+    private int goal;
+    private int editCell;
+    private MazeCell.Terrain editOriginal;
+    private boolean walled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = MazeFixtures.squareMaze(size, 0.15, false, MazeFixtures.SEED).getGrid();
+        index = new ReachabilityIndex(grid);
+        solver = new ResourceConstrainedSearch(new SearchContext(grid));
+        start = grid.index(0, 0);
+        goal = grid.index(size - 1, size - 1);
+        // An open cell in the middle of the big region: walling it may cut it, so every toggle
+        // runs the split check
+        editCell = grid.index(size / 2, size / 2);
+        while (!grid.isPassable(editCell)) {
+            editCell++;
+        }
+        editOriginal = grid.terrainAt(editCell);
+        System.out.printf("%nReachability index %dx%d: built in %.1f ms, %d components%n",
+                size, size, index.getBuildNanos() / 1e6, index.getComponentCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.close();
+    }
+
+    @Benchmark
+    public boolean searchUnreachable() {
+        solver.solve(start, goal, BATTERY);
+        return solver.isGoalReached();
+    }
+
+    @Benchmark
+    public boolean rejectUnreachable() {
+        return index.isDefinitelyUnreachable(start, goal);
+    }
+
+    @Benchmark
+    public boolean editThenReject() {
+        walled = !walled;
+        grid.setTerrainAt(editCell, walled ? MazeCell.Terrain.WALL : editOriginal);
+        return index.isDefinitelyUnreachable(start, goal);
+    }
+}
@@ -0,0 +1,112 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.IncrementalPlanner;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of getting a valid path again after terrain changes on the current solution: D* Lite
+ * repair versus a full re-solve. Every invocation either blocks the edit (a cell, or a square
+ * region, halfway along the path) with walls or restores it, so each one forces a replan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReplanBenchmark {
+    private static final int BATTERY = Integer.MAX_VALUE / 2;
+
+    public enum Edit {
+        CELL(1),
+        REGION(8);
+
+        final int side;
+
+        Edit(int side) {
+            this.side = side;
+        }
+    }
+
+    @Param({"500", "1000"})
+    public int size;
+
+    @Param({"CELL", "REGION"})
+    public Edit edit;
+
+    private MazeGrid grid;
+    private IncrementalPlanner planner;
+    private ResourceConstrainedSearch fullSolver;
+    private int start;
+    private int goal;
+    private int top;
+    private int left;
+    private MazeCell.Terrain[] original;
+    private boolean blocked;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = MazeFixtures.squareMaze(size, 0.15, true, MazeFixtures.SEED).getGrid();
+        start = grid.index(0, 0);
+        goal = grid.index(size - 1, size - 1);
+        fullSolver = new ResourceConstrainedSearch(new SearchContext(grid));
+        planner = new IncrementalPlanner(grid, start, goal);
+        MazePath path = planner.plan(BATTERY);
+
+        Coordinate middle = path.coordinateAt(path.length() / 2);
+        top = Math.min(middle.row(), size - edit.side);
+        left = Math.min(middle.col(), size - edit.side);
+        original = new MazeCell.Terrain[edit.side * edit.side];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = grid.getTerrain(top + i / edit.side, left + i % edit.side);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        planner.close();
+    }
+
+    @Benchmark
+    public double repair() {
+        toggleEdit();
+        planner.replanFrom(start, BATTERY);
+        return planner.getGoalCost();
+    }
+
+    @Benchmark
+    public double fullResolve() {
+        toggleEdit();
+        fullSolver.solve(start, goal, BATTERY);
+        return fullSolver.getGoalCost();
+    }
+
+    private void toggleEdit() {
+        blocked = !blocked;
+        for (int i = 0; i < original.length; i++) {
+            int row = top + i / edit.side;
+            int col = left + i % edit.side;
+            grid.setTerrain(row, col, blocked ? MazeCell.Terrain.WALL : original[i]);
+        }
+    }
+}
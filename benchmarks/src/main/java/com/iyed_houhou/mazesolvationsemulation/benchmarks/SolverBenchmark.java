@@ -0,0 +1,80 @@
+package com.iyed_houhou.mazesolvationsemulation.benchmarks;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CountingSearchListener;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corner-to-corner solve latency and throughput over maze size, wall density, battery budget
+ * and goal reachability. A TIGHT budget is one unit below what the cheapest path drains, which
+ * forces the Pareto label search; AMPLE never constrains the search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SolverBenchmark {
+
+    @Param({"100", "500", "1000", "2000", "4000"})
+    public int size;
+
+    @Param({"0.15", "0.30"})
+    public double wallDensity;
+
+    @Param({"AMPLE", "TIGHT"})
+    public String battery;
+
+    @Param({"true", "false"})
+    public boolean reachable;
+
+    private ResourceConstrainedSearch solver;
+    private int start;
+    private int goal;
+    private int budget;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Maze maze = MazeFixtures.squareMaze(size, wallDensity, reachable, MazeFixtures.SEED);
+        MazeGrid grid = maze.getGrid();
+        solver = new ResourceConstrainedSearch(new SearchContext(grid));
+        start = grid.index(0, 0);
+        goal = grid.index(size - 1, size - 1);
+
+        budget = Integer.MAX_VALUE;
+        if ("TIGHT".equals(battery)) {
+            solver.solve(start, goal, budget);
+            if (solver.isGoalReached()) {
+                int drained = budget - solver.getGoalBattery();
+                budget = drained - 1;
+            }
+        }
+        // Log the shape of the workload once so results can be read against it
+        CountingSearchListener counter = new CountingSearchListener();
+        solver.solve(start, goal, budget, counter);
+        System.out.println("# Workload: " + counter.getStats());
+    }
+
+    @Benchmark
+    public MazePath solve() {
+        return solver.solve(start, goal, budget);
+    }
+}
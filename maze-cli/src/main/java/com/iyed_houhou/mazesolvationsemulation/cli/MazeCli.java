@@ -0,0 +1,266 @@
+package com.iyed_houhou.mazesolvationsemulation.cli;
+
+import com.iyed_houhou.mazesolvationsemulation.application.io.MazeFile;
+import com.iyed_houhou.mazesolvationsemulation.application.io.MazeTextFormat;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeSnapshot;
+import com.iyed_houhou.mazesolvationsemulation.application.search.BatchSolver;
+import com.iyed_houhou.mazesolvationsemulation.application.search.PathCache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless batch solver: reads a maze, either a {@link MazeFile} or in {@link MazeTextFormat},
+ * and a stream of queries, and writes one tab-separated result line per query, in query order,
+ * as soon as it is solved.
+ * <pre>
+ *   maze-cli MAZE [QUERIES|-] [--paths] [--timing] [--batch N] [--cache N]
+ * </pre>
+ * Each query line is "startRow startCol goalRow goalCol battery"; blank lines and lines starting
+ * with '%' are skipped. Queries come from standard input when the file is "-" or missing. Result
+ * lines are "index found|none cost batteryLeft cells", plus the encoded path in base64 with
+ * {@code --paths}. {@code --timing} reports to standard error how long after JVM start the first
+ * result was written, the number to watch when tuning the AppCDS archive. {@code --cache N}
+ * remembers the answers to up to N queries, for query streams that repeat themselves; with
+ * {@code --timing} the cache's hit rate is reported too.
+ * <p>
+ * {@code maze-cli scenarios ...} runs MovingAI scenario suites instead, see {@link ScenarioRunner}.
+ */
+public final class MazeCli implements AutoCloseable {
+    private static final int DEFAULT_BATCH = 256;
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private final MazeGrid grid;
+    private final BatchSolver solver;
+    private final PrintWriter out;
+    private final boolean printPaths;
+    private final int maxBatch;
+    private final Base64.Encoder base64 = Base64.getEncoder();
+    private long solved;
+
+    MazeCli(MazeGrid grid, PrintWriter out, boolean printPaths, int maxBatch, int cachedQueries) {
+        this.grid = grid;
+        this.solver = new BatchSolver(MazeSnapshot.of(grid), ForkJoinPool.commonPool(), cachedQueries);
+        this.out = out;
+        this.printPaths = printPaths;
+        this.maxBatch = maxBatch;
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("scenarios")) {
+            ScenarioRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        String queryFile = "-";
+        boolean printPaths = false;
+        boolean timing = false;
+        int maxBatch = DEFAULT_BATCH;
+        int cachedQueries = 0;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--paths" -> printPaths = true;
+                case "--timing" -> timing = true;
+                case "--batch" -> {
+                    if (i + 1 == args.length) {
+                        usage("--batch needs a value");
+                    }
+                    try {
+                        maxBatch = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        usage("Invalid batch size: " + args[i]);
+                    }
+                    if (maxBatch <= 0) {
+                        usage("Batch size must be positive: " + maxBatch);
+                    }
+                }
+                case "--cache" -> {
+                    if (i + 1 == args.length) {
+                        usage("--cache needs a value");
+                    }
+                    try {
+                        cachedQueries = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        usage("Invalid cache size: " + args[i]);
+                    }
+                    if (cachedQueries < 0) {
+                        usage("Cache size must not be negative: " + cachedQueries);
+                    }
+                }
+                default -> {
+                    if (args[i].startsWith("--")) {
+                        usage("Unknown option " + args[i]);
+                    }
+                    positional.add(args[i]);
+                }
+            }
+        }
+        if (positional.isEmpty() || positional.size() > 2) {
+            usage(null);
+        }
+        Path mazeFile = Path.of(positional.get(0));
+        if (positional.size() == 2) {
+            queryFile = positional.get(1);
+        }
+
+        long mainStarted = System.nanoTime();
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        try (BufferedReader queries = "-".equals(queryFile)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(queryFile), StandardCharsets.UTF_8)) {
+            // Binary maze files are mapped rather than read, so the terrain stays off the heap
+            MazeFile mapped = MazeFile.isMazeFile(mazeFile) ? MazeFile.map(mazeFile) : null;
+            try {
+                MazeGrid grid = mapped != null ? mapped.getGrid() : MazeTextFormat.read(mazeFile);
+                try (MazeCli cli = new MazeCli(grid, out, printPaths, maxBatch, cachedQueries)) {
+                    long firstResultNanos = cli.run(queries);
+                    if (timing) {
+                        reportTiming(mainStarted, firstResultNanos, cli.solved);
+                        PathCache.Stats cacheStats = cli.solver.getCacheStats();
+                        if (cacheStats != null) {
+                            System.err.printf("maze-cli: cache answered %.1f%% of queries (%d exact, %d from longer paths)%n",
+                                    cacheStats.hitRate() * 100, cacheStats.hits(), cacheStats.subPathHits());
+                        }
+                    }
+                }
+            } finally {
+                if (mapped != null) {
+                    mapped.close();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            out.flush();
+            System.err.println("maze-cli: " + e.getMessage());
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Solves every query from the reader and returns System.nanoTime() at which the first
+     * result was flushed, or 0 when there were no queries. The first batch holds a single
+     * query so the first answer is not held back behind a full batch; later batches double up
+     * to the maximum, which keeps every worker busy.
+     */
+    long run(BufferedReader in) throws IOException {
+        long firstResult = 0;
+        int batchSize = 1;
+        List<BatchSolver.Query> batch = new ArrayList<>(maxBatch);
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("%")) {
+                continue;
+            }
+            batch.add(parseQuery(line, lineNumber));
+            if (batch.size() == batchSize) {
+                solveAndPrint(batch);
+                if (firstResult == 0) {
+                    firstResult = System.nanoTime();
+                }
+                batchSize = Math.min(batchSize * 2, maxBatch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            solveAndPrint(batch);
+            if (firstResult == 0) {
+                firstResult = System.nanoTime();
+            }
+        }
+        out.flush();
+        return firstResult;
+    }
+
+    /**
+     * Releases the solver's buffers and cached answers.
+     */
+    @Override
+    public void close() {
+        solver.close();
+    }
+
+    private void solveAndPrint(List<BatchSolver.Query> batch) {
+        for (BatchSolver.Result result : solver.solveAll(batch)) {
+            out.print(solved++);
+            if (result.isFound()) {
+                out.print("\tfound\t");
+                out.print((long) result.cost());
+                out.print('\t');
+                out.print(result.remainingBattery());
+            } else {
+                out.print("\tnone\t-\t-");
+            }
+            out.print('\t');
+            out.print(result.path().length());
+            if (printPaths) {
+                out.print('\t');
+                out.print(result.isFound() ? base64.encodeToString(result.path().encode()) : "-");
+            }
+            out.print('\n');
+        }
+        batch.clear();
+        out.flush();
+    }
+
+    private BatchSolver.Query parseQuery(String line, int lineNumber) {
+        String[] fields = line.split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected \"startRow startCol goalRow goalCol battery\"");
+        }
+        int[] values = new int[5];
+        for (int i = 0; i < 5; i++) {
+            try {
+                values[i] = Integer.parseInt(fields[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": not a number: " + fields[i]);
+            }
+        }
+        if (!grid.isInside(values[0], values[1]) || !grid.isInside(values[2], values[3])) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": query outside the "
+                    + grid.getRows() + "x" + grid.getCols() + " maze");
+        }
+        return new BatchSolver.Query(new Coordinate(values[0], values[1]), new Coordinate(values[2], values[3]), values[4]);
+    }
+
+    private static void reportTiming(long mainStarted, long firstResultNanos, long queries) {
+        if (firstResultNanos == 0) {
+            System.err.println("maze-cli: no queries");
+            return;
+        }
+        long finished = System.nanoTime();
+        // The process start time is wall-clock; step back from now to when the first result went out
+        String sinceStart = ProcessHandle.current().info().startInstant()
+                .map(started -> Duration.between(started, Instant.now()).toMillis()
+                        - (finished - firstResultNanos) / 1_000_000 + " ms after JVM start, ")
+                .orElse("");
+        System.err.printf("maze-cli: first result %s%d ms after main; %d queries in %d ms%n",
+                sinceStart, (firstResultNanos - mainStarted) / 1_000_000, queries, (finished - mainStarted) / 1_000_000);
+    }
+
+    private static void usage(String problem) {
+        if (problem != null) {
+            System.err.println("maze-cli: " + problem);
+        }
+        System.err.println("usage: maze-cli MAZE [QUERIES|-] [--paths] [--timing] [--batch N] [--cache N]");
+        System.err.println("       maze-cli scenarios SCEN... [options]");
+        System.exit(EXIT_USAGE);
+    }
+}
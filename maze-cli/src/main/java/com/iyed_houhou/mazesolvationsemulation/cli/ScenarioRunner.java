@@ -0,0 +1,619 @@
+package com.iyed_houhou.mazesolvationsemulation.cli;
+
+import com.iyed_houhou.mazesolvationsemulation.application.io.MovingAiFormat;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.search.BidirectionalSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CountingSearchListener;
+import com.iyed_houhou.mazesolvationsemulation.application.search.HierarchicalPathfinder;
+import com.iyed_houhou.mazesolvationsemulation.application.search.LandmarkHeuristic;
+import com.iyed_houhou.mazesolvationsemulation.application.search.OpenList;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Headless runner for MovingAI scenario suites, to compare solvers on standard maps and to catch
+ * performance regressions. Each scenario file is a suite. Its queries are solved in file order,
+ * and each one records the expansions, the wall time and the gap between the path's cost and the
+ * optimum, as found by plain A*.
+ * <pre>
+ *   maze-cli scenarios SCEN... [--solver astar|landmarks|bidirectional|hierarchical] [--maps DIR]
+ *                    [--terrain CHAR=TERRAIN,...] [--battery N] [--warmup N] [--repeat N]
+ *                    [--csv FILE] [--json FILE] [--baseline FILE]
+ *                    [--expansion-tolerance PCT] [--latency-tolerance PCT]
+ * </pre>
+ * Maps are looked up in {@code --maps}, or next to the scenario file, by the name the scenario
+ * gives them. {@code --terrain} changes how map characters become terrain, see
+ * {@link MovingAiFormat.TerrainMapping#parse}. The benchmarks have no battery, so by default
+ * there is no limit either. The first {@code --warmup} queries of each suite are solved once,
+ * untimed, before the suite is measured, and each query is then timed {@code --repeat} times
+ * keeping the fastest, which shrugs off most of what else the machine is doing.
+ * <p>
+ * A table of per-suite results goes to standard output. {@code --csv} writes one line per query,
+ * and {@code --json} writes the per-suite summary. Given a CSV from an earlier run as
+ * {@code --baseline}, a suite is flagged as regressed when:
+ * <ul>
+ *   <li>a query solved before is now unsolved, or gets a dearer path;</li>
+ *   <li>the suite expands more cells in total than the expansion tolerance allows;</li>
+ *   <li>its median or 90th percentile latency grows past the latency tolerance.</li>
+ * </ul>
+ * Expansions do not depend on the machine, so their tolerance can be tight. A baseline whose
+ * queries differ from the suite's, in number or in any start or goal, is flagged as mismatched
+ * instead of being compared. Regressions are listed on standard error, and the exit status is
+ * then 3.
+ */
+public final class ScenarioRunner {
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int EXIT_REGRESSION = 3;
+    private static final int DEFAULT_WARMUP = 100;
+    private static final int DEFAULT_REPEAT = 3;
+    private static final double DEFAULT_EXPANSION_TOLERANCE = 1;  // percent
+    private static final double DEFAULT_LATENCY_TOLERANCE = 50;   // percent; timings on a busy host wander
+    private static final int LANDMARK_COUNT = 16;
+
+    private static final String CSV_HEADER = "suite,index,bucket,startRow,startCol,goalRow,goalCol,"
+            + "scenarioLength,found,cost,optimalCost,gap,expansions,micros";
+
+    /**
+     * Solvers the runner can measure. Expansions are those of the solver's own search; for the
+     * hierarchical one, the expansions of its abstract graph.
+     */
+    enum Solver {
+        ASTAR, LANDMARKS, BIDIRECTIONAL, HIERARCHICAL;
+
+        QuerySolver on(MazeGrid grid) {
+            return switch (this) {
+                case ASTAR -> counted(new ResourceConstrainedSearch(new SearchContext(grid)));
+                case LANDMARKS -> counted(new ResourceConstrainedSearch(new SearchContext(grid, OpenList.defaultKind(),
+                        new LandmarkHeuristic(grid, LANDMARK_COUNT))));
+                case BIDIRECTIONAL -> {
+                    BidirectionalSearch search = new BidirectionalSearch(grid);
+                    yield (start, goal, battery) -> {
+                        search.solve(start, goal, battery);
+                        return new Outcome(search.isGoalReached(), search.getGoalCost(), search.getExpansions());
+                    };
+                }
+                case HIERARCHICAL -> {
+                    HierarchicalPathfinder search = new HierarchicalPathfinder(grid);
+                    yield (start, goal, battery) -> {
+                        search.solve(start, goal, battery);
+                        return new Outcome(search.isGoalReached(), search.getGoalCost(), search.getAbstractExpansions());
+                    };
+                }
+            };
+        }
+
+        private static QuerySolver counted(ResourceConstrainedSearch search) {
+            CountingSearchListener counter = new CountingSearchListener();
+            return (start, goal, battery) -> {
+                search.solve(start, goal, battery, counter);
+                return new Outcome(search.isGoalReached(), search.getGoalCost(), counter.getStats().nodesExpanded());
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface QuerySolver {
+        Outcome solve(int start, int goal, int battery);
+    }
+
+    record Outcome(boolean found, double cost, long expansions) {
+    }
+
+    /**
+     * One solved query. Cost and optimal cost are infinite when no path was found.
+     */
+    record QueryResult(String suite, int index, MovingAiFormat.Scenario scenario, boolean found, double cost,
+                       double optimalCost, long expansions, long micros) {
+
+        /**
+         * How much dearer the path is than the optimum, as a fraction; 0 when neither exists.
+         */
+        double gap() {
+            if (!found) {
+                return Double.isInfinite(optimalCost) ? 0 : Double.POSITIVE_INFINITY;
+            }
+            return optimalCost == 0 ? 0 : cost / optimalCost - 1;
+        }
+    }
+
+    record SuiteSummary(String suite, int queries, int solved, long expansions, long p50Micros, long p90Micros,
+                        long p99Micros, long maxMicros, double meanGap, double maxGap) {
+
+        static SuiteSummary of(String suite, List<QueryResult> results) {
+            long[] micros = new long[results.size()];
+            long expansions = 0;
+            int solved = 0;
+            double gapSum = 0;
+            double maxGap = 0;
+            for (int i = 0; i < results.size(); i++) {
+                QueryResult result = results.get(i);
+                micros[i] = result.micros();
+                expansions += result.expansions();
+                if (result.found()) {
+                    solved++;
+                    gapSum += result.gap();
+                    maxGap = Math.max(maxGap, result.gap());
+                }
+            }
+            Arrays.sort(micros);
+            return new SuiteSummary(suite, results.size(), solved, expansions, percentile(micros, 0.5),
+                    percentile(micros, 0.9), percentile(micros, 0.99), micros.length == 0 ? 0 : micros[micros.length - 1],
+                    solved == 0 ? 0 : gapSum / solved, maxGap);
+        }
+    }
+
+    private final Solver solver;
+    private final Path mapDirectory;
+    private final MovingAiFormat.TerrainMapping mapping;
+    private final int battery;
+    private final int warmup;
+    private final int repeat;
+    // Maps are shared by every suite that names them, with their solvers
+    private final Map<Path, MazeGrid> grids = new HashMap<>();
+    private final Map<Path, QuerySolver> solvers = new HashMap<>();
+    private final Map<Path, QuerySolver> references = new HashMap<>();
+
+    ScenarioRunner(Solver solver, Path mapDirectory, MovingAiFormat.TerrainMapping mapping, int battery, int warmup,
+                   int repeat) {
+        this.solver = solver;
+        this.mapDirectory = mapDirectory;
+        this.mapping = mapping;
+        this.battery = battery;
+        this.warmup = warmup;
+        this.repeat = repeat;
+    }
+
+    public static void main(String[] args) {
+        Solver solver = Solver.ASTAR;
+        Path mapDirectory = null;
+        MovingAiFormat.TerrainMapping mapping = MovingAiFormat.TerrainMapping.movingAi();
+        int battery = Integer.MAX_VALUE;
+        int warmup = DEFAULT_WARMUP;
+        int repeat = DEFAULT_REPEAT;
+        Path csvFile = null;
+        Path jsonFile = null;
+        Path baselineFile = null;
+        double expansionTolerance = DEFAULT_EXPANSION_TOLERANCE;
+        double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+        List<Path> scenarioFiles = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--solver" -> solver = solverNamed(value(args, ++i));
+                    case "--maps" -> mapDirectory = Path.of(value(args, ++i));
+                    case "--terrain" -> mapping = MovingAiFormat.TerrainMapping.parse(value(args, ++i));
+                    case "--battery" -> battery = nonNegative(args, ++i);
+                    case "--warmup" -> warmup = nonNegative(args, ++i);
+                    case "--repeat" -> repeat = Math.max(nonNegative(args, ++i), 1);
+                    case "--csv" -> csvFile = Path.of(value(args, ++i));
+                    case "--json" -> jsonFile = Path.of(value(args, ++i));
+                    case "--baseline" -> baselineFile = Path.of(value(args, ++i));
+                    case "--expansion-tolerance" -> expansionTolerance = nonNegative(args, ++i);
+                    case "--latency-tolerance" -> latencyTolerance = nonNegative(args, ++i);
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            usage("Unknown option " + args[i]);
+                        }
+                        scenarioFiles.add(Path.of(args[i]));
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+        if (scenarioFiles.isEmpty()) {
+            usage(null);
+        }
+
+        try {
+            // Read the baseline first, so a bad one fails before the suites have run
+            Map<String, List<QueryResult>> baseline = baselineFile == null ? Map.of() : readCsv(baselineFile);
+            ScenarioRunner runner = new ScenarioRunner(solver, mapDirectory, mapping, battery, warmup, repeat);
+            Map<String, List<QueryResult>> results = new LinkedHashMap<>();
+            for (Path scenarioFile : scenarioFiles) {
+                String suite = suiteName(scenarioFile);
+                if (results.containsKey(suite)) {
+                    throw new IllegalArgumentException("Two scenario files make suite " + suite);
+                }
+                results.put(suite, runner.runSuite(suite, scenarioFile));
+            }
+
+            Map<String, SuiteSummary> summaries = new LinkedHashMap<>();
+            results.forEach((suite, suiteResults) -> summaries.put(suite, SuiteSummary.of(suite, suiteResults)));
+            Map<String, List<String>> regressions = new LinkedHashMap<>();
+            if (baselineFile != null) {
+                for (String suite : results.keySet()) {
+                    regressions.put(suite, compare(results.get(suite), baseline.get(suite),
+                            expansionTolerance / 100, latencyTolerance / 100));
+                }
+            }
+
+            printTable(summaries.values());
+            if (csvFile != null) {
+                writeCsv(csvFile, results);
+            }
+            if (jsonFile != null) {
+                writeJson(jsonFile, solver, battery, summaries.values(), regressions);
+            }
+            int regressed = 0;
+            for (Map.Entry<String, List<String>> entry : regressions.entrySet()) {
+                for (String regression : entry.getValue()) {
+                    System.err.println("maze-cli: regression in " + entry.getKey() + ": " + regression);
+                    regressed++;
+                }
+            }
+            if (regressed > 0) {
+                System.exit(EXIT_REGRESSION);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("maze-cli: " + e.getMessage());
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Solves every query of the scenario file, after the warm-up, timing only the solver under
+     * test; the reference A* runs outside the timed section.
+     */
+    List<QueryResult> runSuite(String suite, Path scenarioFile) throws IOException {
+        List<MovingAiFormat.Scenario> scenarios = MovingAiFormat.readScenarios(scenarioFile);
+        for (int i = 0; i < Math.min(warmup, scenarios.size()); i++) {
+            MovingAiFormat.Scenario scenario = scenarios.get(i);
+            Path map = resolveMap(scenarioFile, scenario);
+            MazeGrid grid = gridFor(map, scenario);
+            solverFor(map).solve(cell(grid, scenario, true), cell(grid, scenario, false), battery);
+        }
+
+        List<QueryResult> results = new ArrayList<>(scenarios.size());
+        for (int i = 0; i < scenarios.size(); i++) {
+            MovingAiFormat.Scenario scenario = scenarios.get(i);
+            Path map = resolveMap(scenarioFile, scenario);
+            MazeGrid grid = gridFor(map, scenario);
+            int start = cell(grid, scenario, true);
+            int goal = cell(grid, scenario, false);
+
+            QuerySolver measured = solverFor(map);
+            Outcome outcome = null;
+            long micros = Long.MAX_VALUE;
+            for (int run = 0; run < repeat; run++) {
+                long started = System.nanoTime();
+                outcome = measured.solve(start, goal, battery);
+                micros = Math.min(micros, (System.nanoTime() - started) / 1_000);
+            }
+
+            Outcome optimum = solver == Solver.ASTAR ? outcome : referenceFor(map).solve(start, goal, battery);
+            results.add(new QueryResult(suite, i, scenario, outcome.found(),
+                    outcome.found() ? outcome.cost() : Double.POSITIVE_INFINITY,
+                    optimum.found() ? optimum.cost() : Double.POSITIVE_INFINITY, outcome.expansions(), micros));
+        }
+        return results;
+    }
+
+    private Path resolveMap(Path scenarioFile, MovingAiFormat.Scenario scenario) {
+        Path named = Path.of(scenario.map());
+        if (mapDirectory != null) {
+            return mapDirectory.resolve(named.getFileName());
+        }
+        Path directory = scenarioFile.toAbsolutePath().getParent();
+        Path besideScenario = directory.resolve(named);
+        // Published scenarios name maps by their path in the benchmark archive
+        return Files.exists(besideScenario) ? besideScenario : directory.resolve(named.getFileName());
+    }
+
+    private MazeGrid gridFor(Path map, MovingAiFormat.Scenario scenario) throws IOException {
+        MazeGrid grid = grids.get(map);
+        if (grid == null) {
+            grid = MovingAiFormat.readMap(map, mapping);
+            grids.put(map, grid);
+        }
+        if (grid.getRows() != scenario.height() || grid.getCols() != scenario.width()) {
+            throw new IOException(map + " is " + grid.getCols() + "x" + grid.getRows() + ", the scenario expects "
+                    + scenario.width() + "x" + scenario.height());
+        }
+        return grid;
+    }
+
+    private QuerySolver solverFor(Path map) {
+        return solvers.computeIfAbsent(map, _ -> solver.on(grids.get(map)));
+    }
+
+    private QuerySolver referenceFor(Path map) {
+        return references.computeIfAbsent(map, _ -> Solver.ASTAR.on(grids.get(map)));
+    }
+
+    private static int cell(MazeGrid grid, MovingAiFormat.Scenario scenario, boolean start) {
+        return start
+                ? grid.index(scenario.start().row(), scenario.start().col())
+                : grid.index(scenario.goal().row(), scenario.goal().col());
+    }
+
+    /**
+     * Regressions of a suite against its baseline results, matched by query index. A baseline
+     * for other queries, such as one taken before the scenario file was edited, is reported as
+     * the only problem, since nothing else in it can be compared.
+     */
+    static List<String> compare(List<QueryResult> current, List<QueryResult> baseline, double expansionTolerance,
+                                double latencyTolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (baseline == null) {
+            return regressions;
+        }
+        String mismatch = mismatch(current, baseline);
+        if (mismatch != null) {
+            regressions.add("baseline does not match the scenario file: " + mismatch);
+            return regressions;
+        }
+        int lost = 0;
+        int dearer = 0;
+        for (QueryResult result : current) {
+            QueryResult before = baseline.get(result.index());
+            if (before.found() && !result.found()) {
+                lost++;
+            } else if (before.found() && result.cost() > before.cost() + 1e-9) {
+                dearer++;
+            }
+        }
+        if (lost > 0) {
+            regressions.add(lost + " queries solved in the baseline are now unsolved");
+        }
+        if (dearer > 0) {
+            regressions.add(dearer + " queries now get a dearer path");
+        }
+
+        SuiteSummary now = SuiteSummary.of("", current);
+        SuiteSummary then = SuiteSummary.of("", baseline);
+        if (now.expansions() > then.expansions() * (1 + expansionTolerance)) {
+            regressions.add(String.format(Locale.ROOT, "expansions %d, baseline %d (+%.1f%%)", now.expansions(),
+                    then.expansions(), growth(now.expansions(), then.expansions())));
+        }
+        if (now.p50Micros() > then.p50Micros() * (1 + latencyTolerance)) {
+            regressions.add(String.format(Locale.ROOT, "median latency %d us, baseline %d us (+%.1f%%)",
+                    now.p50Micros(), then.p50Micros(), growth(now.p50Micros(), then.p50Micros())));
+        }
+        if (now.p90Micros() > then.p90Micros() * (1 + latencyTolerance)) {
+            regressions.add(String.format(Locale.ROOT, "p90 latency %d us, baseline %d us (+%.1f%%)",
+                    now.p90Micros(), then.p90Micros(), growth(now.p90Micros(), then.p90Micros())));
+        }
+        return regressions;
+    }
+
+    /**
+     * How the baseline's queries differ from the suite's, or null when they are the same.
+     */
+    private static String mismatch(List<QueryResult> current, List<QueryResult> baseline) {
+        if (current.size() != baseline.size()) {
+            return "it has " + baseline.size() + " queries, the suite " + current.size();
+        }
+        for (QueryResult result : current) {
+            MovingAiFormat.Scenario now = result.scenario();
+            MovingAiFormat.Scenario then = baseline.get(result.index()).scenario();
+            if (!now.start().equals(then.start()) || !now.goal().equals(then.goal())) {
+                return "query " + result.index() + " runs " + now.start() + " -> " + now.goal() + ", the baseline's "
+                        + then.start() + " -> " + then.goal();
+            }
+        }
+        return null;
+    }
+
+    private static double growth(long now, long then) {
+        return then == 0 ? Double.POSITIVE_INFINITY : (now - then) * 100.0 / then;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.clamp(rank - 1, 0, sorted.length - 1)];
+    }
+
+    private static void printTable(Iterable<SuiteSummary> summaries) {
+        System.out.printf("%-24s %8s %8s %12s %9s %9s %9s %9s %9s%n",
+                "suite", "queries", "solved", "expansions", "p50 us", "p90 us", "p99 us", "mean gap", "max gap");
+        for (SuiteSummary summary : summaries) {
+            System.out.printf(Locale.ROOT, "%-24s %8d %8d %12d %9d %9d %9d %8.3f%% %8.3f%%%n",
+                    summary.suite(), summary.queries(), summary.solved(), summary.expansions(), summary.p50Micros(),
+                    summary.p90Micros(), summary.p99Micros(), summary.meanGap() * 100, summary.maxGap() * 100);
+        }
+    }
+
+    static void writeCsv(Path file, Map<String, List<QueryResult>> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.print(CSV_HEADER);
+            out.print('\n');
+            for (List<QueryResult> suiteResults : results.values()) {
+                for (QueryResult result : suiteResults) {
+                    MovingAiFormat.Scenario scenario = result.scenario();
+                    out.print(String.join(",", result.suite(), Integer.toString(result.index()),
+                            Integer.toString(scenario.bucket()),
+                            Integer.toString(scenario.start().row()), Integer.toString(scenario.start().col()),
+                            Integer.toString(scenario.goal().row()), Integer.toString(scenario.goal().col()),
+                            number(scenario.optimalLength()), Boolean.toString(result.found()),
+                            number(result.cost()), number(result.optimalCost()), number(result.gap()),
+                            Long.toString(result.expansions()), Long.toString(result.micros())));
+                    out.print('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a CSV written by {@link #writeCsv}, by column name, into results per suite in index
+     * order.
+     */
+    static Map<String, List<QueryResult>> readCsv(Path file) throws IOException {
+        Map<String, List<QueryResult>> results = new LinkedHashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = in.readLine();
+            if (header == null) {
+                throw new IOException(file + " is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            String[] names = header.split(",");
+            for (int i = 0; i < names.length; i++) {
+                columns.put(names[i].trim(), i);
+            }
+            for (String needed : CSV_HEADER.split(",")) {
+                if (!columns.containsKey(needed)) {
+                    throw new IOException(file + " has no " + needed + " column");
+                }
+            }
+            int lineNumber = 1;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length != names.length) {
+                    throw new IOException(file + ", line " + lineNumber + ": expected " + names.length + " fields");
+                }
+                try {
+                    String suite = fields[columns.get("suite")];
+                    int index = Integer.parseInt(fields[columns.get("index")]);
+                    List<QueryResult> suiteResults = results.computeIfAbsent(suite, _ -> new ArrayList<>());
+                    if (index != suiteResults.size()) {
+                        throw new IOException(file + ", line " + lineNumber + ": query " + index + " of " + suite
+                                + " out of order");
+                    }
+                    MovingAiFormat.Scenario scenario = new MovingAiFormat.Scenario(
+                            Integer.parseInt(fields[columns.get("bucket")]), "", 0, 0,
+                            new Coordinate(
+                                    Integer.parseInt(fields[columns.get("startRow")]), Integer.parseInt(fields[columns.get("startCol")])),
+                            new Coordinate(
+                                    Integer.parseInt(fields[columns.get("goalRow")]), Integer.parseInt(fields[columns.get("goalCol")])),
+                            Double.parseDouble(fields[columns.get("scenarioLength")]));
+                    suiteResults.add(new QueryResult(suite, index, scenario,
+                            Boolean.parseBoolean(fields[columns.get("found")]),
+                            Double.parseDouble(fields[columns.get("cost")]),
+                            Double.parseDouble(fields[columns.get("optimalCost")]),
+                            Long.parseLong(fields[columns.get("expansions")]),
+                            Long.parseLong(fields[columns.get("micros")])));
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ", line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static void writeJson(Path file, Solver solver, int battery, Iterable<SuiteSummary> summaries,
+                                  Map<String, List<String>> regressions) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.print("{\n  \"solver\": \"" + solver.name().toLowerCase(Locale.ROOT) + "\",\n");
+            out.print("  \"battery\": " + battery + ",\n");
+            out.print("  \"suites\": [");
+            String separator = "\n";
+            for (SuiteSummary summary : summaries) {
+                out.print(separator);
+                separator = ",\n";
+                out.print("    {\"suite\": " + quote(summary.suite())
+                        + ", \"queries\": " + summary.queries()
+                        + ", \"solved\": " + summary.solved()
+                        + ", \"expansions\": " + summary.expansions()
+                        + ", \"latencyMicros\": {\"p50\": " + summary.p50Micros() + ", \"p90\": " + summary.p90Micros()
+                        + ", \"p99\": " + summary.p99Micros() + ", \"max\": " + summary.maxMicros() + "}"
+                        + ", \"meanGap\": " + jsonNumber(summary.meanGap())
+                        + ", \"maxGap\": " + jsonNumber(summary.maxGap()));
+                List<String> suiteRegressions = regressions.get(summary.suite());
+                if (suiteRegressions != null) {
+                    out.print(", \"regressions\": [");
+                    for (int i = 0; i < suiteRegressions.size(); i++) {
+                        out.print((i == 0 ? "" : ", ") + quote(suiteRegressions.get(i)));
+                    }
+                    out.print("]");
+                }
+                out.print("}");
+            }
+            out.print("\n  ]\n}\n");
+        }
+    }
+
+    private static String suiteName(Path scenarioFile) {
+        String name = scenarioFile.getFileName().toString();
+        int dot = name.indexOf('.');
+        String suite = dot > 0 ? name.substring(0, dot) : name;
+        if (suite.contains(",")) {
+            throw new IllegalArgumentException("Suite names must not contain commas: " + suite);
+        }
+        return suite;
+    }
+
+    /**
+     * Whole numbers without a fraction, others with enough digits to compare costs exactly.
+     */
+    private static String number(double value) {
+        if (Double.isInfinite(value)) {
+            return "Infinity";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.9f", value);
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? number(value) : "null";
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static Solver solverNamed(String name) {
+        for (Solver solver : Solver.values()) {
+            if (solver.name().equalsIgnoreCase(name)) {
+                return solver;
+            }
+        }
+        throw new IllegalArgumentException("Unknown solver " + name);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        }
+        return args[i];
+    }
+
+    private static int nonNegative(String[] args, int i) {
+        String text = value(args, i);
+        int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + args[i - 1] + ": " + text);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(args[i - 1] + " must not be negative: " + value);
+        }
+        return value;
+    }
+
+    private static void usage(String problem) {
+        if (problem != null) {
+            System.err.println("maze-cli: " + problem);
+        }
+        System.err.println("usage: maze-cli scenarios SCEN... [--solver astar|landmarks|bidirectional|hierarchical]"
+                + " [--maps DIR] [--terrain CHAR=TERRAIN,...] [--battery N] [--warmup N] [--repeat N] [--csv FILE] [--json FILE]"
+                + " [--baseline FILE] [--expansion-tolerance PCT] [--latency-tolerance PCT]");
+        System.exit(EXIT_USAGE);
+    }
+}
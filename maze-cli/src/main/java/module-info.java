@@ -0,0 +1,3 @@
+module com.iyed_houhou.mazesolvationsemulation.cli {
+    requires com.iyed_houhou.mazesolvationsemulation.core;
+}
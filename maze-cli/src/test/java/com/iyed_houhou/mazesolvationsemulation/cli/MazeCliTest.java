@@ -0,0 +1,110 @@
+package com.iyed_houhou.mazesolvationsemulation.cli;
+
+import com.iyed_houhou.mazesolvationsemulation.application.io.MazeTextFormat;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MazeCliTest {
+    /**
+     * Row 0 is an open corridor; (2, 3) is walled in.
+     */
+    private static final String MAZE = String.join("\n",
+            "3 5",
+            ".....",
+            ".###.",
+            "..#.#") + "\n";
+
+    @Test
+    void answersFoundAndUnreachableQueries() throws IOException {
+        List<String> lines = run(false, 256,
+                "% corridor, then a walled-in goal, then too little battery",
+                "0 0 0 4 100",
+                "",
+                "0 0 2 3 100",
+                "  0 0   0 4 3 ");
+        assertEquals(List.of(
+                "0\tfound\t4\t96\t5",
+                "1\tnone\t-\t-\t0",
+                "2\tnone\t-\t-\t0"), lines);
+    }
+
+    @Test
+    void printsPathsThatDecodeBackToTheSolvedPath() throws IOException {
+        List<String> lines = run(true, 256, "0 0 0 4 100", "0 0 2 1 100", "0 0 2 3 100", "1 4 1 4 0");
+        assertEquals(4, lines.size());
+        assertPath(lines.get(0), 0, 1, 2, 3, 4);
+        assertPath(lines.get(1), 0, 5, 10, 11);
+        assertEquals("2\tnone\t-\t-\t0\t-", lines.get(2));
+        assertPath(lines.get(3), 9);
+    }
+
+    /**
+     * Enough queries for batches of 1, 2, 4 and then the maximum of 4, with a short last batch;
+     * the answers must come back numbered and in the order they were asked.
+     */
+    @Test
+    void keepsQueryOrderAcrossBatches() throws IOException {
+        List<String> queries = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            if (i % 4 == 3) {
+                queries.add("0 0 2 3 50");
+                expected.add(i + "\tnone\t-\t-\t0");
+                continue;
+            }
+            int goalCol = i % 5;
+            int battery = goalCol + i % 3;
+            queries.add("0 0 0 " + goalCol + " " + battery);
+            expected.add(i + "\tfound\t" + goalCol + "\t" + (battery - goalCol) + "\t" + (goalCol + 1));
+        }
+        assertEquals(expected, run(false, 4, queries.toArray(String[]::new)));
+        assertEquals(expected, run(false, 1, queries.toArray(String[]::new)));
+    }
+
+    @Test
+    void rejectsBrokenQueries() {
+        IllegalArgumentException fields = assertThrows(IllegalArgumentException.class,
+                () -> run(false, 256, "% header", "0 0 0 4"));
+        assertTrue(fields.getMessage().startsWith("Line 2:"), fields.getMessage());
+        IllegalArgumentException number = assertThrows(IllegalArgumentException.class,
+                () -> run(false, 256, "0 0 0 4 lots"));
+        assertTrue(number.getMessage().contains("not a number: lots"), number.getMessage());
+        IllegalArgumentException outside = assertThrows(IllegalArgumentException.class,
+                () -> run(false, 256, "0 0 3 0 10"));
+        assertTrue(outside.getMessage().contains("outside the 3x5 maze"), outside.getMessage());
+    }
+
+    private static void assertPath(String line, int... cells) {
+        String[] fields = line.split("\t");
+        assertEquals("found", fields[1], line);
+        assertEquals(cells.length, Integer.parseInt(fields[4]), line);
+        MazePath path = MazePath.decode(Base64.getDecoder().decode(fields[5]));
+        assertEquals(5, path.getCols());
+        assertArrayEquals(cells, path.toCellArray(), line);
+    }
+
+    private static List<String> run(boolean printPaths, int maxBatch, String... queries) throws IOException {
+        MazeGrid grid = MazeTextFormat.read(new BufferedReader(new StringReader(MAZE)));
+        StringWriter written = new StringWriter();
+        try (MazeCli cli = new MazeCli(grid, new PrintWriter(written), printPaths, maxBatch, 0)) {
+            String input = String.join("\n", queries) + "\n";
+            cli.run(new BufferedReader(new StringReader(input)));
+        }
+        return written.toString().lines().toList();
+    }
+}
@@ -0,0 +1,175 @@
+package com.iyed_houhou.mazesolvationsemulation.cli;
+
+import com.iyed_houhou.mazesolvationsemulation.application.io.MovingAiFormat;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScenarioRunnerTest {
+    private static final double TOLERANCE = 0.01;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A 4x6 map with a wall down the middle, open at the bottom, and a closed-off corner.
+     */
+    @Test
+    void solvesASuiteAgainstTheReference() throws IOException {
+        Files.writeString(directory.resolve("arena.map"), String.join("\n",
+                "type octile", "height 4", "width 6", "map",
+                "..@..@",
+                "..@.@.",
+                "..@..@",
+                "......") + "\n");
+        Path scenarios = directory.resolve("arena.map.scen");
+        Files.writeString(scenarios, String.join("\n",
+                "version 1",
+                "0\tarena.map\t6\t4\t0\t0\t3\t0\t9",
+                "0\tarena.map\t6\t4\t0\t0\t5\t1\t9",
+                "0\tarena.map\t6\t4\t1\t1\t1\t1\t0") + "\n");
+
+        for (ScenarioRunner.Solver solver : ScenarioRunner.Solver.values()) {
+            ScenarioRunner runner = new ScenarioRunner(solver, null, MovingAiFormat.TerrainMapping.movingAi(),
+                    Integer.MAX_VALUE, 1, 1);
+            List<ScenarioRunner.QueryResult> results = runner.runSuite("arena", scenarios);
+            assertEquals(3, results.size(), solver.name());
+
+            ScenarioRunner.QueryResult around = results.get(0);
+            assertEquals(new Coordinate(0, 3), around.scenario().goal());
+            assertTrue(around.found(), solver.name());
+            assertEquals(9, around.optimalCost(), solver.name());
+            assertTrue(around.cost() >= 9, solver.name());
+
+            ScenarioRunner.QueryResult closedOff = results.get(1);
+            assertFalse(closedOff.found(), solver.name());
+            assertEquals(Double.POSITIVE_INFINITY, closedOff.cost());
+            assertEquals(0, closedOff.gap());
+
+            assertEquals(0, results.get(2).cost(), solver.name());
+        }
+    }
+
+    @Test
+    void readsBackTheCsvItWrote() throws IOException {
+        Map<String, List<ScenarioRunner.QueryResult>> written = new LinkedHashMap<>();
+        written.put("first", List.of(
+                result("first", 0, new Coordinate(0, 1), new Coordinate(2, 3), true, 12, 12, 40, 7),
+                result("first", 1, new Coordinate(4, 5), new Coordinate(6, 7), false, Double.POSITIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, 900, 31)));
+        written.put("second", List.of(
+                result("second", 0, new Coordinate(1, 0), new Coordinate(0, 1), true, 10.5, 10, 3, 0)));
+        Path file = directory.resolve("results.csv");
+        ScenarioRunner.writeCsv(file, written);
+
+        Map<String, List<ScenarioRunner.QueryResult>> read = ScenarioRunner.readCsv(file);
+        assertEquals(written.keySet(), read.keySet());
+        for (String suite : written.keySet()) {
+            List<ScenarioRunner.QueryResult> expected = written.get(suite);
+            List<ScenarioRunner.QueryResult> actual = read.get(suite);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                ScenarioRunner.QueryResult before = expected.get(i);
+                ScenarioRunner.QueryResult after = actual.get(i);
+                assertEquals(before.index(), after.index());
+                assertEquals(before.scenario().bucket(), after.scenario().bucket());
+                assertEquals(before.scenario().start(), after.scenario().start());
+                assertEquals(before.scenario().goal(), after.scenario().goal());
+                assertEquals(before.scenario().optimalLength(), after.scenario().optimalLength());
+                assertEquals(before.found(), after.found());
+                assertEquals(before.cost(), after.cost());
+                assertEquals(before.optimalCost(), after.optimalCost());
+                assertEquals(before.gap(), after.gap());
+                assertEquals(before.expansions(), after.expansions());
+                assertEquals(before.micros(), after.micros());
+            }
+        }
+    }
+
+    @Test
+    void refusesACsvWithQueriesOutOfOrder() throws IOException {
+        Path file = directory.resolve("results.csv");
+        ScenarioRunner.writeCsv(file, Map.of("suite", List.of(
+                result("suite", 1, new Coordinate(0, 0), new Coordinate(0, 1), true, 1, 1, 1, 1))));
+        assertThrows(IOException.class, () -> ScenarioRunner.readCsv(file));
+
+        Files.writeString(file, "suite,index,found\n");
+        assertThrows(IOException.class, () -> ScenarioRunner.readCsv(file));
+    }
+
+    @Test
+    void comparesAgainstTheBaseline() {
+        List<ScenarioRunner.QueryResult> baseline = suite(new double[]{10, 20, 30}, 100, 50);
+        assertTrue(ScenarioRunner.compare(baseline, null, TOLERANCE, TOLERANCE).isEmpty());
+        assertTrue(ScenarioRunner.compare(baseline, baseline, TOLERANCE, TOLERANCE).isEmpty());
+
+        List<ScenarioRunner.QueryResult> worse = suite(new double[]{10, 21, Double.POSITIVE_INFINITY}, 100, 50);
+        List<String> regressions = ScenarioRunner.compare(worse, baseline, TOLERANCE, TOLERANCE);
+        assertEquals(List.of("1 queries solved in the baseline are now unsolved", "1 queries now get a dearer path"),
+                regressions);
+
+        // Within the tolerance, and cheaper, is no regression
+        assertTrue(ScenarioRunner.compare(suite(new double[]{9, 20, 30}, 101, 50), baseline, TOLERANCE, TOLERANCE)
+                .isEmpty());
+        regressions = ScenarioRunner.compare(suite(new double[]{10, 20, 30}, 102, 80), baseline, TOLERANCE, TOLERANCE);
+        assertEquals(3, regressions.size(), regressions.toString());
+        assertTrue(regressions.get(0).startsWith("expansions 306, baseline 300"), regressions.get(0));
+        assertTrue(regressions.get(1).startsWith("median latency 80 us"), regressions.get(1));
+        assertTrue(regressions.get(2).startsWith("p90 latency 80 us"), regressions.get(2));
+    }
+
+    /**
+     * A baseline taken before the scenario file was edited is for other queries; comparing costs
+     * or expansions against it would mean nothing.
+     */
+    @Test
+    void flagsABaselineForOtherQueries() {
+        List<ScenarioRunner.QueryResult> baseline = suite(new double[]{10, 20, 30}, 100, 50);
+
+        List<ScenarioRunner.QueryResult> moved = new ArrayList<>(baseline);
+        moved.set(1, result("suite", 1, new Coordinate(9, 9), new Coordinate(1, 1), true, 20, 20, 100, 50));
+        List<String> regressions = ScenarioRunner.compare(moved, baseline, TOLERANCE, TOLERANCE);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("baseline does not match the scenario file: query 1"),
+                regressions.get(0));
+
+        regressions = ScenarioRunner.compare(baseline.subList(0, 2), baseline, TOLERANCE, TOLERANCE);
+        assertEquals(List.of("baseline does not match the scenario file: it has 3 queries, the suite 2"), regressions);
+        regressions = ScenarioRunner.compare(baseline, baseline.subList(0, 2), TOLERANCE, TOLERANCE);
+        assertEquals(List.of("baseline does not match the scenario file: it has 2 queries, the suite 3"), regressions);
+    }
+
+    /**
+     * Queries i = 0, 1, ... from (i, 0) to (0, i), each solved at the given cost with equal
+     * expansions and latency.
+     */
+    private static List<ScenarioRunner.QueryResult> suite(double[] costs, long expansions, long micros) {
+        List<ScenarioRunner.QueryResult> results = new ArrayList<>();
+        for (int i = 0; i < costs.length; i++) {
+            boolean found = costs[i] != Double.POSITIVE_INFINITY;
+            results.add(result("suite", i, new Coordinate(i, 0), new Coordinate(0, i), found, costs[i], costs[i],
+                    expansions, micros));
+        }
+        return results;
+    }
+
+    private static ScenarioRunner.QueryResult result(String suite, int index, Coordinate start, Coordinate goal,
+                                                     boolean found, double cost, double optimalCost, long expansions,
+                                                     long micros) {
+        MovingAiFormat.Scenario scenario = new MovingAiFormat.Scenario(index % 4, "", 0, 0, start, goal, 1.5 * index);
+        return new ScenarioRunner.QueryResult(suite, index, scenario, found, cost, optimalCost, expansions, micros);
+    }
+}
@@ -0,0 +1,143 @@
+package com.iyed_houhou.mazesolvationsemulation.application.generation;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Terrain in patches: lakes, sand fields, meadows and rock outcrops scattered over mostly open
+ * ground, closer to a landscape than per-cell noise.
+ * <p>
+ * The grid is cut into square tiles of {@link #TILE} cells. Each tile first places its own
+ * elliptical patches from its own stream; then every tile is painted from a second stream,
+ * looking at the patches of itself and its eight neighbours. Patches are smaller than a tile,
+ * so nothing further away can reach in, and both passes run tiles in parallel.
+ */
+public final class ClusteredTerrainGenerator implements MazeGenerator {
+    static final int TILE = 64;
+
+    private static final int MIN_RADIUS = 3;
+    private static final int MAX_RADIUS = 24;
+    private static final double RAGGEDNESS = 0.5;  // how far a patch edge may wander, as a share of its radius squared
+    private static final int FIELDS = 5;           // centre row, centre col, row radius, col radius, terrain
+
+    private static final byte WALL = (byte) MazeCell.Terrain.WALL.ordinal();
+    private static final byte WATER = (byte) MazeCell.Terrain.WATER.ordinal();
+    private static final byte SAND = (byte) MazeCell.Terrain.SAND.ordinal();
+    private static final byte GRASS = (byte) MazeCell.Terrain.GRASS.ordinal();
+    private static final byte EMPTY = (byte) MazeCell.Terrain.EMPTY.ordinal();
+
+    private final double patchesPerTile;
+    private final ForkJoinPool pool;
+
+    public ClusteredTerrainGenerator() {
+        this(3.0);
+    }
+
+    public ClusteredTerrainGenerator(double patchesPerTile) {
+        this(patchesPerTile, ForkJoinPool.commonPool());
+    }
+
+    public ClusteredTerrainGenerator(double patchesPerTile, ForkJoinPool pool) {
+        if (patchesPerTile < 0) {
+            throw new IllegalArgumentException("Patches per tile must not be negative: " + patchesPerTile);
+        }
+        this.patchesPerTile = patchesPerTile;
+        this.pool = pool;
+    }
+
+    @Override
+    public void generate(MazeGrid grid, long seed) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int tilesDown = (rows + TILE - 1) / TILE;
+        int tilesAcross = (cols + TILE - 1) / TILE;
+        int tiles = tilesDown * tilesAcross;
+        SplittableRandom[] streams = WorkUnits.split(seed, 2 * tiles);
+
+        int[][] patches = new int[tiles][];
+        WorkUnits.run(pool, tiles, tile -> patches[tile] = placePatches(tile, tilesAcross, streams[tile]));
+
+        byte[] codes = new byte[grid.size()];
+        WorkUnits.run(pool, tiles, tile -> {
+            int tileRow = tile / tilesAcross;
+            int tileCol = tile % tilesAcross;
+            int top = tileRow * TILE;
+            int left = tileCol * TILE;
+            int bottom = Math.min(top + TILE, rows);
+            int right = Math.min(left + TILE, cols);
+            int[] nearby = patchesReaching(patches, tileRow, tileCol, tilesDown, tilesAcross, top, left, bottom, right);
+            SplittableRandom random = streams[tiles + tile];
+            for (int row = top; row < bottom; row++) {
+                for (int col = left, cell = row * cols + left; col < right; col++, cell++) {
+                    codes[cell] = paint(nearby, row, col, random);
+                }
+            }
+        });
+        grid.replaceTerrain(codes);
+    }
+
+    private int[] placePatches(int tile, int tilesAcross, SplittableRandom random) {
+        int count = (int) patchesPerTile + (random.nextDouble() < patchesPerTile % 1 ? 1 : 0);
+        int top = tile / tilesAcross * TILE;
+        int left = tile % tilesAcross * TILE;
+        int[] placed = new int[count * FIELDS];
+        for (int i = 0; i < placed.length; i += FIELDS) {
+            placed[i] = top + random.nextInt(TILE);
+            placed[i + 1] = left + random.nextInt(TILE);
+            placed[i + 2] = random.nextInt(MIN_RADIUS, MAX_RADIUS + 1);
+            placed[i + 3] = random.nextInt(MIN_RADIUS, MAX_RADIUS + 1);
+            double kind = random.nextDouble();
+            placed[i + 4] = kind < 0.35 ? WATER : kind < 0.65 ? SAND : kind < 0.90 ? GRASS : WALL;
+        }
+        return placed;
+    }
+
+    /**
+     * The patches of a tile and its neighbours whose bounding box overlaps the tile, in tile
+     * order, so overlapping patches always resolve the same way.
+     */
+    private static int[] patchesReaching(int[][] patches, int tileRow, int tileCol, int tilesDown, int tilesAcross,
+                                         int top, int left, int bottom, int right) {
+        int total = 0;
+        for (int r = Math.max(0, tileRow - 1); r <= Math.min(tilesDown - 1, tileRow + 1); r++) {
+            for (int c = Math.max(0, tileCol - 1); c <= Math.min(tilesAcross - 1, tileCol + 1); c++) {
+                total += patches[r * tilesAcross + c].length;
+            }
+        }
+        int[] nearby = new int[total];
+        int count = 0;
+        for (int r = Math.max(0, tileRow - 1); r <= Math.min(tilesDown - 1, tileRow + 1); r++) {
+            for (int c = Math.max(0, tileCol - 1); c <= Math.min(tilesAcross - 1, tileCol + 1); c++) {
+                int[] candidates = patches[r * tilesAcross + c];
+                for (int i = 0; i < candidates.length; i += FIELDS) {
+                    // The ragged edge can reach a little past the radius
+                    int reachRows = candidates[i + 2] + candidates[i + 2] / 2;
+                    int reachCols = candidates[i + 3] + candidates[i + 3] / 2;
+                    if (candidates[i] + reachRows >= top && candidates[i] - reachRows < bottom
+                            && candidates[i + 1] + reachCols >= left && candidates[i + 1] - reachCols < right) {
+                        System.arraycopy(candidates, i, nearby, count, FIELDS);
+                        count += FIELDS;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(nearby, count);
+    }
+
+    private static byte paint(int[] nearby, int row, int col, SplittableRandom random) {
+        double edge = 1 + RAGGEDNESS * (random.nextDouble() - 0.5);
+        double ground = random.nextDouble();
+        for (int i = 0; i < nearby.length; i += FIELDS) {
+            double dr = (double) (row - nearby[i]) / nearby[i + 2];
+            double dc = (double) (col - nearby[i + 1]) / nearby[i + 3];
+            if (dr * dr + dc * dc <= edge) {
+                return (byte) nearby[i + 4];
+            }
+        }
+        return ground < 0.02 ? WALL : ground < 0.12 ? GRASS : EMPTY;
+    }
+}
@@ -0,0 +1,17 @@
+package com.iyed_houhou.mazesolvationsemulation.application.generation;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+/**
+ * Fills a grid with a new layout. A generator is deterministic: the same seed on a grid of the
+ * same size always gives the same terrain, however many threads did the work.
+ */
+@FunctionalInterface
+public interface MazeGenerator {
+
+    /**
+     * Overwrites every cell of the grid. Terrain listeners registered on the grid are told about
+     * the changed cells on the calling thread.
+     */
+    void generate(MazeGrid grid, long seed);
+}
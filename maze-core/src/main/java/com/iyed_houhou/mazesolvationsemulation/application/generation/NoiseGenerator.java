@@ -0,0 +1,82 @@
+package com.iyed_houhou.mazesolvationsemulation.application.generation;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Independent random terrain per cell. The grid is cut into runs of {@link #CHUNK_CELLS} cells,
+ * each drawn from its own split stream, so chunks fill in parallel.
+ */
+public final class NoiseGenerator implements MazeGenerator {
+    static final int CHUNK_CELLS = 1 << 16;
+
+    private static final byte WALL = (byte) MazeCell.Terrain.WALL.ordinal();
+    private static final byte WATER = (byte) MazeCell.Terrain.WATER.ordinal();
+    private static final byte SAND = (byte) MazeCell.Terrain.SAND.ordinal();
+    private static final byte GRASS = (byte) MazeCell.Terrain.GRASS.ordinal();
+    private static final byte EMPTY = (byte) MazeCell.Terrain.EMPTY.ordinal();
+
+    private final double wallUpTo;
+    private final double waterUpTo;
+    private final double sandUpTo;
+    private final double grassUpTo;
+    private final ForkJoinPool pool;
+
+    /**
+     * The mix the application has always used: 15% walls, 20% each of water, sand and grass,
+     * and the remaining 25% empty.
+     */
+    public NoiseGenerator() {
+        this(0.15, 0.20, 0.20, 0.20);
+    }
+
+    /**
+     * Fractions of walls, water, sand and grass; whatever is left over is empty.
+     */
+    public NoiseGenerator(double wall, double water, double sand, double grass) {
+        this(wall, water, sand, grass, ForkJoinPool.commonPool());
+    }
+
+    public NoiseGenerator(double wall, double water, double sand, double grass, ForkJoinPool pool) {
+        if (wall < 0 || water < 0 || sand < 0 || grass < 0 || wall + water + sand + grass > 1) {
+            throw new IllegalArgumentException("Terrain fractions must be non-negative and add up to at most 1");
+        }
+        this.wallUpTo = wall;
+        this.waterUpTo = wallUpTo + water;
+        this.sandUpTo = waterUpTo + sand;
+        this.grassUpTo = sandUpTo + grass;
+        this.pool = pool;
+    }
+
+    @Override
+    public void generate(MazeGrid grid, long seed) {
+        int size = grid.size();
+        byte[] codes = new byte[size];
+        int chunks = Math.max(1, (size + CHUNK_CELLS - 1) / CHUNK_CELLS);
+        SplittableRandom[] streams = WorkUnits.split(seed, chunks);
+        WorkUnits.run(pool, chunks, chunk -> {
+            SplittableRandom random = streams[chunk];
+            int end = (int) Math.min((long) (chunk + 1) * CHUNK_CELLS, size);
+            for (int cell = chunk * CHUNK_CELLS; cell < end; cell++) {
+                codes[cell] = pick(random.nextDouble());
+            }
+        });
+        grid.replaceTerrain(codes);
+    }
+
+    private byte pick(double p) {
+        if (p < wallUpTo) {
+            return WALL;
+        } else if (p < waterUpTo) {
+            return WATER;
+        } else if (p < sandUpTo) {
+            return SAND;
+        } else if (p < grassUpTo) {
+            return GRASS;
+        }
+        return EMPTY;
+    }
+}
@@ -0,0 +1,188 @@
+package com.iyed_houhou.mazesolvationsemulation.application.generation;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Perfect mazes: exactly one path between any two open cells. Rooms sit on even rows and
+ * columns, the cells between them are walls until a passage is carved through.
+ * <p>
+ * The rooms are cut into tiles of {@link #TILE_ROOMS} x {@link #TILE_ROOMS}, and each tile gets
+ * its own spanning tree, carved in parallel from the tile's split stream. A spanning tree over
+ * the tiles, drawn from one more stream, then opens a single door in the border between each
+ * pair of tiles it links. A tree of trees joined by one door per tree edge is again a spanning
+ * tree, so the whole maze stays perfect. Mazes that fit in one tile are the plain algorithm.
+ */
+public final class PerfectMazeGenerator implements MazeGenerator {
+    static final int TILE_ROOMS = 32;
+
+    private static final byte FLOOR = (byte) MazeCell.Terrain.EMPTY.ordinal();
+
+    public enum Algorithm {
+        /** Randomized depth-first search: long, winding corridors with few branches. */
+        BACKTRACKER,
+        /** Randomized Kruskal: many short dead ends, with no bias towards long corridors. */
+        KRUSKAL
+    }
+
+    private final Algorithm algorithm;
+    private final ForkJoinPool pool;
+
+    public PerfectMazeGenerator(Algorithm algorithm) {
+        this(algorithm, ForkJoinPool.commonPool());
+    }
+
+    public PerfectMazeGenerator(Algorithm algorithm, ForkJoinPool pool) {
+        this.algorithm = algorithm;
+        this.pool = pool;
+    }
+
+    @FunctionalInterface
+    private interface Carver {
+        /** Opens the wall between two neighbouring rooms, given as row * width + col. */
+        void open(int from, int to);
+    }
+
+    @Override
+    public void generate(MazeGrid grid, long seed) {
+        int cols = grid.getCols();
+        int roomRows = (grid.getRows() + 1) / 2;
+        int roomCols = (cols + 1) / 2;
+        int tilesDown = (roomRows + TILE_ROOMS - 1) / TILE_ROOMS;
+        int tilesAcross = (roomCols + TILE_ROOMS - 1) / TILE_ROOMS;
+        int tiles = tilesDown * tilesAcross;
+        // A fresh array is all walls, ordinal 0; only rooms and passages get written
+        byte[] codes = new byte[grid.size()];
+        SplittableRandom[] streams = WorkUnits.split(seed, tiles + 1);
+
+        WorkUnits.run(pool, tiles, tile -> {
+            int top = tile / tilesAcross * TILE_ROOMS;
+            int left = tile % tilesAcross * TILE_ROOMS;
+            int height = Math.min(TILE_ROOMS, roomRows - top);
+            int width = Math.min(TILE_ROOMS, roomCols - left);
+            for (int row = top; row < top + height; row++) {
+                for (int col = left; col < left + width; col++) {
+                    codes[2 * row * cols + 2 * col] = FLOOR;
+                }
+            }
+            spanningTree(algorithm, height, width, streams[tile], (from, to) ->
+                    codes[passage(top, left, width, from, to, cols)] = FLOOR);
+        });
+
+        SplittableRandom doors = streams[tiles];
+        spanningTree(Algorithm.BACKTRACKER, tilesDown, tilesAcross, doors, (from, to) -> {
+            int first = Math.min(from, to);
+            int tileRow = first / tilesAcross;
+            int tileCol = first % tilesAcross;
+            int door;
+            if (from / tilesAcross == to / tilesAcross) {
+                int room = tileRow * TILE_ROOMS + doors.nextInt(Math.min(TILE_ROOMS, roomRows - tileRow * TILE_ROOMS));
+                door = 2 * room * cols + 2 * (tileCol + 1) * TILE_ROOMS - 1;
+            } else {
+                int room = tileCol * TILE_ROOMS + doors.nextInt(Math.min(TILE_ROOMS, roomCols - tileCol * TILE_ROOMS));
+                door = (2 * (tileRow + 1) * TILE_ROOMS - 1) * cols + 2 * room;
+            }
+            codes[door] = FLOOR;
+        });
+        grid.replaceTerrain(codes);
+    }
+
+    /**
+     * Grid cell between two neighbouring rooms of a tile, the rooms given in tile-local ids.
+     */
+    private static int passage(int top, int left, int width, int from, int to, int cols) {
+        int row = 2 * (top + from / width) + (to / width - from / width);
+        int col = 2 * (left + from % width) + (to % width - from % width);
+        return row * cols + col;
+    }
+
+    private static void spanningTree(Algorithm algorithm, int height, int width, SplittableRandom random, Carver carver) {
+        switch (algorithm) {
+            case BACKTRACKER -> backtracker(height, width, random, carver);
+            case KRUSKAL -> kruskal(height, width, random, carver);
+        }
+    }
+
+    private static void backtracker(int height, int width, SplittableRandom random, Carver carver) {
+        int rooms = height * width;
+        boolean[] visited = new boolean[rooms];
+        int[] stack = new int[rooms];
+        int[] choices = new int[4];
+        int depth = 0;
+        stack[depth++] = random.nextInt(rooms);
+        visited[stack[0]] = true;
+        while (depth > 0) {
+            int room = stack[depth - 1];
+            int row = room / width;
+            int col = room % width;
+            int count = 0;
+            if (row > 0 && !visited[room - width]) {
+                choices[count++] = room - width;
+            }
+            if (col + 1 < width && !visited[room + 1]) {
+                choices[count++] = room + 1;
+            }
+            if (row + 1 < height && !visited[room + width]) {
+                choices[count++] = room + width;
+            }
+            if (col > 0 && !visited[room - 1]) {
+                choices[count++] = room - 1;
+            }
+            if (count == 0) {
+                depth--;
+                continue;
+            }
+            int next = choices[random.nextInt(count)];
+            carver.open(room, next);
+            visited[next] = true;
+            stack[depth++] = next;
+        }
+    }
+
+    private static void kruskal(int height, int width, SplittableRandom random, Carver carver) {
+        int rooms = height * width;
+        // Edge 2 * room leads right, 2 * room + 1 leads down; keep only those inside the tile
+        int[] edges = new int[2 * rooms];
+        int count = 0;
+        for (int room = 0; room < rooms; room++) {
+            if (room % width + 1 < width) {
+                edges[count++] = 2 * room;
+            }
+            if (room / width + 1 < height) {
+                edges[count++] = 2 * room + 1;
+            }
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = edges[i];
+            edges[i] = edges[j];
+            edges[j] = swap;
+        }
+
+        int[] parent = new int[rooms];
+        for (int room = 0; room < rooms; room++) {
+            parent[room] = room;
+        }
+        for (int i = 0; i < count; i++) {
+            int from = edges[i] >>> 1;
+            int to = (edges[i] & 1) == 0 ? from + 1 : from + width;
+            int a = find(parent, from);
+            int b = find(parent, to);
+            if (a != b) {
+                parent[a] = b;
+                carver.open(from, to);
+            }
+        }
+    }
+
+    private static int find(int[] parent, int room) {
+        while (parent[room] != room) {
+            parent[room] = parent[parent[room]];
+            room = parent[room];
+        }
+        return room;
+    }
+}
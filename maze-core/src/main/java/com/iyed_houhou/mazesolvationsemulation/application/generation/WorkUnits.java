@@ -0,0 +1,67 @@
+package com.iyed_houhou.mazesolvationsemulation.application.generation;
+
+import java.io.Serial;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a generator's fixed work units on a pool. Units are laid out from the grid size alone and
+ * each owns a random stream split from the seed in unit order, so which thread runs which unit,
+ * and when, never shows in the result.
+ */
+final class WorkUnits {
+
+    private WorkUnits() {
+    }
+
+    /**
+     * One stream per unit, split off a root seeded with {@code seed}, always in the same order.
+     */
+    static SplittableRandom[] split(long seed, int units) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[units];
+        for (int unit = 0; unit < units; unit++) {
+            streams[unit] = root.split();
+        }
+        return streams;
+    }
+
+    /**
+     * Runs {@code work} for every unit in [0, units) and returns when all are done. A single
+     * unit runs on the calling thread, so small mazes never wait for the pool.
+     */
+    static void run(ForkJoinPool pool, int units, IntConsumer work) {
+        if (units == 1) {
+            work.accept(0);
+            return;
+        }
+        pool.invoke(new Range(work, 0, units));
+    }
+
+    private static final class Range extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient IntConsumer work;
+        private final int from;
+        private final int to;
+
+        Range(IntConsumer work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(work, from, middle), new Range(work, middle, to));
+        }
+    }
+}
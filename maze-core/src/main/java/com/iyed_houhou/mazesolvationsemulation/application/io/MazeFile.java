@@ -0,0 +1,258 @@
+package com.iyed_houhou.mazesolvationsemulation.application.io;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary maze files, read through a memory mapping so the terrain never has to fit on the heap.
+ * <p>
+ * A file is a 64-byte little-endian header followed by the terrain:
+ * <pre>
+ *   0  magic "MAZE"          4  version (u16)     6  bits per cell (u8, 4 or 8)   7  tile shift (u8)
+ *   8  rows (i32)           12  cols (i32)       16  start row, start col, end row, end col (i32 each)
+ *  32  reserved, zero
+ * </pre>
+ * The terrain is stored in square tiles of {@code 2^tileShift} cells a side, as described by
+ * {@link MazeGrid#overSegment}. The default of 64 x 64 tiles at 8 bits per cell makes one tile
+ * one 4 KiB page, so a search that wanders within a region keeps touching the same few pages;
+ * at 4 bits per cell a page holds two tiles and the file is half the size.
+ * <p>
+ * {@link #map(Path)} returns an open file whose grid reads straight from the mapping. The grid
+ * may be searched from several threads, and must not be used once the file is closed.
+ * <p>
+ * Mapping keeps the terrain off the heap and makes opening a maze nearly free; it does not let a
+ * maze outgrow the heap. Cells are int indices, so a file holds at most {@link MazeGrid#MAX_CELLS}
+ * cells (2 GiB of terrain at 8 bits per cell), and a search still allocates its own state per
+ * cell on the heap: about 40 bytes a cell for {@code SearchContext}, against the one byte or
+ * half byte the file spends.
+ */
+public final class MazeFile implements AutoCloseable {
+    public static final int DEFAULT_BITS_PER_CELL = 8;
+    public static final int DEFAULT_TILE_SHIFT = 6;
+
+    private static final int MAGIC = 'M' | 'A' << 8 | 'Z' << 16 | 'E' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private final Arena arena;
+    private final MemorySegment terrain;
+    private final MazeGrid grid;
+    private final Coordinate start;
+    private final Coordinate end;
+    private final int bitsPerCell;
+    private final int tileShift;
+
+    private MazeFile(Arena arena, MemorySegment terrain, MazeGrid grid, Coordinate start, Coordinate end,
+                     int bitsPerCell, int tileShift) {
+        this.arena = arena;
+        this.terrain = terrain;
+        this.grid = grid;
+        this.start = start;
+        this.end = end;
+        this.bitsPerCell = bitsPerCell;
+        this.tileShift = tileShift;
+    }
+
+    /**
+     * Maps a maze file read-only. Only the header is read here; the terrain is paged in by the
+     * operating system as searches touch it.
+     */
+    public static MazeFile map(Path file) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is too short to be a maze file");
+            }
+            MemorySegment whole = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            ByteBuffer header = whole.asSlice(0, HEADER_BYTES).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a maze file");
+            }
+            int version = header.getShort(4) & 0xFFFF;
+            if (version != VERSION) {
+                throw new IOException(file + " has maze file version " + version + ", expected " + VERSION);
+            }
+            int bitsPerCell = header.get(6) & 0xFF;
+            int tileShift = header.get(7) & 0xFF;
+            int rows = header.getInt(8);
+            int cols = header.getInt(12);
+            Coordinate start = new Coordinate(header.getInt(16), header.getInt(20));
+            Coordinate end = new Coordinate(header.getInt(24), header.getInt(28));
+
+            MazeGrid grid;
+            MemorySegment terrain = whole.asSlice(HEADER_BYTES);
+            try {
+                grid = MazeGrid.overSegment(rows, cols, terrain, bitsPerCell, tileShift);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + ": " + e.getMessage(), e);
+            }
+            if (!grid.isInside(start.row(), start.col()) || !grid.isInside(end.row(), end.col())) {
+                throw new IOException(file + ": start " + start + " or end " + end + " lies outside the maze");
+            }
+            return new MazeFile(arena, terrain, grid, start, end, bitsPerCell, tileShift);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the file starts like a maze file.
+     */
+    public static boolean isMazeFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) < 0) {
+                    return false;
+                }
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Loads a maze file onto the heap, for mazes that will be edited.
+     */
+    public static Maze read(Path file) throws IOException {
+        try (MazeFile mapped = map(file)) {
+            MazeGrid source = mapped.grid;
+            Maze maze = new Maze(source.getRows(), source.getCols(), mapped.start, mapped.end);
+            MazeGrid target = maze.getGrid();
+            for (int cell = 0; cell < source.size(); cell++) {
+                target.setTerrainAt(cell, source.terrainAt(cell));
+            }
+            return maze;
+        }
+    }
+
+    public static void write(Maze maze, Path file) throws IOException {
+        write(maze.getGrid(), maze.getStartingCell(), maze.getEndCell(), file, DEFAULT_BITS_PER_CELL, DEFAULT_TILE_SHIFT);
+    }
+
+    /**
+     * Writes a grid one band of tiles at a time, so the only buffer is one tile high and as wide
+     * as the maze.
+     */
+    public static void write(MazeGrid grid, Coordinate start, Coordinate end, Path file,
+                             int bitsPerCell, int tileShift) throws IOException {
+        if (bitsPerCell != 4 && bitsPerCell != 8) {
+            throw new IllegalArgumentException("Cells take 4 or 8 bits, not " + bitsPerCell);
+        }
+        if (tileShift < 1 || tileShift > 15) {
+            throw new IllegalArgumentException("Tile shift must be between 1 and 15: " + tileShift);
+        }
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int side = 1 << tileShift;
+        int tilesAcross = (cols + side - 1) >>> tileShift;
+        long bandSlots = (long) tilesAcross << (2 * tileShift);
+        long bandBytes = bitsPerCell == 4 ? (bandSlots + 1) / 2 : bandSlots;
+        if (bandBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("A band of " + side + " rows of " + cols + " cells is too large to buffer");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort((short) VERSION).put((byte) bitsPerCell).put((byte) tileShift)
+                .putInt(rows).putInt(cols)
+                .putInt(start.row()).putInt(start.col()).putInt(end.row()).putInt(end.col())
+                .position(HEADER_BYTES).flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            byte[] band = new byte[(int) bandBytes];
+            ByteBuffer buffer = ByteBuffer.wrap(band);
+            for (int top = 0; top < rows; top += side) {
+                // Padding cells stay 0, a wall, so nothing ever leads into them
+                Arrays.fill(band, (byte) 0);
+                int bottom = Math.min(top + side, rows);
+                for (int row = top; row < bottom; row++) {
+                    int cell = grid.index(row, 0);
+                    for (int col = 0; col < cols; col++, cell++) {
+                        int slot = (int) MazeGrid.tiledSlot(row - top, col, tilesAcross, tileShift);
+                        int code = grid.terrainCode(cell);
+                        if (bitsPerCell == 8) {
+                            band[slot] = (byte) code;
+                        } else {
+                            band[slot >>> 1] |= (byte) (code << ((slot & 1) << 2));
+                        }
+                    }
+                }
+                buffer.clear();
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads the whole terrain once and fails if any cell holds a code that is not a terrain.
+     * Mapping alone never reads the terrain; unchecked bad codes simply read as walls.
+     */
+    public void verify() throws IOException {
+        int terrains = MazeCell.Terrain.values().length;
+        long bytes = MazeGrid.segmentBytes(grid.getRows(), grid.getCols(), bitsPerCell, tileShift);
+        for (long at = 0; at < bytes; at++) {
+            int value = terrain.get(ValueLayout.JAVA_BYTE, at) & 0xFF;
+            int low = bitsPerCell == 4 ? value & 0xF : value;
+            int high = bitsPerCell == 4 ? value >>> 4 : 0;
+            if (low >= terrains || high >= terrains) {
+                throw new IOException("Invalid terrain code " + value + " at terrain byte " + at);
+            }
+        }
+    }
+
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    public Coordinate getStart() {
+        return start;
+    }
+
+    public Coordinate getEnd() {
+        return end;
+    }
+
+    public int getBitsPerCell() {
+        return bitsPerCell;
+    }
+
+    public int getTileShift() {
+        return tileShift;
+    }
+
+    /**
+     * A maze over the mapped grid, for solving through the usual {@link Maze} entry points.
+     */
+    public Maze toMaze() {
+        return new Maze(grid, start, end);
+    }
+
+    /**
+     * Unmaps the file. The grid, and any maze or snapshot over it, must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
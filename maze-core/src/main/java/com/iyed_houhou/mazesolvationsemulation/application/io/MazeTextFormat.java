@@ -0,0 +1,115 @@
+package com.iyed_houhou.mazesolvationsemulation.application.io;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Plain-text mazes: a header line "rows cols", then one line per row with one character per
+ * cell. Lines starting with '%' are comments and are skipped anywhere in the file.
+ * <pre>
+ *   .  EMPTY      g  GRASS      s  SAND      ~  WATER      #  WALL
+ * </pre>
+ */
+public final class MazeTextFormat {
+    private static final char[] SYMBOLS = new char[MazeCell.Terrain.values().length];
+
+    static {
+        for (MazeCell.Terrain terrain : MazeCell.Terrain.values()) {
+            SYMBOLS[terrain.ordinal()] = switch (terrain) {
+                case WALL -> '#';
+                case WATER -> '~';
+                case SAND -> 's';
+                case GRASS -> 'g';
+                case EMPTY -> '.';
+            };
+        }
+    }
+
+    private MazeTextFormat() {
+    }
+
+    public static MazeGrid read(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            return read(in);
+        }
+    }
+
+    public static MazeGrid read(BufferedReader in) throws IOException {
+        String header = nextLine(in);
+        if (header == null) {
+            throw new IOException("Empty maze file");
+        }
+        String[] size = header.trim().split("\\s+");
+        if (size.length != 2) {
+            throw new IOException("Expected \"rows cols\" on the first line, found \"" + header + "\"");
+        }
+        int rows;
+        int cols;
+        try {
+            rows = Integer.parseInt(size[0]);
+            cols = Integer.parseInt(size[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Expected \"rows cols\" on the first line, found \"" + header + "\"", e);
+        }
+        if (rows <= 0 || cols <= 0) {
+            throw new IOException("Maze dimensions must be positive: " + rows + "x" + cols);
+        }
+
+        MazeGrid grid = new MazeGrid(rows, cols);
+        for (int row = 0; row < rows; row++) {
+            String line = nextLine(in);
+            if (line == null) {
+                throw new IOException("Maze ends after " + row + " of " + rows + " rows");
+            }
+            if (line.length() != cols) {
+                throw new IOException("Row " + row + " has " + line.length() + " cells, expected " + cols);
+            }
+            for (int col = 0; col < cols; col++) {
+                grid.setTerrain(row, col, terrainOf(line.charAt(col), row, col));
+            }
+        }
+        return grid;
+    }
+
+    public static void write(MazeGrid grid, Writer out) throws IOException {
+        out.write(grid.getRows() + " " + grid.getCols() + "\n");
+        char[] line = new char[grid.getCols() + 1];
+        line[grid.getCols()] = '\n';
+        for (int row = 0; row < grid.getRows(); row++) {
+            for (int col = 0; col < grid.getCols(); col++) {
+                line[col] = SYMBOLS[grid.terrainCode(grid.index(row, col))];
+            }
+            out.write(line);
+        }
+    }
+
+    public static char symbolOf(MazeCell.Terrain terrain) {
+        return SYMBOLS[terrain.ordinal()];
+    }
+
+    private static MazeCell.Terrain terrainOf(char symbol, int row, int col) throws IOException {
+        return switch (symbol) {
+            case '#' -> MazeCell.Terrain.WALL;
+            case '~' -> MazeCell.Terrain.WATER;
+            case 's' -> MazeCell.Terrain.SAND;
+            case 'g' -> MazeCell.Terrain.GRASS;
+            case '.' -> MazeCell.Terrain.EMPTY;
+            default -> throw new IOException("Unknown terrain '" + symbol + "' at (" + row + ", " + col + ")");
+        };
+    }
+
+    private static String nextLine(BufferedReader in) throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+        } while (line != null && line.startsWith("%"));
+        return line;
+    }
+}
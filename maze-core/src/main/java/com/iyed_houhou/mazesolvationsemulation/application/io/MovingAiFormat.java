@@ -0,0 +1,248 @@
+package com.iyed_houhou.mazesolvationsemulation.application.io;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Maps and scenarios in the format of the MovingAI grid pathfinding benchmarks, so the solvers
+ * can be run on published suites and not only on generated mazes.
+ * <p>
+ * A map is a short header followed by one line per row with one character per cell:
+ * <pre>
+ *   type octile
+ *   height 4
+ *   width 6
+ *   map
+ *   @@@@@@
+ *   @..T.@
+ * </pre>
+ * Characters become terrain through a {@link TerrainMapping}; the default one turns ground into
+ * EMPTY, swamp into SAND and everything a walker on the ground cannot enter into WALL.
+ * <p>
+ * A scenario file starts with "version 1" and then has one query per line:
+ * <pre>
+ *   bucket  map  width  height  startX  startY  goalX  goalY  optimalLength
+ * </pre>
+ * x is the column and y the row. The optimal length is the benchmark's own, for eight-way moves
+ * with diagonals costing the square root of two; this solver moves four ways over terrain costs,
+ * so that length is kept for reference and is not the cost the solver should find.
+ */
+public final class MovingAiFormat {
+
+    /**
+     * Which terrain each map character stands for. Immutable; {@link #with} makes a changed copy.
+     */
+    public static final class TerrainMapping {
+        private static final TerrainMapping MOVING_AI = new TerrainMapping(new MazeCell.Terrain[128])
+                .with('.', MazeCell.Terrain.EMPTY)
+                .with('G', MazeCell.Terrain.EMPTY)
+                .with('S', MazeCell.Terrain.SAND)
+                .with('@', MazeCell.Terrain.WALL)
+                .with('O', MazeCell.Terrain.WALL)
+                .with('T', MazeCell.Terrain.WALL)
+                // Benchmark water is entered only from water, so from the ground it is as good as a wall
+                .with('W', MazeCell.Terrain.WALL);
+
+        private final MazeCell.Terrain[] terrains;  // indexed by character, null when unmapped
+
+        private TerrainMapping(MazeCell.Terrain[] terrains) {
+            this.terrains = terrains;
+        }
+
+        /**
+         * The benchmark's own characters: '.' and 'G' ground, 'S' swamp, '@' and 'O' out of
+         * bounds, 'T' trees and 'W' water.
+         */
+        public static TerrainMapping movingAi() {
+            return MOVING_AI;
+        }
+
+        /**
+         * The default mapping changed by a list such as "T=GRASS,W=WATER"; terrain names are
+         * those of {@link MazeCell.Terrain}, in any case.
+         */
+        public static TerrainMapping parse(String overrides) {
+            TerrainMapping mapping = MOVING_AI;
+            for (String entry : overrides.split(",")) {
+                String trimmed = entry.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (trimmed.indexOf('=') != 1) {
+                    throw new IllegalArgumentException("Expected CHAR=TERRAIN, found \"" + trimmed + "\"");
+                }
+                MazeCell.Terrain terrain;
+                try {
+                    terrain = MazeCell.Terrain.valueOf(trimmed.substring(2).trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown terrain in \"" + trimmed + "\"; expected one of "
+                            + Arrays.toString(MazeCell.Terrain.values()));
+                }
+                mapping = mapping.with(trimmed.charAt(0), terrain);
+            }
+            return mapping;
+        }
+
+        public TerrainMapping with(char symbol, MazeCell.Terrain terrain) {
+            if (symbol >= terrains.length) {
+                throw new IllegalArgumentException("Map characters must be ASCII: '" + symbol + "'");
+            }
+            MazeCell.Terrain[] copy = terrains.clone();
+            copy[symbol] = terrain;
+            return new TerrainMapping(copy);
+        }
+
+        /**
+         * The terrain the character stands for, or null when it is not mapped.
+         */
+        public MazeCell.Terrain terrainOf(char symbol) {
+            return symbol < terrains.length ? terrains[symbol] : null;
+        }
+    }
+
+    /**
+     * One query of a scenario file. {@code map} is the map file as the scenario names it.
+     */
+    public record Scenario(int bucket, String map, int width, int height, Coordinate start, Coordinate goal,
+                           double optimalLength) {
+
+        /**
+         * A maze over the scenario's map, from its start to its goal.
+         */
+        public Maze toMaze(MazeGrid grid) {
+            if (grid.getRows() != height || grid.getCols() != width) {
+                throw new IllegalArgumentException("Scenario is for a " + width + "x" + height + " map, not "
+                        + grid.getCols() + "x" + grid.getRows());
+            }
+            return new Maze(grid, start, goal);
+        }
+    }
+
+    private MovingAiFormat() {
+    }
+
+    public static MazeGrid readMap(Path file) throws IOException {
+        return readMap(file, TerrainMapping.movingAi());
+    }
+
+    public static MazeGrid readMap(Path file, TerrainMapping mapping) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            return readMap(in, mapping);
+        }
+    }
+
+    public static MazeGrid readMap(BufferedReader in, TerrainMapping mapping) throws IOException {
+        int rows = -1;
+        int cols = -1;
+        String line;
+        while (true) {
+            line = in.readLine();
+            if (line == null) {
+                throw new IOException("Map ends before its \"map\" line");
+            }
+            String[] fields = line.trim().split("\\s+");
+            if (fields[0].equals("map")) {
+                break;
+            }
+            switch (fields[0]) {
+                case "height" -> rows = headerValue(fields, line);
+                case "width" -> cols = headerValue(fields, line);
+                case "type", "" -> {
+                    // Only octile maps are published; the movement rules are ours anyway
+                }
+                default -> throw new IOException("Unexpected map header line \"" + line + "\"");
+            }
+        }
+        if (rows <= 0 || cols <= 0) {
+            throw new IOException("Map header must give a positive height and width, found " + rows + "x" + cols);
+        }
+
+        MazeGrid grid = new MazeGrid(rows, cols);
+        for (int row = 0; row < rows; row++) {
+            line = in.readLine();
+            if (line == null) {
+                throw new IOException("Map ends after " + row + " of " + rows + " rows");
+            }
+            line = line.stripTrailing();
+            if (line.length() != cols) {
+                throw new IOException("Row " + row + " has " + line.length() + " cells, expected " + cols);
+            }
+            for (int col = 0; col < cols; col++) {
+                MazeCell.Terrain terrain = mapping.terrainOf(line.charAt(col));
+                if (terrain == null) {
+                    throw new IOException("Unmapped terrain '" + line.charAt(col) + "' at (" + row + ", " + col + ")");
+                }
+                grid.setTerrain(row, col, terrain);
+            }
+        }
+        return grid;
+    }
+
+    public static List<Scenario> readScenarios(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return readScenarios(in);
+        }
+    }
+
+    public static List<Scenario> readScenarios(BufferedReader in) throws IOException {
+        String version = in.readLine();
+        if (version == null || !version.trim().startsWith("version")) {
+            throw new IOException("Expected \"version\" on the first line of the scenario file");
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        int lineNumber = 1;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            // Fields are tab-separated, which lets map names hold spaces; older files use spaces
+            String[] fields = line.indexOf('\t') >= 0 ? line.trim().split("\t") : line.trim().split("\\s+");
+            if (fields.length != 9) {
+                throw new IOException("Line " + lineNumber + ": expected 9 fields, found " + fields.length);
+            }
+            try {
+                int width = Integer.parseInt(fields[2].trim());
+                int height = Integer.parseInt(fields[3].trim());
+                Coordinate start = new Coordinate(Integer.parseInt(fields[5].trim()), Integer.parseInt(fields[4].trim()));
+                Coordinate goal = new Coordinate(Integer.parseInt(fields[7].trim()), Integer.parseInt(fields[6].trim()));
+                if (!isInside(start, width, height) || !isInside(goal, width, height)) {
+                    throw new IOException("Line " + lineNumber + ": query outside the " + width + "x" + height + " map");
+                }
+                scenarios.add(new Scenario(Integer.parseInt(fields[0].trim()), fields[1].trim(), width, height,
+                        start, goal, Double.parseDouble(fields[8].trim())));
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return scenarios;
+    }
+
+    private static int headerValue(String[] fields, String line) throws IOException {
+        if (fields.length != 2) {
+            throw new IOException("Expected a single value in \"" + line + "\"");
+        }
+        try {
+            return Integer.parseInt(fields[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Not a number in \"" + line + "\"", e);
+        }
+    }
+
+    private static boolean isInside(Coordinate cell, int width, int height) {
+        return cell.row() >= 0 && cell.row() < height && cell.col() >= 0 && cell.col() < width;
+    }
+}
@@ -0,0 +1,425 @@
+// Maze.java
+package com.iyed_houhou.mazesolvationsemulation.application.models;
+
+import com.iyed_houhou.mazesolvationsemulation.application.generation.MazeGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.NoiseGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.search.AnytimeSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.AnytimeSolution;
+import com.iyed_houhou.mazesolvationsemulation.application.search.BidirectionalSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CooperativePlanner;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CountingSearchListener;
+import com.iyed_houhou.mazesolvationsemulation.application.search.FlowField;
+import com.iyed_houhou.mazesolvationsemulation.application.search.FlowFieldCache;
+import com.iyed_houhou.mazesolvationsemulation.application.search.IncrementalPlanner;
+import com.iyed_houhou.mazesolvationsemulation.application.search.LandmarkHeuristic;
+import com.iyed_houhou.mazesolvationsemulation.application.search.OpenList;
+import com.iyed_houhou.mazesolvationsemulation.application.search.PathCache;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ReachabilityIndex;
+import com.iyed_houhou.mazesolvationsemulation.application.search.ResourceConstrainedSearch;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchBudget;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchDirection;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchListener;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+public class Maze {
+    private static final MazeGenerator DEFAULT_GENERATOR = new NoiseGenerator();
+    private static final long FLOW_FIELD_BUDGET_BYTES = 256L << 20;
+    private static final long PATH_CACHE_MAX_CELLS = 4L << 20;
+
+    private final int rows;
+    private final int cols;
+    private Coordinate startingCell;
+    private Coordinate endCell;
+    private final MazeGrid grid;
+    private MazePath solutionPath;
+    private Node destinationNode; // Added to store destination node
+    private ResourceConstrainedSearch solver;
+    private BidirectionalSearch bidirectionalSolver;
+    private AnytimeSearch anytimeSolver;
+    private IncrementalPlanner planner;
+    private CooperativePlanner fleetPlanner;
+    private FlowFieldCache flowFields;
+    private PathCache pathCache;
+    private ReachabilityIndex reachability;
+    private LandmarkHeuristic landmarks;
+    private long generationSeed;
+
+    public Maze(int rows, int cols, Coordinate startingCell, Coordinate endCell) {
+        this.rows = rows;
+        this.cols = cols;
+        this.startingCell = startingCell;
+        this.endCell = endCell;
+        grid = new MazeGrid(rows, cols); // every cell starts out EMPTY
+    }
+
+    /**
+     * A maze over an existing grid, e.g. one mapped from a maze file. A read-only grid can be
+     * solved but not generated or edited.
+     */
+    public Maze(MazeGrid grid, Coordinate startingCell, Coordinate endCell) {
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.startingCell = startingCell;
+        this.endCell = endCell;
+        this.grid = grid;
+    }
+
+    /**
+     * Generates a fresh random layout. The seed it used is kept, see {@link #getGenerationSeed()}.
+     */
+    public void generateMaze() {
+        generateMaze(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Generates the layout from a fixed seed, so the same seed always gives the same maze.
+     */
+    public void generateMaze(long seed) {
+        generateMaze(DEFAULT_GENERATOR, seed);
+    }
+
+    public void generateMaze(MazeGenerator generator, long seed) {
+        generator.generate(grid, seed);
+        generationSeed = seed;
+    }
+
+    /**
+     * The seed of the last generated layout, to reproduce it with the same generator.
+     */
+    public long getGenerationSeed() {
+        return generationSeed;
+    }
+
+    public MazePath solveMazeAStar(int initialBattery) { // Added initialBattery parameter
+        return solveMazeAStar(initialBattery, SearchListener.NONE);
+    }
+
+    /**
+     * Same as {@link #solveMazeAStar(int)}, with search events (expansions, rejected neighbors,
+     * goal) reported to the given listener, e.g. a {@link CountingSearchListener}.
+     */
+    public MazePath solveMazeAStar(int initialBattery, SearchListener listener) {
+        if (landmarks != null) {
+            landmarks.refresh();
+        }
+        ResourceConstrainedSearch solver = solver();
+        int start = grid.index(startingCell.row(), startingCell.col());
+        int goal = grid.index(endCell.row(), endCell.col());
+        long version = grid.getVersion();
+        if (pathCache != null) {
+            PathCache.CachedPath cached = pathCache.lookup(start, goal, initialBattery);
+            if (cached != null) {
+                return recall(cached, start, goal, listener);
+            }
+        }
+
+        // Different wall-separated regions: answer at once instead of exhausting the start's region
+        if (reachability().isDefinitelyUnreachable(start, goal)) {
+            listener.searchStarted(start, goal);
+            listener.searchFinished(false);
+            destinationNode = null;
+            return new MazePath();
+        }
+
+        MazePath pathResult = solver.solve(start, goal, initialBattery, listener);
+        if (pathCache != null && !listener.shouldStop()) {
+            pathCache.store(start, goal, initialBattery, solver.isGoalReached()
+                            ? new PathCache.CachedPath(pathResult, solver.getGoalCost(), solver.getGoalBattery())
+                            : PathCache.CachedPath.NOT_FOUND,
+                    solver.isGoalReached() && !solver.wasBatteryBinding(), version);
+        }
+        if (!solver.isGoalReached()) {
+            destinationNode = null;
+            return pathResult;
+        }
+
+        destinationNode = new Node(endCell, solver.getGoalCost(), 0, null, solver.getGoalBattery());
+        this.solutionPath = pathResult;
+        return pathResult;
+    }
+
+    /**
+     * Reports a cached answer as if it had just been searched for, without any expansions.
+     */
+    private MazePath recall(PathCache.CachedPath cached, int start, int goal, SearchListener listener) {
+        listener.searchStarted(start, goal);
+        if (!cached.isFound()) {
+            listener.searchFinished(false);
+            destinationNode = null;
+            return cached.path();
+        }
+        listener.goalFound(goal, cached.cost(), cached.remainingBattery());
+        listener.searchFinished(true);
+        destinationNode = new Node(endCell, cached.cost(), 0, null, cached.remainingBattery());
+        this.solutionPath = cached.path();
+        return cached.path();
+    }
+
+    /**
+     * Same as {@link #solveMazeAStar(int)}, growing the search the given way. Bidirectional
+     * search finds the same cost but expands far fewer cells on long queries across open ground.
+     */
+    public MazePath solveMazeAStar(int initialBattery, SearchDirection direction) {
+        if (direction == SearchDirection.FORWARD) {
+            return solveMazeAStar(initialBattery);
+        }
+        int start = grid.index(startingCell.row(), startingCell.col());
+        int goal = grid.index(endCell.row(), endCell.col());
+        if (reachability().isDefinitelyUnreachable(start, goal)) {
+            destinationNode = null;
+            return new MazePath();
+        }
+
+        if (bidirectionalSolver == null) {
+            bidirectionalSolver = new BidirectionalSearch(grid);
+        }
+        MazePath pathResult = bidirectionalSolver.solve(start, goal, initialBattery,
+                direction == SearchDirection.BIDIRECTIONAL_PARALLEL);
+        if (!bidirectionalSolver.isGoalReached()) {
+            destinationNode = null;
+            return pathResult;
+        }
+
+        destinationNode = new Node(endCell, bidirectionalSolver.getGoalCost(), 0, null, bidirectionalSolver.getGoalBattery());
+        this.solutionPath = pathResult;
+        return pathResult;
+    }
+
+    /**
+     * Anytime variant of {@link #solveMazeAStar(int)}: a quick, possibly dearer path first, then
+     * better ones until the budget runs out or the path is proven optimal. Each improvement, with
+     * its suboptimality bound, goes to {@code onImprovement} on the calling thread; the best path
+     * found becomes the solution.
+     */
+    public MazePath solveMazeAnytime(int initialBattery, SearchBudget budget,
+                                     Consumer<AnytimeSolution> onImprovement, SearchListener listener) {
+        int start = grid.index(startingCell.row(), startingCell.col());
+        int goal = grid.index(endCell.row(), endCell.col());
+        if (reachability().isDefinitelyUnreachable(start, goal)) {
+            listener.searchStarted(start, goal);
+            listener.searchFinished(false);
+            destinationNode = null;
+            return new MazePath();
+        }
+
+        if (landmarks != null) {
+            landmarks.refresh();
+        }
+        if (anytimeSolver == null) {
+            anytimeSolver = landmarks == null ? new AnytimeSearch(grid) : new AnytimeSearch(grid, landmarks);
+        }
+        MazePath pathResult = anytimeSolver.solve(start, goal, initialBattery, budget, onImprovement, listener);
+        if (!anytimeSolver.isGoalReached()) {
+            destinationNode = null;
+            return pathResult;
+        }
+
+        destinationNode = new Node(endCell, anytimeSolver.getGoalCost(), 0, null, anytimeSolver.getGoalBattery());
+        this.solutionPath = pathResult;
+        return pathResult;
+    }
+
+    /**
+     * Re-plans to the end cell from where the robot is now, e.g. after terrain changed under the
+     * current solution. Unlike {@link #solveMazeAStar(int)} this keeps the previous search and
+     * only repairs what the edits since the last call invalidated.
+     */
+    public MazePath replanFrom(Coordinate position, int batteryLeft) {
+        int goal = grid.index(endCell.row(), endCell.col());
+        if (planner == null || planner.getGoal() != goal) {
+            if (planner != null) {
+                planner.close();
+            }
+            planner = new IncrementalPlanner(grid, grid.index(position.row(), position.col()), goal);
+        }
+
+        MazePath pathResult = planner.replanFrom(grid.index(position.row(), position.col()), batteryLeft);
+        if (!planner.isGoalReached()) {
+            destinationNode = null;
+            return pathResult;
+        }
+
+        destinationNode = new Node(endCell, planner.getGoalCost(), 0, null, planner.getGoalBattery());
+        this.solutionPath = pathResult;
+        return pathResult;
+    }
+
+    /**
+     * Same result as {@link #solveMazeAStar(int)}, read from a flow field to the end cell instead
+     * of searched for. The first solve to a goal pays for a Dijkstra over the whole grid; every
+     * later one from any start costs only the length of its path, until the terrain changes. A
+     * path that would drain more battery than there is falls back to the constrained search.
+     */
+    public MazePath solveMazeFlowField(int initialBattery) {
+        int start = grid.index(startingCell.row(), startingCell.col());
+        int goal = grid.index(endCell.row(), endCell.col());
+        MazePath pathResult = grid.isPassable(goal) ? flowFieldTo(endCell).pathFrom(start) : new MazePath();
+        if (pathResult.isEmpty()) {
+            destinationNode = null;
+            return pathResult;
+        }
+
+        int drained = 0;
+        for (int i = 1; i < pathResult.length(); i++) {
+            drained += grid.batteryConsumption(pathResult.cellAt(i));
+        }
+        if (drained > initialBattery) {
+            return solveMazeAStar(initialBattery);
+        }
+        destinationNode = new Node(endCell, flowFields.get(goal).costFrom(start), 0, null, initialBattery - drained);
+        this.solutionPath = pathResult;
+        return pathResult;
+    }
+
+    /**
+     * The flow field to the given passable cell, from which any number of robots can read their
+     * cheapest path. Fields for recent goals are cached, up to 256 MB at 5 bytes per cell each,
+     * and rebuilt on request after terrain edits.
+     */
+    public FlowField flowFieldTo(Coordinate goal) {
+        if (flowFields == null) {
+            flowFields = new FlowFieldCache(grid, FLOW_FIELD_BUDGET_BYTES);
+        }
+        return flowFields.get(grid.index(goal.row(), goal.col()));
+    }
+
+    /**
+     * Collision-free plans for several robots at once, highest priority first; see
+     * {@link CooperativePlanner}. A window of 0 plans every robot to its goal in one go, a
+     * positive one replans the fleet every half window. The per-goal distance searches are
+     * guided by the landmark tables when {@link #useLandmarks(int)} is on.
+     */
+    public List<CooperativePlanner.Plan> planFleet(List<CooperativePlanner.Agent> agents, int window) {
+        return planFleet(agents, window, () -> false);
+    }
+
+    /**
+     * Like {@link #planFleet(List, int)}, but gives up with no plans once {@code stop} answers
+     * true; it is polled before each robot is planned.
+     */
+    public List<CooperativePlanner.Plan> planFleet(List<CooperativePlanner.Agent> agents, int window,
+                                                   BooleanSupplier stop) {
+        if (landmarks != null) {
+            landmarks.refresh();
+        }
+        if (fleetPlanner == null || fleetPlanner.getWindow() != window) {
+            if (fleetPlanner != null) {
+                fleetPlanner.close();
+            }
+            fleetPlanner = landmarks == null
+                    ? new CooperativePlanner(grid, window)
+                    : new CooperativePlanner(grid, window, landmarks);
+        }
+        return fleetPlanner.plan(agents, stop);
+    }
+
+    /**
+     * Guides later {@link #solveMazeAStar(int)} calls with an ALT heuristic over the given number
+     * of landmarks, or back to Manhattan distance with 0. The distance tables are built here, take
+     * 8 bytes per cell and landmark, and are rebuilt before the next solve after any terrain edit.
+     */
+    public void useLandmarks(int landmarkCount) {
+        if (landmarks != null) {
+            landmarks.close();
+            landmarks = null;
+        }
+        if (landmarkCount > 0) {
+            landmarks = new LandmarkHeuristic(grid, landmarkCount);
+        }
+        solver = null;
+        anytimeSolver = null;
+        if (fleetPlanner != null) {
+            fleetPlanner.close();
+            fleetPlanner = null;
+        }
+    }
+
+    /**
+     * Remembers the answers of up to the given number of {@link #solveMazeAStar(int)} queries, so
+     * asking again, or asking for a piece of a remembered path, skips the search; 0 turns the
+     * cache off. Terrain edits drop the answers they could have changed.
+     */
+    public void usePathCache(int maxEntries) {
+        if (pathCache != null) {
+            pathCache.close();
+            pathCache = null;
+        }
+        if (maxEntries > 0) {
+            pathCache = new PathCache(grid, maxEntries, PATH_CACHE_MAX_CELLS);
+        }
+    }
+
+    /**
+     * The cache set up by {@link #usePathCache(int)}, for its statistics; null when off.
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Search buffers are sized to the grid and reused for every solve on this maze.
+     */
+    private ResourceConstrainedSearch solver() {
+        if (solver == null) {
+            SearchContext context = landmarks == null
+                    ? new SearchContext(grid)
+                    : new SearchContext(grid, OpenList.defaultKind(), landmarks);
+            solver = new ResourceConstrainedSearch(context);
+        }
+        return solver;
+    }
+
+    /**
+     * Built on first use and kept in step with terrain edits from then on.
+     */
+    private ReachabilityIndex reachability() {
+        if (reachability == null) {
+            reachability = new ReachabilityIndex(grid);
+        }
+        return reachability;
+    }
+
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Freezes the current layout for concurrent solving, e.g. with a BatchSolver.
+     */
+    public MazeSnapshot snapshot() {
+        return MazeSnapshot.of(grid);
+    }
+
+    public MazeCell getCell(int row, int col) {
+        return grid.cellAt(row, col);
+    }
+
+    public MazePath getSolutionPath() {
+        return solutionPath;
+    }
+
+    public Coordinate getStartingCell() {
+        return startingCell;
+    }
+
+    public Coordinate getEndCell() {
+        return endCell;
+    }
+
+    public void setStartingCell(Coordinate start) {
+        this.startingCell = start;
+    }
+
+    public void setEndCell(Coordinate end) {
+        this.endCell = end;
+    }
+
+    public Node getDestinationNode() {
+        return destinationNode;
+    }
+}
\ No newline at end of file
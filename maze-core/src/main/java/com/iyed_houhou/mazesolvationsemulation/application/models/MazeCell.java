@@ -1,5 +1,9 @@
 package com.iyed_houhou.mazesolvationsemulation.application.models;
 
+/**
+ * View of a single cell of a {@link MazeGrid}. The terrain itself lives in the grid's packed
+ * byte array; this object only remembers where to look.
+ */
 public class MazeCell {
     public enum Terrain {
         WALL,    // Impassable
@@ -9,14 +13,14 @@ public class MazeCell {
         EMPTY    // No extra cost
     }
 
-    private int row;
-    private int col;
-    private Terrain terrain;
+    private final MazeGrid grid;
+    private final int row;
+    private final int col;
 
-    public MazeCell(int row, int col, Terrain terrain) {
+    MazeCell(MazeGrid grid, int row, int col) {
+        this.grid = grid;
         this.row = row;
         this.col = col;
-        this.terrain = terrain;
     }
 
     public int getRow() {
@@ -28,15 +32,15 @@ public class MazeCell {
     }
 
     public Terrain getTerrain() {
-        return terrain;
+        return grid.getTerrain(row, col);
     }
 
     public void setTerrain(Terrain terrain) {
-        this.terrain = terrain;
+        grid.setTerrain(row, col, terrain);
     }
 
     // You might also include helper methods, e.g., isPassable().
     public boolean isPassable() {
-        return terrain != Terrain.WALL;
+        return getTerrain() != Terrain.WALL;
     }
 }
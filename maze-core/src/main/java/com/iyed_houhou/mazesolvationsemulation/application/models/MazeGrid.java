@@ -0,0 +1,410 @@
+package com.iyed_houhou.mazesolvationsemulation.application.models;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Compact terrain storage for a maze: one byte per cell (the terrain ordinal) in a flat,
+ * row-major array. Cells are addressed either by (row, col) or by their index row * cols + col.
+ * <p>
+ * A grid can also read its terrain from outside the heap, typically a memory-mapped maze file,
+ * through {@link #overSegment}. Such a grid is read-only and stores cells tile by tile, so cells
+ * that are close in the maze are close in memory too and a search touches few pages. Only the
+ * terrain moves off the heap: cells are still int indices, so no grid holds more than
+ * {@link #MAX_CELLS} cells, and the solvers keep their per-cell state in heap arrays.
+ */
+public class MazeGrid {
+    /**
+     * Most cells a grid can hold, heap or segment-backed, as cells are addressed by int.
+     */
+    public static final int MAX_CELLS = Integer.MAX_VALUE;
+
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+    private static final int WATER = MazeCell.Terrain.WATER.ordinal();
+    private static final int WALL = MazeCell.Terrain.WALL.ordinal();
+
+    // Per-terrain lookup tables, indexed by MazeCell.Terrain ordinal (the byte stored per cell)
+    private static final double[] MOVEMENT_COST = new double[TERRAINS.length];
+    private static final int[] BATTERY_CONSUMPTION = new int[TERRAINS.length];
+
+    static {
+        for (MazeCell.Terrain terrain : TERRAINS) {
+            MOVEMENT_COST[terrain.ordinal()] = switch (terrain) {
+                case GRASS -> 2.0;
+                case SAND -> 3.0;
+                case WATER -> 4.0;
+                case EMPTY -> 1.0;
+                default -> Double.POSITIVE_INFINITY;
+            };
+            BATTERY_CONSUMPTION[terrain.ordinal()] = switch (terrain) {
+                case GRASS -> 2;
+                case SAND -> 3;
+                case WATER -> 5;
+                case EMPTY -> 1;
+                default -> 10000; // High value for WALL to effectively block path
+            };
+        }
+    }
+
+    private static final boolean INTEGRAL_COSTS;
+    private static final double MAX_MOVEMENT_COST;
+
+    static {
+        boolean integral = true;
+        double max = 0;
+        for (double cost : MOVEMENT_COST) {
+            if (cost != Double.POSITIVE_INFINITY) {
+                integral &= cost == Math.rint(cost);
+                max = Math.max(max, cost);
+            }
+        }
+        INTEGRAL_COSTS = integral;
+        MAX_MOVEMENT_COST = max;
+    }
+
+    private static final TerrainListener[] NO_LISTENERS = new TerrainListener[0];
+
+    /**
+     * Told about every terrain change made through the grid, after the new value is stored.
+     * Writing the value a cell already has is not a change.
+     */
+    @FunctionalInterface
+    public interface TerrainListener {
+        void terrainChanged(int index, MazeCell.Terrain previous, MazeCell.Terrain current);
+    }
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final byte[] terrain;  // null when the terrain lives in a segment
+    private final boolean readOnly;
+    private TerrainListener[] listeners = NO_LISTENERS;
+    private volatile long version;
+
+    // Segment-backed terrain: tiles of 2^tileShift x 2^tileShift cells, 8 or 4 bits per cell
+    private final MemorySegment segment;
+    private final int tileShift;
+    private final int tilesAcross;
+    private final boolean halfBytes;
+
+    public MazeGrid(int rows, int cols) {
+        this(rows, cols, new byte[Math.multiplyExact(rows, cols)], false);
+        Arrays.fill(terrain, (byte) MazeCell.Terrain.EMPTY.ordinal());
+    }
+
+    private MazeGrid(int rows, int cols, byte[] terrain, boolean readOnly) {
+        this.rows = rows;
+        this.cols = cols;
+        this.size = terrain.length;
+        this.terrain = terrain;
+        this.readOnly = readOnly;
+        this.segment = null;
+        this.tileShift = 0;
+        this.tilesAcross = 0;
+        this.halfBytes = false;
+    }
+
+    private MazeGrid(int rows, int cols, MemorySegment segment, int bitsPerCell, int tileShift) {
+        this.rows = rows;
+        this.cols = cols;
+        this.size = Math.multiplyExact(rows, cols);
+        this.terrain = null;
+        this.readOnly = true;
+        this.segment = segment;
+        this.tileShift = tileShift;
+        this.tilesAcross = (cols + (1 << tileShift) - 1) >>> tileShift;
+        this.halfBytes = bitsPerCell == 4;
+    }
+
+    /**
+     * Read-only grid over terrain codes laid out in square tiles of {@code 2^tileShift} cells a
+     * side, tiles in row-major order and cells row-major inside each tile. Edge tiles are padded
+     * to full size. With 4 bits per cell the lower nibble of each byte holds the even slot. The
+     * segment must stay alive for as long as the grid is used; codes that are not a terrain
+     * read as walls.
+     */
+    public static MazeGrid overSegment(int rows, int cols, MemorySegment segment, int bitsPerCell, int tileShift) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Maze dimensions must be positive: " + rows + "x" + cols);
+        }
+        if (bitsPerCell != 4 && bitsPerCell != 8) {
+            throw new IllegalArgumentException("Cells take 4 or 8 bits, not " + bitsPerCell);
+        }
+        if (tileShift < 1 || tileShift > 15) {
+            throw new IllegalArgumentException("Tile shift must be between 1 and 15: " + tileShift);
+        }
+        if ((long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("A " + rows + "x" + cols + " maze has more than " + MAX_CELLS + " cells");
+        }
+        long needed = segmentBytes(rows, cols, bitsPerCell, tileShift);
+        if (segment.byteSize() < needed) {
+            throw new IllegalArgumentException("Segment holds " + segment.byteSize() + " bytes, the layout needs " + needed);
+        }
+        return new MazeGrid(rows, cols, segment, bitsPerCell, tileShift);
+    }
+
+    /**
+     * Bytes taken by a tiled layout of the given shape, padding included.
+     */
+    public static long segmentBytes(int rows, int cols, int bitsPerCell, int tileShift) {
+        long side = 1L << tileShift;
+        long tiles = ((rows + side - 1) >>> tileShift) * ((cols + side - 1) >>> tileShift);
+        long slots = tiles << (2 * tileShift);
+        return bitsPerCell == 4 ? (slots + 1) / 2 : slots;
+    }
+
+    /**
+     * Slot of a cell in a tiled layout, see {@link #overSegment}.
+     */
+    public static long tiledSlot(int row, int col, int tilesAcross, int tileShift) {
+        int mask = (1 << tileShift) - 1;
+        long tile = (long) (row >>> tileShift) * tilesAcross + (col >>> tileShift);
+        return tile << (2 * tileShift) | (long) (row & mask) << tileShift | (col & mask);
+    }
+
+    /**
+     * Copy of the current terrain that rejects every write. Since nothing can change it after
+     * construction, a read-only copy can be searched from any number of threads at once. A
+     * segment-backed grid can never change, so it is its own copy.
+     */
+    public MazeGrid readOnlyCopy() {
+        if (terrain == null) {
+            return this;
+        }
+        return new MazeGrid(rows, cols, terrain.clone(), true);
+    }
+
+    /**
+     * Whether the terrain lives outside the heap, see {@link #overSegment}.
+     */
+    public boolean isSegmentBacked() {
+        return terrain == null;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    public int rowOf(int index) {
+        return index / cols;
+    }
+
+    public int colOf(int index) {
+        return index % cols;
+    }
+
+    public boolean isInside(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    public MazeCell.Terrain getTerrain(int row, int col) {
+        return TERRAINS[code(index(row, col))];
+    }
+
+    public MazeCell.Terrain terrainAt(int index) {
+        return TERRAINS[code(index)];
+    }
+
+    /**
+     * Raw terrain ordinal of a cell, for lookup tables indexed by terrain.
+     */
+    public int terrainCode(int index) {
+        return code(index);
+    }
+
+    public void setTerrain(int row, int col, MazeCell.Terrain value) {
+        setTerrainAt(index(row, col), value);
+    }
+
+    public void setTerrainAt(int index, MazeCell.Terrain value) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Cannot change the terrain of a read-only maze grid");
+        }
+        byte previous = terrain[index];
+        terrain[index] = (byte) value.ordinal();
+        if (previous != terrain[index]) {
+            version++;
+            for (TerrainListener listener : listeners) {
+                listener.terrainChanged(index, TERRAINS[previous], value);
+            }
+        }
+    }
+
+    /**
+     * Replaces the whole terrain with the given row-major terrain ordinals, as filled by a
+     * generator off this grid. Listeners hear about every cell that changed, on the calling thread.
+     */
+    public void replaceTerrain(byte[] codes) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Cannot change the terrain of a read-only maze grid");
+        }
+        if (codes.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " terrain codes, got " + codes.length);
+        }
+        for (int index = 0; index < size; index++) {
+            if (codes[index] < 0 || codes[index] >= TERRAINS.length) {
+                throw new IllegalArgumentException("Invalid terrain code " + codes[index] + " at cell " + index);
+            }
+        }
+        version++;
+        if (listeners.length == 0) {
+            System.arraycopy(codes, 0, terrain, 0, size);
+            return;
+        }
+        for (int index = 0; index < size; index++) {
+            byte previous = terrain[index];
+            terrain[index] = codes[index];
+            if (previous != codes[index]) {
+                for (TerrainListener listener : listeners) {
+                    listener.terrainChanged(index, TERRAINS[previous], TERRAINS[codes[index]]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Goes up with every terrain change, single-cell edits and whole-layout replacements alike,
+     * so anything derived from the terrain at one version still holds while it stays the same.
+     * Read-only grids stay at 0.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers a listener for terrain changes. Listeners run on the thread that makes the change.
+     */
+    public void addTerrainListener(TerrainListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void removeTerrainListener(TerrainListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                TerrainListener[] remaining = new TerrainListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+    public boolean isPassable(int index) {
+        return code(index) != WALL;
+    }
+
+    /**
+     * Cost charged for entering the cell; infinite for walls.
+     */
+    public double movementCost(int index) {
+        return MOVEMENT_COST[code(index)];
+    }
+
+    /**
+     * Cost charged for entering a cell of the given terrain; infinite for walls.
+     */
+    public static double movementCostOf(MazeCell.Terrain terrain) {
+        return MOVEMENT_COST[terrain.ordinal()];
+    }
+
+    /**
+     * Battery drained by entering a cell of the given terrain.
+     */
+    public static int batteryConsumptionOf(MazeCell.Terrain terrain) {
+        return BATTERY_CONSUMPTION[terrain.ordinal()];
+    }
+
+    /**
+     * Whether every finite movement cost is a whole number, so path costs are integers too.
+     */
+    public static boolean hasIntegralCosts() {
+        return INTEGRAL_COSTS;
+    }
+
+    /**
+     * Most expensive passable terrain to enter.
+     */
+    public static double maxMovementCost() {
+        return MAX_MOVEMENT_COST;
+    }
+
+    /**
+     * Battery drained by entering the cell.
+     */
+    public int batteryConsumption(int index) {
+        return BATTERY_CONSUMPTION[code(index)];
+    }
+
+    /**
+     * The robot may not step from one water cell straight into another.
+     */
+    public boolean isConsecutiveWater(int from, int to) {
+        return code(from) == WATER && code(to) == WATER;
+    }
+
+    private int code(int index) {
+        return terrain != null ? terrain[index] : segmentCode(index);
+    }
+
+    private int segmentCode(int index) {
+        int row = index / cols;
+        int col = index - row * cols;
+        long slot = tiledSlot(row, col, tilesAcross, tileShift);
+        int code;
+        if (halfBytes) {
+            code = (segment.get(ValueLayout.JAVA_BYTE, slot >>> 1) >>> ((slot & 1) << 2)) & 0xF;
+        } else {
+            code = segment.get(ValueLayout.JAVA_BYTE, slot) & 0xFF;
+        }
+        return code < TERRAINS.length ? code : WALL;
+    }
+
+    /**
+     * Returns a lightweight view of one cell. The view reads and writes through to this grid.
+     */
+    public MazeCell cellAt(int row, int col) {
+        return new MazeCell(this, row, col);
+    }
+
+    /**
+     * Approximate heap footprint of this grid in bytes (array payload plus object headers). A
+     * segment-backed grid keeps none of its terrain on the heap.
+     */
+    public long footprintBytes() {
+        return terrain == null ? 16 + 16 : 16 + 16 + align8(terrain.length);
+    }
+
+    /**
+     * Approximate heap footprint of the previous MazeCell[][] layout for the same dimensions,
+     * assuming compressed oops: one row array of references per row plus one MazeCell per cell.
+     */
+    public static long legacyFootprintBytes(int rows, int cols) {
+        long outer = align8(16 + 4L * rows);
+        long rowArrays = rows * align8(16 + 4L * cols);
+        long cells = (long) rows * cols * align8(12 + 4 + 4 + 4); // header + row + col + terrain ref
+        return outer + rowArrays + cells;
+    }
+
+    private static long align8(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
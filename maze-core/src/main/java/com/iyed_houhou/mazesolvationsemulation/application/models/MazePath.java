@@ -0,0 +1,328 @@
+package com.iyed_houhou.mazesolvationsemulation.application.models;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A walk through the grid from the start cell to the goal, stored as packed cell indices
+ * (row * cols + col) in one int array. Paths are immutable: solvers build them with a
+ * {@link Builder}, which fills the array from the back so a parent chain can be traced from the
+ * goal without reversing or shifting anything. An empty path means no path was found.
+ * <p>
+ * {@link #getCoordinates()} is a read-only list view that creates each {@link Coordinate} on
+ * access, and {@link #encode()} gives a compact form (start cell plus runs of moves) for storing
+ * or sending a path.
+ */
+public final class MazePath {
+    private static final int[] NO_CELLS = new int[0];
+    private static final int FORMAT_VERSION = 1;
+
+    // Move directions as stored in the encoded form
+    private static final int UP = 0;
+    private static final int RIGHT = 1;
+    private static final int DOWN = 2;
+    private static final int LEFT = 3;
+
+    private final int[] cells;
+    private final int offset;
+    private final int length;
+    private final int cols;
+    private List<Coordinate> coordinates;
+
+    /**
+     * The empty path.
+     */
+    public MazePath() {
+        this(NO_CELLS, 0, 0, 1);
+    }
+
+    private MazePath(int[] cells, int offset, int length, int cols) {
+        this.cells = cells;
+        this.offset = offset;
+        this.length = length;
+        this.cols = cols;
+    }
+
+    /**
+     * Wraps {@code cells[from, to)} without copying; the caller must not change them afterwards.
+     */
+    public static MazePath ofCells(int[] cells, int from, int to, int cols) {
+        if (from < 0 || to > cells.length || from > to) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ") of " + cells.length + " cells");
+        }
+        if (cols <= 0) {
+            throw new IllegalArgumentException("Column count must be positive: " + cols);
+        }
+        return new MazePath(cells, from, to - from, cols);
+    }
+
+    public static Builder builder(int cols) {
+        return new Builder(cols, 16);
+    }
+
+    /**
+     * Number of cells on the path, start and goal included.
+     */
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int cellAt(int index) {
+        checkIndex(index);
+        return cells[offset + index];
+    }
+
+    public Coordinate coordinateAt(int index) {
+        int cell = cellAt(index);
+        return new Coordinate(cell / cols, cell % cols);
+    }
+
+    /**
+     * Read-only view of the packed cells; nothing is copied.
+     */
+    public IntBuffer cells() {
+        return IntBuffer.wrap(cells, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    public int[] toCellArray() {
+        return Arrays.copyOfRange(cells, offset, offset + length);
+    }
+
+    /**
+     * The path as coordinates. The list is a view: each element is created when it is read.
+     */
+    public List<Coordinate> getCoordinates() {
+        if (coordinates == null) {
+            coordinates = new CoordinateView();
+        }
+        return coordinates;
+    }
+
+    /**
+     * Encodes the path as a version byte, the column count, the start cell and then one varint
+     * per run of moves in the same direction: the run length shifted left by two, ORed with the
+     * direction. A straight corridor of any length costs a few bytes. Every step must be between
+     * neighbouring cells, which holds for every path the solvers produce.
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + length / 4);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, cols);
+        writeVarint(out, length);
+        if (length == 0) {
+            return out.toByteArray();
+        }
+        writeVarint(out, cells[offset]);
+        int runDirection = -1;
+        int runLength = 0;
+        for (int i = 1; i < length; i++) {
+            int direction = direction(cells[offset + i - 1], cells[offset + i]);
+            if (direction == runDirection) {
+                runLength++;
+                continue;
+            }
+            if (runLength > 0) {
+                writeVarint(out, runLength << 2 | runDirection);
+            }
+            runDirection = direction;
+            runLength = 1;
+        }
+        if (runLength > 0) {
+            writeVarint(out, runLength << 2 | runDirection);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuilds a path written by {@link #encode()}.
+     */
+    public static MazePath decode(byte[] encoded) {
+        int[] position = {0};
+        if (encoded.length == 0 || encoded[position[0]++] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not an encoded maze path");
+        }
+        int cols = readVarint(encoded, position);
+        int length = readVarint(encoded, position);
+        if (cols <= 0) {
+            throw new IllegalArgumentException("Column count must be positive: " + cols);
+        }
+        if (length == 0) {
+            return new MazePath();
+        }
+        int[] cells = new int[length];
+        int cell = readVarint(encoded, position);
+        cells[0] = cell;
+        int filled = 1;
+        while (filled < length) {
+            int run = readVarint(encoded, position);
+            int count = run >>> 2;
+            if (count == 0 || count > length - filled) {
+                throw new IllegalArgumentException("Corrupt run of " + count + " moves at cell " + filled + " of " + length);
+            }
+            int delta = switch (run & 3) {
+                case UP -> -cols;
+                case RIGHT -> 1;
+                case DOWN -> cols;
+                default -> -1;
+            };
+            for (int i = 0; i < count; i++) {
+                cell += delta;
+                cells[filled++] = cell;
+            }
+        }
+        if (position[0] != encoded.length) {
+            throw new IllegalArgumentException("Trailing bytes after the last move");
+        }
+        return new MazePath(cells, 0, length, cols);
+    }
+
+    private int direction(int from, int to) {
+        int delta = to - from;
+        if (delta == -cols) {
+            return UP;
+        }
+        if (delta == cols) {
+            return DOWN;
+        }
+        if (delta == 1 && to % cols != 0) {
+            return RIGHT;
+        }
+        if (delta == -1 && from % cols != 0) {
+            return LEFT;
+        }
+        throw new IllegalStateException("Cells " + from + " and " + to + " are not neighbours");
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] in, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] == in.length) {
+                throw new IllegalArgumentException("Encoded maze path is truncated");
+            }
+            byte b = in[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in encoded maze path");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for path of length " + length);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MazePath other) || length != other.length || (length > 0 && cols != other.cols)) {
+            return false;
+        }
+        return Arrays.equals(cells, offset, offset + length, other.cells, other.offset, other.offset + length);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + cells[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (length == 0) {
+            return "[]";
+        }
+        return "[" + coordinateAt(0) + " -> " + coordinateAt(length - 1) + ", " + length + " cells]";
+    }
+
+    private final class CoordinateView extends AbstractList<Coordinate> implements RandomAccess {
+        @Override
+        public Coordinate get(int index) {
+            return coordinateAt(index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+
+    /**
+     * Collects a path back to front, as a parent chain from the goal yields it. Each
+     * {@link #prepend(int)} is amortised O(1); the array doubles and the cells move to its back
+     * when it fills up. {@link #build()} shares the array with the path instead of copying it.
+     */
+    public static final class Builder {
+        private final int cols;
+        private int[] cells;
+        private int head;
+
+        private Builder(int cols, int capacity) {
+            if (cols <= 0) {
+                throw new IllegalArgumentException("Column count must be positive: " + cols);
+            }
+            this.cols = cols;
+            this.cells = new int[Math.max(capacity, 1)];
+            this.head = cells.length;
+        }
+
+        public Builder prepend(int cell) {
+            if (cells == null) {
+                throw new IllegalStateException("Path already built");
+            }
+            if (head == 0) {
+                int size = cells.length;
+                int[] grown = new int[size * 2];
+                System.arraycopy(cells, 0, grown, size, size);
+                cells = grown;
+                head = size;
+            }
+            cells[--head] = cell;
+            return this;
+        }
+
+        public Builder prepend(Coordinate coordinate) {
+            return prepend(coordinate.row() * cols + coordinate.col());
+        }
+
+        public int size() {
+            return cells == null ? 0 : cells.length - head;
+        }
+
+        /**
+         * The builder must not be used after this.
+         */
+        public MazePath build() {
+            MazePath path = new MazePath(cells, head, cells.length - head, cols);
+            cells = null;
+            return path;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.iyed_houhou.mazesolvationsemulation.application.models;
+
+/**
+ * Frozen copy of a maze's terrain. Later edits to the source maze do not show up here, and the
+ * snapshot itself cannot be edited, so any number of threads may search it concurrently.
+ */
+public final class MazeSnapshot {
+    private final MazeGrid grid;
+
+    private MazeSnapshot(MazeGrid grid) {
+        this.grid = grid;
+    }
+
+    public static MazeSnapshot of(MazeGrid grid) {
+        return new MazeSnapshot(grid.isReadOnly() ? grid : grid.readOnlyCopy());
+    }
+
+    /**
+     * The read-only grid backing this snapshot.
+     */
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    public int getRows() {
+        return grid.getRows();
+    }
+
+    public int getCols() {
+        return grid.getCols();
+    }
+}
@@ -0,0 +1,420 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Anytime Repairing A* (ARA*). The first round is weighted A*, ordering cells by g + w * h with a
+ * large w, which reaches the goal after expanding little and yields a path at most w times the
+ * optimum. Each later round lowers w and carries over everything the previous rounds learned:
+ * only cells whose cost improved after they were expanded are queued again. The last round, at
+ * w = 1, is plain A* and proves the path optimal.
+ * <p>
+ * Every improvement is handed to a callback together with a suboptimality bound, the smaller of
+ * the round's weight and the path cost over the best proven lower bound on the optimum. The search
+ * ends when w reaches 1 or the {@link SearchBudget} runs out, and returns the best path found.
+ * <p>
+ * Paths that drain more than the battery budget are never reported. If the optimal path does, the
+ * remaining budget goes to {@link ResourceConstrainedSearch}. Not thread-safe; buffers are reused.
+ */
+public class AnytimeSearch {
+    public static final double DEFAULT_INITIAL_WEIGHT = 3.0;
+    public static final double DEFAULT_WEIGHT_STEP = 0.5;
+
+    private static final int NO_PARENT = -1;
+    private static final int CLOCK_INTERVAL = 256;  // expansions between clock reads, a power of two
+    private static final double MAX_WEIGHT = 100;
+    private static final double MIN_WEIGHT_STEP = 0.01;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final Heuristic heuristic;
+    private final Heuristic manhattan;
+    private final IndexedBinaryHeap open;
+    private final double[] g;
+    private final int[] parent;
+    private final int[] drained;       // battery drained on the way from the start
+    private final int[] reached;       // solve stamp of the last write to g/parent/drained
+    private final int[] closed;        // round stamp of the last expansion
+    private final int[] inconsistent;  // round stamp when queued on the INCONS list
+    private final IntList incons = new IntList();
+    private final IntList traced = new IntList();  // goal back to the start's successor
+    private double tracedCost;
+    private int tracedDrain;
+    private int stamp;
+    private int solveStamp;
+    private int round;
+
+    private double initialWeight = DEFAULT_INITIAL_WEIGHT;
+    private double weightStep = DEFAULT_WEIGHT_STEP;
+    private ResourceConstrainedSearch exactSolver;
+
+    // Budget of the solve in progress
+    private long startedNanos;
+    private long deadline;
+    private long expansionLimit;
+
+    // Outcome of the last solve
+    private boolean goalReached;
+    private double goalCost;
+    private int goalBattery;
+    private double bound;
+    private long expansions;
+    private boolean usedExactSolver;
+
+    public AnytimeSearch(MazeGrid grid) {
+        this(grid, Heuristic.manhattan(grid.getCols()));
+    }
+
+    public AnytimeSearch(MazeGrid grid, Heuristic heuristic) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.heuristic = heuristic;
+        this.manhattan = Heuristic.manhattan(cols);
+        int size = grid.size();
+        this.open = new IndexedBinaryHeap(size);
+        this.g = new double[size];
+        this.parent = new int[size];
+        this.drained = new int[size];
+        this.reached = new int[size];
+        this.closed = new int[size];
+        this.inconsistent = new int[size];
+    }
+
+    /**
+     * Weight of the first round, at least 1, and how much each later round lowers it.
+     */
+    public void setWeights(double initialWeight, double weightStep) {
+        if (initialWeight < 1 || initialWeight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Initial weight must be between 1 and " + MAX_WEIGHT + ": " + initialWeight);
+        }
+        if (weightStep < MIN_WEIGHT_STEP) {
+            throw new IllegalArgumentException("Weight step must be at least " + MIN_WEIGHT_STEP + ": " + weightStep);
+        }
+        this.initialWeight = initialWeight;
+        this.weightStep = weightStep;
+    }
+
+    public MazePath solve(int start, int goal, int initialBattery, SearchBudget budget,
+                          Consumer<AnytimeSolution> onImprovement) {
+        return solve(start, goal, initialBattery, budget, onImprovement, SearchListener.NONE);
+    }
+
+    /**
+     * Improves a path from start to goal until the budget runs out or it is proven optimal, and
+     * returns the best one found, or an empty path. The callback runs on the solving thread each
+     * time the path or its bound improves. The listener sees expansions and may stop the search.
+     */
+    public MazePath solve(int start, int goal, int initialBattery, SearchBudget budget,
+                          Consumer<AnytimeSolution> onImprovement, SearchListener listener) {
+        listener.searchStarted(start, goal);
+        startedNanos = System.nanoTime();
+        deadline = budget.deadlineFrom(startedNanos);
+        expansionLimit = budget.expansions();
+        goalReached = false;
+        usedExactSolver = false;
+        expansions = 0;
+        bound = Double.POSITIVE_INFINITY;
+
+        MazePath best = search(start, goal, initialBattery, onImprovement, listener);
+        if (goalReached) {
+            listener.goalFound(goal, goalCost, goalBattery);
+        }
+        listener.searchFinished(goalReached);
+        return best;
+    }
+
+    private MazePath search(int start, int goal, int initialBattery, Consumer<AnytimeSolution> onImprovement,
+                            SearchListener listener) {
+        if (start == goal) {
+            MazePath path = MazePath.builder(cols).prepend(start).build();
+            record(path, 0, initialBattery, 1, onImprovement);
+            return path;
+        }
+        // A heuristic only bounds how its estimate moves between passable cells
+        Heuristic h = grid.isPassable(start) ? heuristic : manhattan;
+        double startEstimate = h.estimate(start, goal);
+        if (startEstimate == Double.POSITIVE_INFINITY) {
+            return new MazePath();
+        }
+
+        beginSolve();
+        open.clear();
+        incons.clear();
+        g[start] = 0;
+        parent[start] = NO_PARENT;
+        drained[start] = 0;
+        reached[start] = solveStamp;
+
+        double weight = initialWeight;
+        double provenWeight = Double.POSITIVE_INFINITY;  // weight of the last round that completed
+        double lowerBound = startEstimate;               // never above the optimal cost
+        boolean overdrawn = false;                       // the goal was reached, but not within the battery
+        MazePath best = new MazePath();
+        open.insert(start, weight * startEstimate);
+
+        while (true) {
+            boolean completed = improvePath(goal, weight, h, initialBattery, listener);
+            if (completed) {
+                provenWeight = weight;
+                lowerBound = Math.max(lowerBound, smallestQueuedEstimate(goal, h));
+            }
+            if (reached[goal] == solveStamp) {
+                // The parent links may lead a different way than the last path reported, and not
+                // always a cheaper one: cells on the way keep improving their own costs
+                traceGoal(goal);
+                overdrawn = tracedDrain > initialBattery;
+                boolean cheaper = !overdrawn && (!goalReached || tracedCost < goalCost);
+                double cost = cheaper ? tracedCost : goalCost;
+                if (cheaper || goalReached) {
+                    // The round's weight bounds every path no dearer than g[goal]
+                    double weightBound = cost <= g[goal] ? provenWeight : Double.POSITIVE_INFINITY;
+                    double pathBound = Math.max(1, Math.min(weightBound, cost / lowerBound));
+                    if (cheaper) {
+                        best = buildPath();
+                        record(best, cost, initialBattery - tracedDrain, pathBound, onImprovement);
+                    } else if (pathBound < bound) {
+                        record(best, cost, goalBattery, pathBound, onImprovement);
+                    }
+                }
+            }
+            if (!completed || weight == 1 || (open.isEmpty() && incons.isEmpty())) {
+                break;
+            }
+            weight = Math.max(1, weight - weightStep);
+            requeue(goal, weight, h);
+        }
+
+        // Only the exact label search can trade cost for battery; give it what is left
+        if (overdrawn && provenWeight == 1 && !isOverBudget(listener)) {
+            return solveExactly(start, goal, initialBattery, best, onImprovement, listener);
+        }
+        return best;
+    }
+
+    /**
+     * One ARA* round: expands cells by g + weight * h until none queued can beat the goal's cost.
+     * Cells that improve after their expansion this round wait on INCONS for the next one.
+     * Returns false when the budget ran out first.
+     */
+    private boolean improvePath(int goal, double weight, Heuristic h, int initialBattery, SearchListener listener) {
+        while (!open.isEmpty()) {
+            int current = open.peek();
+            if (reached[goal] == solveStamp && open.keyOf(current) >= g[goal]) {
+                return true;
+            }
+            if (isOverBudget(listener)) {
+                return false;
+            }
+            open.poll();
+            closed[current] = round;
+            expansions++;
+            listener.nodeExpanded(current, g[current], initialBattery - drained[current]);
+
+            int row = current / cols;
+            int col = current % cols;
+            if (row > 0) {
+                relax(current, current - cols, goal, weight, h, listener);
+            }
+            if (row < rows - 1) {
+                relax(current, current + cols, goal, weight, h, listener);
+            }
+            if (col > 0) {
+                relax(current, current - 1, goal, weight, h, listener);
+            }
+            if (col < cols - 1) {
+                relax(current, current + 1, goal, weight, h, listener);
+            }
+        }
+        return true;
+    }
+
+    private void relax(int current, int neighbor, int goal, double weight, Heuristic h, SearchListener listener) {
+        if (!grid.isPassable(neighbor)) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.WALL);
+            return;
+        }
+        if (grid.isConsecutiveWater(current, neighbor)) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.WATER_CHAIN);
+            return;
+        }
+        double tentativeG = g[current] + grid.movementCost(neighbor);
+        if (reached[neighbor] == solveStamp && g[neighbor] <= tentativeG) {
+            return;
+        }
+        double estimate = h.estimate(neighbor, goal);
+        if (estimate == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        g[neighbor] = tentativeG;
+        parent[neighbor] = current;
+        drained[neighbor] = drained[current] + grid.batteryConsumption(neighbor);
+        reached[neighbor] = solveStamp;
+
+        if (closed[neighbor] == round) {
+            if (inconsistent[neighbor] != round) {
+                inconsistent[neighbor] = round;
+                incons.add(neighbor);
+            }
+            return;
+        }
+        double key = tentativeG + weight * estimate;
+        if (open.contains(neighbor)) {
+            open.decreaseKey(neighbor, key);
+        } else {
+            open.insert(neighbor, key);
+        }
+        listener.nodePushed(neighbor, key);
+    }
+
+    /**
+     * Starts the next round: INCONS joins OPEN and every queued cell is keyed by the new weight.
+     */
+    private void requeue(int goal, double weight, Heuristic h) {
+        IntList queued = new IntList();
+        for (int slot = 0; slot < open.size(); slot++) {
+            queued.add(open.cellAt(slot));
+        }
+        for (int i = 0; i < incons.size(); i++) {
+            queued.add(incons.get(i));
+        }
+        open.clear();
+        incons.clear();
+        round = nextStamp();
+        for (int i = 0; i < queued.size(); i++) {
+            int cell = queued.get(i);
+            open.insert(cell, g[cell] + weight * h.estimate(cell, goal));
+        }
+    }
+
+    /**
+     * Smallest g + h over OPEN and INCONS. After a completed round no path can cost less, and with
+     * both empty every cell has its final cost.
+     */
+    private double smallestQueuedEstimate(int goal, Heuristic h) {
+        double smallest = Double.POSITIVE_INFINITY;
+        for (int slot = 0; slot < open.size(); slot++) {
+            int cell = open.cellAt(slot);
+            smallest = Math.min(smallest, g[cell] + h.estimate(cell, goal));
+        }
+        for (int i = 0; i < incons.size(); i++) {
+            int cell = incons.get(i);
+            smallest = Math.min(smallest, g[cell] + h.estimate(cell, goal));
+        }
+        return smallest;
+    }
+
+    private boolean isOverBudget(SearchListener listener) {
+        if (expansions >= expansionLimit || listener.shouldStop()) {
+            return true;
+        }
+        return (expansions & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline;
+    }
+
+    private MazePath solveExactly(int start, int goal, int initialBattery, MazePath best,
+                                  Consumer<AnytimeSolution> onImprovement, SearchListener listener) {
+        if (exactSolver == null) {
+            exactSolver = new ResourceConstrainedSearch(new SearchContext(grid));
+        }
+        usedExactSolver = true;
+        // Forward the expansions, keep the budget, and leave start/finish events to this solve
+        SearchListener budgeted = new SearchListener() {
+            @Override
+            public void nodeExpanded(int cell, double cost, int battery) {
+                expansions++;
+                listener.nodeExpanded(cell, cost, battery);
+            }
+
+            @Override
+            public boolean shouldStop() {
+                return isOverBudget(listener);
+            }
+        };
+        MazePath path = exactSolver.solve(start, goal, initialBattery, budgeted);
+        if (!exactSolver.isGoalReached()) {
+            return best;
+        }
+        record(path, exactSolver.getGoalCost(), exactSolver.getGoalBattery(), 1, onImprovement);
+        return path;
+    }
+
+    private void record(MazePath path, double cost, int batteryLeft, double pathBound,
+                        Consumer<AnytimeSolution> onImprovement) {
+        goalReached = true;
+        goalCost = cost;
+        goalBattery = batteryLeft;
+        bound = pathBound;
+        onImprovement.accept(new AnytimeSolution(path, cost, batteryLeft, pathBound,
+                System.nanoTime() - startedNanos, expansions));
+    }
+
+    /**
+     * Follows the parent links back from the goal, recording the cells, cost and drain of the path.
+     */
+    private void traceGoal(int goal) {
+        traced.clear();
+        tracedCost = 0;
+        tracedDrain = 0;
+        for (int cell = goal; parent[cell] != NO_PARENT; cell = parent[cell]) {
+            traced.add(cell);
+            tracedCost += grid.movementCost(cell);
+            tracedDrain += grid.batteryConsumption(cell);
+        }
+    }
+
+    private MazePath buildPath() {
+        MazePath.Builder path = MazePath.builder(cols);
+        for (int i = 0; i < traced.size(); i++) {
+            path.prepend(traced.get(i));
+        }
+        return path.prepend(parent[traced.get(traced.size() - 1)]).build();
+    }
+
+    private void beginSolve() {
+        // A solve takes at most one stamp per round; make sure they cannot wrap around mid-solve
+        if (stamp > Integer.MAX_VALUE - (int) (MAX_WEIGHT / MIN_WEIGHT_STEP) - 2) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(inconsistent, 0);
+            stamp = 0;
+        }
+        solveStamp = nextStamp();
+        round = nextStamp();
+    }
+
+    private int nextStamp() {
+        return ++stamp;
+    }
+
+    public boolean isGoalReached() {
+        return goalReached;
+    }
+
+    public double getGoalCost() {
+        return goalCost;
+    }
+
+    public int getGoalBattery() {
+        return goalBattery;
+    }
+
+    /**
+     * How far above the optimum the last solve's path may cost, as a factor; 1 when it is optimal.
+     */
+    public double getSuboptimalityBound() {
+        return bound;
+    }
+
+    public long getExpansions() {
+        return expansions;
+    }
+
+    public boolean usedExactSolver() {
+        return usedExactSolver;
+    }
+}
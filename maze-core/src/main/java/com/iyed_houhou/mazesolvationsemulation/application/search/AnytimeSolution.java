@@ -0,0 +1,25 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+/**
+ * One answer from an anytime search. The path costs at most {@code suboptimalityBound} times
+ * the optimum; a bound of 1 means it is optimal.
+ */
+public record AnytimeSolution(MazePath path,
+                              double cost,
+                              int batteryLeft,
+                              double suboptimalityBound,
+                              long elapsedNanos,
+                              long expansions) {
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AnytimeSolution[cost=%.0f, bound=%.3f, battery=%d, expanded=%d, %.3f ms]",
+                cost, suboptimalityBound, batteryLeft, expansions, elapsedMillis());
+    }
+}
@@ -0,0 +1,300 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeSnapshot;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Answers many (start, goal, battery) queries against one {@link MazeSnapshot} in parallel.
+ * Queries are split across a fork-join pool. A search takes a set of grid-sized buffers from this
+ * solver's own pool for the duration of one query, so solves never share mutable state, and no
+ * more sets are kept than the pool has threads, plus one for a caller solving on its own thread.
+ * {@link #close()} lets them go; nothing stays behind on the pool's threads.
+ * <p>
+ * When a batch sends many queries to the same goal, one {@link FlowField} for that goal answers
+ * them all by table lookup. Fields are kept across batches, so later queries to that goal skip
+ * the search too; those whose cheapest path drains too much battery still get a full search.
+ * <p>
+ * Given room for cached queries, answers are also kept in a {@link PathCache}, so queries asked
+ * again, or that ask for a piece of an earlier answer, are not solved twice.
+ */
+public class BatchSolver implements AutoCloseable {
+    // Below this many queries a task stops splitting and solves them itself
+    private static final int SPLIT_THRESHOLD = 2;
+    // Queries in one batch that must share a goal before a flow field is built for it
+    static final int FLOW_FIELD_MIN_QUERIES = 8;
+    private static final long FLOW_FIELD_BUDGET_BYTES = 256L << 20;
+    // Path cells a cache may hold for each cached query, on average
+    private static final int CACHED_CELLS_PER_QUERY = 1024;
+
+    public record Query(Coordinate start, Coordinate goal, int battery) {
+        public Query {
+            Objects.requireNonNull(start, "start");
+            Objects.requireNonNull(goal, "goal");
+        }
+    }
+
+    /**
+     * Outcome of one query. When no path exists the path is empty, the cost is infinite and the
+     * remaining battery is -1.
+     */
+    public record Result(Query query, MazePath path, double cost, int remainingBattery) {
+        public boolean isFound() {
+            return !path.isEmpty();
+        }
+    }
+
+    private final MazeSnapshot snapshot;
+    private final ForkJoinPool pool;
+    private final BlockingQueue<ResourceConstrainedSearch> idleSolvers;
+    private volatile boolean closed;
+    private final FlowFieldCache flowFields;
+    private final PathCache pathCache;  // null when answers are not cached
+
+    public BatchSolver(MazeSnapshot snapshot) {
+        this(snapshot, ForkJoinPool.commonPool());
+    }
+
+    public BatchSolver(MazeSnapshot snapshot, ForkJoinPool pool) {
+        this(snapshot, pool, 0);
+    }
+
+    /**
+     * Caches the answers to up to {@code cachedQueries} queries; 0 caches nothing.
+     */
+    public BatchSolver(MazeSnapshot snapshot, ForkJoinPool pool, int cachedQueries) {
+        if (cachedQueries < 0) {
+            throw new IllegalArgumentException("Cached query count must not be negative: " + cachedQueries);
+        }
+        this.snapshot = snapshot;
+        this.pool = pool;
+        MazeGrid grid = snapshot.getGrid();
+        this.idleSolvers = new ArrayBlockingQueue<>(pool.getParallelism() + 1);
+        this.flowFields = MazeGrid.hasIntegralCosts() ? new FlowFieldCache(grid, FLOW_FIELD_BUDGET_BYTES) : null;
+        this.pathCache = cachedQueries == 0 ? null
+                : new PathCache(grid, cachedQueries, (long) cachedQueries * CACHED_CELLS_PER_QUERY);
+    }
+
+    public MazeSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Solves every query and returns the results in query order.
+     */
+    public List<Result> solveAll(List<Query> queries) {
+        Query[] input = queries.toArray(new Query[0]);
+        Result[] output = new Result[input.length];
+        pool.invoke(new SolveRange(input, output, flowFieldsFor(input), 0, input.length));
+        return Arrays.asList(output);
+    }
+
+    /**
+     * Hits and misses of the answer cache, or null when answers are not cached.
+     */
+    public PathCache.Stats getCacheStats() {
+        return pathCache == null ? null : pathCache.stats();
+    }
+
+    /**
+     * Sets of search buffers kept for the next queries.
+     */
+    int getIdleSolverCount() {
+        return idleSolvers.size();
+    }
+
+    /**
+     * Flow fields built so far, rebuilt ones included.
+     */
+    public long getFlowFieldBuilds() {
+        return flowFields == null ? 0 : flowFields.getBuilds();
+    }
+
+    /**
+     * Goal cell -> flow field, for the goals of the batch that have a field or deserve one.
+     */
+    private Map<Integer, FlowField> flowFieldsFor(Query[] queries) {
+        if (flowFields == null || queries.length == 0) {
+            return Map.of();
+        }
+        MazeGrid grid = snapshot.getGrid();
+        Map<Integer, Integer> queriesPerGoal = new HashMap<>();
+        for (Query query : queries) {
+            Coordinate goal = query.goal();
+            if (grid.isInside(goal.row(), goal.col()) && grid.isPassable(grid.index(goal.row(), goal.col()))) {
+                queriesPerGoal.merge(grid.index(goal.row(), goal.col()), 1, Integer::sum);
+            }
+        }
+        synchronized (flowFields) {
+            int[] busyGoals = queriesPerGoal.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= FLOW_FIELD_MIN_QUERIES)
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+            flowFields.prepare(busyGoals, pool);
+            Map<Integer, FlowField> usable = new HashMap<>();
+            for (int goal : queriesPerGoal.keySet()) {
+                FlowField field = flowFields.peek(goal);
+                if (field != null) {
+                    usable.put(goal, field);
+                }
+            }
+            return usable;
+        }
+    }
+
+    /**
+     * Solves a single query on the calling thread.
+     */
+    public Result solve(Query query) {
+        return solve(query, Map.of());
+    }
+
+    private Result solve(Query query, Map<Integer, FlowField> fieldsByGoal) {
+        MazeGrid grid = snapshot.getGrid();
+        Coordinate start = query.start();
+        Coordinate goal = query.goal();
+        if (!grid.isInside(start.row(), start.col()) || !grid.isInside(goal.row(), goal.col())) {
+            throw new IllegalArgumentException("Query outside the " + grid.getRows() + "x" + grid.getCols() + " maze: " + query);
+        }
+
+        int startCell = grid.index(start.row(), start.col());
+        int goalCell = grid.index(goal.row(), goal.col());
+        if (pathCache != null) {
+            PathCache.CachedPath cached = pathCache.lookup(startCell, goalCell, query.battery());
+            if (cached != null) {
+                return new Result(query, cached.path(), cached.cost(), cached.remainingBattery());
+            }
+        }
+
+        FlowField field = fieldsByGoal.get(goalCell);
+        if (field != null) {
+            Result result = readFlowField(field, query);
+            if (result != null) {
+                remember(startCell, goalCell, result, true);
+                return result;
+            }
+        }
+
+        ResourceConstrainedSearch solver = acquireSolver();
+        try {
+            MazePath path = solver.solve(startCell, goalCell, query.battery());
+            Result result = solver.isGoalReached()
+                    ? new Result(query, path, solver.getGoalCost(), solver.getGoalBattery())
+                    : new Result(query, path, Double.POSITIVE_INFINITY, -1);
+            remember(startCell, goalCell, result, solver.isGoalReached() && !solver.wasBatteryBinding());
+            return result;
+        } finally {
+            releaseSolver(solver);
+        }
+    }
+
+    /**
+     * Idle buffers if there are any, new ones otherwise.
+     */
+    private ResourceConstrainedSearch acquireSolver() {
+        ResourceConstrainedSearch solver = idleSolvers.poll();
+        return solver != null ? solver : new ResourceConstrainedSearch(new SearchContext(snapshot.getGrid()));
+    }
+
+    /**
+     * Keeps the buffers for the next query, unless enough are idle already.
+     */
+    private void releaseSolver(ResourceConstrainedSearch solver) {
+        if (!closed) {
+            idleSolvers.offer(solver);
+        }
+    }
+
+    /**
+     * Drops the search buffers, flow fields and cached answers. The solver must not be used
+     * afterwards.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        idleSolvers.clear();
+        if (flowFields != null) {
+            synchronized (flowFields) {
+                flowFields.close();
+            }
+        }
+        if (pathCache != null) {
+            pathCache.close();
+        }
+    }
+
+    private void remember(int start, int goal, Result result, boolean cheapestOverall) {
+        if (pathCache != null) {
+            // The snapshot never changes, so its version is the one every answer was found at
+            pathCache.store(start, goal, result.query().battery(),
+                    new PathCache.CachedPath(result.path(), result.cost(), result.remainingBattery()),
+                    cheapestOverall, snapshot.getGrid().getVersion());
+        }
+    }
+
+    /**
+     * The query's answer from the field, or null when it needs a search after all: the cheapest
+     * path drains more battery than the query has.
+     */
+    private Result readFlowField(FlowField field, Query query) {
+        MazeGrid grid = snapshot.getGrid();
+        int start = grid.index(query.start().row(), query.start().col());
+        MazePath path = field.pathFrom(start);
+        if (path.isEmpty()) {
+            return new Result(query, path, Double.POSITIVE_INFINITY, -1);
+        }
+        int drained = 0;
+        for (int i = 1; i < path.length(); i++) {
+            drained += grid.batteryConsumption(path.cellAt(i));
+        }
+        if (drained > query.battery()) {
+            return null;
+        }
+        return new Result(query, path, field.costFrom(path.cellAt(0)), query.battery() - drained);
+    }
+
+    private final class SolveRange extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient Query[] queries;
+        private final transient Result[] results;
+        private final transient Map<Integer, FlowField> fieldsByGoal;
+        private final int from;
+        private final int to;
+
+        SolveRange(Query[] queries, Result[] results, Map<Integer, FlowField> fieldsByGoal, int from, int to) {
+            this.queries = queries;
+            this.results = results;
+            this.fieldsByGoal = fieldsByGoal;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = solve(queries[i], fieldsByGoal);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveRange(queries, results, fieldsByGoal, from, middle),
+                    new SolveRange(queries, results, fieldsByGoal, middle, to));
+        }
+    }
+}
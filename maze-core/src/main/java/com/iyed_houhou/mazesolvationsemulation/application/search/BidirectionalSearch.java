@@ -0,0 +1,382 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bidirectional A*: a forward frontier grows from the start and a backward one from the goal,
+ * and the search ends once the best meeting found so far provably cannot be beaten. The
+ * backward frontier walks moves in reverse, so a step from a cell back to its predecessor costs
+ * what entering the cell costs, and it never steps between two water cells.
+ * <p>
+ * Both sides are ordered by the same balanced potential, half the Manhattan distance to the far
+ * end minus half the distance to the near one. Unlike giving each side its own plain heuristic,
+ * that keeps the two searches measuring path costs the same way, so the search can stop as soon as
+ * the two smallest keys together reach the best meeting: the frontiers stay near the line between
+ * the endpoints instead of both sweeping past the middle. Keys are kept doubled so they stay whole
+ * numbers for the bucket queue. A path that drains more than the battery budget is re-solved by
+ * {@link ResourceConstrainedSearch}.
+ * <p>
+ * In parallel mode the two frontiers run on separate threads and only exchange meeting
+ * candidates; the final answer is re-derived from both frontiers once both threads have
+ * stopped. Not thread-safe across solves: one solve at a time per instance.
+ */
+public class BidirectionalSearch {
+    private static final int NO_PARENT = -1;
+    private static final VarHandle STAMP = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final Executor executor;
+    private final Frontier forward;
+    private final Frontier backward;
+    private int generation;
+
+    // Best meeting so far, shared by both frontiers
+    private final Object meetingLock = new Object();
+    private volatile double bestCost;
+    private int meetCell;
+    private volatile boolean finished;
+    private volatile double stopKeySum;  // the two top keys adding up to this means the best meeting is final
+
+    private ResourceConstrainedSearch exactSolver;
+
+    // Outcome of the last solve
+    private boolean goalReached;
+    private double goalCost;
+    private int goalBattery;
+    private boolean usedExactSolver;
+
+    public BidirectionalSearch(MazeGrid grid) {
+        this(grid, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor runs the backward frontier of parallel solves
+     */
+    public BidirectionalSearch(MazeGrid grid, Executor executor) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.executor = executor;
+        this.forward = new Frontier(true);
+        this.backward = new Frontier(false);
+        forward.other = backward;
+        backward.other = forward;
+    }
+
+    public MazePath solve(int start, int goal, int initialBattery) {
+        return solve(start, goal, initialBattery, false);
+    }
+
+    /**
+     * Finds the cheapest path from start to goal whose battery drain fits initialBattery, or an
+     * empty path. With {@code parallel} set, the backward frontier runs on the executor while
+     * the calling thread runs the forward one.
+     */
+    public MazePath solve(int start, int goal, int initialBattery, boolean parallel) {
+        goalReached = false;
+        usedExactSolver = false;
+        forward.expansions = 0;
+        backward.expansions = 0;
+        if (start == goal) {
+            goalReached = true;
+            goalCost = 0;
+            goalBattery = initialBattery;
+            return MazePath.builder(cols).prepend(start).build();
+        }
+        if (!grid.isPassable(goal)) {
+            return new MazePath();
+        }
+
+        nextGeneration();
+        bestCost = Double.POSITIVE_INFINITY;
+        meetCell = NO_PARENT;
+        stopKeySum = Double.POSITIVE_INFINITY;
+        finished = false;
+        int distance = Math.abs(start / cols - goal / cols) + Math.abs(start % cols - goal % cols);
+        // Seed both sides before any thread starts, so neither can miss the other's source
+        forward.reset(start, goal, distance, parallel);
+        backward.reset(goal, start, distance, parallel);
+
+        if (parallel) {
+            CompletableFuture<Void> backwardRun = CompletableFuture.runAsync(backward::run, executor);
+            forward.run();
+            backwardRun.join();
+            settleMeeting();
+        } else {
+            // Always grow the smaller frontier. One side running dry means it has seen every cell
+            // it can reach, and with it the best meeting.
+            while (!forward.open.isEmpty() && !backward.open.isEmpty()
+                    && forward.topKey() + backward.topKey() < stopKeySum) {
+                Frontier side = forward.open.size() <= backward.open.size() ? forward : backward;
+                side.expand(side.open.poll());
+            }
+        }
+        if (meetCell == NO_PARENT) {
+            return new MazePath();
+        }
+
+        IntList cells = new IntList();
+        for (int cell = meetCell; cell != NO_PARENT; cell = forward.parent[cell]) {
+            cells.add(cell);
+        }
+        cells.reverse(0, cells.size());
+        for (int cell = backward.parent[meetCell]; cell != NO_PARENT; cell = backward.parent[cell]) {
+            cells.add(cell);
+        }
+
+        double cost = 0;
+        int drained = 0;
+        for (int i = 1; i < cells.size(); i++) {
+            cost += grid.movementCost(cells.get(i));
+            drained += grid.batteryConsumption(cells.get(i));
+        }
+        if (drained > initialBattery) {
+            return solveExactly(start, goal, initialBattery);
+        }
+
+        goalReached = true;
+        goalCost = cost;
+        goalBattery = initialBattery - drained;
+        return MazePath.ofCells(cells.toArray(), 0, cells.size(), cols);
+    }
+
+    private void offerMeeting(int cell, double cost) {
+        if (cost < bestCost) {
+            synchronized (meetingLock) {
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    meetCell = cell;
+                    stopKeySum = 2 * (cost + forward.offset);
+                }
+            }
+        }
+    }
+
+    /**
+     * Each thread checks the other side's marks without waiting for it, so two frontiers
+     * reaching a cell at the same moment can both miss the meeting. Once both threads are done
+     * every mark is visible, and a pass over the forward frontier finds the true best meeting.
+     */
+    private void settleMeeting() {
+        IntList reached = forward.touched;
+        for (int i = 0; i < reached.size(); i++) {
+            int cell = reached.get(i);
+            if (backward.reached[cell] == generation) {
+                double cost = forward.g[cell] + backward.g[cell];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    meetCell = cell;
+                }
+            }
+        }
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            forward.clearStamps();
+            backward.clearStamps();
+            generation = 0;
+        }
+        generation++;
+    }
+
+    private MazePath solveExactly(int start, int goal, int initialBattery) {
+        if (exactSolver == null) {
+            exactSolver = new ResourceConstrainedSearch(new SearchContext(grid));
+        }
+        usedExactSolver = true;
+        MazePath path = exactSolver.solve(start, goal, initialBattery);
+        goalReached = exactSolver.isGoalReached();
+        goalCost = exactSolver.getGoalCost();
+        goalBattery = exactSolver.getGoalBattery();
+        return path;
+    }
+
+    public boolean isGoalReached() {
+        return goalReached;
+    }
+
+    public double getGoalCost() {
+        return goalCost;
+    }
+
+    public int getGoalBattery() {
+        return goalBattery;
+    }
+
+    public boolean usedExactSolver() {
+        return usedExactSolver;
+    }
+
+    /**
+     * Cells expanded by the last solve, both frontiers together.
+     */
+    public int getExpansions() {
+        return forward.expansions + backward.expansions;
+    }
+
+    /**
+     * One search direction. The forward side stores cost from the start and the predecessor of
+     * each cell; the backward side stores cost to the goal and the successor towards it.
+     */
+    private final class Frontier {
+        private final boolean isForward;
+        private final double[] g;
+        private final int[] parent;
+        private final int[] reached;  // generation of the last write to g/parent, published with release
+        private final int[] closed;
+        private final OpenList open;
+        private final IntList touched = new IntList();  // cells reached, kept for parallel solves only
+        private Frontier other;
+        private volatile double publishedTop;           // a lower bound on topKey() for the other thread
+        private boolean trackTouched;
+        private int source;
+        private int sourceRow;
+        private int sourceCol;
+        private int targetRow;
+        private int targetCol;
+        private int offset;  // keeps the potential non-negative
+        private int expansions;
+
+        Frontier(boolean isForward) {
+            this.isForward = isForward;
+            int size = grid.size();
+            this.g = new double[size];
+            this.parent = new int[size];
+            this.reached = new int[size];
+            this.closed = new int[size];
+            // A step raises the doubled key by twice its cost plus at most 2 from the potential
+            this.open = OpenList.create(OpenList.defaultKind(), size, 2 * (int) Math.ceil(MazeGrid.maxMovementCost()) + 2);
+        }
+
+        void reset(int source, int target, int distance, boolean trackTouched) {
+            this.source = source;
+            this.sourceRow = source / cols;
+            this.sourceCol = source % cols;
+            this.targetRow = target / cols;
+            this.targetCol = target % cols;
+            this.offset = distance;
+            this.trackTouched = trackTouched;
+            open.clear();
+            touched.clear();
+            g[source] = 0;
+            parent[source] = NO_PARENT;
+            STAMP.setRelease(reached, source, generation);
+            if (trackTouched) {
+                touched.add(source);
+            }
+            open.insert(source, potential(source));
+            publishedTop = open.keyOf(source);
+        }
+
+        double topKey() {
+            return open.keyOf(open.peek());
+        }
+
+        /**
+         * Parallel mode: expands until the stopping rule holds against the other side's last
+         * published top key, which can only be stale on the low side, or until either side stops.
+         */
+        void run() {
+            while (!finished && !open.isEmpty()) {
+                double top = topKey();
+                publishedTop = top;
+                if (top + other.publishedTop >= stopKeySum) {
+                    break;
+                }
+                expand(open.poll());
+            }
+            finished = true;
+        }
+
+        void expand(int cell) {
+            closed[cell] = generation;
+            expansions++;
+
+            // Backward moves enter the expanded cell, which a wall start must never be
+            if (!isForward && !grid.isPassable(cell)) {
+                return;
+            }
+            int row = cell / cols;
+            int col = cell % cols;
+            if (row > 0) {
+                relax(cell, cell - cols);
+            }
+            if (row < rows - 1) {
+                relax(cell, cell + cols);
+            }
+            if (col > 0) {
+                relax(cell, cell - 1);
+            }
+            if (col < cols - 1) {
+                relax(cell, cell + 1);
+            }
+        }
+
+        private void relax(int cell, int neighbor) {
+            if (closed[neighbor] == generation || grid.isConsecutiveWater(cell, neighbor)) {
+                return;
+            }
+            double step;
+            if (isForward) {
+                if (!grid.isPassable(neighbor)) {
+                    return;
+                }
+                step = grid.movementCost(neighbor);
+            } else {
+                // The robot would step neighbor -> cell; only the start may be a wall
+                if (!grid.isPassable(neighbor) && neighbor != other.source) {
+                    return;
+                }
+                step = grid.movementCost(cell);
+            }
+
+            double candidate = g[cell] + step;
+            boolean seen = (int) STAMP.getAcquire(reached, neighbor) == generation;
+            if (seen && g[neighbor] <= candidate) {
+                return;
+            }
+            g[neighbor] = candidate;
+            parent[neighbor] = cell;
+            if (seen) {
+                open.decreaseKey(neighbor, 2 * candidate + potential(neighbor));
+            } else {
+                STAMP.setRelease(reached, neighbor, generation);
+                if (trackTouched) {
+                    touched.add(neighbor);
+                }
+                open.insert(neighbor, 2 * candidate + potential(neighbor));
+            }
+
+            if ((int) STAMP.getAcquire(other.reached, neighbor) == generation) {
+                offerMeeting(neighbor, candidate + other.g[neighbor]);
+            }
+        }
+
+        /**
+         * Twice the balanced potential, shifted by the endpoint distance so it is never negative.
+         */
+        private int potential(int cell) {
+            int row = cell / cols;
+            int col = cell % cols;
+            int toTarget = Math.abs(row - targetRow) + Math.abs(col - targetCol);
+            int fromSource = Math.abs(row - sourceRow) + Math.abs(col - sourceCol);
+            return toTarget - fromSource + offset;
+        }
+
+        void clearStamps() {
+            Arrays.fill(reached, 0);
+            Arrays.fill(closed, 0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.Arrays;
+
+/**
+ * Dial-style bucket queue for integer priorities that, until the next {@link #clear()}, never drop
+ * below the last polled one and stay within a fixed spread above it. That is what A* with
+ * integral step costs and a consistent heuristic produces. Buckets form a ring indexed by key modulo a power of two, each bucket is an
+ * intrusive doubly linked list threaded through per-cell arrays, so insert, decrease-key and poll
+ * are O(1) apart from skipping empty buckets.
+ * <p>
+ * Cells with equal keys come out newest first, which favours the deeper of two equally promising
+ * A* nodes.
+ */
+public class BucketQueue implements OpenList {
+    private static final int ABSENT = -1;
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    private final int[] heads;    // ring slot -> first cell, ABSENT when empty
+    private final int mask;
+    private final int[] next;     // cell -> next cell in its bucket
+    private final int[] previous; // cell -> previous cell in its bucket, ABSENT for the head
+    private final int[] keys;     // cell -> key
+    private final boolean[] queued;
+    private int size;
+    private int minimum = UNSET;  // no queued key is below this; the last polled key after a poll
+
+    /**
+     * @param capacity  number of cells
+     * @param maxSpread largest difference between any queued key and the smallest one
+     */
+    public BucketQueue(int capacity, int maxSpread) {
+        int slots = Integer.highestOneBit(Math.max(1, maxSpread) * 2);
+        this.heads = new int[slots];
+        this.mask = slots - 1;
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.keys = new int[capacity];
+        this.queued = new boolean[capacity];
+        Arrays.fill(heads, ABSENT);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int cell) {
+        return queued[cell];
+    }
+
+    @Override
+    public double keyOf(int cell) {
+        return keys[cell];
+    }
+
+    @Override
+    public void insert(int cell, double key) {
+        int bucket = checkedKey(key);
+        if (minimum == UNSET) {
+            minimum = bucket;
+        }
+        keys[cell] = bucket;
+        queued[cell] = true;
+        link(cell, bucket & mask);
+        size++;
+    }
+
+    @Override
+    public void decreaseKey(int cell, double key) {
+        int bucket = checkedKey(key);
+        unlink(cell);
+        keys[cell] = bucket;
+        link(cell, bucket & mask);
+    }
+
+    @Override
+    public int peek() {
+        int slot = minimum & mask;
+        while (heads[slot] == ABSENT) {
+            minimum++;
+            slot = minimum & mask;
+        }
+        return heads[slot];
+    }
+
+    @Override
+    public int poll() {
+        int cell = peek();
+        unlink(cell);
+        queued[cell] = false;
+        size--;
+        return cell;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < heads.length; slot++) {
+            for (int cell = heads[slot]; cell != ABSENT; cell = next[cell]) {
+                queued[cell] = false;
+            }
+            heads[slot] = ABSENT;
+        }
+        size = 0;
+        minimum = UNSET;
+    }
+
+    private int checkedKey(double key) {
+        int bucket = (int) key;
+        if (bucket != key || (minimum != UNSET && (bucket < minimum || bucket - minimum > mask))) {
+            throw new IllegalArgumentException("Key " + key + " does not fit the bucket window starting at "
+                    + minimum + " (" + heads.length + " buckets)");
+        }
+        return bucket;
+    }
+
+    private void link(int cell, int slot) {
+        int head = heads[slot];
+        next[cell] = head;
+        previous[cell] = ABSENT;
+        if (head != ABSENT) {
+            previous[head] = cell;
+        }
+        heads[slot] = cell;
+    }
+
+    private void unlink(int cell) {
+        int before = previous[cell];
+        int after = next[cell];
+        if (before == ABSENT) {
+            heads[keys[cell] & mask] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != ABSENT) {
+            previous[after] = before;
+        }
+    }
+}
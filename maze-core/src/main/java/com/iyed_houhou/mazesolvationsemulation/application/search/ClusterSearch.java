@@ -0,0 +1,156 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+/**
+ * Dijkstra confined to one rectangular block of the grid. Used by the hierarchical pathfinder
+ * to cost and refine paths inside a single cluster. Buffers are sized to the largest block and
+ * reused; not thread-safe.
+ */
+class ClusterSearch {
+    private static final int NO_PARENT = -1;
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final OpenList openList;
+    private final double[] distance;  // local index -> cost
+    private final int[] parent;       // local index -> local index of predecessor
+    private final int[] reached;
+    private final int[] target;       // local index -> generation in which it is a target
+    private int generation;
+
+    // Current block
+    private int top;
+    private int left;
+    private int height;
+    private int width;
+
+    ClusterSearch(MazeGrid grid, int maxBlockSize) {
+        this.grid = grid;
+        this.cols = grid.getCols();
+        int capacity = maxBlockSize * maxBlockSize;
+        this.openList = OpenList.create(OpenList.defaultKind(), capacity, (int) Math.ceil(MazeGrid.maxMovementCost()));
+        this.distance = new double[capacity];
+        this.parent = new int[capacity];
+        this.reached = new int[capacity];
+        this.target = new int[capacity];
+    }
+
+    /**
+     * Computes, for every cell of the block, the cheapest cost from {@code source} (forward) or
+     * to {@code source} (reverse) without leaving the block.
+     */
+    void run(int top, int left, int height, int width, int source, boolean reverse) {
+        run(top, left, height, width, source, reverse, null);
+    }
+
+    /**
+     * Same as {@link #run(int, int, int, int, int, boolean)}, but stops as soon as every cell in
+     * {@code targets} (all inside the block) is settled. Only their distances are then final.
+     */
+    void run(int top, int left, int height, int width, int source, boolean reverse, int[] targets) {
+        this.top = top;
+        this.left = left;
+        this.height = height;
+        this.width = width;
+        generation++;
+        openList.clear();
+
+        int sourceLocal = toLocal(source);
+        distance[sourceLocal] = 0;
+        parent[sourceLocal] = NO_PARENT;
+        reached[sourceLocal] = generation;
+        openList.insert(sourceLocal, 0);
+
+        int remaining = Integer.MAX_VALUE;
+        if (targets != null) {
+            remaining = 0;
+            for (int cell : targets) {
+                int local = toLocal(cell);
+                if (target[local] != generation) {
+                    target[local] = generation;
+                    remaining++;
+                }
+            }
+        }
+
+        while (!openList.isEmpty()) {
+            int local = openList.poll();
+            if (target[local] == generation && --remaining == 0) {
+                break;
+            }
+            int row = local / width;
+            int col = local % width;
+            if (row > 0) {
+                relax(local, local - width, reverse);
+            }
+            if (row < height - 1) {
+                relax(local, local + width, reverse);
+            }
+            if (col > 0) {
+                relax(local, local - 1, reverse);
+            }
+            if (col < width - 1) {
+                relax(local, local + 1, reverse);
+            }
+        }
+    }
+
+    private void relax(int local, int neighborLocal, boolean reverse) {
+        int cell = toCell(local);
+        int neighbor = toCell(neighborLocal);
+        if (!grid.isPassable(neighbor) || grid.isConsecutiveWater(cell, neighbor)) {
+            return;
+        }
+        // Forward: pay for entering the neighbor. Reverse: the neighbor steps into this cell.
+        double step = reverse ? grid.movementCost(cell) : grid.movementCost(neighbor);
+        double candidate = distance[local] + step;
+        if (reached[neighborLocal] == generation) {
+            if (distance[neighborLocal] <= candidate || !openList.contains(neighborLocal)) {
+                return;
+            }
+            distance[neighborLocal] = candidate;
+            parent[neighborLocal] = local;
+            openList.decreaseKey(neighborLocal, candidate);
+            return;
+        }
+        distance[neighborLocal] = candidate;
+        parent[neighborLocal] = local;
+        reached[neighborLocal] = generation;
+        openList.insert(neighborLocal, candidate);
+    }
+
+    /**
+     * Cost found by the last run, infinite when the cell is unreachable or outside the block.
+     */
+    double distanceTo(int cell) {
+        int row = cell / cols - top;
+        int col = cell % cols - left;
+        if (row < 0 || row >= height || col < 0 || col >= width) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int local = row * width + col;
+        return reached[local] == generation ? distance[local] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Appends the cells of the last forward run's path from its source to {@code target}, source
+     * excluded, to the buffer and returns the new size.
+     */
+    int appendPath(int target, IntList out) {
+        int start = out.size();
+        for (int local = toLocal(target); parent[local] != NO_PARENT; local = parent[local]) {
+            out.add(toCell(local));
+        }
+        out.reverse(start, out.size());
+        return out.size();
+    }
+
+    private int toLocal(int cell) {
+        return (cell / cols - top) * width + (cell % cols - left);
+    }
+
+    private int toCell(int local) {
+        return (top + local / width) * cols + left + local % width;
+    }
+}
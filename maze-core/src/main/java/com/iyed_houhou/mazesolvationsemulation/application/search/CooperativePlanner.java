@@ -0,0 +1,706 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Collision-free plans for a fleet of robots sharing one maze: Cooperative A*, with an optional
+ * window (WHCA*). Agents are planned one at a time in list order, so earlier agents have
+ * priority. Each runs A* over (cell, time step) states, in which the moves already reserved by
+ * the agents before it are obstacles, and then reserves its own. Every step either moves to a
+ * neighbour or waits in place. A move costs the entered terrain as usual, and a wait costs
+ * {@link #WAIT_COST}. No two agents ever hold the same cell at the same step, and no two agents
+ * swap cells in one step.
+ * <p>
+ * The heuristic is the exact cost to the agent's goal, ignoring other agents. It comes from a
+ * {@link ReverseResumableSearch} per goal, which only expands as far as the agents' questions
+ * need. Tables for the goals of the current fleet are kept for the next call until the terrain
+ * changes.
+ * <p>
+ * Without a window, each agent plans all the way to its goal and then parks there for good.
+ * With a window, every agent plans {@code window} steps ahead and the whole fleet executes half
+ * of them; then everyone replans from where they stand. The reservation table then never holds
+ * more than one window per agent, and agents that have arrived can still step aside. Battery is
+ * not modelled; fleets are planned on terrain cost alone.
+ * <p>
+ * An agent that cannot reach its goal within its step limit stops short, reported as not
+ * arrived, but only where it is safe: in a cell no agent before it comes through afterwards, or,
+ * with a window, in a plan that is free all the way to the window's end. When there is no such
+ * plan, the agents before it have cut it off, so planning starts over (the whole fleet, or the
+ * current round) with that agent first. If that keeps failing, the agent is reported as
+ * {@link Plan#isBlocked() blocked}. With a window the fleet then stops where it stands, so the
+ * plans never conflict; without one, every blocked agent stays at its start and may be run into.
+ * {@link #countConflicts(List)} reports any clashes.
+ * <p>
+ * A stop check, if given, is polled before each agent is planned, in every round and after every
+ * restart; once it answers true, planning is abandoned and the fleet gets no plans.
+ */
+public class CooperativePlanner implements AutoCloseable {
+    public static final int WAIT_COST = 1;
+
+    private static final int MIN_HORIZON = 64;
+    private static final long EXPANSIONS_PER_STEP = 64;  // search budget per agent, per step of its limit
+
+    public record Agent(Coordinate start, Coordinate goal) {
+    }
+
+    /**
+     * One agent's plan: the cell it holds at every time step, from step 0 until it arrives (or
+     * stops). It stays in its last cell afterwards.
+     */
+    public static final class Plan {
+        private final Agent agent;
+        private final int[] cells;
+        private final boolean arrived;
+        private final boolean blocked;
+        private final double cost;
+
+        Plan(Agent agent, int[] cells, boolean arrived, boolean blocked, double cost) {
+            this.agent = agent;
+            this.cells = cells;
+            this.arrived = arrived;
+            this.blocked = blocked;
+            this.cost = cost;
+        }
+
+        public Agent agent() {
+            return agent;
+        }
+
+        /**
+         * Time step of the agent's last move.
+         */
+        public int steps() {
+            return cells.length - 1;
+        }
+
+        public int cellAt(int time) {
+            return cells[Math.min(time, cells.length - 1)];
+        }
+
+        public boolean isArrived() {
+            return arrived;
+        }
+
+        /**
+         * Whether planning stopped because this agent had nowhere safe to go; see
+         * {@link CooperativePlanner}.
+         */
+        public boolean isBlocked() {
+            return blocked;
+        }
+
+        /**
+         * Terrain cost of the moves plus {@link #WAIT_COST} per wait.
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        public int[] toCellArray() {
+            return cells.clone();
+        }
+
+        /**
+         * The route without the waits, as a single-robot path.
+         */
+        public MazePath toMazePath(int cols) {
+            int[] route = new int[cells.length];
+            int length = 0;
+            for (int cell : cells) {
+                if (length == 0 || route[length - 1] != cell) {
+                    route[length++] = cell;
+                }
+            }
+            return MazePath.ofCells(route, 0, length, cols);
+        }
+    }
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int window;
+    private final Heuristic guide;
+    private final SpaceTimeReservations reservations = new SpaceTimeReservations();
+    private final Map<Integer, ReverseResumableSearch> distances = new HashMap<>();
+    private final MazeGrid.TerrainListener terrainListener;
+    private volatile boolean stale;
+
+    // Space-time search states, reused between agents
+    private int[] stateCell = new int[1024];
+    private int[] stateTime = new int[1024];
+    private int[] stateG = new int[1024];
+    private int[] stateH = new int[1024];
+    private int[] stateParent = new int[1024];
+    private boolean[] stateClosed = new boolean[1024];
+    private int stateCount;
+    private final LongIntHashMap seen = new LongIntHashMap(1024);  // time << 32 | cell -> state
+    private final LongKeyHeap open = new LongKeyHeap();
+    private boolean lastSearchArrived;
+
+    private long expansions;
+    private int peakReservations;
+    private long reservationBytes;
+    private long planNanos;
+
+    /**
+     * A full-horizon planner: every agent plans to its goal in one go.
+     */
+    public CooperativePlanner(MazeGrid grid) {
+        this(grid, 0);
+    }
+
+    /**
+     * A windowed planner looking {@code window} steps ahead, or a full-horizon one for 0.
+     */
+    public CooperativePlanner(MazeGrid grid, int window) {
+        this(grid, window, Heuristic.manhattan(grid.getCols()));
+    }
+
+    /**
+     * As {@link #CooperativePlanner(MazeGrid, int)}, with {@code guide} steering the per-goal
+     * distance searches. A {@link LandmarkHeuristic} over the same grid makes them expand, and
+     * keep, far fewer cells than Manhattan distance on weighted terrain.
+     */
+    public CooperativePlanner(MazeGrid grid, int window, Heuristic guide) {
+        if (!MazeGrid.hasIntegralCosts()) {
+            throw new IllegalArgumentException("Cooperative planning needs whole-number terrain costs");
+        }
+        if (window < 0 || window == 1) {
+            throw new IllegalArgumentException("Window must be 0 (no window) or at least 2 steps: " + window);
+        }
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.window = window;
+        this.guide = guide;
+        this.terrainListener = (index, previous, current) -> stale = true;
+        grid.addTerrainListener(terrainListener);
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Plans every agent, in priority order, and returns the plans in the same order.
+     */
+    public List<Plan> plan(List<Agent> agents) {
+        return plan(agents, () -> false);
+    }
+
+    /**
+     * Like {@link #plan(List)}, but returns an empty list as soon as {@code stop} answers true.
+     */
+    public List<Plan> plan(List<Agent> agents, BooleanSupplier stop) {
+        long started = System.nanoTime();
+        if (stale) {
+            distances.clear();
+            stale = false;
+        }
+        int count = agents.size();
+        int[] starts = new int[count];
+        int[] goals = new int[count];
+        Map<Integer, Integer> startOwners = new HashMap<>();
+        Map<Integer, Integer> goalOwners = new HashMap<>();
+        for (int a = 0; a < count; a++) {
+            starts[a] = cellOf(agents.get(a).start(), "start", a);
+            goals[a] = cellOf(agents.get(a).goal(), "goal", a);
+            Integer other = startOwners.putIfAbsent(starts[a], a);
+            if (other != null) {
+                throw new IllegalArgumentException("Agents " + other + " and " + a + " start in the same cell");
+            }
+            other = goalOwners.putIfAbsent(goals[a], a);
+            if (other != null) {
+                throw new IllegalArgumentException("Agents " + other + " and " + a + " share a goal");
+            }
+        }
+
+        // Tables for goals nobody is heading to any more would only hold memory
+        distances.keySet().retainAll(goalOwners.keySet());
+
+        expansions = 0;
+        peakReservations = 0;
+        reservationBytes = 0;
+        reservations.clear();
+        List<Plan> plans = window == 0
+                ? planFullHorizon(agents, starts, goals, stop)
+                : planWindowed(agents, starts, goals, stop);
+        planNanos = System.nanoTime() - started;
+        return plans == null ? List.of() : plans;
+    }
+
+    /**
+     * Space-time states expanded by the last {@link #plan(List)}, over all agents.
+     */
+    public long getExpansions() {
+        return expansions;
+    }
+
+    /**
+     * Most (time, cell) reservations held at once during the last plan.
+     */
+    public int getPeakReservations() {
+        return peakReservations;
+    }
+
+    public long getReservationBytes() {
+        return reservationBytes;
+    }
+
+    /**
+     * Memory held by the per-goal distance searches, which are kept between plans.
+     */
+    public long getDistanceTableBytes() {
+        long bytes = 0;
+        for (ReverseResumableSearch search : distances.values()) {
+            bytes += search.footprintBytes();
+        }
+        return bytes;
+    }
+
+    public long getPlanNanos() {
+        return planNanos;
+    }
+
+    @Override
+    public void close() {
+        grid.removeTerrainListener(terrainListener);
+    }
+
+    /**
+     * Counts the steps at which two plans hold the same cell or swap cells; 0 for a valid fleet plan.
+     */
+    public static int countConflicts(List<Plan> plans) {
+        int horizon = 0;
+        for (Plan plan : plans) {
+            horizon = Math.max(horizon, plan.steps());
+        }
+        int conflicts = 0;
+        Map<Integer, Integer> holders = new HashMap<>();
+        for (int time = 0; time <= horizon; time++) {
+            holders.clear();
+            for (int a = 0; a < plans.size(); a++) {
+                if (holders.putIfAbsent(plans.get(a).cellAt(time), a) != null) {
+                    conflicts++;
+                }
+            }
+            if (time == horizon) {
+                break;
+            }
+            for (int a = 0; a < plans.size(); a++) {
+                Plan plan = plans.get(a);
+                int from = plan.cellAt(time);
+                int to = plan.cellAt(time + 1);
+                Integer other = holders.get(to);
+                if (from != to && other != null && other > a && plans.get(other).cellAt(time + 1) == from) {
+                    conflicts++;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Null when stopped.
+     */
+    private List<Plan> planFullHorizon(List<Agent> agents, int[] starts, int[] goals, BooleanSupplier stop) {
+        int count = agents.size();
+        int[] order = new int[count];
+        Arrays.setAll(order, a -> a);
+        int[][] routes = new int[count][];
+        boolean[] arrived = new boolean[count];
+        boolean[] blocked = new boolean[count];
+        int restarts = 0;
+        for (int next = 0; next < count; next++) {
+            if (stop.getAsBoolean()) {
+                return null;
+            }
+            if (next == 0) {
+                reservations.clear();
+                Arrays.fill(blocked, false);
+            }
+            int a = order[next];
+            int[] cells = planRoute(a, starts[a], goals[a], count);
+            if (cells == null) {
+                // Every stop within reach is crossed later by an agent before it: plan it first
+                // instead, and everyone else around it
+                if (next == 0 || restarts == count) {
+                    blocked[a] = true;
+                    cells = new int[]{starts[a]};
+                } else {
+                    System.arraycopy(order, 0, order, 1, next);
+                    order[0] = a;
+                    restarts++;
+                    next = -1;
+                    continue;
+                }
+            }
+            for (int time = 0; time < cells.length; time++) {
+                reservations.reserve(cells[time], time, a);
+            }
+            reservations.park(cells[cells.length - 1], cells.length - 1, a);
+            routes[a] = cells;
+            arrived[a] = !blocked[a] && lastSearchArrived;
+        }
+        peakReservations = reservations.size();
+        reservationBytes = reservations.footprintBytes();
+
+        List<Plan> plans = new ArrayList<>(count);
+        for (int a = 0; a < count; a++) {
+            plans.add(new Plan(agents.get(a), routes[a], arrived[a], blocked[a], costOf(routes[a], routes[a].length)));
+        }
+        return plans;
+    }
+
+    /**
+     * The agent's whole plan: to its goal, or else to the stop nearest the goal that no agent
+     * before it crosses afterwards. Null when there is no such stop within reach.
+     */
+    private int[] planRoute(int agent, int start, int goal, int agents) {
+        ReverseResumableSearch distance = distanceTo(goal, start);
+        int estimate = distance.distance(start);
+        if (estimate == ReverseResumableSearch.UNREACHABLE) {
+            lastSearchArrived = false;
+            return reservations.lastBusy(start) <= 0 ? new int[]{start} : null;
+        }
+        // The goal may be crossed by an earlier agent late; the limit must reach past that
+        int limit = horizon(estimate, agents);
+        int goalBusy = reservations.lastBusy(goal);
+        if (goalBusy != Integer.MAX_VALUE) {
+            limit = Math.max(limit, horizon(goalBusy + estimate, agents));
+        }
+        int end = search(agent, start, 0, limit, goal, distance, false);
+        return end < 0 ? null : trace(end);
+    }
+
+    /**
+     * Null when stopped.
+     */
+    private List<Plan> planWindowed(List<Agent> agents, int[] starts, int[] goals, BooleanSupplier stop) {
+        int count = agents.size();
+        int stride = Math.max(1, window / 2);
+        int[] positions = starts.clone();
+        IntList[] timelines = new IntList[count];
+        ReverseResumableSearch[] searches = new ReverseResumableSearch[count];
+        int maxSteps = 0;
+        for (int a = 0; a < count; a++) {
+            timelines[a] = new IntList();
+            timelines[a].add(starts[a]);
+            searches[a] = distanceTo(goals[a], starts[a]);
+            int estimate = searches[a].distance(starts[a]);
+            if (estimate != ReverseResumableSearch.UNREACHABLE) {
+                maxSteps = Math.max(maxSteps, horizon(estimate, count));
+            }
+        }
+
+        int[][] segments = new int[count][];
+        int blocked = -1;
+        for (int time = 0; time < maxSteps && !allHome(positions, goals); time += stride) {
+            int[] order = roundOrder(positions, goals);
+            int restarts = 0;
+            for (int next = 0; next < count; next++) {
+                if (stop.getAsBoolean()) {
+                    return null;
+                }
+                if (next == 0) {
+                    reservations.clear();
+                }
+                int a = order[next];
+                int[] segment = planSegment(a, positions[a], time, goals[a], searches[a]);
+                if (segment == null) {
+                    // Nothing within the window is safe from the agents before it: plan it first
+                    // instead, where waiting is always safe, and everyone else around it
+                    if (next == 0 || restarts == count) {
+                        blocked = a;
+                        break;
+                    }
+                    System.arraycopy(order, 0, order, 1, next);
+                    order[0] = a;
+                    restarts++;
+                    next = -1;
+                    continue;
+                }
+                for (int i = 0; i <= window; i++) {
+                    reservations.reserve(segment[i], time + i, a);
+                }
+                segments[a] = segment;
+            }
+            if (blocked >= 0) {
+                // No safe segment for everyone; the fleet stops where it stands, all apart
+                break;
+            }
+            peakReservations = Math.max(peakReservations, reservations.size());
+            reservationBytes = Math.max(reservationBytes, reservations.footprintBytes());
+            for (int a = 0; a < count; a++) {
+                for (int i = 1; i <= stride; i++) {
+                    timelines[a].add(segments[a][i]);
+                }
+                positions[a] = segments[a][stride];
+            }
+        }
+
+        List<Plan> plans = new ArrayList<>(count);
+        for (int a = 0; a < count; a++) {
+            int[] cells = timelines[a].toArray();
+            // Waiting at the goal after the last arrival is not part of the plan
+            int length = cells.length;
+            while (length > 1 && cells[length - 1] == cells[length - 2]) {
+                length--;
+            }
+            cells = Arrays.copyOf(cells, length);
+            plans.add(new Plan(agents.get(a), cells, positions[a] == goals[a], a == blocked, costOf(cells, length)));
+        }
+        return plans;
+    }
+
+    /**
+     * The agent's cells for the {@code window} steps from {@code time}, or null when nothing it
+     * can do is free of the reservations all the way. A plan that stops short (at the goal, or
+     * where the budget ran out) waits in place for the rest of the window; failing that, the
+     * agent waits where it stands.
+     */
+    private int[] planSegment(int agent, int position, int time, int goal, ReverseResumableSearch distance) {
+        if (distance.distance(position) != ReverseResumableSearch.UNREACHABLE) {
+            int end = search(agent, position, time, time + window, goal, distance, true);
+            int[] segment = padWithWaits(agent, trace(end), time);
+            if (segment != null) {
+                return segment;
+            }
+        }
+        return padWithWaits(agent, new int[]{position}, time);
+    }
+
+    /**
+     * The segment followed by waits up to the window's end, or null if any of the waits is taken.
+     */
+    private int[] padWithWaits(int agent, int[] segment, int time) {
+        int planned = segment.length;
+        int last = segment[planned - 1];
+        for (int i = planned - 1; i < window; i++) {
+            if (!reservations.canMove(last, last, time + i, agent)) {
+                return null;
+            }
+        }
+        int[] padded = Arrays.copyOf(segment, window + 1);
+        Arrays.fill(padded, planned, window + 1, last);
+        return padded;
+    }
+
+    /**
+     * Space-time A* for one agent from {@code start} at {@code startTime}, up to {@code endTime}.
+     * Returns the state the plan ends in: at the goal, once the goal is free for good; at the
+     * window's end for a windowed search, or else the closest state found; without a window, the
+     * closest state it can stay in for good, or -1 if there is none. Only arriving sets
+     * {@link #lastSearchArrived}.
+     */
+    private int search(int agent, int start, int startTime, int endTime, int goal,
+                       ReverseResumableSearch distance, boolean windowed) {
+        stateCount = 0;
+        seen.clear();
+        open.clear();
+        int first = addState(start, startTime, 0, distance.distance(start), -1);
+        seen.put(key(start, startTime), first);
+        open.push(priority(first), first);
+        int best = first;
+        long budget = EXPANSIONS_PER_STEP * (endTime - startTime + 1);
+        long expanded = 0;
+        lastSearchArrived = false;
+
+        while (!open.isEmpty() && expanded < budget) {
+            long priority = open.topKey();
+            int state = open.topValue();
+            open.pop();
+            if (stateClosed[state] || priority != priority(state)) {
+                continue;
+            }
+            stateClosed[state] = true;
+            expanded++;
+            int cell = stateCell[state];
+            int time = stateTime[state];
+            if (cell == goal && reservations.lastBusy(goal) <= time) {
+                lastSearchArrived = true;
+                best = state;
+                break;
+            }
+            if (stateH[state] < stateH[best] || (stateH[state] == stateH[best] && time > stateTime[best])) {
+                best = state;
+            }
+            if (time == endTime) {
+                if (windowed) {
+                    // Cheapest frontier state at the window's end: the rest is left to the heuristic
+                    best = state;
+                    break;
+                }
+                continue;
+            }
+            int row = cell / cols;
+            int col = cell % cols;
+            expand(agent, state, cell, time, cell, distance);
+            if (row > 0) {
+                expand(agent, state, cell, time, cell - cols, distance);
+            }
+            if (row < grid.getRows() - 1) {
+                expand(agent, state, cell, time, cell + cols, distance);
+            }
+            if (col > 0) {
+                expand(agent, state, cell, time, cell - 1, distance);
+            }
+            if (col < cols - 1) {
+                expand(agent, state, cell, time, cell + 1, distance);
+            }
+        }
+        expansions += expanded;
+        if (!lastSearchArrived && !windowed) {
+            return closestStop();
+        }
+        return best;
+    }
+
+    /**
+     * The state of the last search closest to the goal, by heuristic and then by time, whose cell
+     * no reservation holds after it; -1 when every state found may yet be run into.
+     */
+    private int closestStop() {
+        int best = -1;
+        for (int state = 0; state < stateCount; state++) {
+            if (reservations.lastBusy(stateCell[state]) > stateTime[state]) {
+                continue;
+            }
+            if (best < 0 || stateH[state] < stateH[best]
+                    || (stateH[state] == stateH[best] && stateTime[state] > stateTime[best])) {
+                best = state;
+            }
+        }
+        return best;
+    }
+
+    private void expand(int agent, int state, int cell, int time, int next, ReverseResumableSearch distance) {
+        if (next != cell && (!grid.isPassable(next) || grid.isConsecutiveWater(cell, next))) {
+            return;
+        }
+        if (!reservations.canMove(cell, next, time, agent)) {
+            return;
+        }
+        int h = distance.distance(next);
+        if (h == ReverseResumableSearch.UNREACHABLE) {
+            return;
+        }
+        int g = stateG[state] + (next == cell ? WAIT_COST : (int) grid.movementCost(next));
+        long key = key(next, time + 1);
+        int known = seen.get(key, -1);
+        if (known < 0) {
+            int added = addState(next, time + 1, g, h, state);
+            seen.put(key, added);
+            open.push(priority(added), added);
+        } else if (!stateClosed[known] && g < stateG[known]) {
+            stateG[known] = g;
+            stateParent[known] = state;
+            open.push(priority(known), known);
+        }
+    }
+
+    private int addState(int cell, int time, int g, int h, int parent) {
+        if (stateCount == stateCell.length) {
+            int capacity = stateCount * 2;
+            stateCell = Arrays.copyOf(stateCell, capacity);
+            stateTime = Arrays.copyOf(stateTime, capacity);
+            stateG = Arrays.copyOf(stateG, capacity);
+            stateH = Arrays.copyOf(stateH, capacity);
+            stateParent = Arrays.copyOf(stateParent, capacity);
+            stateClosed = Arrays.copyOf(stateClosed, capacity);
+        }
+        int state = stateCount++;
+        stateCell[state] = cell;
+        stateTime[state] = time;
+        stateG[state] = g;
+        stateH[state] = h;
+        stateParent[state] = parent;
+        stateClosed[state] = false;
+        return state;
+    }
+
+    /**
+     * f = g + h first, then the larger g, so ties go to the state further along.
+     */
+    private long priority(int state) {
+        return (long) (stateG[state] + stateH[state]) << 32 | (Integer.MAX_VALUE - stateG[state]);
+    }
+
+    /**
+     * Cells of the states leading to {@code state}, one per time step.
+     */
+    private int[] trace(int state) {
+        int[] cells = new int[stateTime[state] - stateTime[0] + 1];
+        for (int at = state; at >= 0; at = stateParent[at]) {
+            cells[stateTime[at] - stateTime[0]] = stateCell[at];
+        }
+        return cells;
+    }
+
+    private ReverseResumableSearch distanceTo(int goal, int origin) {
+        return distances.computeIfAbsent(goal, _ -> new ReverseResumableSearch(grid, goal, origin, guide));
+    }
+
+    /**
+     * Step limit for an agent whose goal is {@code estimate} away: room for detours and for
+     * waiting on every other agent.
+     */
+    private static int horizon(int estimate, int agents) {
+        return (int) Math.min(Integer.MAX_VALUE / 2, Math.max(MIN_HORIZON, 2L * estimate + 2L * agents));
+    }
+
+    private double costOf(int[] cells, int length) {
+        double cost = 0;
+        for (int i = 1; i < length; i++) {
+            cost += cells[i] == cells[i - 1] ? WAIT_COST : grid.movementCost(cells[i]);
+        }
+        return cost;
+    }
+
+    /**
+     * Agents still on their way first, in priority order, then those already home. An agent
+     * sitting on its goal would otherwise claim it for the whole window before anyone who has
+     * to pass through had a say; planned last, it steps aside when it has to.
+     */
+    private static int[] roundOrder(int[] positions, int[] goals) {
+        int[] order = new int[positions.length];
+        int next = 0;
+        for (int a = 0; a < positions.length; a++) {
+            if (positions[a] != goals[a]) {
+                order[next++] = a;
+            }
+        }
+        for (int a = 0; a < positions.length; a++) {
+            if (positions[a] == goals[a]) {
+                order[next++] = a;
+            }
+        }
+        return order;
+    }
+
+    private static boolean allHome(int[] positions, int[] goals) {
+        return Arrays.equals(positions, goals);
+    }
+
+    private int cellOf(Coordinate coordinate, String role, int agent) {
+        if (!grid.isInside(coordinate.row(), coordinate.col())) {
+            throw new IllegalArgumentException("Agent " + agent + " " + role + " " + coordinate + " is outside the maze");
+        }
+        int cell = grid.index(coordinate.row(), coordinate.col());
+        if (!grid.isPassable(cell)) {
+            throw new IllegalArgumentException("Agent " + agent + " " + role + " " + coordinate + " is a wall");
+        }
+        return cell;
+    }
+
+    private static long key(int cell, int time) {
+        return (long) time << 32 | cell;
+    }
+}
@@ -0,0 +1,65 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+/**
+ * Listener that only counts events and times the search. Counters are reset when a new search
+ * starts, so one instance can be reused across solves.
+ */
+public final class CountingSearchListener implements SearchListener {
+    private long nodesExpanded;
+    private long pushes;
+    private long wallRejections;
+    private long waterChainRejections;
+    private long batteryRejections;
+    private boolean goalReached;
+    private long startNanos;
+    private long elapsedNanos;
+
+    public CountingSearchListener() {
+    }
+
+    @Override
+    public void searchStarted(int start, int goal) {
+        nodesExpanded = 0;
+        pushes = 0;
+        wallRejections = 0;
+        waterChainRejections = 0;
+        batteryRejections = 0;
+        goalReached = false;
+        elapsedNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void nodeExpanded(int cell, double g, int battery) {
+        nodesExpanded++;
+    }
+
+    @Override
+    public void nodePushed(int cell, double f) {
+        pushes++;
+    }
+
+    @Override
+    public void neighborRejected(int cell, RejectReason reason) {
+        switch (reason) {
+            case WALL -> wallRejections++;
+            case WATER_CHAIN -> waterChainRejections++;
+            case BATTERY -> batteryRejections++;
+        }
+    }
+
+    @Override
+    public void goalFound(int cell, double cost, int battery) {
+        goalReached = true;
+    }
+
+    @Override
+    public void searchFinished(boolean goalReached) {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public SearchStats getStats() {
+        return new SearchStats(nodesExpanded, pushes, wallRejections, waterChainRejections,
+                batteryRejections, goalReached, elapsedNanos);
+    }
+}
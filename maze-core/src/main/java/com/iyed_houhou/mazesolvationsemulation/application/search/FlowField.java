@@ -0,0 +1,268 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.Arrays;
+
+/**
+ * Cheapest way from every cell to one goal, from a single Dijkstra run backwards from the goal.
+ * Each cell keeps its cost to the goal and the direction of its first step, so the path from any
+ * start is read off in time proportional to its length, with no search. Worth it once several
+ * robots head for the same goal; one robot alone is better served by A*.
+ * <p>
+ * Tables are an int and a byte per cell. Battery is not taken into account: the path is the
+ * cheapest one, and callers check its drain themselves. As in the searches, a robot standing in a
+ * wall may step out of it: from a wall cell, the field leads to the open neighbour with the
+ * cheapest way on.
+ * <p>
+ * A field only holds for the terrain it was built on. Edits through the grid mark it stale,
+ * reading a stale field throws, and {@link #refresh()} rebuilds it. Reads may come from many
+ * threads at once; builds may not overlap them.
+ */
+public class FlowField implements AutoCloseable {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // First-step directions; NONE at the goal and wherever the goal cannot be reached
+    private static final byte NONE = 0;
+    private static final byte UP = 1;
+    private static final byte DOWN = 2;
+    private static final byte LEFT = 3;
+    private static final byte RIGHT = 4;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final int goal;
+    private final int[] distance;  // cell -> cost to the goal
+    private final byte[] next;     // cell -> direction of the first step towards the goal
+    private final MazeGrid.TerrainListener terrainListener;
+    private volatile boolean stale;
+    private long buildNanos;
+
+    /**
+     * Builds the field for the goal cell, which must be passable.
+     */
+    public FlowField(MazeGrid grid, int goal) {
+        this(grid, goal, true);
+    }
+
+    private FlowField(MazeGrid grid, int goal, boolean build) {
+        if (!MazeGrid.hasIntegralCosts()) {
+            throw new IllegalArgumentException("Flow fields need whole-number terrain costs");
+        }
+        if (goal < 0 || goal >= grid.size() || !grid.isPassable(goal)) {
+            throw new IllegalArgumentException("Flow field goal must be a passable cell: " + goal);
+        }
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.goal = goal;
+        this.distance = new int[grid.size()];
+        this.next = new byte[grid.size()];
+        this.terrainListener = (index, previous, current) -> stale = true;
+        grid.addTerrainListener(terrainListener);
+        stale = true;
+        if (build) {
+            build();
+        }
+    }
+
+    /**
+     * A field registered with the grid but not built yet, so a batch of them can be built on
+     * several threads through {@link #refresh()}.
+     */
+    static FlowField unbuilt(MazeGrid grid, int goal) {
+        return new FlowField(grid, goal, false);
+    }
+
+    /**
+     * Bytes a field over the grid holds in its tables.
+     */
+    public static long tableBytes(MazeGrid grid) {
+        return (long) grid.size() * (Integer.BYTES + 1);
+    }
+
+    public int getGoal() {
+        return goal;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Rebuilds the field if the terrain changed since it was built. Returns whether it did.
+     */
+    public boolean refresh() {
+        if (!stale) {
+            return false;
+        }
+        build();
+        return true;
+    }
+
+    public boolean isReachable(int cell) {
+        checkFresh();
+        return distance[cell] != UNREACHABLE || wallExit(cell) >= 0;
+    }
+
+    /**
+     * Cost of the cheapest path from the cell to the goal, or infinity when there is none.
+     */
+    public double costFrom(int cell) {
+        checkFresh();
+        if (distance[cell] != UNREACHABLE) {
+            return distance[cell];
+        }
+        int exit = wallExit(cell);
+        return exit < 0 ? Double.POSITIVE_INFINITY : distance[exit] + grid.movementCost(exit);
+    }
+
+    /**
+     * The cell the cheapest path from {@code cell} steps into first, or -1 at the goal and where
+     * the goal cannot be reached.
+     */
+    public int nextCell(int cell) {
+        checkFresh();
+        return distance[cell] != UNREACHABLE ? step(cell, next[cell]) : wallExit(cell);
+    }
+
+    /**
+     * The cheapest path from the start to the goal, both included, or the empty path when the goal
+     * cannot be reached from there.
+     */
+    public MazePath pathFrom(int start) {
+        checkFresh();
+        int first = start;
+        if (distance[start] == UNREACHABLE) {
+            first = wallExit(start);
+            if (first < 0) {
+                return new MazePath();
+            }
+        }
+        int length = first == start ? 1 : 2;
+        for (int cell = first; cell != goal; cell = step(cell, next[cell])) {
+            length++;
+        }
+        int[] cells = new int[length];
+        cells[0] = start;
+        int cell = first;
+        for (int i = first == start ? 0 : 1; i < length; i++) {
+            cells[i] = cell;
+            cell = step(cell, next[cell]);
+        }
+        return MazePath.ofCells(cells, 0, length, cols);
+    }
+
+    /**
+     * Wall-clock time of the last build.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Stops following terrain edits. The field must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        grid.removeTerrainListener(terrainListener);
+    }
+
+    private void checkFresh() {
+        if (stale) {
+            throw new IllegalStateException("Flow field to " + goal + " is stale; refresh it first");
+        }
+    }
+
+    /**
+     * For a wall cell, the open neighbour from which the goal is cheapest to reach, counting the
+     * step into it; -1 for open cells and for walls with no way on.
+     */
+    private int wallExit(int cell) {
+        if (grid.isPassable(cell)) {
+            return -1;
+        }
+        int row = cell / cols;
+        int col = cell % cols;
+        int exit = -1;
+        exit = cheaperExit(exit, row > 0 ? cell - cols : -1);
+        exit = cheaperExit(exit, row < rows - 1 ? cell + cols : -1);
+        exit = cheaperExit(exit, col > 0 ? cell - 1 : -1);
+        exit = cheaperExit(exit, col < cols - 1 ? cell + 1 : -1);
+        return exit;
+    }
+
+    private int cheaperExit(int exit, int neighbor) {
+        if (neighbor < 0 || distance[neighbor] == UNREACHABLE) {
+            return exit;
+        }
+        if (exit < 0 || distance[neighbor] + grid.movementCost(neighbor) < distance[exit] + grid.movementCost(exit)) {
+            return neighbor;
+        }
+        return exit;
+    }
+
+    private int step(int cell, byte direction) {
+        return switch (direction) {
+            case UP -> cell - cols;
+            case DOWN -> cell + cols;
+            case LEFT -> cell - 1;
+            case RIGHT -> cell + 1;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Dijkstra from the goal over reversed moves: stepping back from a cell to a neighbour costs
+     * what entering the cell costs. Each cell's direction points at the cell it was last relaxed
+     * from, which is its successor on a cheapest path once it is settled.
+     */
+    private void build() {
+        long started = System.nanoTime();
+        stale = false;
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(next, NONE);
+        OpenList open = OpenList.create(OpenList.defaultKind(), grid.size(), (int) Math.ceil(MazeGrid.maxMovementCost()));
+        distance[goal] = 0;
+        open.insert(goal, 0);
+        while (!open.isEmpty()) {
+            int cell = open.poll();
+            int reached = distance[cell] + (int) grid.movementCost(cell);
+            int row = cell / cols;
+            int col = cell % cols;
+            if (row > 0) {
+                relax(cell, cell - cols, reached, DOWN, open);
+            }
+            if (row < rows - 1) {
+                relax(cell, cell + cols, reached, UP, open);
+            }
+            if (col > 0) {
+                relax(cell, cell - 1, reached, RIGHT, open);
+            }
+            if (col < cols - 1) {
+                relax(cell, cell + 1, reached, LEFT, open);
+            }
+        }
+        buildNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * {@code towardsCell} is the direction from the neighbour back to the cell.
+     */
+    private void relax(int cell, int neighbor, int reached, byte towardsCell, OpenList open) {
+        if (!grid.isPassable(neighbor) || grid.isConsecutiveWater(neighbor, cell)) {
+            return;
+        }
+        if (distance[neighbor] == UNREACHABLE) {
+            distance[neighbor] = reached;
+            next[neighbor] = towardsCell;
+            open.insert(neighbor, reached);
+        } else if (reached < distance[neighbor] && open.contains(neighbor)) {
+            distance[neighbor] = reached;
+            next[neighbor] = towardsCell;
+            open.decreaseKey(neighbor, reached);
+        }
+    }
+}
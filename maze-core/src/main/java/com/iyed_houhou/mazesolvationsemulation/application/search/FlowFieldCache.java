@@ -0,0 +1,113 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Flow fields for the goals asked about most recently, as many as fit a byte budget. A field
+ * hit by a terrain edit is rebuilt the next time it is asked for; the least recently used field
+ * makes room for a new one. Not thread-safe: fields handed out may be read concurrently, but
+ * the cache itself is used from one thread at a time.
+ */
+public class FlowFieldCache implements AutoCloseable {
+    private final MazeGrid grid;
+    private final int capacity;
+    private final Map<Integer, FlowField> fields = new LinkedHashMap<>(16, 0.75f, true);
+    private long builds;
+
+    /**
+     * Keeps at least one field, and as many more as {@code maxBytes} holds.
+     */
+    public FlowFieldCache(MazeGrid grid, long maxBytes) {
+        this.grid = grid;
+        this.capacity = Math.clamp(maxBytes / FlowField.tableBytes(grid), 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The up-to-date field for the goal, built or rebuilt if need be.
+     */
+    public FlowField get(int goal) {
+        FlowField field = fields.get(goal);
+        if (field == null) {
+            makeRoom();
+            field = new FlowField(grid, goal);
+            fields.put(goal, field);
+            builds++;
+        } else if (field.refresh()) {
+            builds++;
+        }
+        return field;
+    }
+
+    /**
+     * The field for the goal if it is cached and up to date, null otherwise; never builds.
+     */
+    public FlowField peek(int goal) {
+        FlowField field = fields.get(goal);
+        return field == null || field.isStale() ? null : field;
+    }
+
+    /**
+     * Makes sure the fields for the given goals are cached and up to date, building the missing
+     * and stale ones in parallel on the pool. Goals beyond the capacity are left out.
+     */
+    public void prepare(int[] goals, ForkJoinPool pool) {
+        List<FlowField> pending = new ArrayList<>();
+        int wanted = Math.min(goals.length, capacity);
+        for (int i = 0; i < wanted; i++) {
+            FlowField field = fields.get(goals[i]);
+            if (field == null) {
+                makeRoom();
+                // Registering with the grid is not thread-safe, so only the builds run in parallel
+                field = FlowField.unbuilt(grid, goals[i]);
+                fields.put(goals[i], field);
+            }
+            if (field.isStale()) {
+                pending.add(field);
+            }
+        }
+        if (pending.size() == 1) {
+            pending.getFirst().refresh();
+        } else if (!pending.isEmpty()) {
+            pool.submit(() -> pending.parallelStream().forEach(FlowField::refresh)).join();
+        }
+        builds += pending.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    /**
+     * Fields built or rebuilt so far.
+     */
+    public long getBuilds() {
+        return builds;
+    }
+
+    /**
+     * Drops every field; the cache may be used again afterwards.
+     */
+    @Override
+    public void close() {
+        fields.values().forEach(FlowField::close);
+        fields.clear();
+    }
+
+    private void makeRoom() {
+        var eldest = fields.values().iterator();
+        while (fields.size() >= capacity && eldest.hasNext()) {
+            eldest.next().close();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+/**
+ * Lower bound on the cost of getting from a cell to the goal, which orders A*'s open list.
+ * <p>
+ * Estimates must be consistent: across any move the estimate may fall by no more than the cost
+ * of the move, and may rise by no more than the dearest terrain's entry cost (the bucket queue
+ * sizes its window from that). A cell that provably cannot reach the goal may be estimated as
+ * infinite; the search then never queues it.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    double estimate(int cell, int goal);
+
+    /**
+     * Grid distance ignoring terrain: every step costs at least one.
+     */
+    static Heuristic manhattan(int cols) {
+        return (cell, goal) -> Math.abs(cell / cols - goal / cols) + Math.abs(cell % cols - goal % cols);
+    }
+}
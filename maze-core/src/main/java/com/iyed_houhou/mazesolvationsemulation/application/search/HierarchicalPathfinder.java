@@ -0,0 +1,505 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * HPA*-style pathfinder for large mazes. The grid is cut into square clusters; the cells where a
+ * path can cross from one cluster into the next become abstract nodes, and every cluster stores
+ * the in-cluster cost between each pair of its nodes. A query searches that small graph and then
+ * expands only the chosen segments back into cells.
+ * <p>
+ * Paths stay inside one cluster between two of its nodes, so they can cost a little more than the
+ * optimum; reachability is exact. When the refined path would drain more battery than the budget
+ * allows, the query is handed to {@link ResourceConstrainedSearch}.
+ * <p>
+ * The abstraction reads the grid directly. After editing terrain, call {@link #updateCell} or
+ * {@link #updateRegion} so that only the touched clusters are rebuilt. Not thread-safe.
+ */
+public class HierarchicalPathfinder {
+    public static final int DEFAULT_CLUSTER_SIZE = 32;
+
+    // Entrances at least this long get a transition at each end instead of one in the middle
+    private static final int LONG_ENTRANCE = 6;
+    private static final int NONE = -1;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final int clusterSize;
+    private final int clusterRows;
+    private final int clusterCols;
+
+    // Abstract nodes: cell -> node id, and the node pool indexed by id
+    private final int[] nodeOfCell;
+    private int[] nodeCell = new int[256];
+    private int[] nodeCluster = new int[256];
+    private int[] nodeLocal = new int[256];   // position in its cluster's node list
+    private final IntList freeNodes = new IntList();
+    private int nodeCapacity;                 // ids handed out so far, free or not
+    private int nodeCount;
+
+    // Per cluster: its node ids and the row-major matrix of in-cluster costs between them
+    private final int[][] clusterNodes;
+    private final double[][] clusterCosts;
+
+    private final ThreadLocal<ClusterSearch> buildSearches;
+    private final ClusterSearch querySearch;
+    private final long buildNanos;
+
+    // Abstract search buffers, sized to nodeCapacity + 2 (the query's start and goal)
+    private double[] abstractG = new double[0];
+    private int[] abstractParent = new int[0];
+    private int[] abstractReached = new int[0];
+    private int[] abstractClosed = new int[0];
+    private double[] entryCost = new double[0];  // start -> node, for nodes of the start cluster
+    private double[] exitCost = new double[0];   // node -> goal, for nodes of the goal cluster
+    private IndexedBinaryHeap abstractOpen = new IndexedBinaryHeap(0);
+    private int generation;
+
+    private ResourceConstrainedSearch exactSolver;
+
+    // Outcome of the last solve
+    private boolean goalReached;
+    private double goalCost;
+    private int goalBattery;
+    private boolean usedExactSolver;
+    private int abstractExpansions;
+
+    public HierarchicalPathfinder(MazeGrid grid) {
+        this(grid, DEFAULT_CLUSTER_SIZE);
+    }
+
+    public HierarchicalPathfinder(MazeGrid grid, int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        }
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.clusterSize = clusterSize;
+        this.clusterRows = (rows + clusterSize - 1) / clusterSize;
+        this.clusterCols = (cols + clusterSize - 1) / clusterSize;
+        this.nodeOfCell = new int[grid.size()];
+        Arrays.fill(nodeOfCell, NONE);
+        this.clusterNodes = new int[clusterRows * clusterCols][];
+        this.clusterCosts = new double[clusterRows * clusterCols][];
+        this.buildSearches = ThreadLocal.withInitial(() -> new ClusterSearch(grid, clusterSize));
+        this.querySearch = new ClusterSearch(grid, clusterSize);
+
+        long started = System.nanoTime();
+        for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+            clusterNodes[cluster] = new int[0];
+            rebuildNodes(cluster);
+        }
+        // Node ids are fixed now; the cost matrices are independent of each other
+        IntStream.range(0, clusterNodes.length).parallel()
+                .forEach(cluster -> rebuildCosts(cluster, buildSearches.get()));
+        this.buildNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * Refreshes the abstraction after the terrain of one cell changed.
+     */
+    public void updateCell(int row, int col) {
+        updateRegion(row, col, 1, 1);
+    }
+
+    /**
+     * Refreshes the abstraction after terrain changed inside the given rectangle. Clusters the
+     * rectangle touches are rebuilt, plus their neighbours when the change sits on a shared
+     * border, since the entrances on that border belong to both.
+     */
+    public void updateRegion(int top, int left, int height, int width) {
+        int firstRow = Math.max(0, top - 1) / clusterSize;
+        int lastRow = Math.min(rows - 1, top + height) / clusterSize;
+        int firstCol = Math.max(0, left - 1) / clusterSize;
+        int lastCol = Math.min(cols - 1, left + width) / clusterSize;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                rebuildNodes(r * clusterCols + c);
+            }
+        }
+        ClusterSearch search = buildSearches.get();
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                rebuildCosts(r * clusterCols + c, search);
+            }
+        }
+    }
+
+    public MazePath solve(int start, int goal, int initialBattery) {
+        goalReached = false;
+        usedExactSolver = false;
+        abstractExpansions = 0;
+        // Like the flat solver, only the goal has to be passable; the robot may start anywhere
+        if (start != goal && !grid.isPassable(goal)) {
+            return new MazePath();
+        }
+
+        IntList cells = new IntList();
+        cells.add(start);
+        if (start != goal && !searchAbstract(start, goal, cells)) {
+            // A start inside a wall is never an entrance, so its one step across a cluster
+            // border is invisible to the abstract graph; only the exact solver can rule it out
+            return grid.isPassable(start) ? new MazePath() : solveExactly(start, goal, initialBattery);
+        }
+
+        double cost = 0;
+        int drained = 0;
+        for (int i = 1; i < cells.size(); i++) {
+            cost += grid.movementCost(cells.get(i));
+            drained += grid.batteryConsumption(cells.get(i));
+        }
+        if (drained > initialBattery) {
+            // The detour through cluster entrances may be what breaks the budget
+            return solveExactly(start, goal, initialBattery);
+        }
+
+        goalReached = true;
+        goalCost = cost;
+        goalBattery = initialBattery - drained;
+        return MazePath.ofCells(cells.toArray(), 0, cells.size(), cols);
+    }
+
+    /**
+     * A* over the abstract graph with two temporary nodes for start and goal. On success the
+     * refined cells after {@code start} are appended to {@code cells}.
+     */
+    private boolean searchAbstract(int start, int goal, IntList cells) {
+        ensureSearchCapacity();
+        nextGeneration();
+        int startId = nodeCapacity;
+        int goalId = nodeCapacity + 1;
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(goal);
+        int goalRow = goal / cols;
+        int goalCol = goal % cols;
+
+        // Costs from every goal-cluster node to the goal, then from the start to every start-cluster node
+        runInCluster(goalCluster, goal, true, null);
+        for (int id : clusterNodes[goalCluster]) {
+            exitCost[id] = querySearch.distanceTo(nodeCell[id]);
+        }
+        runInCluster(startCluster, start, false, null);
+        for (int id : clusterNodes[startCluster]) {
+            entryCost[id] = querySearch.distanceTo(nodeCell[id]);
+        }
+        double direct = startCluster == goalCluster ? querySearch.distanceTo(goal) : Double.POSITIVE_INFINITY;
+
+        abstractOpen.clear();
+        abstractG[startId] = 0;
+        abstractParent[startId] = NONE;
+        abstractReached[startId] = generation;
+        abstractOpen.insert(startId, 0);
+
+        while (!abstractOpen.isEmpty()) {
+            int id = abstractOpen.poll();
+            abstractClosed[id] = generation;
+            abstractExpansions++;
+            if (id == goalId) {
+                break;
+            }
+            double g = abstractG[id];
+            if (id == startId) {
+                for (int next : clusterNodes[startCluster]) {
+                    relax(id, next, entryCost[next], goalRow, goalCol, goalId);
+                }
+                relax(id, goalId, direct, goalRow, goalCol, goalId);
+                continue;
+            }
+
+            int cluster = nodeCluster[id];
+            int[] ids = clusterNodes[cluster];
+            double[] costs = clusterCosts[cluster];
+            int local = nodeLocal[id];
+            for (int j = 0; j < ids.length; j++) {
+                if (j != local) {
+                    relax(id, ids[j], g + costs[local * ids.length + j], goalRow, goalCol, goalId);
+                }
+            }
+            int cell = nodeCell[id];
+            int row = cell / cols;
+            int col = cell % cols;
+            if (row > 0) {
+                crossBorder(id, cell, cell - cols, g, goalRow, goalCol, goalId);
+            }
+            if (row < rows - 1) {
+                crossBorder(id, cell, cell + cols, g, goalRow, goalCol, goalId);
+            }
+            if (col > 0) {
+                crossBorder(id, cell, cell - 1, g, goalRow, goalCol, goalId);
+            }
+            if (col < cols - 1) {
+                crossBorder(id, cell, cell + 1, g, goalRow, goalCol, goalId);
+            }
+            if (cluster == goalCluster) {
+                relax(id, goalId, g + exitCost[id], goalRow, goalCol, goalId);
+            }
+        }
+        if (abstractClosed[goalId] != generation) {
+            return false;
+        }
+        refine(start, goal, startId, goalId, cells);
+        return true;
+    }
+
+    private void crossBorder(int id, int cell, int neighbor, double g, int goalRow, int goalCol, int goalId) {
+        int next = nodeOfCell[neighbor];
+        if (next == NONE || nodeCluster[next] == nodeCluster[id] || grid.isConsecutiveWater(cell, neighbor)) {
+            return;
+        }
+        relax(id, next, g + grid.movementCost(neighbor), goalRow, goalCol, goalId);
+    }
+
+    private void relax(int from, int to, double g, int goalRow, int goalCol, int goalId) {
+        if (g == Double.POSITIVE_INFINITY || abstractClosed[to] == generation) {
+            return;
+        }
+        boolean seen = abstractReached[to] == generation;
+        if (seen && abstractG[to] <= g) {
+            return;
+        }
+        abstractG[to] = g;
+        abstractParent[to] = from;
+        double h = 0;
+        if (to != goalId) {
+            int cell = nodeCell[to];
+            h = Math.abs(cell / cols - goalRow) + Math.abs(cell % cols - goalCol);
+        }
+        if (seen) {
+            abstractOpen.decreaseKey(to, g + h);
+        } else {
+            abstractReached[to] = generation;
+            abstractOpen.insert(to, g + h);
+        }
+    }
+
+    /**
+     * Walks the abstract path and expands each in-cluster hop into cells; border crossings are
+     * single steps and need no search.
+     */
+    private void refine(int start, int goal, int startId, int goalId, IntList cells) {
+        IntList route = new IntList();
+        for (int id = goalId; id != NONE; id = abstractParent[id]) {
+            route.add(id);
+        }
+        route.reverse(0, route.size());
+
+        for (int i = 1; i < route.size(); i++) {
+            int from = route.get(i - 1);
+            int to = route.get(i);
+            int fromCell = from == startId ? start : nodeCell[from];
+            int toCell = to == goalId ? goal : nodeCell[to];
+            int cluster = clusterOf(fromCell);
+            if (cluster != clusterOf(toCell)) {
+                cells.add(toCell);
+                continue;
+            }
+            runInCluster(cluster, fromCell, false, new int[]{toCell});
+            querySearch.appendPath(toCell, cells);
+        }
+    }
+
+    private void rebuildNodes(int cluster) {
+        for (int id : clusterNodes[cluster]) {
+            nodeOfCell[nodeCell[id]] = NONE;
+            freeNodes.add(id);
+            nodeCount--;
+        }
+
+        int clusterRow = cluster / clusterCols;
+        int clusterCol = cluster % clusterCols;
+        int top = clusterRow * clusterSize;
+        int left = clusterCol * clusterSize;
+        int height = Math.min(clusterSize, rows - top);
+        int width = Math.min(clusterSize, cols - left);
+        IntList cells = new IntList();
+        if (clusterRow > 0) {
+            scanBorder(top * cols + left, (top - 1) * cols + left, 1, width, cells);
+        }
+        if (clusterRow < clusterRows - 1) {
+            int bottom = top + height - 1;
+            scanBorder(bottom * cols + left, (bottom + 1) * cols + left, 1, width, cells);
+        }
+        if (clusterCol > 0) {
+            scanBorder(top * cols + left, top * cols + left - 1, cols, height, cells);
+        }
+        if (clusterCol < clusterCols - 1) {
+            int right = left + width - 1;
+            scanBorder(top * cols + right, top * cols + right + 1, cols, height, cells);
+        }
+
+        // A corner cell can be picked by two borders; keep one node for it
+        IntList ids = new IntList(cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            int cell = cells.get(i);
+            if (nodeOfCell[cell] == NONE) {
+                int id = allocateNode();
+                nodeCell[id] = cell;
+                nodeCluster[id] = cluster;
+                nodeLocal[id] = ids.size();
+                nodeOfCell[cell] = id;
+                ids.add(id);
+            }
+        }
+        clusterNodes[cluster] = ids.toArray();
+    }
+
+    /**
+     * Finds the entrances along one border, given the first cell on this side ({@code inside}),
+     * the cell facing it ({@code outside}) and the stride between consecutive border cells, and
+     * adds the inside cell of every transition. An entrance is a run of crossable pairs along
+     * which both sides can also be walked, so every pair in it can reach the chosen transition.
+     * Both clusters scan a shared border in the same order and so pick the same transitions.
+     */
+    private void scanBorder(int inside, int outside, int stride, int length, IntList out) {
+        int runStart = NONE;
+        for (int i = 0; i <= length; i++) {
+            int a = inside + i * stride;
+            int b = outside + i * stride;
+            boolean crossable = i < length && grid.isPassable(a) && grid.isPassable(b) && !grid.isConsecutiveWater(a, b);
+            boolean continues = crossable && runStart != NONE
+                    && !grid.isConsecutiveWater(a - stride, a) && !grid.isConsecutiveWater(b - stride, b);
+            if (runStart != NONE && !continues) {
+                int runLength = i - runStart;
+                if (runLength < LONG_ENTRANCE) {
+                    out.add(inside + (runStart + runLength / 2) * stride);
+                } else {
+                    out.add(inside + runStart * stride);
+                    out.add(inside + (i - 1) * stride);
+                }
+                runStart = NONE;
+            }
+            if (crossable && runStart == NONE) {
+                runStart = i;
+            }
+        }
+    }
+
+    private void rebuildCosts(int cluster, ClusterSearch search) {
+        int[] ids = clusterNodes[cluster];
+        int[] cells = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            cells[i] = nodeCell[ids[i]];
+        }
+        double[] costs = new double[ids.length * ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            runInCluster(search, cluster, cells[i], false, cells);
+            for (int j = 0; j < ids.length; j++) {
+                costs[i * ids.length + j] = search.distanceTo(cells[j]);
+            }
+        }
+        clusterCosts[cluster] = costs;
+    }
+
+    private void runInCluster(int cluster, int source, boolean reverse, int[] targets) {
+        runInCluster(querySearch, cluster, source, reverse, targets);
+    }
+
+    private void runInCluster(ClusterSearch search, int cluster, int source, boolean reverse, int[] targets) {
+        int top = cluster / clusterCols * clusterSize;
+        int left = cluster % clusterCols * clusterSize;
+        search.run(top, left, Math.min(clusterSize, rows - top), Math.min(clusterSize, cols - left),
+                source, reverse, targets);
+    }
+
+    private int clusterOf(int cell) {
+        return cell / cols / clusterSize * clusterCols + cell % cols / clusterSize;
+    }
+
+    private int allocateNode() {
+        nodeCount++;
+        if (!freeNodes.isEmpty()) {
+            return freeNodes.removeLast();
+        }
+        if (nodeCapacity == nodeCell.length) {
+            nodeCell = Arrays.copyOf(nodeCell, nodeCapacity * 2);
+            nodeCluster = Arrays.copyOf(nodeCluster, nodeCapacity * 2);
+            nodeLocal = Arrays.copyOf(nodeLocal, nodeCapacity * 2);
+        }
+        return nodeCapacity++;
+    }
+
+    private void ensureSearchCapacity() {
+        int needed = nodeCapacity + 2;
+        if (abstractG.length >= needed) {
+            return;
+        }
+        int capacity = Math.max(needed, abstractG.length * 2);
+        abstractG = new double[capacity];
+        abstractParent = new int[capacity];
+        abstractReached = new int[capacity];
+        abstractClosed = new int[capacity];
+        entryCost = new double[capacity];
+        exitCost = new double[capacity];
+        abstractOpen = new IndexedBinaryHeap(capacity);
+        generation = 0;
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(abstractReached, 0);
+            Arrays.fill(abstractClosed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    private MazePath solveExactly(int start, int goal, int initialBattery) {
+        if (exactSolver == null) {
+            exactSolver = new ResourceConstrainedSearch(new SearchContext(grid));
+        }
+        usedExactSolver = true;
+        MazePath path = exactSolver.solve(start, goal, initialBattery);
+        goalReached = exactSolver.isGoalReached();
+        goalCost = exactSolver.getGoalCost();
+        goalBattery = exactSolver.getGoalBattery();
+        return path;
+    }
+
+    public boolean isGoalReached() {
+        return goalReached;
+    }
+
+    public double getGoalCost() {
+        return goalCost;
+    }
+
+    public int getGoalBattery() {
+        return goalBattery;
+    }
+
+    /**
+     * Whether the last solve had to fall back to the exact battery-constrained search.
+     */
+    public boolean usedExactSolver() {
+        return usedExactSolver;
+    }
+
+    /**
+     * Abstract nodes expanded by the last solve.
+     */
+    public int getAbstractExpansions() {
+        return abstractExpansions;
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    public int getClusterCount() {
+        return clusterNodes.length;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+}
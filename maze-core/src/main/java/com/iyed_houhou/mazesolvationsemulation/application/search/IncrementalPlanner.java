@@ -0,0 +1,398 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.Arrays;
+
+/**
+ * D* Lite planner for a fixed goal. It searches backwards from the goal and keeps its search
+ * state between calls, so when terrain changes or the robot moves on, {@link #replanFrom} only
+ * repairs the part of the cost-to-goal field that the change invalidated instead of solving the
+ * whole maze again.
+ * <p>
+ * The planner registers itself with the grid and picks up every change made through
+ * {@link MazeGrid#setTerrainAt} (and so through {@code MazeCell.setTerrain}); edits are applied
+ * on the next replan. Like the flat solver it minimizes movement cost; a path that would drain
+ * more than the remaining battery is handed to {@link ResourceConstrainedSearch}. Call
+ * {@link #close()} to stop listening. Not thread-safe, and terrain must be edited on the thread
+ * that replans.
+ */
+public class IncrementalPlanner implements AutoCloseable {
+    private static final double INFINITY = Double.POSITIVE_INFINITY;
+    // More pending edits than size / RESTART_DIVISOR and a fresh search is cheaper than a repair
+    private static final int RESTART_DIVISOR = 8;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final int goal;
+
+    // g: current cost-to-goal estimate, rhs: one-step lookahead; valid when stamp == generation
+    private final double[] g;
+    private final double[] rhs;
+    private final int[] stamp;
+    private int generation;
+    private final PairKeyHeap openList;
+
+    private final IntList pendingChanges = new IntList();
+    private final MazeGrid.TerrainListener terrainListener;
+    private int start;
+    private double keyModifier;   // k_m: heuristic drift accumulated as the robot moves
+    private boolean needsRestart = true;
+
+    private ResourceConstrainedSearch exactSolver;
+
+    // Outcome of the last replan
+    private boolean goalReached;
+    private double goalCost;
+    private int goalBattery;
+    private boolean usedExactSolver;
+    private int expansions;
+
+    public IncrementalPlanner(MazeGrid grid, int start, int goal) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.start = start;
+        this.goal = goal;
+        this.g = new double[grid.size()];
+        this.rhs = new double[grid.size()];
+        this.stamp = new int[grid.size()];
+        this.openList = new PairKeyHeap(grid.size());
+        this.terrainListener = (index, previous, current) -> recordChange(index);
+        grid.addTerrainListener(terrainListener);
+    }
+
+    public int getGoal() {
+        return goal;
+    }
+
+    /**
+     * Plans (or re-plans) from the position the planner was created with or last moved to.
+     */
+    public MazePath plan(int initialBattery) {
+        return replanFrom(start, initialBattery);
+    }
+
+    /**
+     * Returns the cheapest path from {@code position} to the goal that the remaining battery
+     * allows, reusing the previous search and repairing it for terrain edited since then. Returns
+     * an empty path when there is none.
+     */
+    public MazePath replanFrom(int position, int batteryLeft) {
+        goalReached = false;
+        usedExactSolver = false;
+        expansions = 0;
+
+        if (needsRestart) {
+            restart(position);
+        } else {
+            keyModifier += heuristic(start, position);
+            start = position;
+            for (int i = 0; i < pendingChanges.size(); i++) {
+                terrainChanged(pendingChanges.get(i));
+            }
+        }
+        pendingChanges.clear();
+        computeShortestPath();
+
+        if (g(start) == INFINITY) {
+            return new MazePath();
+        }
+        IntList cells = extractPath();
+        double cost = 0;
+        int drained = 0;
+        for (int i = 1; i < cells.size(); i++) {
+            cost += grid.movementCost(cells.get(i));
+            drained += grid.batteryConsumption(cells.get(i));
+        }
+        if (drained > batteryLeft) {
+            return solveExactly(position, batteryLeft);
+        }
+
+        goalReached = true;
+        goalCost = cost;
+        goalBattery = batteryLeft - drained;
+        return MazePath.ofCells(cells.toArray(), 0, cells.size(), cols);
+    }
+
+    private void recordChange(int cell) {
+        if (needsRestart) {
+            return;
+        }
+        pendingChanges.add(cell);
+        if (pendingChanges.size() > grid.size() / RESTART_DIVISOR) {
+            // e.g. a regenerated maze: stop queueing and start over on the next replan
+            needsRestart = true;
+            pendingChanges.clear();
+        }
+    }
+
+    private void restart(int position) {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 0;
+        }
+        generation++;
+        openList.clear();
+        start = position;
+        keyModifier = 0;
+        needsRestart = false;
+        touch(goal);
+        rhs[goal] = 0;
+        openList.insert(goal, heuristic(start, goal), 0);
+    }
+
+    /**
+     * A cell's terrain sets the cost of every move into it and, through the water rule, whether
+     * it may be left for a neighbouring water cell; so it and its neighbours need a new lookahead.
+     */
+    private void terrainChanged(int cell) {
+        refreshLookahead(cell);
+        int row = cell / cols;
+        int col = cell % cols;
+        if (row > 0) {
+            refreshLookahead(cell - cols);
+        }
+        if (row < rows - 1) {
+            refreshLookahead(cell + cols);
+        }
+        if (col > 0) {
+            refreshLookahead(cell - 1);
+        }
+        if (col < cols - 1) {
+            refreshLookahead(cell + 1);
+        }
+    }
+
+    private void refreshLookahead(int cell) {
+        if (cell != goal) {
+            touch(cell);
+            rhs[cell] = bestSuccessor(cell);
+        }
+        updateVertex(cell);
+    }
+
+    private void computeShortestPath() {
+        while (true) {
+            double startKey = Math.min(g(start), rhs(start));
+            double topPrimary = openList.topPrimary();
+            double topSecondary = openList.topSecondary();
+            boolean topBeforeStart = topPrimary < startKey + keyModifier
+                    || (topPrimary == startKey + keyModifier && topSecondary < startKey);
+            if (openList.isEmpty() || (!topBeforeStart && rhs(start) == g(start))) {
+                return;
+            }
+
+            int cell = openList.peek();
+            expansions++;
+            double best = Math.min(g(cell), rhs(cell));
+            double primary = best + heuristic(start, cell) + keyModifier;
+            if (topPrimary < primary || (topPrimary == primary && topSecondary < best)) {
+                // Queued before the robot moved; its key has only grown since
+                openList.update(cell, primary, best);
+            } else if (g(cell) > rhs(cell)) {
+                g[cell] = rhs[cell];
+                openList.remove(cell);
+                double cellG = g[cell];
+                int row = cell / cols;
+                int col = cell % cols;
+                if (row > 0) {
+                    lowerLookahead(cell - cols, cell, cellG);
+                }
+                if (row < rows - 1) {
+                    lowerLookahead(cell + cols, cell, cellG);
+                }
+                if (col > 0) {
+                    lowerLookahead(cell - 1, cell, cellG);
+                }
+                if (col < cols - 1) {
+                    lowerLookahead(cell + 1, cell, cellG);
+                }
+            } else {
+                double oldG = g[cell];
+                g[cell] = INFINITY;
+                int row = cell / cols;
+                int col = cell % cols;
+                if (row > 0) {
+                    raiseLookahead(cell - cols, cell, oldG);
+                }
+                if (row < rows - 1) {
+                    raiseLookahead(cell + cols, cell, oldG);
+                }
+                if (col > 0) {
+                    raiseLookahead(cell - 1, cell, oldG);
+                }
+                if (col < cols - 1) {
+                    raiseLookahead(cell + 1, cell, oldG);
+                }
+                refreshLookahead(cell);
+            }
+        }
+    }
+
+    /**
+     * {@code successor} just got cheaper; {@code cell} may now do better by moving into it.
+     */
+    private void lowerLookahead(int cell, int successor, double successorG) {
+        if (cell != goal) {
+            touch(cell);
+            rhs[cell] = Math.min(rhs[cell], moveCost(cell, successor) + successorG);
+        }
+        updateVertex(cell);
+    }
+
+    /**
+     * {@code successor} got dearer; only a cell whose lookahead went through it has to look again.
+     */
+    private void raiseLookahead(int cell, int successor, double oldSuccessorG) {
+        if (cell != goal && rhs(cell) == moveCost(cell, successor) + oldSuccessorG) {
+            touch(cell);
+            rhs[cell] = bestSuccessor(cell);
+        }
+        updateVertex(cell);
+    }
+
+    private void updateVertex(int cell) {
+        double cellG = g(cell);
+        double cellRhs = rhs(cell);
+        boolean queued = openList.contains(cell);
+        if (cellG != cellRhs) {
+            double best = Math.min(cellG, cellRhs);
+            double primary = best + heuristic(start, cell) + keyModifier;
+            if (queued) {
+                openList.update(cell, primary, best);
+            } else {
+                openList.insert(cell, primary, best);
+            }
+        } else if (queued) {
+            openList.remove(cell);
+        }
+    }
+
+    private double bestSuccessor(int cell) {
+        double best = INFINITY;
+        int row = cell / cols;
+        int col = cell % cols;
+        if (row > 0) {
+            best = Math.min(best, moveCost(cell, cell - cols) + g(cell - cols));
+        }
+        if (row < rows - 1) {
+            best = Math.min(best, moveCost(cell, cell + cols) + g(cell + cols));
+        }
+        if (col > 0) {
+            best = Math.min(best, moveCost(cell, cell - 1) + g(cell - 1));
+        }
+        if (col < cols - 1) {
+            best = Math.min(best, moveCost(cell, cell + 1) + g(cell + 1));
+        }
+        return best;
+    }
+
+    /**
+     * Follows the cheapest successor from the start down the cost-to-goal field.
+     */
+    private IntList extractPath() {
+        IntList cells = new IntList();
+        int cell = start;
+        cells.add(cell);
+        while (cell != goal && cells.size() <= grid.size()) {
+            int row = cell / cols;
+            int col = cell % cols;
+            int next = -1;
+            double best = INFINITY;
+            if (row > 0 && moveCost(cell, cell - cols) + g(cell - cols) < best) {
+                next = cell - cols;
+                best = moveCost(cell, next) + g(next);
+            }
+            if (row < rows - 1 && moveCost(cell, cell + cols) + g(cell + cols) < best) {
+                next = cell + cols;
+                best = moveCost(cell, next) + g(next);
+            }
+            if (col > 0 && moveCost(cell, cell - 1) + g(cell - 1) < best) {
+                next = cell - 1;
+                best = moveCost(cell, next) + g(next);
+            }
+            if (col < cols - 1 && moveCost(cell, cell + 1) + g(cell + 1) < best) {
+                next = cell + 1;
+            }
+            cell = next;
+            cells.add(cell);
+        }
+        return cells;
+    }
+
+    private double moveCost(int from, int to) {
+        if (!grid.isPassable(to) || grid.isConsecutiveWater(from, to)) {
+            return INFINITY;
+        }
+        return grid.movementCost(to);
+    }
+
+    private double heuristic(int from, int to) {
+        return Math.abs(from / cols - to / cols) + Math.abs(from % cols - to % cols);
+    }
+
+    private double g(int cell) {
+        return stamp[cell] == generation ? g[cell] : INFINITY;
+    }
+
+    private double rhs(int cell) {
+        return stamp[cell] == generation ? rhs[cell] : INFINITY;
+    }
+
+    private void touch(int cell) {
+        if (stamp[cell] != generation) {
+            stamp[cell] = generation;
+            g[cell] = INFINITY;
+            rhs[cell] = INFINITY;
+        }
+    }
+
+    private MazePath solveExactly(int position, int batteryLeft) {
+        if (exactSolver == null) {
+            exactSolver = new ResourceConstrainedSearch(new SearchContext(grid));
+        }
+        usedExactSolver = true;
+        MazePath path = exactSolver.solve(position, goal, batteryLeft);
+        goalReached = exactSolver.isGoalReached();
+        goalCost = exactSolver.getGoalCost();
+        goalBattery = exactSolver.getGoalBattery();
+        return path;
+    }
+
+    /**
+     * Stops listening to the grid. The planner must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        grid.removeTerrainListener(terrainListener);
+    }
+
+    public boolean isGoalReached() {
+        return goalReached;
+    }
+
+    public double getGoalCost() {
+        return goalCost;
+    }
+
+    public int getGoalBattery() {
+        return goalBattery;
+    }
+
+    /**
+     * Whether the last replan needed the exact battery-constrained search.
+     */
+    public boolean usedExactSolver() {
+        return usedExactSolver;
+    }
+
+    /**
+     * Queue pops made by the last replan; a measure of how much work the repair took.
+     */
+    public int getExpansions() {
+        return expansions;
+    }
+}
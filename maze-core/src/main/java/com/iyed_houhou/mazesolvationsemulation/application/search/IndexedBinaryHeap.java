@@ -0,0 +1,129 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over cell indices with a position table, giving O(log n) insert,
+ * decrease-key and poll, and O(1) membership/priority lookups.
+ */
+public class IndexedBinaryHeap implements OpenList {
+    private final int[] heap;      // heap slot -> cell
+    private final int[] position;  // cell -> heap slot, -1 when not queued
+    private final double[] keys;   // cell -> priority
+    private int size;
+
+    public IndexedBinaryHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int cell) {
+        return position[cell] >= 0;
+    }
+
+    @Override
+    public double keyOf(int cell) {
+        return keys[cell];
+    }
+
+    @Override
+    public void insert(int cell, double key) {
+        keys[cell] = key;
+        heap[size] = cell;
+        position[cell] = size;
+        siftUp(size++);
+    }
+
+    @Override
+    public void decreaseKey(int cell, double key) {
+        keys[cell] = key;
+        siftUp(position[cell]);
+    }
+
+    /**
+     * Cell in a heap slot, 0 <= slot < size(). For passes over every queued cell in no particular order.
+     */
+    int cellAt(int slot) {
+        return heap[slot];
+    }
+
+    @Override
+    public int peek() {
+        return heap[0];
+    }
+
+    @Override
+    public int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    @Override
+    public void clear() {
+        // Only the queued cells need resetting, which keeps reuse cheap after small searches
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int cell = heap[slot];
+        double key = keys[cell];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parentCell = heap[parentSlot];
+            if (keys[parentCell] <= key) {
+                break;
+            }
+            heap[slot] = parentCell;
+            position[parentCell] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int cell = heap[slot];
+        double key = keys[cell];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childCell = heap[child];
+            if (key <= keys[childCell]) {
+                break;
+            }
+            heap[slot] = childCell;
+            position[childCell] = slot;
+            slot = child;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+}
@@ -0,0 +1,260 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * ALT heuristic: A*, landmarks and the triangle inequality. A few landmark cells are picked
+ * around the border of the grid, and Dijkstra from each records the exact cost from the landmark
+ * to every cell and from every cell to the landmark. For any landmark L the goal then lies at
+ * least {@code d(L, goal) - d(L, cell)} and {@code d(cell, L) - d(goal, L)} away, and the
+ * estimate is the largest of those bounds and the Manhattan distance. Unlike Manhattan distance it
+ * knows what the terrain costs and where the walls force detours.
+ * <p>
+ * Both directions are stored because a move costs what entering its target cell costs, so
+ * distances are not symmetric. Tables are int arrays with the landmarks of a cell side by side,
+ * {@code 8 * size} bytes per landmark, and the 2K Dijkstra runs of a build go in parallel.
+ * <p>
+ * The tables are only exact for the terrain they were built on. Any edit through the grid marks
+ * them stale, and a stale heuristic falls back to Manhattan distance until {@link #refresh()}
+ * rebuilds it. Estimates may be taken from many threads at once; builds may not overlap them.
+ */
+public class LandmarkHeuristic implements Heuristic, AutoCloseable {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final int landmarkCount;
+    private final int[] landmarks;
+    private final int[] fromLandmark;  // cell * landmarkCount + k -> d(landmark k, cell)
+    private final int[] toLandmark;    // cell * landmarkCount + k -> d(cell, landmark k)
+    private final MazeGrid.TerrainListener terrainListener;
+    private volatile boolean stale;
+    private long buildNanos;
+
+    public LandmarkHeuristic(MazeGrid grid, int landmarkCount) {
+        if (!MazeGrid.hasIntegralCosts()) {
+            throw new IllegalArgumentException("Landmark tables need whole-number terrain costs");
+        }
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException("At least one landmark is needed: " + landmarkCount);
+        }
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.landmarkCount = landmarkCount;
+        this.landmarks = new int[landmarkCount];
+        this.fromLandmark = new int[grid.size() * landmarkCount];
+        this.toLandmark = new int[grid.size() * landmarkCount];
+        this.terrainListener = (index, previous, current) -> stale = true;
+        grid.addTerrainListener(terrainListener);
+        build();
+    }
+
+    @Override
+    public double estimate(int cell, int goal) {
+        int best = Math.abs(cell / cols - goal / cols) + Math.abs(cell % cols - goal % cols);
+        if (stale) {
+            return best;
+        }
+        int cellBase = cell * landmarkCount;
+        int goalBase = goal * landmarkCount;
+        for (int k = 0; k < landmarkCount; k++) {
+            int landmarkToCell = fromLandmark[cellBase + k];
+            int landmarkToGoal = fromLandmark[goalBase + k];
+            if (landmarkToCell != UNREACHABLE && landmarkToGoal != UNREACHABLE) {
+                best = Math.max(best, landmarkToGoal - landmarkToCell);
+            }
+            int goalToLandmark = toLandmark[goalBase + k];
+            if (goalToLandmark != UNREACHABLE) {
+                int cellToLandmark = toLandmark[cellBase + k];
+                if (cellToLandmark == UNREACHABLE) {
+                    // Anything that reaches the goal reaches the landmark through it
+                    return Double.POSITIVE_INFINITY;
+                }
+                best = Math.max(best, cellToLandmark - goalToLandmark);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Rebuilds the tables if the terrain changed since they were built. Returns whether it did.
+     */
+    public boolean refresh() {
+        if (!stale) {
+            return false;
+        }
+        build();
+        return true;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Cell index of each landmark, as chosen by the last build.
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Wall-clock time of the last build, landmark selection included.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Bytes held by the distance tables, both directions, all landmarks.
+     */
+    public long getTableBytes() {
+        return 2L * Integer.BYTES * fromLandmark.length;
+    }
+
+    /**
+     * Stops following terrain edits. The heuristic must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        grid.removeTerrainListener(terrainListener);
+    }
+
+    private void build() {
+        long started = System.nanoTime();
+        stale = false;
+        placeLandmarks();
+        Arrays.fill(fromLandmark, UNREACHABLE);
+        Arrays.fill(toLandmark, UNREACHABLE);
+
+        // Each run writes only its own landmark's column of one table
+        ThreadLocal<OpenList> openLists = ThreadLocal.withInitial(() ->
+                OpenList.create(OpenList.defaultKind(), grid.size(), (int) Math.ceil(MazeGrid.maxMovementCost())));
+        IntStream.range(0, 2 * landmarkCount).parallel().forEach(run -> {
+            int k = run >> 1;
+            if (landmarks[k] != UNREACHABLE) {
+                dijkstra(landmarks[k], k, (run & 1) == 0, openLists.get());
+            }
+        });
+        buildNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * Spreads the landmarks evenly along the border, starting at the top-left corner and going
+     * clockwise, each moved to the passable cell nearest its spot. Landmarks far out on the edge
+     * see most goals "behind" most cells, which is where their bounds are tight.
+     */
+    private void placeLandmarks() {
+        int perimeter = rows == 1 || cols == 1 ? rows * cols : 2 * (rows + cols) - 4;
+        boolean[] taken = new boolean[grid.size()];
+        for (int k = 0; k < landmarkCount; k++) {
+            int spot = borderCell((int) ((long) k * perimeter / landmarkCount));
+            int landmark = nearestPassable(spot, taken);
+            landmarks[k] = landmark;
+            if (landmark != UNREACHABLE) {
+                taken[landmark] = true;
+            }
+        }
+    }
+
+    private int borderCell(int offset) {
+        if (rows == 1 || cols == 1) {
+            return offset;
+        }
+        if (offset < cols) {
+            return offset;
+        }
+        offset -= cols - 1;
+        if (offset < rows) {
+            return offset * cols + cols - 1;
+        }
+        offset -= rows - 1;
+        if (offset < cols) {
+            return (rows - 1) * cols + cols - 1 - offset;
+        }
+        offset -= cols - 1;
+        return (rows - 1 - offset) * cols;
+    }
+
+    /**
+     * Breadth-first over all cells, walls included, for the closest passable cell not already a
+     * landmark. UNREACHABLE when there is none.
+     */
+    private int nearestPassable(int spot, boolean[] taken) {
+        boolean[] visited = new boolean[grid.size()];
+        IntList queue = new IntList();
+        queue.add(spot);
+        visited[spot] = true;
+        for (int head = 0; head < queue.size(); head++) {
+            int cell = queue.get(head);
+            if (grid.isPassable(cell) && !taken[cell]) {
+                return cell;
+            }
+            int row = cell / cols;
+            int col = cell % cols;
+            int[] neighbors = {row > 0 ? cell - cols : -1, row < rows - 1 ? cell + cols : -1,
+                    col > 0 ? cell - 1 : -1, col < cols - 1 ? cell + 1 : -1};
+            for (int neighbor : neighbors) {
+                if (neighbor >= 0 && !visited[neighbor]) {
+                    visited[neighbor] = true;
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Fills landmark k's column of the forward table (cost from the landmark) or the reverse one
+     * (cost to it). Walking in reverse, a step from a cell back to its predecessor costs what
+     * entering the cell costs.
+     */
+    private void dijkstra(int landmark, int k, boolean forward, OpenList open) {
+        int[] distance = forward ? fromLandmark : toLandmark;
+        open.clear();
+        distance[landmark * landmarkCount + k] = 0;
+        open.insert(landmark, 0);
+        while (!open.isEmpty()) {
+            int cell = open.poll();
+            int reached = distance[cell * landmarkCount + k];
+            int row = cell / cols;
+            int col = cell % cols;
+            if (row > 0) {
+                relax(cell, cell - cols, reached, k, forward, distance, open);
+            }
+            if (row < rows - 1) {
+                relax(cell, cell + cols, reached, k, forward, distance, open);
+            }
+            if (col > 0) {
+                relax(cell, cell - 1, reached, k, forward, distance, open);
+            }
+            if (col < cols - 1) {
+                relax(cell, cell + 1, reached, k, forward, distance, open);
+            }
+        }
+    }
+
+    private void relax(int cell, int neighbor, int reached, int k, boolean forward, int[] distance, OpenList open) {
+        if (!grid.isPassable(neighbor) || grid.isConsecutiveWater(cell, neighbor)) {
+            return;
+        }
+        int candidate = reached + (int) grid.movementCost(forward ? neighbor : cell);
+        int slot = neighbor * landmarkCount + k;
+        if (distance[slot] == UNREACHABLE) {
+            distance[slot] = candidate;
+            open.insert(neighbor, candidate);
+        } else if (candidate < distance[slot] && open.contains(neighbor)) {
+            distance[slot] = candidate;
+            open.decreaseKey(neighbor, candidate);
+        }
+    }
+}
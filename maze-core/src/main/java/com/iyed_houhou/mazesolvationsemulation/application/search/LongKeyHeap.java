@@ -0,0 +1,84 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable 4-ary min-heap of (long key, int value) entries. Unlike the cell-indexed open lists
+ * it allocates nothing per cell, so a value may be queued more than once; callers drop stale
+ * entries when they pop them. Four children per node halve the depth of a binary heap, and the
+ * four keys compared on the way down usually share a cache line.
+ */
+final class LongKeyHeap {
+    private long[] keys = new long[64];
+    private int[] values = new int[64];
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long topKey() {
+        return keys[0];
+    }
+
+    int topValue() {
+        return values[0];
+    }
+
+    void push(long key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int slot = size++;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 2;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[slot] = keys[parent];
+            values[slot] = values[parent];
+            slot = parent;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the smallest entry.
+     */
+    void pop() {
+        long key = keys[--size];
+        int value = values[size];
+        int slot = 0;
+        while (true) {
+            int first = 4 * slot + 1;
+            if (first >= size) {
+                break;
+            }
+            int child = first;
+            int last = Math.min(first + 4, size);
+            for (int other = first + 1; other < last; other++) {
+                if (keys[other] < keys[child]) {
+                    child = other;
+                }
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[slot] = keys[child];
+            values[slot] = values[child];
+            slot = child;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+/**
+ * Open list used by the maze solvers. Entries are cell indices (row * cols + col),
+ * so every cell can be in the list at most once and its priority can be looked up directly.
+ */
+public interface OpenList {
+
+    enum Kind {
+        BINARY_HEAP,  // Any keys; O(log n) operations
+        BUCKET_QUEUE  // Whole-number keys within a small window above the minimum; O(1) operations
+    }
+
+    /**
+     * The bucket queue whenever the terrain cost model is integral, the binary heap otherwise.
+     */
+    static Kind defaultKind() {
+        return MazeGrid.hasIntegralCosts() ? Kind.BUCKET_QUEUE : Kind.BINARY_HEAP;
+    }
+
+    /**
+     * Creates an open list for {@code capacity} cells. {@code maxSpread} bounds how far above the
+     * smallest queued key any other key may be; only the bucket queue needs it.
+     */
+    static OpenList create(Kind kind, int capacity, int maxSpread) {
+        if (kind == Kind.BUCKET_QUEUE && !MazeGrid.hasIntegralCosts()) {
+            throw new IllegalArgumentException("A bucket queue needs whole-number terrain costs");
+        }
+        return switch (kind) {
+            case BINARY_HEAP -> new IndexedBinaryHeap(capacity);
+            case BUCKET_QUEUE -> new BucketQueue(capacity, maxSpread);
+        };
+    }
+
+    boolean isEmpty();
+
+    int size();
+
+    boolean contains(int cell);
+
+    /**
+     * Priority the cell is currently queued with. Only meaningful when {@link #contains(int)} is true.
+     */
+    double keyOf(int cell);
+
+    void insert(int cell, double key);
+
+    /**
+     * Lowers the priority of a cell that is already queued.
+     */
+    void decreaseKey(int cell, double key);
+
+    /**
+     * Returns the cell with the smallest priority without removing it. The list must not be empty.
+     */
+    int peek();
+
+    /**
+     * Removes and returns the cell with the smallest priority.
+     */
+    int poll();
+
+    void clear();
+}
@@ -0,0 +1,122 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap over cells ordered by a (primary, secondary) key pair compared
+ * lexicographically, as D* Lite needs. Unlike {@link IndexedBinaryHeap}, keys may move in
+ * either direction and any queued cell can be removed.
+ */
+class PairKeyHeap {
+    private final int[] heap;        // heap slot -> cell
+    private final int[] position;    // cell -> heap slot, -1 when not queued
+    private final double[] primary;   // cell -> first key
+    private final double[] secondary; // cell -> tie-breaking key
+    private int size;
+
+    PairKeyHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        primary = new double[capacity];
+        secondary = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int cell) {
+        return position[cell] >= 0;
+    }
+
+    int peek() {
+        return heap[0];
+    }
+
+    double topPrimary() {
+        return size == 0 ? Double.POSITIVE_INFINITY : primary[heap[0]];
+    }
+
+    double topSecondary() {
+        return size == 0 ? Double.POSITIVE_INFINITY : secondary[heap[0]];
+    }
+
+    void insert(int cell, double key1, double key2) {
+        primary[cell] = key1;
+        secondary[cell] = key2;
+        heap[size] = cell;
+        position[cell] = size;
+        siftUp(size++);
+    }
+
+    void update(int cell, double key1, double key2) {
+        primary[cell] = key1;
+        secondary[cell] = key2;
+        int slot = position[cell];
+        siftUp(slot);
+        siftDown(position[cell]);
+    }
+
+    void remove(int cell) {
+        int slot = position[cell];
+        position[cell] = -1;
+        size--;
+        if (slot == size) {
+            return;
+        }
+        int last = heap[size];
+        heap[slot] = last;
+        position[last] = slot;
+        siftUp(slot);
+        siftDown(position[last]);
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean less(int a, int b) {
+        return primary[a] < primary[b] || (primary[a] == primary[b] && secondary[a] < secondary[b]);
+    }
+
+    private void siftUp(int slot) {
+        int cell = heap[slot];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parentCell = heap[parentSlot];
+            if (!less(cell, parentCell)) {
+                break;
+            }
+            heap[slot] = parentCell;
+            position[parentCell] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int cell = heap[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            int childCell = heap[child];
+            if (!less(childCell, cell)) {
+                break;
+            }
+            heap[slot] = childCell;
+            position[childCell] = slot;
+            slot = child;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+}
@@ -0,0 +1,322 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers to (start, goal, battery) queries already solved on one grid, for callers that keep
+ * asking the same things. Bounded both in entries and in path cells held, least recently used
+ * first out. Safe to share between threads.
+ * <p>
+ * A cheapest path is made of cheapest paths, so a query whose start lies on a cached path to the
+ * same goal, or whose goal lies on a cached path from the same start, is answered by cutting that
+ * path, provided the piece fits the battery. Only paths that are the cheapest regardless of
+ * battery are cut; a path bent by the battery limit says nothing about its pieces.
+ * <p>
+ * Terrain edits are followed through the grid. An edit that only makes a cell dearer or shuts it
+ * cannot make any path cheaper, so it drops just the entries whose path crosses that cell; any
+ * other edit, such as opening a wall or draining less battery, drops everything. A query solved
+ * while the terrain changed under it is not cached: {@link #store} takes the grid version the
+ * solve started at and ignores the answer when the version has moved on.
+ */
+public class PathCache implements AutoCloseable {
+    // Most recent paths to a goal (or from a start) scanned for a sub-path
+    private static final int SUB_PATH_CANDIDATES = 16;
+    // Edits remembered one by one before a burst, like a new layout, just drops everything
+    private static final int MAX_PENDING_EDITS = 4096;
+
+    /**
+     * A cached answer; a query with no path has the empty path, infinite cost and -1 battery.
+     */
+    public record CachedPath(MazePath path, double cost, int remainingBattery) {
+        public static final CachedPath NOT_FOUND = new CachedPath(new MazePath(), Double.POSITIVE_INFINITY, -1);
+
+        public boolean isFound() {
+            return !path.isEmpty();
+        }
+    }
+
+    /**
+     * Counters since the cache was made. Sub-path hits are counted apart from exact hits.
+     */
+    public record Stats(long hits, long subPathHits, long misses, long invalidated, long evicted,
+                        int entries, long cells) {
+        public double hitRate() {
+            long lookups = hits + subPathHits + misses;
+            return lookups == 0 ? 0 : (double) (hits + subPathHits) / lookups;
+        }
+    }
+
+    private record Key(int start, int goal, int battery) {
+    }
+
+    private record Entry(Key key, CachedPath answer, boolean cheapestOverall) {
+    }
+
+    private final MazeGrid grid;
+    private final int maxEntries;
+    private final long maxCells;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Cheapest-overall paths by goal and by start, oldest first, for sub-path reuse
+    private final Map<Integer, List<Entry>> byGoal = new HashMap<>();
+    private final Map<Integer, List<Entry>> byStart = new HashMap<>();
+    private long cells;
+
+    // Cells edited since the entries were last checked; clearPending once that is not enough
+    private final IntList editedCells = new IntList();
+    private volatile boolean clearPending;
+    private final MazeGrid.TerrainListener terrainListener = this::terrainChanged;
+
+    private long hits;
+    private long subPathHits;
+    private long misses;
+    private long invalidated;
+    private long evicted;
+
+    public PathCache(MazeGrid grid, int maxEntries, long maxCells) {
+        if (maxEntries < 1 || maxCells < 1) {
+            throw new IllegalArgumentException("Path cache bounds must be positive: " + maxEntries + " entries, " + maxCells + " cells");
+        }
+        this.grid = grid;
+        this.maxEntries = maxEntries;
+        this.maxCells = maxCells;
+        grid.addTerrainListener(terrainListener);
+    }
+
+    /**
+     * The cached answer to the query, possibly cut from a longer cached path, or null on a miss.
+     */
+    public synchronized CachedPath lookup(int start, int goal, int battery) {
+        applyEdits();
+        Entry entry = entries.get(new Key(start, goal, battery));
+        if (entry != null) {
+            hits++;
+            return entry.answer();
+        }
+        CachedPath piece = findSubPath(start, goal, battery);
+        if (piece != null) {
+            subPathHits++;
+            insert(new Entry(new Key(start, goal, battery), piece, true));
+            return piece;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Remembers the answer to a query solved against the grid at {@code version}, as read from
+     * {@link MazeGrid#getVersion()} before the solve. {@code cheapestOverall} tells that the path
+     * is also the cheapest one ignoring battery, so its pieces may answer other queries.
+     */
+    public synchronized void store(int start, int goal, int battery, CachedPath answer, boolean cheapestOverall,
+                                   long version) {
+        applyEdits();
+        if (version != grid.getVersion()) {
+            return;
+        }
+        insert(new Entry(new Key(start, goal, battery), answer, cheapestOverall && answer.isFound()));
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, subPathHits, misses, invalidated, evicted, entries.size(), cells);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidated += entries.size();
+        clearEntries();
+        editedCells.clear();
+        clearPending = false;
+    }
+
+    /**
+     * Stops following terrain edits and drops every entry. The cache must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        grid.removeTerrainListener(terrainListener);
+        clearEntries();
+    }
+
+    private void terrainChanged(int index, MazeCell.Terrain previous, MazeCell.Terrain current) {
+        if (clearPending) {
+            return;  // everything goes anyway; keeps bulk edits off the lock
+        }
+        synchronized (this) {
+            if (!onlyRestricts(previous, current) || editedCells.size() >= MAX_PENDING_EDITS) {
+                clearPending = true;
+            } else {
+                editedCells.add(index);
+            }
+        }
+    }
+
+    /**
+     * Whether the edit can only make paths through the cell dearer or impossible, leaving every
+     * path around it as cheap as it was and still the cheapest.
+     */
+    private static boolean onlyRestricts(MazeCell.Terrain previous, MazeCell.Terrain current) {
+        if (current == MazeCell.Terrain.WALL) {
+            return true;
+        }
+        if (previous == MazeCell.Terrain.WALL) {
+            return false;
+        }
+        if (previous == MazeCell.Terrain.WATER && current != MazeCell.Terrain.WATER) {
+            return false;  // lifts the ban on stepping between it and neighbouring water
+        }
+        return MazeGrid.movementCostOf(current) >= MazeGrid.movementCostOf(previous)
+                && MazeGrid.batteryConsumptionOf(current) >= MazeGrid.batteryConsumptionOf(previous);
+    }
+
+    private void applyEdits() {
+        if (clearPending) {
+            invalidateAll();
+            return;
+        }
+        if (editedCells.isEmpty()) {
+            return;
+        }
+        int[] edited = editedCells.toArray();
+        Arrays.sort(edited);
+        editedCells.clear();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (crossesAny(entry.answer().path(), edited)) {
+                it.remove();
+                unindex(entry);
+                invalidated++;
+            }
+        }
+    }
+
+    private static boolean crossesAny(MazePath path, int[] sortedCells) {
+        for (int i = 0; i < path.length(); i++) {
+            if (Arrays.binarySearch(sortedCells, path.cellAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The start's suffix of a cached path to the goal, or the goal's prefix of a cached path from
+     * the start, if one fits the battery.
+     */
+    private CachedPath findSubPath(int start, int goal, int battery) {
+        List<Entry> toGoal = byGoal.get(goal);
+        if (toGoal != null) {
+            for (int i = toGoal.size() - 1; i >= Math.max(0, toGoal.size() - SUB_PATH_CANDIDATES); i--) {
+                MazePath path = toGoal.get(i).answer().path();
+                int from = indexOf(path, start);
+                if (from >= 0) {
+                    CachedPath piece = piece(path, from, path.length(), battery);
+                    if (piece != null) {
+                        return piece;
+                    }
+                }
+            }
+        }
+        List<Entry> fromStart = byStart.get(start);
+        if (fromStart != null) {
+            for (int i = fromStart.size() - 1; i >= Math.max(0, fromStart.size() - SUB_PATH_CANDIDATES); i--) {
+                MazePath path = fromStart.get(i).answer().path();
+                int to = indexOf(path, goal);
+                if (to >= 0) {
+                    CachedPath piece = piece(path, 0, to + 1, battery);
+                    if (piece != null) {
+                        return piece;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(MazePath path, int cell) {
+        for (int i = 0; i < path.length(); i++) {
+            if (path.cellAt(i) == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Cells {@code [from, to)} of the path as an answer, or null when they drain more than the
+     * battery holds. The first cell is where the robot stands, so it costs nothing.
+     */
+    private CachedPath piece(MazePath path, int from, int to, int battery) {
+        double cost = 0;
+        int drained = 0;
+        for (int i = from + 1; i < to; i++) {
+            cost += grid.movementCost(path.cellAt(i));
+            drained += grid.batteryConsumption(path.cellAt(i));
+        }
+        if (drained > battery) {
+            return null;
+        }
+        MazePath cut = from == 0 && to == path.length()
+                ? path
+                : MazePath.ofCells(path.toCellArray(), from, to, path.getCols());
+        return new CachedPath(cut, cost, battery - drained);
+    }
+
+    private void insert(Entry entry) {
+        Entry replaced = entries.put(entry.key(), entry);
+        if (replaced != null) {
+            unindex(replaced);
+        }
+        cells += entry.answer().path().length();
+        if (entry.cheapestOverall()) {
+            byGoal.computeIfAbsent(entry.key().goal(), _ -> new ArrayList<>()).add(entry);
+            byStart.computeIfAbsent(entry.key().start(), _ -> new ArrayList<>()).add(entry);
+        }
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || cells > maxCells) && entries.size() > 1) {
+            Entry evictee = eldest.next();
+            eldest.remove();
+            unindex(evictee);
+            evicted++;
+        }
+    }
+
+    private void unindex(Entry entry) {
+        cells -= entry.answer().path().length();
+        if (entry.cheapestOverall()) {
+            removeFrom(byGoal, entry.key().goal(), entry);
+            removeFrom(byStart, entry.key().start(), entry);
+        }
+    }
+
+    private static void removeFrom(Map<Integer, List<Entry>> index, int cell, Entry entry) {
+        List<Entry> list = index.get(cell);
+        if (list != null) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) == entry) {
+                    list.remove(i);
+                    break;
+                }
+            }
+            if (list.isEmpty()) {
+                index.remove(cell);
+            }
+        }
+    }
+
+    private void clearEntries() {
+        entries.clear();
+        byGoal.clear();
+        byStart.clear();
+        cells = 0;
+    }
+}
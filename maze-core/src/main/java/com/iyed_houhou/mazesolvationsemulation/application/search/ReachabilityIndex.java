@@ -0,0 +1,411 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+import java.util.Arrays;
+
+/**
+ * Labels every passable cell with the connected component it belongs to, so that a query whose
+ * start and goal can never meet is rejected without searching. Two neighbouring cells are
+ * connected when the robot may step between them: both passable and not both water. That makes
+ * the water-chaining rule exact here, because whether a step is allowed depends only on the two
+ * cells involved. Battery is ignored, so different labels mean "definitely unreachable" while equal
+ * labels promise nothing about the budget.
+ * <p>
+ * The index follows terrain edits made through the grid. They are applied lazily on the next
+ * query: merges relabel the smaller component, and a cut that might split a component races
+ * flood fills from the cut's neighbours, relabelling only the pieces that turn out to be
+ * separate. While a batch is applied, a cell whose edit is still queued counts as linking all its
+ * labelled neighbours; only its own update decides which of those links it really cut, so a split
+ * is never blamed on the wrong cell. Not thread-safe.
+ */
+public class ReachabilityIndex implements AutoCloseable {
+    private static final int NONE = -1;
+    // More pending edits than size / REBUILD_DIVISOR and relabelling everything is cheaper
+    private static final int REBUILD_DIVISOR = 16;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+
+    private final int[] label;               // cell -> component, NONE for walls
+    private int[] componentSize = new int[1024];
+    private int labelCount;                  // labels handed out so far, free or not
+    private final IntList freeLabels = new IntList();
+    private int componentCount;
+
+    // Split detection: which racing fill reached a cell, valid when raceStamp == raceGeneration
+    private final int[] raceStamp;
+    private final int[] raceOwner;
+    private int raceGeneration;
+    private int racingPieces;                // fills, or merged sets of fills, not yet resolved
+
+    private final IntList queue = new IntList();
+    private final IntList pendingChanges = new IntList();
+    private final boolean[] pending;         // cell has an edit in pendingChanges not applied yet
+    private boolean needsRebuild;
+    private final MazeGrid.TerrainListener terrainListener;
+    private final long buildNanos;
+
+    public ReachabilityIndex(MazeGrid grid) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.label = new int[grid.size()];
+        this.raceStamp = new int[grid.size()];
+        this.raceOwner = new int[grid.size()];
+        this.pending = new boolean[grid.size()];
+        this.terrainListener = (index, previous, current) -> recordChange(index);
+        grid.addTerrainListener(terrainListener);
+
+        long started = System.nanoTime();
+        rebuild();
+        this.buildNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * True when no path of any length leads from start to goal, whatever the battery.
+     */
+    public boolean isDefinitelyUnreachable(int start, int goal) {
+        applyPendingChanges();
+        if (start == goal) {
+            return false;
+        }
+        int goalLabel = label[goal];
+        if (goalLabel == NONE) {
+            return true;
+        }
+        if (label[start] != NONE) {
+            return label[start] != goalLabel;
+        }
+        // A robot parked on a wall can still step off it onto any passable neighbour
+        int row = start / cols;
+        int col = start % cols;
+        return !(row > 0 && label[start - cols] == goalLabel)
+                && !(row < rows - 1 && label[start + cols] == goalLabel)
+                && !(col > 0 && label[start - 1] == goalLabel)
+                && !(col < cols - 1 && label[start + 1] == goalLabel);
+    }
+
+    /**
+     * Component label of a cell, or -1 for walls. Labels are only stable until the next edit.
+     */
+    public int componentOf(int cell) {
+        applyPendingChanges();
+        return label[cell];
+    }
+
+    public int getComponentCount() {
+        applyPendingChanges();
+        return componentCount;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Stops following terrain edits. The index must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        grid.removeTerrainListener(terrainListener);
+    }
+
+    private void rebuild() {
+        Arrays.fill(label, NONE);
+        Arrays.fill(pending, false);
+        labelCount = 0;
+        componentCount = 0;
+        freeLabels.clear();
+        for (int cell = 0; cell < label.length; cell++) {
+            if (label[cell] == NONE && grid.isPassable(cell)) {
+                int component = newLabel();
+                componentSize[component] = fill(cell, NONE, component);
+            }
+        }
+    }
+
+    private void recordChange(int cell) {
+        if (needsRebuild) {
+            return;
+        }
+        pendingChanges.add(cell);
+        pending[cell] = true;
+        if (pendingChanges.size() > label.length / REBUILD_DIVISOR) {
+            needsRebuild = true;
+            pendingChanges.clear();
+        }
+    }
+
+    private void applyPendingChanges() {
+        if (needsRebuild) {
+            rebuild();
+            needsRebuild = false;
+        }
+        for (int i = 0; i < pendingChanges.size(); i++) {
+            int cell = pendingChanges.get(i);
+            pending[cell] = false;
+            update(cell);
+        }
+        pendingChanges.clear();
+    }
+
+    private void update(int cell) {
+        int oldLabel = label[cell];
+        if (oldLabel != NONE) {
+            // Whatever the edit, the cell may have stopped linking some of its neighbours
+            if (!grid.isPassable(cell)) {
+                label[cell] = NONE;
+                release(oldLabel, 1);
+            }
+            splitIfCut(cell, oldLabel);
+        }
+
+        if (!grid.isPassable(cell)) {
+            return;
+        }
+        if (label[cell] == NONE) {
+            int component = newLabel();
+            label[cell] = component;
+            componentSize[component] = 1;
+        }
+        int row = cell / cols;
+        int col = cell % cols;
+        if (row > 0) {
+            join(cell, cell - cols);
+        }
+        if (row < rows - 1) {
+            join(cell, cell + cols);
+        }
+        if (col > 0) {
+            join(cell, cell - 1);
+        }
+        if (col < cols - 1) {
+            join(cell, cell + 1);
+        }
+    }
+
+    private void join(int cell, int neighbor) {
+        int a = label[cell];
+        int b = label[neighbor];
+        if (b == NONE || a == b || !linked(cell, neighbor)) {
+            return;
+        }
+        // Relabel the smaller side
+        if (componentSize[a] < componentSize[b]) {
+            int moved = fill(cell, a, b);
+            componentSize[b] += moved;
+            release(a, moved);
+        } else {
+            int moved = fill(neighbor, b, a);
+            componentSize[a] += moved;
+            release(b, moved);
+        }
+    }
+
+    /**
+     * The cells around {@code cut} that used to share {@code component} race flood fills through
+     * it. Fills that meet are one piece; a fill that runs dry before meeting all the others has
+     * mapped a piece that broke off, and only that piece is relabelled. The last piece standing
+     * keeps the old label, so a cut that splits nothing costs only as much as the fills needed to
+     * meet again.
+     */
+    private void splitIfCut(int cut, int component) {
+        int[] seeds = new int[5];
+        int seedCount = 0;
+        if (isSeed(cut, component)) {
+            seeds[seedCount++] = cut;
+        }
+        int row = cut / cols;
+        int col = cut % cols;
+        if (row > 0 && isSeed(cut - cols, component)) {
+            seeds[seedCount++] = cut - cols;
+        }
+        if (row < rows - 1 && isSeed(cut + cols, component)) {
+            seeds[seedCount++] = cut + cols;
+        }
+        if (col > 0 && isSeed(cut - 1, component)) {
+            seeds[seedCount++] = cut - 1;
+        }
+        if (col < cols - 1 && isSeed(cut + 1, component)) {
+            seeds[seedCount++] = cut + 1;
+        }
+        if (seedCount < 2) {
+            return;
+        }
+
+        nextRace();
+        IntList[] fills = new IntList[seedCount];
+        int[] heads = new int[seedCount];
+        int[] group = new int[seedCount];  // tiny union-find over the racing fills
+        for (int i = 0; i < seedCount; i++) {
+            fills[i] = new IntList();
+            group[i] = i;
+        }
+        for (int i = 0; i < seedCount; i++) {
+            raceStamp[seeds[i]] = raceGeneration;
+            raceOwner[seeds[i]] = i;
+            fills[i].add(seeds[i]);
+        }
+        racingPieces = seedCount;
+
+        boolean[] finished = new boolean[seedCount];
+        while (racingPieces > 1) {
+            for (int i = 0; i < seedCount && racingPieces > 1; i++) {
+                if (finished[i]) {
+                    continue;
+                }
+                if (heads[i] < fills[i].size()) {
+                    raceStep(fills[i].get(heads[i]++), i, fills[i], group, component);
+                    continue;
+                }
+                int root = findGroup(group, i);
+                // This fill is dry; its piece is cut off only if every fill merged with it is too
+                finished[i] = true;
+                boolean pieceDone = true;
+                for (int j = 0; j < seedCount; j++) {
+                    if (findGroup(group, j) == root && !finished[j]) {
+                        pieceDone = false;
+                        break;
+                    }
+                }
+                if (pieceDone) {
+                    int piece = newLabel();
+                    int moved = 0;
+                    for (int j = 0; j < seedCount; j++) {
+                        if (findGroup(group, j) == root) {
+                            for (int k = 0; k < fills[j].size(); k++) {
+                                label[fills[j].get(k)] = piece;
+                            }
+                            moved += fills[j].size();
+                        }
+                    }
+                    componentSize[piece] = moved;
+                    componentSize[component] -= moved;
+                    racingPieces--;
+                }
+            }
+        }
+    }
+
+    private boolean isSeed(int cell, int component) {
+        return label[cell] == component && (pending[cell] || grid.isPassable(cell));
+    }
+
+    private void raceStep(int cell, int owner, IntList fill, int[] group, int component) {
+        int row = cell / cols;
+        int col = cell % cols;
+        if (row > 0) {
+            raceInto(cell, cell - cols, owner, fill, group, component);
+        }
+        if (row < rows - 1) {
+            raceInto(cell, cell + cols, owner, fill, group, component);
+        }
+        if (col > 0) {
+            raceInto(cell, cell - 1, owner, fill, group, component);
+        }
+        if (col < cols - 1) {
+            raceInto(cell, cell + 1, owner, fill, group, component);
+        }
+    }
+
+    private void raceInto(int cell, int neighbor, int owner, IntList fill, int[] group, int component) {
+        if (label[neighbor] != component || !linked(cell, neighbor)) {
+            return;
+        }
+        if (raceStamp[neighbor] != raceGeneration) {
+            raceStamp[neighbor] = raceGeneration;
+            raceOwner[neighbor] = owner;
+            fill.add(neighbor);
+            return;
+        }
+        int a = findGroup(group, owner);
+        int b = findGroup(group, raceOwner[neighbor]);
+        if (a != b) {
+            group[b] = a;
+            racingPieces--;
+        }
+    }
+
+    private static int findGroup(int[] group, int i) {
+        while (group[i] != i) {
+            i = group[i];
+        }
+        return i;
+    }
+
+    /**
+     * Breadth-first relabel of every cell reachable from {@code seed} that currently carries
+     * {@code from}. Returns the number of cells relabelled.
+     */
+    private int fill(int seed, int from, int to) {
+        queue.clear();
+        label[seed] = to;
+        queue.add(seed);
+        for (int head = 0; head < queue.size(); head++) {
+            int cell = queue.get(head);
+            int row = cell / cols;
+            int col = cell % cols;
+            if (row > 0) {
+                visit(cell, cell - cols, from, to);
+            }
+            if (row < rows - 1) {
+                visit(cell, cell + cols, from, to);
+            }
+            if (col > 0) {
+                visit(cell, cell - 1, from, to);
+            }
+            if (col < cols - 1) {
+                visit(cell, cell + 1, from, to);
+            }
+        }
+        return queue.size();
+    }
+
+    private void visit(int cell, int neighbor, int from, int to) {
+        if (label[neighbor] == from && linked(cell, neighbor)) {
+            label[neighbor] = to;
+            queue.add(neighbor);
+        }
+    }
+
+    private boolean connected(int a, int b) {
+        return grid.isPassable(a) && grid.isPassable(b) && !grid.isConsecutiveWater(a, b);
+    }
+
+    /**
+     * Connected as far as the labels go: an edit still queued at either cell leaves the link in
+     * place until that edit is applied.
+     */
+    private boolean linked(int a, int b) {
+        return pending[a] || pending[b] || connected(a, b);
+    }
+
+    private int newLabel() {
+        componentCount++;
+        if (!freeLabels.isEmpty()) {
+            return freeLabels.removeLast();
+        }
+        if (labelCount == componentSize.length) {
+            componentSize = Arrays.copyOf(componentSize, labelCount * 2);
+        }
+        return labelCount++;
+    }
+
+    private void release(int component, int cells) {
+        componentSize[component] -= cells;
+        if (componentSize[component] == 0) {
+            freeLabels.add(component);
+            componentCount--;
+        }
+    }
+
+    private void nextRace() {
+        if (raceGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(raceStamp, 0);
+            raceGeneration = 0;
+        }
+        raceGeneration++;
+    }
+}
@@ -0,0 +1,312 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.Arrays;
+
+/**
+ * Battery-constrained shortest path. Closing a cell on its first expansion (plain A*) is wrong
+ * once battery matters: a dearer route into a cell may be the only one with enough charge left
+ * to finish. This engine keeps, for every cell, a Pareto front of (cost, battery) labels and only
+ * discards labels that another label at the same cell beats on both.
+ * <p>
+ * Most queries never need that: the cheapest unconstrained path is also the answer whenever it
+ * fits the battery budget. So a solve first runs plain A* through the wrapped {@link SearchContext}
+ * and only falls back to label search when that path would drain the battery.
+ * <p>
+ * Not thread-safe; label buffers grow on demand and are reused across solves.
+ */
+public class ResourceConstrainedSearch {
+    private static final int NONE = -1;
+    private static final int UNLIMITED_BATTERY = Integer.MAX_VALUE;
+
+    private final SearchContext context;
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+
+    // Per-cell front: head label of a linked list threaded through labelNext, valid when frontStamp == generation
+    private final int[] frontHead;
+    private final int[] frontStamp;
+    private int generation;
+
+    // Label pool
+    private int[] labelCell = new int[1024];
+    private double[] labelG = new double[1024];
+    private int[] labelBattery = new int[1024];
+    private int[] labelParent = new int[1024];
+    private int[] labelNext = new int[1024];
+    private boolean[] labelDominated = new boolean[1024];
+    private double[] labelF = new double[1024];
+    private int labelCount;
+
+    // Binary heap of label ids ordered by labelF; dominated labels are skipped when polled
+    private int[] heap = new int[1024];
+    private int heapSize;
+
+    // Outcome of the last solve
+    private boolean goalReached;
+    private double goalCost;
+    private int goalBattery;
+    private boolean batteryBinding;
+
+    public ResourceConstrainedSearch(SearchContext context) {
+        this.context = context;
+        this.grid = context.getGrid();
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.frontHead = new int[grid.size()];
+        this.frontStamp = new int[grid.size()];
+    }
+
+    public SearchContext getContext() {
+        return context;
+    }
+
+    public MazePath solve(int start, int goal, int initialBattery) {
+        return solve(start, goal, initialBattery, SearchListener.NONE);
+    }
+
+    /**
+     * Finds the cheapest path from start to goal whose battery drain does not exceed
+     * initialBattery. Returns an empty path when there is none.
+     */
+    public MazePath solve(int start, int goal, int initialBattery, SearchListener listener) {
+        listener.searchStarted(start, goal);
+        goalReached = false;
+        batteryBinding = false;
+
+        // Fast path: unconstrained A*, tracking how much battery the chosen path drains
+        MazePath path = context.search(start, goal, UNLIMITED_BATTERY, listener);
+        if (context.isGoalReached() && !listener.shouldStop()) {
+            int drained = UNLIMITED_BATTERY - context.getGoalBattery();
+            if (drained <= initialBattery) {
+                goalReached = true;
+                goalCost = context.getGoalCost();
+                goalBattery = initialBattery - drained;
+            } else {
+                batteryBinding = true;
+                path = searchLabels(start, goal, initialBattery, listener);
+            }
+        }
+        if (goalReached) {
+            listener.goalFound(goal, goalCost, goalBattery);
+        }
+        listener.searchFinished(goalReached);
+        return path;
+    }
+
+    private MazePath searchLabels(int start, int goal, int initialBattery, SearchListener listener) {
+        nextGeneration();
+        labelCount = 0;
+        heapSize = 0;
+
+        int goalRow = goal / cols;
+        int goalCol = goal % cols;
+
+        int startLabel = newLabel(start, 0, initialBattery, NONE);
+        addToFront(startLabel);
+        push(startLabel, heuristic(start, goalRow, goalCol));
+        listener.nodePushed(start, labelF[startLabel]);
+
+        while (heapSize > 0 && !listener.shouldStop()) {
+            int label = poll();
+            if (labelDominated[label]) {
+                continue;
+            }
+            int current = labelCell[label];
+            if (current == goal) {
+                goalReached = true;
+                goalCost = labelG[label];
+                goalBattery = labelBattery[label];
+                return buildPath(label);
+            }
+            listener.nodeExpanded(current, labelG[label], labelBattery[label]);
+
+            int row = current / cols;
+            int col = current % cols;
+            if (row > 0) {
+                extend(label, current - cols, goalRow, goalCol, listener);
+            }
+            if (row < rows - 1) {
+                extend(label, current + cols, goalRow, goalCol, listener);
+            }
+            if (col > 0) {
+                extend(label, current - 1, goalRow, goalCol, listener);
+            }
+            if (col < cols - 1) {
+                extend(label, current + 1, goalRow, goalCol, listener);
+            }
+        }
+        return new MazePath();
+    }
+
+    private void extend(int label, int neighbor, int goalRow, int goalCol, SearchListener listener) {
+        int current = labelCell[label];
+        if (!grid.isPassable(neighbor)) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.WALL);
+            return;
+        }
+        if (grid.isConsecutiveWater(current, neighbor)) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.WATER_CHAIN);
+            return;
+        }
+        double h = heuristic(neighbor, goalRow, goalCol);
+        int batteryLeft = labelBattery[label] - grid.batteryConsumption(neighbor);
+        // Every remaining step drains at least one unit, so the goal must still be within h steps of charge
+        if (batteryLeft < h) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.BATTERY);
+            return;
+        }
+        double g = labelG[label] + grid.movementCost(neighbor);
+        if (isDominated(neighbor, g, batteryLeft)) {
+            return;
+        }
+
+        int next = newLabel(neighbor, g, batteryLeft, label);
+        addToFront(next);
+        push(next, g + h);
+        listener.nodePushed(neighbor, g + h);
+    }
+
+    /**
+     * True when some label at the cell is at least as cheap and has at least as much battery.
+     * Otherwise, removes every label the new one beats on both counts from the front.
+     */
+    private boolean isDominated(int cell, double g, int battery) {
+        if (frontStamp[cell] != generation) {
+            return false;
+        }
+        int previous = NONE;
+        int label = frontHead[cell];
+        while (label != NONE) {
+            int next = labelNext[label];
+            if (labelG[label] <= g && labelBattery[label] >= battery) {
+                return true;
+            }
+            if (labelG[label] >= g && labelBattery[label] <= battery) {
+                labelDominated[label] = true;
+                if (previous == NONE) {
+                    frontHead[cell] = next;
+                } else {
+                    labelNext[previous] = next;
+                }
+            } else {
+                previous = label;
+            }
+            label = next;
+        }
+        return false;
+    }
+
+    private void addToFront(int label) {
+        int cell = labelCell[label];
+        if (frontStamp[cell] != generation) {
+            frontStamp[cell] = generation;
+            frontHead[cell] = NONE;
+        }
+        labelNext[label] = frontHead[cell];
+        frontHead[cell] = label;
+    }
+
+    private double heuristic(int cell, int goalRow, int goalCol) {
+        return Math.abs(cell / cols - goalRow) + Math.abs(cell % cols - goalCol);
+    }
+
+    private int newLabel(int cell, double g, int battery, int parent) {
+        if (labelCount == labelCell.length) {
+            int capacity = labelCount * 2;
+            labelCell = Arrays.copyOf(labelCell, capacity);
+            labelG = Arrays.copyOf(labelG, capacity);
+            labelBattery = Arrays.copyOf(labelBattery, capacity);
+            labelParent = Arrays.copyOf(labelParent, capacity);
+            labelNext = Arrays.copyOf(labelNext, capacity);
+            labelDominated = Arrays.copyOf(labelDominated, capacity);
+            labelF = Arrays.copyOf(labelF, capacity);
+        }
+        int label = labelCount++;
+        labelCell[label] = cell;
+        labelG[label] = g;
+        labelBattery[label] = battery;
+        labelParent[label] = parent;
+        labelDominated[label] = false;
+        return label;
+    }
+
+    private void push(int label, double f) {
+        labelF[label] = f;
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int slot = heapSize++;
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            if (labelF[heap[parentSlot]] <= f) {
+                break;
+            }
+            heap[slot] = heap[parentSlot];
+            slot = parentSlot;
+        }
+        heap[slot] = label;
+    }
+
+    private int poll() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            double key = labelF[last];
+            int slot = 0;
+            int half = heapSize >>> 1;
+            while (slot < half) {
+                int child = 2 * slot + 1;
+                if (child + 1 < heapSize && labelF[heap[child + 1]] < labelF[heap[child]]) {
+                    child++;
+                }
+                if (key <= labelF[heap[child]]) {
+                    break;
+                }
+                heap[slot] = heap[child];
+                slot = child;
+            }
+            heap[slot] = last;
+        }
+        return top;
+    }
+
+    private MazePath buildPath(int goalLabel) {
+        MazePath.Builder path = MazePath.builder(cols);
+        for (int label = goalLabel; label != NONE; label = labelParent[label]) {
+            path.prepend(labelCell[label]);
+        }
+        return path.build();
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(frontStamp, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    public boolean isGoalReached() {
+        return goalReached;
+    }
+
+    public double getGoalCost() {
+        return goalCost;
+    }
+
+    public int getGoalBattery() {
+        return goalBattery;
+    }
+
+    /**
+     * Whether the battery got in the way on the last solve: the cheapest path drained too much,
+     * so the path found, if any, costs more than the cheapest one.
+     */
+    public boolean wasBatteryBinding() {
+        return batteryBinding;
+    }
+}
@@ -0,0 +1,121 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+
+/**
+ * Exact cost from any cell to one goal, found lazily: reverse A* from the goal towards an origin
+ * cell, resumed whenever a distance is asked for a cell it has not closed yet (Silver's Reverse
+ * Resumable A*). With a consistent heuristic every closed cell holds its true distance, whatever
+ * cell the search was heading for, so one search serves every agent bound for the goal and only
+ * ever expands the corridor those agents actually ask about.
+ * <p>
+ * State lives in sparse per-cell pages rather than grid-sized arrays, so hundreds of goals on a
+ * large grid cost memory in proportion to what was explored; a sharper guide heuristic, such as
+ * {@link LandmarkHeuristic}, explores less. Needs whole-number terrain costs.
+ */
+final class ReverseResumableSearch {
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int UNSEEN = Integer.MIN_VALUE;
+    private static final int FAR = 1 << 28;  // guide estimate for cells the origin cannot reach
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int goal;
+    private final int origin;
+    private final Heuristic guide;
+    // cell -> g while open, -1 - g once closed
+    private final SparseCellMap distance;
+    private final LongKeyHeap open = new LongKeyHeap();
+    private long expansions;
+
+    /**
+     * {@code guide} bounds the cost from the origin to a cell; the search expands towards the
+     * origin in that order.
+     */
+    ReverseResumableSearch(MazeGrid grid, int goal, int origin, Heuristic guide) {
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.goal = goal;
+        this.origin = origin;
+        this.guide = guide;
+        this.distance = new SparseCellMap(grid.getRows(), cols, UNSEEN);
+        distance.put(goal, 0);
+        open.push(key(goal, 0), goal);
+    }
+
+    int getGoal() {
+        return goal;
+    }
+
+    long getExpansions() {
+        return expansions;
+    }
+
+    long footprintBytes() {
+        return distance.footprintBytes() + 12L * open.size();
+    }
+
+    /**
+     * Cost of the cheapest path from {@code cell} to the goal, or {@link #UNREACHABLE}.
+     */
+    int distance(int cell) {
+        int known = distance.get(cell);
+        if (known < 0 && known != UNSEEN) {
+            return -1 - known;
+        }
+        if (!grid.isPassable(cell)) {
+            return UNREACHABLE;
+        }
+        while (!open.isEmpty()) {
+            long key = open.topKey();
+            int current = open.topValue();
+            open.pop();
+            int g = distance.get(current);
+            if (g < 0 || Integer.MAX_VALUE - (int) key != g) {
+                continue;  // closed already, or queued again since with a lower cost
+            }
+            distance.put(current, -1 - g);
+            expansions++;
+            int row = current / cols;
+            int col = current % cols;
+            // Walking backwards, the step into current from a neighbour costs current's entry cost
+            int step = (int) grid.movementCost(current);
+            if (row > 0) {
+                relax(current, current - cols, g + step);
+            }
+            if (row < grid.getRows() - 1) {
+                relax(current, current + cols, g + step);
+            }
+            if (col > 0) {
+                relax(current, current - 1, g + step);
+            }
+            if (col < cols - 1) {
+                relax(current, current + 1, g + step);
+            }
+            if (current == cell) {
+                return g;
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    private void relax(int current, int neighbor, int g) {
+        if (!grid.isPassable(neighbor) || grid.isConsecutiveWater(neighbor, current)) {
+            return;
+        }
+        int known = distance.get(neighbor);
+        if (known == UNSEEN || (known >= 0 && g < known)) {
+            distance.put(neighbor, g);
+            open.push(key(neighbor, g), neighbor);
+        }
+    }
+
+    /**
+     * Orders by f = g + the guide's bound from the origin, then by larger g.
+     */
+    private long key(int cell, int g) {
+        long h = (long) Math.min(guide.estimate(origin, cell), FAR);
+        return (g + h) << 32 | (Integer.MAX_VALUE - g);
+    }
+}
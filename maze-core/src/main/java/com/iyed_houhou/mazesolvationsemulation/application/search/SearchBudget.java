@@ -0,0 +1,35 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long an anytime search may keep improving its answer: wall-clock time, cells expanded, or
+ * both. Whichever runs out first ends the search.
+ */
+public record SearchBudget(long timeNanos, long expansions) {
+
+    public static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public SearchBudget {
+        if (timeNanos < 0 || expansions < 0) {
+            throw new IllegalArgumentException("Budget must not be negative: " + timeNanos + " ns, "
+                    + expansions + " expansions");
+        }
+    }
+
+    public static SearchBudget ofMillis(long millis) {
+        return new SearchBudget(TimeUnit.MILLISECONDS.toNanos(millis), Long.MAX_VALUE);
+    }
+
+    public static SearchBudget ofExpansions(long expansions) {
+        return new SearchBudget(Long.MAX_VALUE, expansions);
+    }
+
+    /**
+     * The point on the {@link System#nanoTime()} clock where a search started at {@code startNanos}
+     * must stop.
+     */
+    long deadlineFrom(long startNanos) {
+        return timeNanos > Long.MAX_VALUE - startNanos ? Long.MAX_VALUE : startNanos + timeNanos;
+    }
+}
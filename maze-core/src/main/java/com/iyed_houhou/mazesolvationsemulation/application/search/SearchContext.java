@@ -0,0 +1,217 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.util.Arrays;
+
+/**
+ * Reusable A* buffers for one {@link MazeGrid}. Cells are encoded as row * cols + col and all
+ * per-cell search state lives in primitive arrays that are invalidated by bumping a generation
+ * counter instead of being cleared, so repeated solves on the same maze do not allocate until
+ * the final {@link MazePath} is built.
+ * <p>
+ * A context is not thread-safe; use one per solving thread.
+ */
+public class SearchContext {
+    private static final int NO_PARENT = -1;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final OpenList openList;
+    private final Heuristic heuristic;
+    private final Heuristic manhattan;
+    private final double[] g;        // cost from the start
+    private final int[] parent;      // predecessor cell, NO_PARENT for the start
+    private final int[] battery;     // battery left on arrival
+    private final int[] reached;     // generation in which g/parent/battery were last written
+    private final int[] closed;      // generation in which the cell was expanded
+    private int generation;
+
+    // Outcome of the last solve
+    private int goalCell = NO_PARENT;
+
+    public SearchContext(MazeGrid grid) {
+        this(grid, OpenList.defaultKind());
+    }
+
+    public SearchContext(MazeGrid grid, OpenList.Kind openListKind) {
+        this(grid, openListKind, Heuristic.manhattan(grid.getCols()));
+    }
+
+    /**
+     * A context whose searches are guided by the given heuristic, e.g. a {@link LandmarkHeuristic}
+     * shared by every context on the same grid.
+     */
+    public SearchContext(MazeGrid grid, OpenList.Kind openListKind, Heuristic heuristic) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.heuristic = heuristic;
+        this.manhattan = Heuristic.manhattan(cols);
+        int size = grid.size();
+        // One step raises f = g + h by the entry cost plus at most the dearest entry cost again
+        int maxCost = (int) Math.ceil(MazeGrid.maxMovementCost());
+        this.openList = OpenList.create(openListKind, size, 2 * maxCost);
+        this.g = new double[size];
+        this.parent = new int[size];
+        this.battery = new int[size];
+        this.reached = new int[size];
+        this.closed = new int[size];
+    }
+
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    public MazePath solve(int start, int goal, int initialBattery) {
+        return solve(start, goal, initialBattery, SearchListener.NONE);
+    }
+
+    /**
+     * Runs A* from start to goal (both cell indices), reporting progress to the listener. Returns
+     * the path, or an empty path when the goal cannot be reached with the given battery.
+     */
+    public MazePath solve(int start, int goal, int initialBattery, SearchListener listener) {
+        listener.searchStarted(start, goal);
+        MazePath path = search(start, goal, initialBattery, listener);
+        if (goalCell != NO_PARENT) {
+            listener.goalFound(goal, g[goal], battery[goal]);
+        }
+        listener.searchFinished(goalCell != NO_PARENT);
+        return path;
+    }
+
+    /**
+     * The A* loop itself. Only expansion, push and rejection events are reported; starting,
+     * finishing and the goal are left to the caller, which may run further phases.
+     */
+    MazePath search(int start, int goal, int initialBattery, SearchListener listener) {
+        nextGeneration();
+        openList.clear();
+        goalCell = NO_PARENT;
+
+        // A heuristic only bounds how its estimate moves between passable cells; a robot parked
+        // on a wall steps off with plain Manhattan distance instead
+        Heuristic h = grid.isPassable(start) ? heuristic : manhattan;
+        double startEstimate = h.estimate(start, goal);
+        if (startEstimate == Double.POSITIVE_INFINITY) {
+            return new MazePath();
+        }
+
+        g[start] = 0;
+        parent[start] = NO_PARENT;
+        battery[start] = initialBattery;
+        reached[start] = generation;
+        openList.insert(start, startEstimate);
+        listener.nodePushed(start, openList.keyOf(start));
+
+        while (!openList.isEmpty() && !listener.shouldStop()) {
+            int current = openList.poll();
+            if (current == goal) {
+                goalCell = goal;
+                break;
+            }
+            closed[current] = generation;
+            listener.nodeExpanded(current, g[current], battery[current]);
+
+            int row = current / cols;
+            int col = current % cols;
+            if (row > 0) {
+                relax(current, current - cols, goal, h, listener);
+            }
+            if (row < rows - 1) {
+                relax(current, current + cols, goal, h, listener);
+            }
+            if (col > 0) {
+                relax(current, current - 1, goal, h, listener);
+            }
+            if (col < cols - 1) {
+                relax(current, current + 1, goal, h, listener);
+            }
+        }
+        return goalCell == NO_PARENT ? new MazePath() : buildPath(goalCell);
+    }
+
+    private void relax(int current, int neighbor, int goal, Heuristic h, SearchListener listener) {
+        if (closed[neighbor] == generation) {
+            return;
+        }
+        if (!grid.isPassable(neighbor)) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.WALL);
+            return;
+        }
+        if (grid.isConsecutiveWater(current, neighbor)) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.WATER_CHAIN);
+            return;
+        }
+        int batteryLeft = battery[current] - grid.batteryConsumption(neighbor);
+        if (batteryLeft < 0) {
+            listener.neighborRejected(neighbor, SearchListener.RejectReason.BATTERY);
+            return;
+        }
+        double tentativeG = g[current] + grid.movementCost(neighbor);
+        boolean seen = reached[neighbor] == generation;
+        if (seen && g[neighbor] <= tentativeG) {
+            return;
+        }
+
+        double estimate = h.estimate(neighbor, goal);
+        if (estimate == Double.POSITIVE_INFINITY) {
+            return;
+        }
+
+        g[neighbor] = tentativeG;
+        parent[neighbor] = current;
+        battery[neighbor] = batteryLeft;
+        reached[neighbor] = generation;
+
+        double f = tentativeG + estimate;
+        if (openList.contains(neighbor)) {
+            openList.decreaseKey(neighbor, f);
+        } else {
+            openList.insert(neighbor, f);
+        }
+        listener.nodePushed(neighbor, f);
+    }
+
+    private MazePath buildPath(int goal) {
+        MazePath.Builder path = MazePath.builder(cols);
+        for (int cell = goal; cell != NO_PARENT; cell = parent[cell]) {
+            path.prepend(cell);
+        }
+        return path.build();
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            // Stamps would wrap around; start over from a clean slate
+            Arrays.fill(reached, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    /**
+     * Whether the last solve reached its goal.
+     */
+    public boolean isGoalReached() {
+        return goalCell != NO_PARENT;
+    }
+
+    /**
+     * Path cost of the last successful solve.
+     */
+    public double getGoalCost() {
+        return g[goalCell];
+    }
+
+    /**
+     * Battery left at the goal after the last successful solve.
+     */
+    public int getGoalBattery() {
+        return battery[goalCell];
+    }
+}
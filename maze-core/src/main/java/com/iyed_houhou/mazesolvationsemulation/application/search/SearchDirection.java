@@ -0,0 +1,13 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+/**
+ * Which way a point-to-point A* query grows its search.
+ */
+public enum SearchDirection {
+    /** One frontier from the start, as {@link SearchContext} does. */
+    FORWARD,
+    /** Frontiers from both ends on the calling thread; see {@link BidirectionalSearch}. */
+    BIDIRECTIONAL,
+    /** Frontiers from both ends, the backward one on another thread. */
+    BIDIRECTIONAL_PARALLEL
+}
@@ -0,0 +1,45 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+/**
+ * Callbacks fired by the solver while it searches. Cells are passed as indices (row * cols + col)
+ * so that nothing has to be allocated to report an event.
+ * <p>
+ * Every method has an empty default, and {@link #NONE} is what the solver uses when nobody is
+ * listening, so an unobserved search pays nothing once the JIT has inlined the empty calls.
+ */
+public interface SearchListener {
+
+    SearchListener NONE = new SearchListener() {
+    };
+
+    enum RejectReason {
+        WALL,         // Neighbor is impassable
+        WATER_CHAIN,  // Water straight after water
+        BATTERY       // Not enough battery left to enter the neighbor
+    }
+
+    default void searchStarted(int start, int goal) {
+    }
+
+    default void nodeExpanded(int cell, double g, int battery) {
+    }
+
+    default void nodePushed(int cell, double f) {
+    }
+
+    default void neighborRejected(int cell, RejectReason reason) {
+    }
+
+    default void goalFound(int cell, double cost, int battery) {
+    }
+
+    default void searchFinished(boolean goalReached) {
+    }
+
+    /**
+     * Polled once per expansion; returning true abandons the search as if no path existed.
+     */
+    default boolean shouldStop() {
+        return false;
+    }
+}
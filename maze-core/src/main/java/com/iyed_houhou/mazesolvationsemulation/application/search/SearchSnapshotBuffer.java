@@ -0,0 +1,132 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Listener that lets another thread watch a search grow. The search thread notes each cell the
+ * first time it is pushed and the first time it is expanded, and every so often hands what it
+ * noted since the last hand-over to a single slot. The watcher empties the slot with
+ * {@link #poll()} whenever it likes.
+ * <p>
+ * Nothing here ever waits: when the watcher has not taken the previous frame yet, the search
+ * simply keeps noting cells and offers them all next time. Each cell is reported at most once as
+ * opened and once as closed, so what piles up is bounded by the grid however slow the watcher.
+ * One search thread and one watcher; a new search starts a fresh sequence of frames.
+ */
+public class SearchSnapshotBuffer implements SearchListener {
+    // Expansions between clock reads, so the throttle itself stays off the profile
+    private static final int CLOCK_INTERVAL = 256;
+
+    /**
+     * Cells first pushed and first expanded since the previous frame. A cell may be in both.
+     * {@code finished} marks the last frame of a search.
+     */
+    public record Frame(int[] opened, int[] closed, long expansions, boolean finished) {
+    }
+
+    private final long intervalNanos;
+    private final AtomicReference<Frame> ready = new AtomicReference<>();
+
+    // Search thread only
+    private final long[] seenOpen;    // one bit per cell
+    private final long[] seenClosed;
+    private final IntList opened = new IntList(1024);
+    private final IntList closed = new IntList(1024);
+    private long expansions;
+    private long lastOffer;
+
+    /**
+     * Watches searches over a grid of {@code cells} cells, offering a frame at most once per
+     * interval; the last frame of a search comes whatever the interval.
+     */
+    public SearchSnapshotBuffer(int cells, long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Snapshot interval must not be negative: " + intervalMillis);
+        }
+        this.intervalNanos = intervalMillis * 1_000_000;
+        this.seenOpen = new long[(cells + 63) >>> 6];
+        this.seenClosed = new long[seenOpen.length];
+    }
+
+    /**
+     * The cells noted since the previous poll, or null when there is nothing new yet.
+     */
+    public Frame poll() {
+        return ready.getAndSet(null);
+    }
+
+    @Override
+    public void searchStarted(int start, int goal) {
+        Arrays.fill(seenOpen, 0);
+        Arrays.fill(seenClosed, 0);
+        opened.clear();
+        closed.clear();
+        expansions = 0;
+        lastOffer = System.nanoTime();
+        ready.set(null);
+    }
+
+    @Override
+    public void nodePushed(int cell, double f) {
+        if (firstTime(seenOpen, cell)) {
+            opened.add(cell);
+        }
+    }
+
+    @Override
+    public void nodeExpanded(int cell, double g, int battery) {
+        if (firstTime(seenClosed, cell)) {
+            closed.add(cell);
+        }
+        if (++expansions % CLOCK_INTERVAL == 0) {
+            long now = System.nanoTime();
+            if (now - lastOffer >= intervalNanos && offer()) {
+                lastOffer = now;
+            }
+        }
+    }
+
+    @Override
+    public void searchFinished(boolean goalReached) {
+        // The watcher must get everything, so fold in a frame it has not taken yet
+        Frame untaken = ready.getAndSet(null);
+        ready.set(new Frame(join(untaken == null ? null : untaken.opened(), opened),
+                join(untaken == null ? null : untaken.closed(), closed), expansions, true));
+        opened.clear();
+        closed.clear();
+    }
+
+    /**
+     * Hands the noted cells over if the slot is free. Only this thread fills the slot, so a free
+     * slot stays free until the set below.
+     */
+    private boolean offer() {
+        if (ready.get() != null || (opened.isEmpty() && closed.isEmpty())) {
+            return false;
+        }
+        ready.set(new Frame(opened.toArray(), closed.toArray(), expansions, false));
+        opened.clear();
+        closed.clear();
+        return true;
+    }
+
+    private static boolean firstTime(long[] seen, int cell) {
+        long word = seen[cell >>> 6];
+        long bit = 1L << cell;
+        seen[cell >>> 6] = word | bit;
+        return (word & bit) == 0;
+    }
+
+    private static int[] join(int[] head, IntList tail) {
+        if (head == null) {
+            return tail.toArray();
+        }
+        int[] joined = new int[head.length + tail.size()];
+        System.arraycopy(head, 0, joined, 0, head.length);
+        for (int i = 0; i < tail.size(); i++) {
+            joined[head.length + i] = tail.get(i);
+        }
+        return joined;
+    }
+}
@@ -0,0 +1,27 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+/**
+ * Counters collected over one solve by {@link CountingSearchListener}.
+ */
+public record SearchStats(long nodesExpanded,
+                          long pushes,
+                          long wallRejections,
+                          long waterChainRejections,
+                          long batteryRejections,
+                          boolean goalReached,
+                          long elapsedNanos) {
+
+    public long totalRejections() {
+        return wallRejections + waterChainRejections + batteryRejections;
+    }
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchStats[expanded=%d, pushes=%d, rejected(wall=%d, water=%d, battery=%d), goal=%b, %.3f ms]",
+                nodesExpanded, pushes, wallRejections, waterChainRejections, batteryRejections, goalReached, elapsedMillis());
+    }
+}
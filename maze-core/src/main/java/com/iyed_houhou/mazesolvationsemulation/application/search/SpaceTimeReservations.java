@@ -0,0 +1,89 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+/**
+ * Which agent holds which cell at which time step, for cooperative planning. Only reserved
+ * (time, cell) pairs are stored, one hash entry each, so the table grows with the plans made so
+ * far and not with the grid or the horizon. An agent that has arrived for good is parked instead:
+ * one entry holds its cell from its arrival time on.
+ */
+final class SpaceTimeReservations {
+    static final int FREE = -1;
+
+    private final LongIntHashMap occupant = new LongIntHashMap(4096);  // time << 32 | cell -> agent
+    private final LongIntHashMap parkedAgent = new LongIntHashMap(256); // cell -> agent
+    private final LongIntHashMap parkedSince = new LongIntHashMap(256); // cell -> first parked time
+    private final LongIntHashMap lastBusy = new LongIntHashMap(4096);   // cell -> last reserved time
+
+    void reserve(int cell, int time, int agent) {
+        occupant.put(key(cell, time), agent);
+        if (lastBusy.get(cell, -1) < time) {
+            lastBusy.put(cell, time);
+        }
+    }
+
+    /**
+     * Holds the cell for the agent from {@code since} on, with no end.
+     */
+    void park(int cell, int since, int agent) {
+        parkedAgent.put(cell, agent);
+        parkedSince.put(cell, since);
+        lastBusy.put(cell, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The agent holding the cell at the given time, or {@link #FREE}.
+     */
+    int agentAt(int cell, int time) {
+        int agent = occupant.get(key(cell, time), FREE);
+        if (agent != FREE) {
+            return agent;
+        }
+        int since = parkedSince.get(cell, Integer.MAX_VALUE);
+        return time >= since ? parkedAgent.get(cell, FREE) : FREE;
+    }
+
+    /**
+     * The last time step at which any agent holds the cell, {@code Integer.MAX_VALUE} when an
+     * agent is parked there, -1 when nobody ever does.
+     */
+    int lastBusy(int cell) {
+        return lastBusy.get(cell, -1);
+    }
+
+    /**
+     * Whether the agent may go from {@code from} at {@code time} to {@code to} at {@code time + 1}
+     * (a wait when they are equal): the target must be free then, and the agent must not swap
+     * places with another that comes the other way.
+     */
+    boolean canMove(int from, int to, int time, int agent) {
+        int holder = agentAt(to, time + 1);
+        if (holder != FREE && holder != agent) {
+            return false;
+        }
+        if (from == to) {
+            return true;
+        }
+        int oncoming = agentAt(to, time);
+        return oncoming == FREE || oncoming == agent || agentAt(from, time + 1) != oncoming;
+    }
+
+    int size() {
+        return occupant.size() + parkedAgent.size();
+    }
+
+    long footprintBytes() {
+        return occupant.footprintBytes() + parkedAgent.footprintBytes() + parkedSince.footprintBytes()
+                + lastBusy.footprintBytes();
+    }
+
+    void clear() {
+        occupant.clear();
+        parkedAgent.clear();
+        parkedSince.clear();
+        lastBusy.clear();
+    }
+
+    private static long key(int cell, int time) {
+        return (long) time << 32 | cell;
+    }
+}
@@ -0,0 +1,82 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import java.util.Arrays;
+
+/**
+ * Per-cell int values for the part of a grid a search actually touches. Cells are stored in 8x8
+ * pages allocated on first write, so neighbouring cells share a page and usually a cache line.
+ * Memory is a directory of 4 bytes per 64 grid cells plus 4 bytes per cell of each page touched.
+ */
+final class SparseCellMap {
+    private static final int PAGE_BITS = 3;
+    private static final int PAGE_SIDE = 1 << PAGE_BITS;
+    private static final int PAGE_CELLS = PAGE_SIDE * PAGE_SIDE;
+    private static final int NO_PAGE = -1;
+
+    private final int cols;
+    private final int pagesAcross;
+    private final int missing;
+    private final int[] pageOffsets;  // page -> offset into values, or NO_PAGE
+    private int[] values = new int[PAGE_CELLS * 16];
+    private int usedValues;
+    // Searches touch the same page many times in a row
+    private int lastPage = NO_PAGE;
+    private int lastOffset;
+
+    /**
+     * {@code missing} is what {@link #get(int)} returns for a cell never written.
+     */
+    SparseCellMap(int rows, int cols, int missing) {
+        this.cols = cols;
+        this.pagesAcross = (cols + PAGE_SIDE - 1) >> PAGE_BITS;
+        this.missing = missing;
+        int pagesDown = (rows + PAGE_SIDE - 1) >> PAGE_BITS;
+        this.pageOffsets = new int[pagesDown * pagesAcross];
+        Arrays.fill(pageOffsets, NO_PAGE);
+    }
+
+    int get(int cell) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int offset = offset(row, col, false);
+        return offset == NO_PAGE ? missing : values[offset];
+    }
+
+    void put(int cell, int value) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int offset = offset(row, col, true);  // may grow values, so look it up first
+        values[offset] = value;
+    }
+
+    long footprintBytes() {
+        return 4L * (values.length + pageOffsets.length);
+    }
+
+    private int offset(int row, int col, boolean allocate) {
+        int page = (row >> PAGE_BITS) * pagesAcross + (col >> PAGE_BITS);
+        if (page != lastPage) {
+            int offset = pageOffsets[page];
+            if (offset == NO_PAGE) {
+                if (!allocate) {
+                    return NO_PAGE;
+                }
+                offset = allocatePage(page);
+            }
+            lastPage = page;
+            lastOffset = offset;
+        }
+        return lastOffset + ((row & (PAGE_SIDE - 1)) << PAGE_BITS | (col & (PAGE_SIDE - 1)));
+    }
+
+    private int allocatePage(int page) {
+        if (usedValues == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        int offset = usedValues;
+        usedValues += PAGE_CELLS;
+        Arrays.fill(values, offset, usedValues, missing);
+        pageOffsets[page] = offset;
+        return offset;
+    }
+}
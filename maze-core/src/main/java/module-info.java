@@ -0,0 +1,9 @@
+/**
+ * Maze model and solvers, with no UI dependency, so they can run on headless hosts.
+ */
+module com.iyed_houhou.mazesolvationsemulation.core {
+    exports com.iyed_houhou.mazesolvationsemulation.application.models;
+    exports com.iyed_houhou.mazesolvationsemulation.application.search;
+    exports com.iyed_houhou.mazesolvationsemulation.application.io;
+    exports com.iyed_houhou.mazesolvationsemulation.application.generation;
+}
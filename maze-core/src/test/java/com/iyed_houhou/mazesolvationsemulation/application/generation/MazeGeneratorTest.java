@@ -0,0 +1,130 @@
+package com.iyed_houhou.mazesolvationsemulation.application.generation;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MazeGeneratorTest {
+    private static final long SEED = 20;
+
+    /**
+     * Shapes on and off every generator's work unit: one cell, a single tile, sizes just past a
+     * tile or chunk boundary, and one spanning several of each.
+     */
+    private static final int[][] SHAPES = {
+            {1, 1}, {2, 7}, {63, 64}, {65, 130},
+            {2 * PerfectMazeGenerator.TILE_ROOMS + 1, 2 * PerfectMazeGenerator.TILE_ROOMS + 3},
+            {ClusteredTerrainGenerator.TILE * 2 + 5, ClusteredTerrainGenerator.TILE + 1},
+            {300, NoiseGenerator.CHUNK_CELLS / 300 + 17}
+    };
+
+    @Test
+    void noiseIsTheSameOnAnyNumberOfThreads() {
+        assertSameOnAnyNumberOfThreads(pool -> new NoiseGenerator(0.15, 0.20, 0.20, 0.20, pool));
+    }
+
+    @Test
+    void clusteredTerrainIsTheSameOnAnyNumberOfThreads() {
+        assertSameOnAnyNumberOfThreads(pool -> new ClusteredTerrainGenerator(3.0, pool));
+    }
+
+    @Test
+    void perfectMazesAreTheSameOnAnyNumberOfThreads() {
+        for (PerfectMazeGenerator.Algorithm algorithm : PerfectMazeGenerator.Algorithm.values()) {
+            assertSameOnAnyNumberOfThreads(pool -> new PerfectMazeGenerator(algorithm, pool));
+        }
+    }
+
+    @Test
+    void perfectMazesHaveExactlyOnePathBetweenOpenCells() {
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            for (PerfectMazeGenerator.Algorithm algorithm : PerfectMazeGenerator.Algorithm.values()) {
+                for (int[] shape : SHAPES) {
+                    MazeGrid grid = new MazeGrid(shape[0], shape[1]);
+                    new PerfectMazeGenerator(algorithm, pool).generate(grid, SEED);
+                    assertTree(grid, algorithm + " " + shape[0] + "x" + shape[1]);
+                }
+            }
+        }
+    }
+
+    private static void assertSameOnAnyNumberOfThreads(Function<ForkJoinPool, MazeGenerator> generator) {
+        try (ForkJoinPool one = new ForkJoinPool(1); ForkJoinPool four = new ForkJoinPool(4)) {
+            for (int[] shape : SHAPES) {
+                MazeGrid single = new MazeGrid(shape[0], shape[1]);
+                MazeGrid parallel = new MazeGrid(shape[0], shape[1]);
+                generator.apply(one).generate(single, SEED);
+                generator.apply(four).generate(parallel, SEED);
+                assertArrayEquals(codes(single), codes(parallel), shape[0] + "x" + shape[1]);
+            }
+        }
+    }
+
+    private static byte[] codes(MazeGrid grid) {
+        byte[] codes = new byte[grid.size()];
+        for (int cell = 0; cell < codes.length; cell++) {
+            codes[cell] = (byte) grid.terrainAt(cell).ordinal();
+        }
+        return codes;
+    }
+
+    /**
+     * The open cells form a tree: they are all connected, and there is one fewer passage between
+     * neighbouring open cells than there are open cells, so no loop offers a second path.
+     */
+    private static void assertTree(MazeGrid grid, String where) {
+        int cols = grid.getCols();
+        int open = 0;
+        int links = 0;
+        int first = -1;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (!grid.isPassable(cell)) {
+                continue;
+            }
+            open++;
+            if (first < 0) {
+                first = cell;
+            }
+            if (cell % cols + 1 < cols && grid.isPassable(cell + 1)) {
+                links++;
+            }
+            if (cell + cols < grid.size() && grid.isPassable(cell + cols)) {
+                links++;
+            }
+        }
+        assertFalse(open == 0, where + " has no open cell");
+        assertEquals(open - 1, links, where + " has a loop");
+
+        boolean[] seen = new boolean[grid.size()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[first] = true;
+        queue.add(first);
+        int reached = 0;
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            reached++;
+            int row = cell / cols;
+            int col = cell % cols;
+            int[] neighbours = {
+                    row > 0 ? cell - cols : -1,
+                    row + 1 < grid.getRows() ? cell + cols : -1,
+                    col > 0 ? cell - 1 : -1,
+                    col + 1 < cols ? cell + 1 : -1
+            };
+            for (int next : neighbours) {
+                if (next >= 0 && !seen[next] && grid.isPassable(next)) {
+                    seen[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        assertEquals(open, reached, where + " is not connected");
+    }
+}
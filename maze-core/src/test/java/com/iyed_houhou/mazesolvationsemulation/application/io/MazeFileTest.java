@@ -0,0 +1,147 @@
+package com.iyed_houhou.mazesolvationsemulation.application.io;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import com.iyed_houhou.mazesolvationsemulation.application.search.TestMazes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MazeFileTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Random shapes, bit widths and tile sizes, so edge tiles are padded in every way; the mapped
+     * grid must read back the same terrain and solve to the same paths as the heap grid.
+     */
+    @Test
+    void mapsBackWhatWasWritten() throws IOException {
+        SplittableRandom random = new SplittableRandom(19);
+        Path file = directory.resolve("maze.bin");
+        for (int trial = 0; trial < 200; trial++) {
+            MazeGrid grid = TestMazes.random(random, 1 + random.nextInt(150), 1 + random.nextInt(150), 0.25);
+            Coordinate start = new Coordinate(random.nextInt(grid.getRows()), random.nextInt(grid.getCols()));
+            Coordinate end = new Coordinate(random.nextInt(grid.getRows()), random.nextInt(grid.getCols()));
+            int bits = random.nextBoolean() ? 4 : 8;
+            int shift = 1 + random.nextInt(7);
+            MazeFile.write(grid, start, end, file, bits, shift);
+            assertEquals(64 + MazeGrid.segmentBytes(grid.getRows(), grid.getCols(), bits, shift), Files.size(file));
+            assertTrue(MazeFile.isMazeFile(file));
+
+            try (MazeFile mapped = MazeFile.map(file)) {
+                mapped.verify();
+                MazeGrid read = mapped.getGrid();
+                assertTrue(read.isSegmentBacked());
+                assertTrue(read.isReadOnly());
+                assertEquals(grid.getRows(), read.getRows());
+                assertEquals(grid.getCols(), read.getCols());
+                assertEquals(start, mapped.getStart());
+                assertEquals(end, mapped.getEnd());
+                assertEquals(bits, mapped.getBitsPerCell());
+                assertEquals(shift, mapped.getTileShift());
+                for (int cell = 0; cell < grid.size(); cell++) {
+                    assertEquals(grid.terrainAt(cell), read.terrainAt(cell), "trial " + trial + " cell " + cell);
+                }
+
+                SearchContext onHeap = new SearchContext(grid);
+                SearchContext onMapping = new SearchContext(read);
+                for (int query = 0; query < 10; query++) {
+                    int from = random.nextInt(grid.size());
+                    int to = random.nextInt(grid.size());
+                    int battery = random.nextInt(4 * (grid.getRows() + grid.getCols()));
+                    assertEquals(onHeap.solve(from, to, battery), onMapping.solve(from, to, battery));
+                    assertEquals(onHeap.isGoalReached(), onMapping.isGoalReached());
+                    if (onHeap.isGoalReached()) {
+                        assertEquals(onHeap.getGoalCost(), onMapping.getGoalCost());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsAFileOntoTheHeap() throws IOException {
+        MazeGrid grid = TestMazes.parse(
+                ".g#",
+                "s~.");
+        Path file = directory.resolve("small.bin");
+        MazeFile.write(new Maze(grid, new Coordinate(0, 0), new Coordinate(1, 2)), file);
+
+        Maze maze = MazeFile.read(file);
+        assertFalse(maze.getGrid().isSegmentBacked());
+        assertEquals(new Coordinate(1, 2), maze.getEndCell());
+        for (int cell = 0; cell < grid.size(); cell++) {
+            assertEquals(grid.terrainAt(cell), maze.getGrid().terrainAt(cell));
+        }
+    }
+
+    @Test
+    void rejectsDamagedFiles() throws IOException {
+        MazeGrid grid = TestMazes.random(new SplittableRandom(7), 30, 40, 0.25);
+        Path file = directory.resolve("maze.bin");
+        MazeFile.write(grid, new Coordinate(0, 0), new Coordinate(29, 39), file, 8, 3);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path damaged = directory.resolve("damaged.bin");
+        Files.write(damaged, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MazeFile.map(damaged));
+
+        Files.write(damaged, Arrays.copyOf(bytes, 40));
+        assertThrows(IOException.class, () -> MazeFile.map(damaged));
+
+        byte[] badCode = bytes.clone();
+        badCode[64 + 100] = 9;
+        Files.write(damaged, badCode);
+        try (MazeFile mapped = MazeFile.map(damaged)) {
+            assertThrows(IOException.class, mapped::verify);
+        }
+
+        byte[] notAMaze = bytes.clone();
+        notAMaze[0] = 'X';
+        Files.write(damaged, notAMaze);
+        assertFalse(MazeFile.isMazeFile(damaged));
+        assertThrows(IOException.class, () -> MazeFile.map(damaged));
+    }
+
+    /**
+     * Cells are int indices, so a header promising more than {@link MazeGrid#MAX_CELLS} cells is
+     * refused up front rather than overflowing.
+     */
+    @Test
+    void refusesMoreCellsThanAGridCanAddress() throws IOException {
+        Path file = directory.resolve("huge.bin");
+        MazeFile.write(TestMazes.parse(".."), new Coordinate(0, 0), new Coordinate(0, 1), file, 8, 1);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(8, 50_000).putInt(12, 50_000);
+        Files.write(file, bytes);
+
+        IOException refused = assertThrows(IOException.class, () -> MazeFile.map(file));
+        assertTrue(refused.getMessage().contains("cells"), refused.getMessage());
+    }
+
+    @Test
+    void cannotBeReadOnceClosed() throws IOException {
+        Path file = directory.resolve("maze.bin");
+        MazeFile.write(TestMazes.parse("..", ".."), new Coordinate(0, 0), new Coordinate(1, 1), file, 4, 1);
+        MazeFile mapped = MazeFile.map(file);
+        MazeGrid grid = mapped.getGrid();
+        assertTrue(grid.isPassable(3));
+        mapped.close();
+        assertThrows(IllegalStateException.class, () -> grid.isPassable(3));
+    }
+}
@@ -0,0 +1,123 @@
+package com.iyed_houhou.mazesolvationsemulation.application.io;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovingAiFormatTest {
+    private static final MovingAiFormat.TerrainMapping DEFAULT = MovingAiFormat.TerrainMapping.movingAi();
+
+    @Test
+    void readsAMapWithTheBenchmarkCharacters() throws IOException {
+        MazeGrid grid = MovingAiFormat.readMap(reader(
+                "type octile",
+                "height 2",
+                "width 4",
+                "map",
+                ".GS@",
+                "OTW.  "), DEFAULT);
+        assertEquals(2, grid.getRows());
+        assertEquals(4, grid.getCols());
+        MazeCell.Terrain[] expected = {
+                MazeCell.Terrain.EMPTY, MazeCell.Terrain.EMPTY, MazeCell.Terrain.SAND, MazeCell.Terrain.WALL,
+                MazeCell.Terrain.WALL, MazeCell.Terrain.WALL, MazeCell.Terrain.WALL, MazeCell.Terrain.EMPTY
+        };
+        for (int cell = 0; cell < expected.length; cell++) {
+            assertEquals(expected[cell], grid.terrainAt(cell), "cell " + cell);
+        }
+    }
+
+    @Test
+    void readsAMapThroughAChangedMapping() throws IOException {
+        MovingAiFormat.TerrainMapping mapping = MovingAiFormat.TerrainMapping.parse(" T=grass, W=WATER,,x=Wall ");
+        MazeGrid grid = MovingAiFormat.readMap(reader("height 1", "width 4", "map", "TWx."), mapping);
+        assertEquals(MazeCell.Terrain.GRASS, grid.terrainAt(0));
+        assertEquals(MazeCell.Terrain.WATER, grid.terrainAt(1));
+        assertEquals(MazeCell.Terrain.WALL, grid.terrainAt(2));
+        assertEquals(MazeCell.Terrain.EMPTY, grid.terrainAt(3));
+        // The default is left as it was
+        assertEquals(MazeCell.Terrain.WALL, DEFAULT.terrainOf('T'));
+    }
+
+    @Test
+    void rejectsBrokenMaps() {
+        assertRejected("Unmapped terrain 'x'", "height 1", "width 2", "map", ".x");
+        assertRejected("Row 1 has 1 cells", "height 2", "width 2", "map", "..", ".");
+        assertRejected("Row 0 has 3 cells", "height 1", "width 2", "map", "...");
+        assertRejected("after 1 of 2 rows", "height 2", "width 2", "map", "..");
+        assertRejected("before its \"map\" line", "height 1", "width 1");
+        assertRejected("positive height and width", "width 2", "map", "..");
+        assertRejected("Unexpected map header", "height 1", "width 1", "depth 3", "map", ".");
+        assertRejected("Not a number", "height one", "width 1", "map", ".");
+    }
+
+    @Test
+    void rejectsBadMappings() {
+        assertThrows(IllegalArgumentException.class, () -> MovingAiFormat.TerrainMapping.parse("TT=GRASS"));
+        assertThrows(IllegalArgumentException.class, () -> MovingAiFormat.TerrainMapping.parse("T:GRASS"));
+        assertThrows(IllegalArgumentException.class, () -> MovingAiFormat.TerrainMapping.parse("T=LAVA"));
+        assertThrows(IllegalArgumentException.class, () -> MovingAiFormat.TerrainMapping.parse("é=WALL"));
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> MovingAiFormat.TerrainMapping.parse("T=GRASS,W=LAVA"));
+        assertTrue(unknown.getMessage().contains("W=LAVA"), unknown.getMessage());
+    }
+
+    /**
+     * Tabs, as published suites use them, allow spaces in map names; older files separate fields
+     * with runs of spaces. x is the column and y the row.
+     */
+    @Test
+    void readsScenariosSeparatedByTabsOrSpaces() throws IOException {
+        List<MovingAiFormat.Scenario> scenarios = MovingAiFormat.readScenarios(reader(
+                "version 1",
+                "0\tmaps/my map.map\t6\t4\t5\t0\t1\t3\t7.41421356",
+                "",
+                "3   arena.map  6  4   2 1    0 2   3"));
+        assertEquals(2, scenarios.size());
+
+        MovingAiFormat.Scenario tabbed = scenarios.get(0);
+        assertEquals(0, tabbed.bucket());
+        assertEquals("maps/my map.map", tabbed.map());
+        assertEquals(6, tabbed.width());
+        assertEquals(4, tabbed.height());
+        assertEquals(new Coordinate(0, 5), tabbed.start());
+        assertEquals(new Coordinate(3, 1), tabbed.goal());
+        assertEquals(7.41421356, tabbed.optimalLength());
+
+        MovingAiFormat.Scenario spaced = scenarios.get(1);
+        assertEquals(3, spaced.bucket());
+        assertEquals("arena.map", spaced.map());
+        assertEquals(new Coordinate(1, 2), spaced.start());
+        assertEquals(new Coordinate(2, 0), spaced.goal());
+    }
+
+    @Test
+    void rejectsBrokenScenarios() {
+        assertThrows(IOException.class, () -> MovingAiFormat.readScenarios(reader("0 a.map 6 4 5 0 1 3 7")));
+        assertThrows(IOException.class, () -> MovingAiFormat.readScenarios(reader("version 1", "0 a.map 6 4 5 0 1 3")));
+        assertThrows(IOException.class, () -> MovingAiFormat.readScenarios(reader("version 1", "0 a.map 6 4 6 0 1 3 7")));
+        assertThrows(IOException.class, () -> MovingAiFormat.readScenarios(reader("version 1", "0 a.map 6 4 5 4 1 3 7")));
+        IOException notANumber = assertThrows(IOException.class,
+                () -> MovingAiFormat.readScenarios(reader("version 1", "0 a.map 6 4 5 0 1 3 7", "0 a.map six 4 5 0 1 3 7")));
+        assertTrue(notANumber.getMessage().startsWith("Line 3"), notANumber.getMessage());
+    }
+
+    private static void assertRejected(String message, String... lines) {
+        IOException rejected = assertThrows(IOException.class, () -> MovingAiFormat.readMap(reader(lines), DEFAULT));
+        assertTrue(rejected.getMessage().contains(message), rejected.getMessage());
+    }
+
+    private static BufferedReader reader(String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines) + "\n"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.iyed_houhou.mazesolvationsemulation.application.models;
+
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchContext;
+import com.iyed_houhou.mazesolvationsemulation.application.search.TestMazes;
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MazePathTest {
+
+    @Test
+    void buildsFromTheGoalBack() {
+        MazePath path = MazePath.builder(4).prepend(6).prepend(new Coordinate(1, 1)).prepend(1).build();
+        assertArrayEquals(new int[]{1, 5, 6}, path.toCellArray());
+        assertEquals(MazePath.ofCells(new int[]{9, 1, 5, 6, 9}, 1, 4, 4), path);
+        assertEquals(List.of(new Coordinate(0, 1), new Coordinate(1, 1), new Coordinate(1, 2)), path.getCoordinates());
+        assertThrows(IndexOutOfBoundsException.class, () -> path.cellAt(3));
+    }
+
+    @Test
+    void encodesAStraightCorridorInAFewBytes() {
+        int cols = 100_000;
+        MazePath.Builder builder = MazePath.builder(cols);
+        for (int cell = cols - 1; cell >= 0; cell--) {
+            builder.prepend(cell);
+        }
+        byte[] encoded = builder.build().encode();
+        assertTrue(encoded.length <= 12, "encoded to " + encoded.length + " bytes");
+        assertEquals(cols, MazePath.decode(encoded).length());
+    }
+
+    @Test
+    void roundTripsEmptyAndSingleCellPaths() {
+        assertEquals(new MazePath(), MazePath.decode(new MazePath().encode()));
+        MazePath single = MazePath.builder(7).prepend(30).build();
+        assertEquals(single, MazePath.decode(single.encode()));
+    }
+
+    /**
+     * Random walks that turn often and retrace their steps, and solver paths over random mazes.
+     */
+    @Test
+    void roundTripsRandomPaths() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int trial = 0; trial < 2000; trial++) {
+            int rows = 1 + random.nextInt(40);
+            int cols = 1 + random.nextInt(40);
+            MazePath walk = randomWalk(random, rows, cols, 1 + random.nextInt(500));
+            checkRoundTrip(walk);
+
+            MazeGrid grid = TestMazes.random(random, rows, cols, 0.2);
+            checkRoundTrip(new SearchContext(grid).solve(random.nextInt(grid.size()), random.nextInt(grid.size()),
+                    Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void refusesStepsBetweenCellsThatAreNotNeighbours() {
+        // 3 and 4 are consecutive indices, but the end of one row and the start of the next
+        assertThrows(IllegalStateException.class, () -> MazePath.ofCells(new int[]{3, 4}, 0, 2, 4).encode());
+        assertThrows(IllegalStateException.class, () -> MazePath.ofCells(new int[]{0, 2}, 0, 2, 4).encode());
+        assertThrows(IllegalStateException.class, () -> MazePath.ofCells(new int[]{5, 5}, 0, 2, 4).encode());
+    }
+
+    @Test
+    void rejectsDamagedEncodings() {
+        byte[] encoded = randomWalk(new SplittableRandom(3), 20, 20, 200).encode();
+        for (int cut = 0; cut < encoded.length; cut++) {
+            byte[] truncated = Arrays.copyOf(encoded, cut);
+            assertThrows(IllegalArgumentException.class, () -> MazePath.decode(truncated), "cut at " + cut);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MazePath.decode(Arrays.copyOf(encoded, encoded.length + 1)));
+
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[0]++;
+        assertThrows(IllegalArgumentException.class, () -> MazePath.decode(wrongVersion));
+
+        // Three cells, but a run of five moves
+        byte[] overlong = {1, 4, 3, 0, 5 << 2 | 1};
+        assertThrows(IllegalArgumentException.class, () -> MazePath.decode(overlong));
+    }
+
+    private static void checkRoundTrip(MazePath path) {
+        MazePath decoded = MazePath.decode(path.encode());
+        assertEquals(path, decoded);
+        assertEquals(path.hashCode(), decoded.hashCode());
+        assertEquals(path.getCols(), decoded.getCols());
+
+        IntBuffer cells = decoded.cells();
+        List<Coordinate> coordinates = decoded.getCoordinates();
+        assertEquals(path.length(), cells.remaining());
+        assertEquals(path.length(), coordinates.size());
+        for (int i = 0; i < path.length(); i++) {
+            assertEquals(path.cellAt(i), cells.get(i));
+            assertEquals(path.coordinateAt(i), coordinates.get(i));
+        }
+    }
+
+    private static MazePath randomWalk(SplittableRandom random, int rows, int cols, int length) {
+        int[] cells = new int[length];
+        int row = random.nextInt(rows);
+        int col = random.nextInt(cols);
+        cells[0] = row * cols + col;
+        for (int i = 1; i < length; i++) {
+            // Keep going the same way most of the time, so runs of every length show up
+            int direction = random.nextInt(3) == 0 ? random.nextInt(4) : direction(cells, i, cols);
+            int nextRow = row + (direction == 0 ? -1 : direction == 2 ? 1 : 0);
+            int nextCol = col + (direction == 1 ? 1 : direction == 3 ? -1 : 0);
+            if (nextRow < 0 || nextRow >= rows || nextCol < 0 || nextCol >= cols) {
+                return MazePath.ofCells(cells, 0, i, cols);
+            }
+            row = nextRow;
+            col = nextCol;
+            cells[i] = row * cols + col;
+        }
+        return MazePath.ofCells(cells, 0, length, cols);
+    }
+
+    /**
+     * Direction of the last step, as in {@link MazePath#encode()}: up, right, down, left.
+     */
+    private static int direction(int[] cells, int i, int cols) {
+        if (i < 2) {
+            return 1;
+        }
+        int delta = cells[i - 1] - cells[i - 2];
+        return delta == -cols ? 0 : delta == 1 ? 1 : delta == cols ? 2 : 3;
+    }
+}
@@ -0,0 +1,100 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnytimeSearchTest {
+    private static final int PLENTY = Integer.MAX_VALUE / 2;
+
+    /**
+     * Every reported path is legal and no dearer than its bound allows, the paths only get cheaper,
+     * and with no budget the last one is optimal.
+     */
+    @Test
+    void keepsItsBoundsAndEndsOptimal() {
+        SplittableRandom random = new SplittableRandom(16);
+        int improved = 0;
+        for (int trial = 0; trial < 1500; trial++) {
+            MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(20), 4 + random.nextInt(20), 0.2);
+            int start = random.nextInt(grid.size());
+            int goal = random.nextInt(grid.size());
+            boolean tight = random.nextInt(4) == 0;
+            int battery = tight ? random.nextInt(3 * (grid.getRows() + grid.getCols())) : PLENTY;
+
+            AnytimeSearch search = new AnytimeSearch(grid);
+            search.setWeights(1 + 4 * random.nextDouble(), 0.1 + random.nextDouble());
+            List<AnytimeSolution> solutions = new ArrayList<>();
+            MazePath path = search.solve(start, goal, battery, SearchBudget.UNLIMITED, solutions::add);
+            String query = "trial " + trial + ": " + start + " -> " + goal + " with " + battery;
+            double optimal = TestMazes.assertSolved(grid, path, search.isGoalReached(), search::getGoalCost,
+                    start, goal, battery, query);
+            if (optimal == Double.POSITIVE_INFINITY) {
+                assertTrue(solutions.isEmpty(), query);
+                continue;
+            }
+            checkSolutions(grid, solutions, start, goal, battery, optimal, query);
+            assertEquals(1, search.getSuboptimalityBound(), 1e-9, query);
+            if (solutions.size() > 1) {
+                improved++;
+            }
+        }
+        assertTrue(improved > 0, "no query was improved after its first path");
+    }
+
+    /**
+     * Cut off after a few expansions, the search still only hands out paths it can vouch for.
+     */
+    @Test
+    void keepsItsBoundsWhenTheBudgetRunsOut() {
+        SplittableRandom random = new SplittableRandom(61);
+        int cutShort = 0;
+        for (int trial = 0; trial < 1500; trial++) {
+            MazeGrid grid = TestMazes.random(random, 8 + random.nextInt(24), 8 + random.nextInt(24), 0.2);
+            int start = random.nextInt(grid.size());
+            int goal = random.nextInt(grid.size());
+            double optimal = TestMazes.cheapestCost(grid, start, goal);
+
+            AnytimeSearch search = new AnytimeSearch(grid);
+            List<AnytimeSolution> solutions = new ArrayList<>();
+            MazePath path = search.solve(start, goal, PLENTY, SearchBudget.ofExpansions(1 + random.nextInt(200)),
+                    solutions::add);
+            String query = "trial " + trial + ": " + start + " -> " + goal;
+            if (path.isEmpty()) {
+                assertTrue(solutions.isEmpty(), query);
+                continue;
+            }
+            checkSolutions(grid, solutions, start, goal, PLENTY, optimal, query);
+            AnytimeSolution last = solutions.getLast();
+            assertEquals(last.cost(), search.getGoalCost(), 1e-9, query);
+            assertEquals(last.suboptimalityBound(), search.getSuboptimalityBound(), 1e-9, query);
+            TestMazes.assertPath(grid, path, start, goal, PLENTY, last.cost());
+            if (last.suboptimalityBound() > 1) {
+                cutShort++;
+            }
+        }
+        assertTrue(cutShort > 0, "no search was stopped before proving its path optimal");
+    }
+
+    private static void checkSolutions(MazeGrid grid, List<AnytimeSolution> solutions, int start, int goal,
+                                       int battery, double optimal, String query) {
+        assertFalse(solutions.isEmpty(), query);
+        double previousCost = Double.POSITIVE_INFINITY;
+        for (AnytimeSolution solution : solutions) {
+            TestMazes.assertPath(grid, solution.path(), start, goal, battery, solution.cost());
+            assertTrue(solution.cost() <= previousCost, query + ": paths got dearer");
+            assertTrue(solution.suboptimalityBound() >= 1, query);
+            assertTrue(solution.cost() <= solution.suboptimalityBound() * optimal + 1e-9,
+                    query + ": " + solution + " against an optimum of " + optimal);
+            previousCost = solution.cost();
+        }
+    }
+}
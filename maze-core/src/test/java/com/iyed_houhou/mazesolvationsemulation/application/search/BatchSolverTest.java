@@ -0,0 +1,74 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSolverTest {
+
+    @Test
+    void answersMatchExhaustiveSearch() {
+        SplittableRandom random = new SplittableRandom(9);
+        MazeGrid grid = TestMazes.random(random, 24, 24, 0.2);
+        List<BatchSolver.Query> queries = new ArrayList<>();
+        Coordinate sharedGoal = new Coordinate(12, 12);
+        for (int i = 0; i < 400; i++) {
+            Coordinate start = new Coordinate(random.nextInt(24), random.nextInt(24));
+            // Every other query goes to the same goal, so the batch is also read from a flow field
+            Coordinate goal = i % 2 == 0 ? sharedGoal : new Coordinate(random.nextInt(24), random.nextInt(24));
+            queries.add(new BatchSolver.Query(start, goal, 20 + random.nextInt(100)));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (BatchSolver solver = new BatchSolver(MazeSnapshot.of(grid), pool, 64)) {
+            for (int round = 0; round < 2; round++) {
+                List<BatchSolver.Result> results = solver.solveAll(queries);
+                for (int i = 0; i < queries.size(); i++) {
+                    BatchSolver.Query query = queries.get(i);
+                    BatchSolver.Result result = results.get(i);
+                    int start = grid.index(query.start().row(), query.start().col());
+                    int goal = grid.index(query.goal().row(), query.goal().col());
+                    TestMazes.assertSolved(grid, result.path(), result.isFound(), result::cost,
+                            start, goal, query.battery(), "query " + i);
+                }
+            }
+            assertTrue(solver.getFlowFieldBuilds() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void keepsNoMoreBuffersThanThreadsAndDropsThemOnClose() {
+        MazeGrid grid = TestMazes.random(new SplittableRandom(3), 64, 64, 0.1);
+        List<BatchSolver.Query> queries = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(4);
+        for (int i = 0; i < 256; i++) {
+            queries.add(new BatchSolver.Query(new Coordinate(random.nextInt(64), random.nextInt(64)),
+                    new Coordinate(random.nextInt(64), random.nextInt(64)), Integer.MAX_VALUE));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        BatchSolver solver = new BatchSolver(MazeSnapshot.of(grid), pool);
+        try {
+            solver.solveAll(queries);
+            solver.solve(queries.getFirst());
+            int idle = solver.getIdleSolverCount();
+            assertTrue(idle >= 1 && idle <= pool.getParallelism() + 1, idle + " idle buffer sets");
+
+            solver.close();
+            assertEquals(0, solver.getIdleSolverCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
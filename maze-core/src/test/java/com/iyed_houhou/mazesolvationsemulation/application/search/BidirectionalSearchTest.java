@@ -0,0 +1,38 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class BidirectionalSearchTest {
+
+    @Test
+    void meetsOnTheCheapestPathInBothModes() {
+        SplittableRandom random = new SplittableRandom(14);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int maze = 0; maze < 200; maze++) {
+                MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(20), 4 + random.nextInt(20), 0.2);
+                BidirectionalSearch search = new BidirectionalSearch(grid, executor);
+                for (int query = 0; query < 20; query++) {
+                    int start = random.nextInt(grid.size());
+                    int goal = random.nextInt(grid.size());
+                    boolean parallel = random.nextBoolean();
+                    boolean capped = random.nextInt(4) == 0;
+                    int battery = capped ? random.nextInt(4 * (grid.getRows() + grid.getCols())) : Integer.MAX_VALUE;
+
+                    MazePath path = search.solve(start, goal, battery, parallel);
+                    String where = "maze " + maze + " query " + query + (parallel ? " (parallel)" : "");
+                    TestMazes.assertSolved(grid, path, search.isGoalReached(), search::getGoalCost,
+                            start, goal, battery, where);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooperativePlannerTest {
+
+    @Test
+    void robotsPassEachOtherThroughASidePocket() {
+        MazeGrid grid = TestMazes.parse(
+                ".......",
+                "##.####");
+        List<CooperativePlanner.Agent> agents = List.of(
+                new CooperativePlanner.Agent(new Coordinate(0, 0), new Coordinate(0, 6)),
+                new CooperativePlanner.Agent(new Coordinate(0, 6), new Coordinate(0, 0)));
+        for (int window : new int[]{0, 4, 8}) {
+            try (CooperativePlanner planner = new CooperativePlanner(grid, window)) {
+                List<CooperativePlanner.Plan> plans = planner.plan(agents);
+                checkPlans(grid, agents, plans);
+                assertEquals(0, CooperativePlanner.countConflicts(plans), "window " + window);
+                assertTrue(plans.get(0).isArrived() && plans.get(1).isArrived(), "window " + window);
+            }
+        }
+    }
+
+    /**
+     * The second robot stands in a one-cell-wide corridor the first must cross, with nowhere to
+     * step aside. The fleet stops where it stands instead of walking one robot through the other.
+     */
+    @Test
+    void stopsTheFleetWhenARobotIsBlocked() {
+        MazeGrid grid = TestMazes.parse("...");
+        List<CooperativePlanner.Agent> agents = List.of(
+                new CooperativePlanner.Agent(new Coordinate(0, 0), new Coordinate(0, 2)),
+                new CooperativePlanner.Agent(new Coordinate(0, 1), new Coordinate(0, 0)));
+        try (CooperativePlanner planner = new CooperativePlanner(grid, 4)) {
+            List<CooperativePlanner.Plan> plans = planner.plan(agents);
+            checkPlans(grid, agents, plans);
+            assertEquals(0, CooperativePlanner.countConflicts(plans));
+            assertEquals(1, plans.stream().filter(CooperativePlanner.Plan::isBlocked).count());
+            assertFalse(plans.get(0).isArrived() || plans.get(1).isArrived());
+        }
+    }
+
+    /**
+     * Three robots in a three-cell corridor, each heading for the next one's cell. Without a
+     * window two of them are cut off; both are reported, stay at their start, and are the only
+     * robots anyone runs into.
+     */
+    @Test
+    void reportsEveryRobotCutOffWithoutAWindow() {
+        MazeGrid grid = TestMazes.parse("...");
+        List<CooperativePlanner.Agent> agents = List.of(
+                new CooperativePlanner.Agent(new Coordinate(0, 1), new Coordinate(0, 0)),
+                new CooperativePlanner.Agent(new Coordinate(0, 2), new Coordinate(0, 1)),
+                new CooperativePlanner.Agent(new Coordinate(0, 0), new Coordinate(0, 2)));
+        try (CooperativePlanner planner = new CooperativePlanner(grid)) {
+            List<CooperativePlanner.Plan> plans = planner.plan(agents);
+            checkPlans(grid, agents, plans);
+            List<CooperativePlanner.Plan> moving = new ArrayList<>();
+            int blocked = 0;
+            for (CooperativePlanner.Plan plan : plans) {
+                if (plan.isBlocked()) {
+                    blocked++;
+                    assertFalse(plan.isArrived());
+                    assertEquals(0, plan.steps());
+                } else {
+                    moving.add(plan);
+                }
+            }
+            assertEquals(2, blocked);
+            assertEquals(0, CooperativePlanner.countConflicts(moving));
+        }
+    }
+
+    /**
+     * The stop check is polled before every robot; once it answers true the fleet gets no plans,
+     * and the next call plans as if nothing had happened.
+     */
+    @Test
+    void stopsPlanningWhenAsked() {
+        MazeGrid grid = TestMazes.parse(
+                ".......",
+                "##.####");
+        List<CooperativePlanner.Agent> agents = List.of(
+                new CooperativePlanner.Agent(new Coordinate(0, 0), new Coordinate(0, 6)),
+                new CooperativePlanner.Agent(new Coordinate(0, 6), new Coordinate(0, 0)));
+        for (int window : new int[]{0, 4}) {
+            try (CooperativePlanner planner = new CooperativePlanner(grid, window)) {
+                int[] polls = {0};
+                assertTrue(planner.plan(agents, () -> ++polls[0] > 1).isEmpty(), "window " + window);
+                assertEquals(2, polls[0], "window " + window);
+
+                List<CooperativePlanner.Plan> plans = planner.plan(agents, () -> false);
+                checkPlans(grid, agents, plans);
+                assertEquals(0, CooperativePlanner.countConflicts(plans), "window " + window);
+                assertTrue(plans.get(0).isArrived() && plans.get(1).isArrived(), "window " + window);
+            }
+        }
+    }
+
+    /**
+     * Small, crowded mazes, where robots block each other all the time and searches run out of
+     * budget; the windowed planner must never put two robots in one cell or swap them.
+     */
+    @Test
+    void windowedPlansNeverConflict() {
+        SplittableRandom random = new SplittableRandom(21);
+        int fleets = 0;
+        int arrived = 0;
+        for (int trial = 0; trial < 2000; trial++) {
+            MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(14), 4 + random.nextInt(14), 0.2);
+            List<CooperativePlanner.Agent> agents = randomFleet(random, grid, 2 + random.nextInt(10));
+            if (agents.size() < 2) {
+                continue;
+            }
+            int window = 4 + random.nextInt(12);
+            try (CooperativePlanner planner = new CooperativePlanner(grid, window)) {
+                List<CooperativePlanner.Plan> plans = planner.plan(agents);
+                checkPlans(grid, agents, plans);
+                assertEquals(0, CooperativePlanner.countConflicts(plans), "trial " + trial + " window " + window);
+                assertTrue(plans.stream().filter(CooperativePlanner.Plan::isBlocked).count() <= 1);
+                arrived += (int) plans.stream().filter(CooperativePlanner.Plan::isArrived).count();
+            }
+            fleets++;
+        }
+        assertTrue(fleets > 1500);
+        assertTrue(arrived > 0);
+    }
+
+    /**
+     * Without a window, robots that cannot reach their goal stop where nobody comes later; only a
+     * robot reported as blocked may still be run into.
+     */
+    @Test
+    void fullHorizonPlansOnlyConflictThroughABlockedRobot() {
+        SplittableRandom random = new SplittableRandom(12);
+        int clean = 0;
+        for (int trial = 0; trial < 2000; trial++) {
+            MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(14), 4 + random.nextInt(14), 0.2);
+            List<CooperativePlanner.Agent> agents = randomFleet(random, grid, 2 + random.nextInt(10));
+            if (agents.size() < 2) {
+                continue;
+            }
+            try (CooperativePlanner planner = new CooperativePlanner(grid)) {
+                List<CooperativePlanner.Plan> plans = planner.plan(agents);
+                checkPlans(grid, agents, plans);
+                List<CooperativePlanner.Plan> moving = plans.stream().filter(plan -> !plan.isBlocked()).toList();
+                assertEquals(0, CooperativePlanner.countConflicts(moving), "trial " + trial);
+                if (moving.size() == plans.size()) {
+                    clean++;
+                }
+            }
+        }
+        assertTrue(clean > 1900, clean + " fleets planned without a blocked robot");
+    }
+
+    /**
+     * Every plan starts at its robot's start, moves between neighbours or waits, never enters a
+     * wall or chains water, and ends at the goal when it says it arrived.
+     */
+    private static void checkPlans(MazeGrid grid, List<CooperativePlanner.Agent> agents,
+                                   List<CooperativePlanner.Plan> plans) {
+        assertEquals(agents.size(), plans.size());
+        for (int a = 0; a < plans.size(); a++) {
+            CooperativePlanner.Plan plan = plans.get(a);
+            Coordinate start = agents.get(a).start();
+            Coordinate goal = agents.get(a).goal();
+            assertEquals(grid.index(start.row(), start.col()), plan.cellAt(0));
+            for (int time = 1; time <= plan.steps(); time++) {
+                int from = plan.cellAt(time - 1);
+                int to = plan.cellAt(time);
+                if (from != to) {
+                    assertTrue(Arrays.stream(TestMazes.neighbors(grid, from)).anyMatch(cell -> cell == to),
+                            "robot " + a + " jumps at step " + time);
+                    assertTrue(TestMazes.canStep(grid, from, to), "robot " + a + " steps illegally at " + time);
+                }
+            }
+            if (plan.isArrived()) {
+                assertEquals(grid.index(goal.row(), goal.col()), plan.cellAt(plan.steps()));
+            }
+        }
+    }
+
+    private static List<CooperativePlanner.Agent> randomFleet(SplittableRandom random, MazeGrid grid, int size) {
+        List<CooperativePlanner.Agent> agents = new ArrayList<>();
+        Set<Integer> starts = new HashSet<>();
+        Set<Integer> goals = new HashSet<>();
+        for (int attempt = 0; attempt < 200 && agents.size() < size; attempt++) {
+            int start = random.nextInt(grid.size());
+            int goal = random.nextInt(grid.size());
+            if (!grid.isPassable(start) || !grid.isPassable(goal) || starts.contains(start) || goals.contains(goal)) {
+                continue;
+            }
+            starts.add(start);
+            goals.add(goal);
+            agents.add(new CooperativePlanner.Agent(
+                    new Coordinate(grid.rowOf(start), grid.colOf(start)),
+                    new Coordinate(grid.rowOf(goal), grid.colOf(goal))));
+        }
+        return agents;
+    }
+}
@@ -0,0 +1,87 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlowFieldTest {
+    private static final int PLENTY = Integer.MAX_VALUE / 2;
+
+    /**
+     * A robot in the wall at (0, 1) steps out to the side with the cheaper way on, as the search
+     * does, even though the sand on the other side is closer to the goal.
+     */
+    @Test
+    void leadsOutOfAWallLikeTheSearch() {
+        MazeGrid grid = TestMazes.parse(
+                "s#.",
+                "g#.",
+                "...");
+        int goal = grid.index(2, 0);
+        try (FlowField field = new FlowField(grid, goal)) {
+            int wall = grid.index(0, 1);
+            assertEquals(5, field.costFrom(wall));
+            assertEquals(grid.index(0, 2), field.nextCell(wall));
+            TestMazes.assertPath(grid, field.pathFrom(wall), wall, goal, PLENTY, 5);
+            assertEquals(new SearchContext(grid).solve(wall, goal, PLENTY), field.pathFrom(wall));
+
+            int middle = grid.index(1, 1);
+            assertEquals(2, field.costFrom(middle));
+            assertEquals(grid.index(2, 1), field.nextCell(middle));
+
+            // Wall the middle in: nothing leads out of it any more
+            grid.setTerrain(1, 0, MazeCell.Terrain.WALL);
+            grid.setTerrain(1, 2, MazeCell.Terrain.WALL);
+            grid.setTerrain(2, 1, MazeCell.Terrain.WALL);
+            assertThrows(IllegalStateException.class, () -> field.costFrom(middle));
+            assertTrue(field.refresh());
+            assertFalse(field.isReachable(middle));
+            assertEquals(Double.POSITIVE_INFINITY, field.costFrom(middle));
+            assertEquals(-1, field.nextCell(middle));
+            assertTrue(field.pathFrom(middle).isEmpty());
+        }
+    }
+
+    /**
+     * Every cell of random mazes, walls included, against the exhaustive search.
+     */
+    @Test
+    void matchesExhaustiveSearchFromEveryCell() {
+        SplittableRandom random = new SplittableRandom(22);
+        int wallStarts = 0;
+        for (int trial = 0; trial < 150; trial++) {
+            MazeGrid grid = TestMazes.random(random, 2 + random.nextInt(14), 2 + random.nextInt(14), 0.25);
+            int goal = random.nextInt(grid.size());
+            if (!grid.isPassable(goal)) {
+                continue;
+            }
+            try (FlowField field = new FlowField(grid, goal)) {
+                for (int start = 0; start < grid.size(); start++) {
+                    String query = "trial " + trial + ": " + start + " -> " + goal;
+                    MazePath path = field.pathFrom(start);
+                    double cost = field.costFrom(start);
+                    double expected = TestMazes.assertSolved(grid, path, field.isReachable(start), () -> cost,
+                            start, goal, PLENTY, query);
+                    if (expected == Double.POSITIVE_INFINITY) {
+                        assertEquals(Double.POSITIVE_INFINITY, cost, query);
+                        assertEquals(-1, field.nextCell(start), query);
+                        continue;
+                    }
+                    assertEquals(path.length() > 1 ? path.cellAt(1) : -1, field.nextCell(start), query);
+                    if (!grid.isPassable(start)) {
+                        wallStarts++;
+                    }
+                }
+            }
+        }
+        assertTrue(wallStarts > 0, "no wall start could reach its goal");
+    }
+}
@@ -0,0 +1,150 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalPathfinderTest {
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+    private static final int PLENTY = Integer.MAX_VALUE / 2;
+    // Mean cost above the optimum on long queries; HierarchicalBenchmark measures 1.9% on 1000x1000
+    private static final double MAX_MEAN_EXCESS = 0.02;
+
+    @Test
+    void crossesClustersThroughTheirEntrances() {
+        MazeGrid grid = TestMazes.parse(
+                "....#...",
+                "....#...",
+                "........",
+                "....#...");
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid, 4);
+        assertEquals(2, pathfinder.getClusterCount());
+        int start = grid.index(0, 0);
+        int goal = grid.index(0, 7);
+        MazePath path = pathfinder.solve(start, goal, PLENTY);
+        TestMazes.assertPath(grid, path, start, goal, PLENTY, pathfinder.getGoalCost());
+        assertEquals(TestMazes.cheapestCost(grid, start, goal), pathfinder.getGoalCost());
+
+        // Close the only entrance, then open another one
+        grid.setTerrain(2, 4, MazeCell.Terrain.WALL);
+        pathfinder.updateCell(2, 4);
+        assertTrue(pathfinder.solve(start, goal, PLENTY).isEmpty());
+        assertFalse(pathfinder.isGoalReached());
+
+        grid.setTerrain(0, 4, MazeCell.Terrain.EMPTY);
+        pathfinder.updateCell(0, 4);
+        path = pathfinder.solve(start, goal, PLENTY);
+        TestMazes.assertPath(grid, path, start, goal, PLENTY, 7);
+    }
+
+    /**
+     * Random mazes and cluster sizes, with ample and tight batteries: reachability must be exact,
+     * every path legal and never cheaper than the optimum.
+     */
+    @Test
+    void agreesWithTheExactSolver() {
+        SplittableRandom random = new SplittableRandom(10);
+        for (int maze = 0; maze < 120; maze++) {
+            MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(40), 4 + random.nextInt(40), 0.2);
+            HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid, 2 + random.nextInt(10));
+            for (int query = 0; query < 20; query++) {
+                check(grid, pathfinder, random, "maze " + maze + " query " + query);
+            }
+        }
+    }
+
+    /**
+     * Single cells and rectangles edited in place, each reported through updateCell or
+     * updateRegion; the rebuilt clusters must answer like a pathfinder built from scratch would.
+     */
+    @Test
+    void followsReportedEdits() {
+        SplittableRandom random = new SplittableRandom(110);
+        for (int maze = 0; maze < 40; maze++) {
+            MazeGrid grid = TestMazes.random(random, 8 + random.nextInt(30), 8 + random.nextInt(30), 0.15);
+            HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid, 3 + random.nextInt(6));
+            for (int step = 0; step < 40; step++) {
+                if (random.nextBoolean()) {
+                    int row = random.nextInt(grid.getRows());
+                    int col = random.nextInt(grid.getCols());
+                    grid.setTerrain(row, col, TERRAINS[random.nextInt(TERRAINS.length)]);
+                    pathfinder.updateCell(row, col);
+                } else {
+                    int top = random.nextInt(grid.getRows());
+                    int left = random.nextInt(grid.getCols());
+                    int height = 1 + random.nextInt(Math.min(6, grid.getRows() - top));
+                    int width = 1 + random.nextInt(Math.min(6, grid.getCols() - left));
+                    for (int r = top; r < top + height; r++) {
+                        for (int c = left; c < left + width; c++) {
+                            grid.setTerrain(r, c, TERRAINS[random.nextInt(TERRAINS.length)]);
+                        }
+                    }
+                    pathfinder.updateRegion(top, left, height, width);
+                }
+                for (int query = 0; query < 5; query++) {
+                    check(grid, pathfinder, random, "maze " + maze + " step " + step + " query " + query);
+                }
+            }
+        }
+    }
+
+    /**
+     * The benchmark's setup scaled down: corner to corner across a large maze, where the detours
+     * through cluster entrances are small next to the whole path.
+     */
+    @Test
+    void staysCloseToTheOptimumOnLongQueries() {
+        SplittableRandom random = new SplittableRandom(1010);
+        int size = 320;
+        MazeGrid grid = TestMazes.random(random, size, size, 0.15);
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid, HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE);
+        ResourceConstrainedSearch exact = new ResourceConstrainedSearch(new SearchContext(grid));
+        int corner = size / 8;
+        double excess = 0;
+        int compared = 0;
+        for (int query = 0; query < 16; query++) {
+            int start = grid.index(random.nextInt(corner), random.nextInt(corner));
+            int goal = grid.index(size - 1 - random.nextInt(corner), size - 1 - random.nextInt(corner));
+            exact.solve(start, goal, PLENTY);
+            MazePath path = pathfinder.solve(start, goal, PLENTY);
+            assertEquals(exact.isGoalReached(), pathfinder.isGoalReached(), "query " + query);
+            if (exact.isGoalReached()) {
+                TestMazes.assertPath(grid, path, start, goal, PLENTY, pathfinder.getGoalCost());
+                assertTrue(pathfinder.getGoalCost() >= exact.getGoalCost() - 1e-9, "query " + query);
+                excess += pathfinder.getGoalCost() / exact.getGoalCost() - 1;
+                compared++;
+            }
+        }
+        assertTrue(compared > 10, compared + " queries reached their goal");
+        double mean = excess / compared;
+        assertTrue(mean <= MAX_MEAN_EXCESS, String.format("paths cost %.2f%% above the optimum on average", 100 * mean));
+    }
+
+    private static void check(MazeGrid grid, HierarchicalPathfinder pathfinder, SplittableRandom random,
+                              String where) {
+        int start = random.nextInt(grid.size());
+        int goal = random.nextInt(grid.size());
+        boolean tight = random.nextInt(4) == 0;
+        int battery = tight ? random.nextInt(3 * (grid.getRows() + grid.getCols())) : PLENTY;
+        double expected = tight
+                ? TestMazes.cheapestCost(grid, start, goal, battery)
+                : TestMazes.cheapestCost(grid, start, goal);
+
+        MazePath path = pathfinder.solve(start, goal, battery);
+        if (expected == Double.POSITIVE_INFINITY) {
+            assertTrue(path.isEmpty(), where);
+            assertFalse(pathfinder.isGoalReached(), where);
+            return;
+        }
+        assertTrue(pathfinder.isGoalReached(), where);
+        TestMazes.assertPath(grid, path, start, goal, battery, pathfinder.getGoalCost());
+        assertTrue(pathfinder.getGoalCost() >= expected - 1e-9, where + " beats the optimum");
+    }
+}
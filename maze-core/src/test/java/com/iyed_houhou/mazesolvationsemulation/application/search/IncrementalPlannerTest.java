@@ -0,0 +1,103 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalPlannerTest {
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+    private static final int PLENTY = Integer.MAX_VALUE / 2;
+
+    @Test
+    void repairsAroundAWallDroppedOnThePath() {
+        MazeGrid grid = TestMazes.parse(
+                ".....",
+                ".....",
+                ".....");
+        int start = grid.index(1, 0);
+        int goal = grid.index(1, 4);
+        try (IncrementalPlanner planner = new IncrementalPlanner(grid, start, goal)) {
+            TestMazes.assertPath(grid, planner.plan(PLENTY), start, goal, PLENTY, 4);
+
+            grid.setTerrain(1, 2, MazeCell.Terrain.WALL);
+            TestMazes.assertPath(grid, planner.replanFrom(start, PLENTY), start, goal, PLENTY, 6);
+
+            grid.setTerrain(0, 2, MazeCell.Terrain.WALL);
+            grid.setTerrain(2, 2, MazeCell.Terrain.WALL);
+            assertTrue(planner.replanFrom(start, PLENTY).isEmpty());
+            assertFalse(planner.isGoalReached());
+
+            grid.setTerrain(1, 2, MazeCell.Terrain.EMPTY);
+            TestMazes.assertPath(grid, planner.replanFrom(start, PLENTY), start, goal, PLENTY, 4);
+        }
+    }
+
+    /**
+     * Moves the robot along its path while editing single cells and dropping 3x3 walls, and checks
+     * every replan against a search from scratch.
+     */
+    @Test
+    void matchesAFreshSearchAfterMovesAndEdits() {
+        SplittableRandom random = new SplittableRandom(11);
+        int replans = 0;
+        int exactSolves = 0;
+        for (int maze = 0; maze < 40; maze++) {
+            MazeGrid grid = TestMazes.random(random, 8 + random.nextInt(12), 8 + random.nextInt(12), 0.15);
+            int goal = random.nextInt(grid.size());
+            int position = random.nextInt(grid.size());
+            try (IncrementalPlanner planner = new IncrementalPlanner(grid, position, goal)) {
+                MazePath path = new MazePath();
+                for (int step = 0; step < 60; step++) {
+                    switch (random.nextInt(4)) {
+                        case 0 -> {
+                            if (path.length() > 1) {
+                                position = path.cellAt(Math.min(path.length() - 1, 1 + random.nextInt(3)));
+                            } else {
+                                position = random.nextInt(grid.size());
+                            }
+                        }
+                        case 1 -> grid.setTerrainAt(random.nextInt(grid.size()), TERRAINS[random.nextInt(TERRAINS.length)]);
+                        case 2 -> dropWalls(grid, random);
+                        default -> {
+                            for (int i = 0; i < 5; i++) {
+                                grid.setTerrainAt(random.nextInt(grid.size()), TERRAINS[1 + random.nextInt(TERRAINS.length - 1)]);
+                            }
+                        }
+                    }
+
+                    boolean tight = random.nextInt(4) == 0;
+                    int battery = tight ? random.nextInt(3 * (grid.getRows() + grid.getCols())) : PLENTY;
+                    path = planner.replanFrom(position, battery);
+                    replans++;
+                    if (planner.usedExactSolver()) {
+                        exactSolves++;
+                    }
+                    String where = "maze " + maze + " step " + step;
+                    TestMazes.assertSolved(grid, path, planner.isGoalReached(), planner::getGoalCost,
+                            position, goal, battery, where);
+                }
+            }
+        }
+        assertEquals(2400, replans);
+        assertTrue(exactSolves > 0, "no replan needed the battery-constrained search");
+    }
+
+    private static void dropWalls(MazeGrid grid, SplittableRandom random) {
+        int row = random.nextInt(grid.getRows());
+        int col = random.nextInt(grid.getCols());
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                if (grid.isInside(r, c)) {
+                    grid.setTerrain(r, c, MazeCell.Terrain.WALL);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LandmarkHeuristicTest {
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+
+    @Test
+    void neverOverestimates() {
+        SplittableRandom random = new SplittableRandom(15);
+        for (int maze = 0; maze < 20; maze++) {
+            MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(10), 4 + random.nextInt(10), 0.25);
+            try (LandmarkHeuristic landmarks = new LandmarkHeuristic(grid, 1 + random.nextInt(6))) {
+                for (int goal = 0; goal < grid.size(); goal++) {
+                    if (!grid.isPassable(goal)) {
+                        continue;
+                    }
+                    for (int cell = 0; cell < grid.size(); cell++) {
+                        if (!grid.isPassable(cell)) {
+                            continue;
+                        }
+                        double exact = TestMazes.cheapestCost(grid, cell, goal);
+                        double estimate = landmarks.estimate(cell, goal);
+                        assertTrue(estimate <= exact, "estimate " + estimate + " above " + exact
+                                + " from " + cell + " to " + goal);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches guided by the tables find the cheapest path, with both open lists, whether the
+     * tables were refreshed after the last edits or are stale.
+     */
+    @Test
+    void guidedSearchFindsTheCheapestPath() {
+        SplittableRandom random = new SplittableRandom(16);
+        for (int maze = 0; maze < 40; maze++) {
+            MazeGrid grid = TestMazes.random(random, 6 + random.nextInt(20), 6 + random.nextInt(20), 0.2);
+            try (LandmarkHeuristic landmarks = new LandmarkHeuristic(grid, 1 + random.nextInt(8))) {
+                for (OpenList.Kind kind : OpenList.Kind.values()) {
+                    SearchContext context = new SearchContext(grid, kind, landmarks);
+                    for (int query = 0; query < 60; query++) {
+                        if (random.nextInt(5) == 0) {
+                            grid.setTerrainAt(random.nextInt(grid.size()), TERRAINS[random.nextInt(TERRAINS.length)]);
+                            if (random.nextBoolean()) {
+                                landmarks.refresh();
+                            }
+                        }
+                        int start = random.nextInt(grid.size());
+                        int goal = random.nextInt(grid.size());
+                        MazePath path = context.solve(start, goal, Integer.MAX_VALUE);
+                        String where = kind + " maze " + maze + " query " + query + (landmarks.isStale() ? " (stale)" : "");
+                        TestMazes.assertSolved(grid, path, context.isGoalReached(), context::getGoalCost,
+                                start, goal, Integer.MAX_VALUE, where);
+                    }
+                }
+            }
+        }
+    }
+}
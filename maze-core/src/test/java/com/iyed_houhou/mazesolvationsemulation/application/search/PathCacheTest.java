@@ -0,0 +1,148 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathCacheTest {
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+
+    /**
+     * Few starts and goals, so queries repeat and land on each other's paths, with random edits in
+     * between; every answer, cached or not, must be what an uncached solver would say now.
+     */
+    @Test
+    void answersLikeAnUncachedSolverThroughEdits() {
+        SplittableRandom random = new SplittableRandom(23);
+        long hits = 0;
+        long subPathHits = 0;
+        for (int trial = 0; trial < 150; trial++) {
+            MazeGrid grid = TestMazes.random(random, 4 + random.nextInt(12), 4 + random.nextInt(12), 0.2);
+            int[] ends = random.ints(4, 0, grid.size()).toArray();
+            int[] batteries = {2 * (grid.getRows() + grid.getCols()), 5 * (grid.getRows() + grid.getCols())};
+            ResourceConstrainedSearch solver = new ResourceConstrainedSearch(new SearchContext(grid));
+            try (PathCache cache = new PathCache(grid, 8 + random.nextInt(24), 1 << 12)) {
+                for (int step = 0; step < 60; step++) {
+                    if (random.nextInt(5) == 0) {
+                        grid.setTerrainAt(random.nextInt(grid.size()), TERRAINS[random.nextInt(TERRAINS.length)]);
+                        continue;
+                    }
+                    int start = random.nextBoolean() ? ends[random.nextInt(ends.length)] : random.nextInt(grid.size());
+                    int goal = ends[random.nextInt(ends.length)];
+                    int battery = batteries[random.nextInt(batteries.length)];
+                    PathCache.CachedPath answer = solve(cache, solver, grid, start, goal, battery);
+
+                    String query = "trial " + trial + " step " + step + ": " + start + " -> " + goal;
+                    boolean found = answer != PathCache.CachedPath.NOT_FOUND;
+                    TestMazes.assertSolved(grid, answer.path(), found, answer::cost, start, goal, battery, query);
+                    if (!found) {
+                        continue;
+                    }
+                    assertEquals(battery - drained(grid, answer.path()), answer.remainingBattery(), query);
+                }
+                hits += cache.stats().hits();
+                subPathHits += cache.stats().subPathHits();
+            }
+        }
+        assertTrue(hits > 300, hits + " exact hits");
+        assertTrue(subPathHits > 500, subPathHits + " sub-path hits");
+    }
+
+    @Test
+    void cutsPiecesOfACachedPath() {
+        MazeGrid grid = TestMazes.parse(
+                ".ss.",
+                "####");
+        ResourceConstrainedSearch solver = new ResourceConstrainedSearch(new SearchContext(grid));
+        try (PathCache cache = new PathCache(grid, 16, 1 << 10)) {
+            assertEquals(7, solve(cache, solver, grid, 0, 3, 100).cost());
+
+            PathCache.CachedPath suffix = cache.lookup(1, 3, 100);
+            assertNotNull(suffix);
+            assertEquals(4, suffix.cost());
+            assertEquals(100 - drained(grid, suffix.path()), suffix.remainingBattery());
+            PathCache.CachedPath prefix = cache.lookup(0, 2, 100);
+            assertNotNull(prefix);
+            assertEquals(6, prefix.cost());
+            assertEquals(2, cache.stats().subPathHits());
+
+            // The piece must fit the battery too: two sand cells drain 6
+            assertNull(cache.lookup(0, 2, 5));
+        }
+    }
+
+    /**
+     * Walling off a cell can only make the paths through it dearer, so only those are dropped;
+     * opening a wall can make any path cheaper, so everything is.
+     */
+    @Test
+    void dropsWhatAnEditCouldHaveChanged() {
+        MazeGrid grid = TestMazes.parse(
+                "....",
+                "....",
+                "....");
+        ResourceConstrainedSearch solver = new ResourceConstrainedSearch(new SearchContext(grid));
+        try (PathCache cache = new PathCache(grid, 16, 1 << 10)) {
+            solve(cache, solver, grid, grid.index(0, 0), grid.index(0, 3), 100);
+            solve(cache, solver, grid, grid.index(2, 0), grid.index(2, 3), 100);
+
+            grid.setTerrain(0, 1, MazeCell.Terrain.WALL);
+            assertNull(cache.lookup(grid.index(0, 0), grid.index(0, 3), 100));
+            assertNotNull(cache.lookup(grid.index(2, 0), grid.index(2, 3), 100));
+            assertEquals(1, cache.stats().invalidated());
+
+            grid.setTerrain(0, 1, MazeCell.Terrain.EMPTY);
+            assertNull(cache.lookup(grid.index(2, 0), grid.index(2, 3), 100));
+            assertEquals(0, cache.stats().entries());
+        }
+    }
+
+    @Test
+    void ignoresAnswersSolvedWhileTheTerrainChanged() {
+        MazeGrid grid = TestMazes.parse("....");
+        ResourceConstrainedSearch solver = new ResourceConstrainedSearch(new SearchContext(grid));
+        try (PathCache cache = new PathCache(grid, 16, 1 << 10)) {
+            long version = grid.getVersion();
+            MazePath path = solver.solve(0, 3, 100);
+            grid.setTerrain(0, 2, MazeCell.Terrain.WALL);
+            cache.store(0, 3, 100, new PathCache.CachedPath(path, solver.getGoalCost(), solver.getGoalBattery()),
+                    true, version);
+            assertNull(cache.lookup(0, 3, 100));
+            assertEquals(0, cache.stats().entries());
+        }
+    }
+
+    /**
+     * The lookup-solve-store round Maze makes for every cached query.
+     */
+    private static PathCache.CachedPath solve(PathCache cache, ResourceConstrainedSearch solver, MazeGrid grid,
+                                              int start, int goal, int battery) {
+        long version = grid.getVersion();
+        PathCache.CachedPath cached = cache.lookup(start, goal, battery);
+        if (cached != null) {
+            return cached;
+        }
+        MazePath path = solver.solve(start, goal, battery);
+        PathCache.CachedPath answer = solver.isGoalReached()
+                ? new PathCache.CachedPath(path, solver.getGoalCost(), solver.getGoalBattery())
+                : PathCache.CachedPath.NOT_FOUND;
+        cache.store(start, goal, battery, answer, solver.isGoalReached() && !solver.wasBatteryBinding(), version);
+        return answer;
+    }
+
+    private static int drained(MazeGrid grid, MazePath path) {
+        int drained = 0;
+        for (int i = 1; i < path.length(); i++) {
+            drained += grid.batteryConsumption(path.cellAt(i));
+        }
+        return drained;
+    }
+}
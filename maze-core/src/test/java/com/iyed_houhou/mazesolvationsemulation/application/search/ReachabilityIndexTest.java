@@ -0,0 +1,115 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReachabilityIndexTest {
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+
+    @Test
+    void separatesRoomsAndFollowsEdits() {
+        MazeGrid grid = TestMazes.parse(
+                "..#..",
+                "..#..",
+                "..~~.");
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            int left = grid.index(0, 0);
+            int right = grid.index(0, 4);
+            // The only gap is two water cells in a row, which the robot may not chain
+            assertTrue(index.isDefinitelyUnreachable(left, right));
+            assertEquals(2, index.getComponentCount());
+
+            grid.setTerrain(1, 2, MazeCell.Terrain.GRASS);
+            assertFalse(index.isDefinitelyUnreachable(left, right));
+            assertEquals(1, index.getComponentCount());
+
+            grid.setTerrain(1, 2, MazeCell.Terrain.WALL);
+            assertTrue(index.isDefinitelyUnreachable(left, right));
+
+            // A robot parked on the wall can step off to either side
+            int wall = grid.index(0, 2);
+            assertFalse(index.isDefinitelyUnreachable(wall, left));
+            assertFalse(index.isDefinitelyUnreachable(wall, right));
+            assertTrue(index.isDefinitelyUnreachable(left, wall));
+        }
+    }
+
+    /**
+     * Both links of the corner at (0, 3) are cut in one batch. When the cut below it is applied,
+     * the cut to its left is still queued; it must not be mistaken for a wall already, or the
+     * left room is left with the bottom row's label. The grid is wide enough for two edits to be
+     * applied one by one rather than by a rebuild.
+     */
+    @Test
+    void appliesSeveralCutsInOneBatch() {
+        MazeGrid grid = TestMazes.parse(
+                "....########",
+                "###.########",
+                "............");
+        try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+            assertEquals(1, index.getComponentCount());
+
+            grid.setTerrain(1, 3, MazeCell.Terrain.WALL);
+            grid.setTerrain(0, 2, MazeCell.Terrain.WALL);
+            assertEquals(3, index.getComponentCount());
+            assertTrue(index.isDefinitelyUnreachable(grid.index(0, 0), grid.index(2, 0)));
+            assertTrue(index.isDefinitelyUnreachable(grid.index(0, 3), grid.index(2, 3)));
+            assertTrue(index.isDefinitelyUnreachable(grid.index(0, 0), grid.index(0, 3)));
+        }
+    }
+
+    /**
+     * Applies batches of 1 to 25 random edits and compares the incremental labels with a fresh
+     * index, and the verdicts with a plain search.
+     */
+    @Test
+    void matchesAFreshBuildAfterRandomEdits() {
+        SplittableRandom random = new SplittableRandom(12);
+        for (int maze = 0; maze < 30; maze++) {
+            MazeGrid grid = TestMazes.random(random, 6 + random.nextInt(20), 6 + random.nextInt(20), 0.3);
+            try (ReachabilityIndex index = new ReachabilityIndex(grid)) {
+                for (int batch = 0; batch < 100; batch++) {
+                    int edits = 1 + random.nextInt(25);
+                    for (int i = 0; i < edits; i++) {
+                        grid.setTerrainAt(random.nextInt(grid.size()), TERRAINS[random.nextInt(TERRAINS.length)]);
+                    }
+                    try (ReachabilityIndex fresh = new ReachabilityIndex(grid)) {
+                        assertSamePartition(grid, fresh, index);
+                    }
+                    for (int query = 0; query < 5; query++) {
+                        int start = random.nextInt(grid.size());
+                        int goal = random.nextInt(grid.size());
+                        boolean unreachable = TestMazes.cheapestCost(grid, start, goal) == Double.POSITIVE_INFINITY;
+                        assertEquals(unreachable, index.isDefinitelyUnreachable(start, goal),
+                                "maze " + maze + " batch " + batch + ": " + start + " -> " + goal);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertSamePartition(MazeGrid grid, ReachabilityIndex expected, ReachabilityIndex actual) {
+        Map<Integer, Integer> labels = new HashMap<>();
+        Map<Integer, Integer> reverse = new HashMap<>();
+        for (int cell = 0; cell < grid.size(); cell++) {
+            int want = expected.componentOf(cell);
+            int got = actual.componentOf(cell);
+            if (want < 0 || got < 0) {
+                assertEquals(want, got, "wall at " + cell);
+            } else {
+                assertEquals(got, labels.computeIfAbsent(want, label -> got), "component of " + cell);
+                assertEquals(want, reverse.computeIfAbsent(got, label -> want), "component of " + cell);
+            }
+        }
+        assertEquals(expected.getComponentCount(), actual.getComponentCount(), "component count");
+    }
+}
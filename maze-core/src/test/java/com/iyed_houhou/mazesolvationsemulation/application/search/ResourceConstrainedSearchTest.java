@@ -0,0 +1,110 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceConstrainedSearchTest {
+
+    /**
+     * Two routes of cost 10 meet at (0, 1): one over the water at (1, 2) with 1 unit left, one
+     * over the sand with 4 left. Closing the cell on the first arrival keeps the water route,
+     * which cannot pay for the last step.
+     */
+    @Test
+    void keepsTheCheaperBatteryRouteThroughACellAlreadyReached() {
+        MazeGrid grid = TestMazes.parse(
+                "ggg.",
+                "ss~#",
+                "~s.s");
+        int start = grid.index(2, 2);
+        int goal = grid.index(0, 0);
+
+        SearchContext closedCell = new SearchContext(grid);
+        assertTrue(closedCell.solve(start, goal, 10).isEmpty(), "closed-cell A* should miss this path");
+
+        ResourceConstrainedSearch search = new ResourceConstrainedSearch(new SearchContext(grid));
+        MazePath path = search.solve(start, goal, 10);
+        TestMazes.assertPath(grid, path, start, goal, 10, 10);
+        assertEquals(0, search.getGoalBattery());
+        assertEquals(TestMazes.cheapestCost(grid, start, goal, 10), search.getGoalCost());
+    }
+
+    /**
+     * The cheapest path costs 14 but drains 16; with 15 units the answer is a dearer one.
+     */
+    @Test
+    void takesADearerPathWhenTheCheapestDrainsTooMuch() {
+        MazeGrid grid = TestMazes.parse(
+                "ggss",
+                ".~~g",
+                ".~g~",
+                "s~ss");
+        int start = grid.index(1, 3);
+        int goal = grid.index(3, 0);
+        assertEquals(14, TestMazes.cheapestCost(grid, start, goal));
+
+        assertTrue(new SearchContext(grid).solve(start, goal, 15).isEmpty(), "closed-cell A* should miss this path");
+
+        ResourceConstrainedSearch search = new ResourceConstrainedSearch(new SearchContext(grid));
+        MazePath path = search.solve(start, goal, 15);
+        TestMazes.assertPath(grid, path, start, goal, 15, 15);
+        assertTrue(search.wasBatteryBinding());
+    }
+
+    /**
+     * Start and goal are neighbouring water cells, so the robot has to go all the way round. Cost
+     * 16 and drain 17 is the only way; the route past the water at (1, 1) ties on cost and gets
+     * to (1, 2) first, with too little left.
+     */
+    @Test
+    void detoursRoundAWaterChain() {
+        MazeGrid grid = TestMazes.parse(
+                "~~g",
+                "s~s",
+                ".g.");
+        int start = grid.index(0, 0);
+        int goal = grid.index(0, 1);
+
+        assertTrue(new SearchContext(grid).solve(start, goal, 17).isEmpty(), "closed-cell A* should miss this path");
+
+        ResourceConstrainedSearch search = new ResourceConstrainedSearch(new SearchContext(grid));
+        TestMazes.assertPath(grid, search.solve(start, goal, 17), start, goal, 17, 16);
+
+        assertTrue(search.solve(start, goal, 16).isEmpty());
+        assertFalse(search.isGoalReached());
+    }
+
+    @Test
+    void matchesExhaustiveSearchOnRandomMazes() {
+        SplittableRandom random = new SplittableRandom(5);
+        int constrained = 0;
+        for (int trial = 0; trial < 3000; trial++) {
+            MazeGrid grid = TestMazes.random(random, 3 + random.nextInt(10), 3 + random.nextInt(10), 0.15);
+            ResourceConstrainedSearch search = new ResourceConstrainedSearch(new SearchContext(grid));
+            int start = random.nextInt(grid.size());
+            int goal = random.nextInt(grid.size());
+            int battery = random.nextInt(4 * (grid.getRows() + grid.getCols()));
+            // Half the queries get a little less than the cheapest path drains, where battery binds
+            SearchContext unconstrained = search.getContext();
+            unconstrained.solve(start, goal, Integer.MAX_VALUE);
+            if (unconstrained.isGoalReached() && random.nextBoolean()) {
+                battery = Math.max(0, Integer.MAX_VALUE - unconstrained.getGoalBattery() - 1 - random.nextInt(3));
+            }
+
+            MazePath path = search.solve(start, goal, battery);
+            String query = "trial " + trial + ": " + start + " -> " + goal + " with " + battery;
+            TestMazes.assertSolved(grid, path, search.isGoalReached(), search::getGoalCost, start, goal, battery, query);
+            if (search.isGoalReached() && search.wasBatteryBinding()) {
+                constrained++;
+            }
+        }
+        assertTrue(constrained > 0, "no query needed the label search");
+    }
+}
@@ -0,0 +1,195 @@
+package com.iyed_houhou.mazesolvationsemulation.application.search;
+
+import com.iyed_houhou.mazesolvationsemulation.application.io.MazeTextFormat;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Mazes and reference answers for the solver tests. The references are brute force on purpose:
+ * plain Dijkstra over cells, or over (cell, battery left) pairs once battery matters, with none of
+ * the pruning the solvers under test rely on.
+ */
+public final class TestMazes {
+    private static final MazeCell.Terrain[] TERRAINS = MazeCell.Terrain.values();
+
+    private TestMazes() {
+    }
+
+    /**
+     * A grid from rows in {@link MazeTextFormat} symbols, all of the same length.
+     */
+    public static MazeGrid parse(String... rows) {
+        String text = rows.length + " " + rows[0].length() + "\n" + String.join("\n", rows) + "\n";
+        try {
+            return MazeTextFormat.read(new BufferedReader(new StringReader(text)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Random terrain with the given share of walls; the rest is spread evenly over the other
+     * terrains.
+     */
+    public static MazeGrid random(SplittableRandom random, int rows, int cols, double wallShare) {
+        MazeGrid grid = new MazeGrid(rows, cols);
+        for (int cell = 0; cell < grid.size(); cell++) {
+            grid.setTerrainAt(cell, random.nextDouble() < wallShare
+                    ? MazeCell.Terrain.WALL
+                    : TERRAINS[1 + random.nextInt(TERRAINS.length - 1)]);
+        }
+        return grid;
+    }
+
+    /**
+     * Cost of the cheapest path ignoring battery, or infinity when there is none.
+     */
+    public static double cheapestCost(MazeGrid grid, int start, int goal) {
+        double[] cost = new double[grid.size()];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[start] = 0;
+        PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        open.add(new double[]{0, start});
+        while (!open.isEmpty()) {
+            double[] entry = open.poll();
+            int cell = (int) entry[1];
+            if (entry[0] > cost[cell]) {
+                continue;
+            }
+            if (cell == goal) {
+                return entry[0];
+            }
+            for (int next : neighbors(grid, cell)) {
+                if (next >= 0 && canStep(grid, cell, next) && entry[0] + grid.movementCost(next) < cost[next]) {
+                    cost[next] = entry[0] + grid.movementCost(next);
+                    open.add(new double[]{cost[next], next});
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Cost of the cheapest path that drains at most {@code battery}, or infinity when there is
+     * none. Every (cell, battery left) pair is a state of its own, so nothing is ever pruned.
+     */
+    public static double cheapestCost(MazeGrid grid, int start, int goal, int battery) {
+        int levels = battery + 1;
+        double[] cost = new double[grid.size() * levels];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[start * levels + battery] = 0;
+        PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        open.add(new double[]{0, start, battery});
+        while (!open.isEmpty()) {
+            double[] entry = open.poll();
+            int cell = (int) entry[1];
+            int left = (int) entry[2];
+            if (entry[0] > cost[cell * levels + left]) {
+                continue;
+            }
+            if (cell == goal) {
+                return entry[0];
+            }
+            for (int next : neighbors(grid, cell)) {
+                if (next < 0 || !canStep(grid, cell, next) || grid.batteryConsumption(next) > left) {
+                    continue;
+                }
+                int state = next * levels + left - grid.batteryConsumption(next);
+                if (entry[0] + grid.movementCost(next) < cost[state]) {
+                    cost[state] = entry[0] + grid.movementCost(next);
+                    open.add(new double[]{cost[state], next, left - grid.batteryConsumption(next)});
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Checks that the path runs from start to goal over legal steps without draining more than
+     * {@code battery}, and that it costs {@code expectedCost}.
+     */
+    public static void assertPath(MazeGrid grid, MazePath path, int start, int goal, int battery, double expectedCost) {
+        assertFalse(path.isEmpty(), "expected a path");
+        assertEquals(start, path.cellAt(0), "path must begin at the start");
+        assertEquals(goal, path.cellAt(path.length() - 1), "path must end at the goal");
+        double cost = 0;
+        long drained = 0;
+        for (int i = 1; i < path.length(); i++) {
+            int from = path.cellAt(i - 1);
+            int to = path.cellAt(i);
+            assertTrue(Arrays.stream(neighbors(grid, from)).anyMatch(cell -> cell == to),
+                    "step " + i + " is not between neighbours");
+            assertTrue(canStep(grid, from, to), "step " + i + " enters a wall or chains water");
+            cost += grid.movementCost(to);
+            drained += grid.batteryConsumption(to);
+        }
+        if (drained > battery) {
+            fail("path drains " + drained + " of " + battery);
+        }
+        assertEquals(expectedCost, cost, 1e-9, "path cost");
+    }
+
+    /**
+     * Checks a solver's answer against the reference and returns the reference cost. Without a
+     * path the solver must report an empty path and the goal as not reached; with one, the path
+     * must pass {@link #assertPath} and the reported cost match; {@code cost} is only asked then,
+     * since solvers refuse it for a goal they did not reach. The battery-aware reference
+     * only runs when the battery could bind: cheapest paths never visit a cell twice, so one
+     * that covers the drain of every open cell cannot.
+     */
+    public static double assertSolved(MazeGrid grid, MazePath path, boolean reached, DoubleSupplier cost,
+                                      int start, int goal, int battery, String where) {
+        long everyCell = 0;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (grid.isPassable(cell)) {
+                everyCell += grid.batteryConsumption(cell);
+            }
+        }
+        double expected = battery >= everyCell
+                ? cheapestCost(grid, start, goal)
+                : cheapestCost(grid, start, goal, battery);
+        if (expected == Double.POSITIVE_INFINITY) {
+            assertTrue(path.isEmpty(), where + ": expected no path");
+            assertFalse(reached, where + ": reports an unreachable goal as reached");
+            return expected;
+        }
+        assertTrue(reached, where + ": misses a reachable goal");
+        assertPath(grid, path, start, goal, battery, expected);
+        assertEquals(expected, cost.getAsDouble(), 1e-9, where + ": reported cost");
+        return expected;
+    }
+
+    static boolean canStep(MazeGrid grid, int from, int to) {
+        return grid.isPassable(to) && !grid.isConsecutiveWater(from, to);
+    }
+
+    /**
+     * Up, down, left, right; -1 where the grid ends.
+     */
+    static int[] neighbors(MazeGrid grid, int cell) {
+        int cols = grid.getCols();
+        int row = cell / cols;
+        int col = cell % cols;
+        return new int[]{
+                row > 0 ? cell - cols : -1,
+                row < grid.getRows() - 1 ? cell + cols : -1,
+                col > 0 ? cell - 1 : -1,
+                col < cols - 1 ? cell + 1 : -1
+        };
+    }
+}
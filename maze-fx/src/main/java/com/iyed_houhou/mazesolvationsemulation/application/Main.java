@@ -10,6 +10,9 @@ import java.util.Objects;
 
 
 public class Main extends Application {
+	public Main() {
+	}
+
 	@Override
 	public void start(Stage primaryStage) {
 		try {
@@ -0,0 +1,31 @@
+package com.iyed_houhou.mazesolvationsemulation.application.controllers;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CooperativePlanner;
+import javafx.concurrent.Task;
+
+import java.util.List;
+
+/**
+ * Plans collision-free routes for a fleet of robots on a background thread. Cancelling the task
+ * stops the planner before the next robot is planned.
+ */
+class FleetPlanTask extends Task<List<CooperativePlanner.Plan>> {
+    private final Maze maze;
+    private final List<CooperativePlanner.Agent> agents;
+    private final int window;
+
+    FleetPlanTask(Maze maze, List<CooperativePlanner.Agent> agents, int window) {
+        this.maze = maze;
+        this.agents = agents;
+        this.window = window;
+    }
+
+    @Override
+    protected List<CooperativePlanner.Plan> call() {
+        updateProgress(-1, 1);
+        List<CooperativePlanner.Plan> plans = maze.planFleet(agents, window, this::isCancelled);
+        updateProgress(1, 1);
+        return plans;
+    }
+}
@@ -0,0 +1,554 @@
+// MainController.java
+package com.iyed_houhou.mazesolvationsemulation.application.controllers;
+
+import com.iyed_houhou.mazesolvationsemulation.application.generation.ClusteredTerrainGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.MazeGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.NoiseGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.generation.PerfectMazeGenerator;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.CooperativePlanner;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchBudget;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchSnapshotBuffer;
+import com.iyed_houhou.mazesolvationsemulation.application.views.MazeCanvasView;
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MainController {
+
+    @FXML
+    private StackPane mazePane;
+
+    @FXML
+    private ComboBox<Integer> rowsComboBox;
+
+    @FXML
+    private ComboBox<Integer> colsComboBox;
+
+    @FXML
+    private ComboBox<Integer> batteryComboBox;
+
+    @FXML
+    private ComboBox<SolveMode> algorithmComboBox;
+
+    @FXML
+    private ComboBox<Layout> layoutComboBox;
+
+    @FXML
+    private CheckBox showSearchCheckBox;
+
+    @FXML
+    private Label batteryLevelLabel; // Added Battery Level Label
+
+    @FXML
+    private Button refreshButton;
+
+    @FXML
+    private Button resetSelectionsButton; // Reset Selections Button
+
+    @FXML
+    private Button cancelSolveButton;
+
+    @FXML
+    private ProgressBar solveProgressBar;
+
+    // Maze sizes offered in the row/column selectors
+    private static final List<Integer> MAZE_SIZES = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10,
+            20, 50, 100, 200, 500, 1000, 2000, 4000);
+
+    /**
+     * Solver choices offered in the algorithm selector.
+     */
+    private enum SolveMode {
+        OPTIMAL("Optimal A*", null, 0),
+        ANYTIME("Anytime A* (250 ms)", SearchBudget.ofMillis(250), 0),
+        FLEET("Robot fleet (32)", null, 32);
+
+        private final String label;
+        private final SearchBudget budget;
+        private final int fleetSize;  // robots planned together, the selected one included; 0 for one robot
+
+        SolveMode(String label, SearchBudget budget, int fleetSize) {
+            this.label = label;
+            this.budget = budget;
+            this.fleetSize = fleetSize;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Layout choices offered in the layout selector.
+     */
+    private enum Layout {
+        TERRAIN("Random terrain", new NoiseGenerator()),
+        LANDSCAPE("Lakes and fields", new ClusteredTerrainGenerator()),
+        CORRIDORS("Perfect maze (corridors)", new PerfectMazeGenerator(PerfectMazeGenerator.Algorithm.BACKTRACKER)),
+        BRANCHES("Perfect maze (branches)", new PerfectMazeGenerator(PerfectMazeGenerator.Algorithm.KRUSKAL));
+
+        private final String label;
+        private final MazeGenerator generator;
+
+        Layout(String label, MazeGenerator generator) {
+            this.label = label;
+            this.generator = generator;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // Draws the maze, markers, path and robot; one canvas whatever the maze size
+    private final MazeCanvasView mazeView = new MazeCanvasView();
+
+    // Walks the robot along the solution, frame by frame
+    private static final double PATH_SECONDS_PER_STEP = 2.0 / 13;
+    private PathPlayer pathPlayer = null;
+    private Timeline fleetAnimation = null;
+
+    // Live view of the search: the solver offers what it explored at most this often, and a
+    // timer on the FX thread picks it up
+    private static final long SEARCH_FRAME_MILLIS = 40;
+    private AnimationTimer searchFeed = null;
+
+    // To store the user-selected start and goal
+    private Coordinate startSelected = null;
+    private Coordinate goalSelected = null;
+
+    // The Maze instance that is used for both drawing and solving.
+    private Maze currentMaze = null;
+
+    // Solves run one at a time off the FX thread; a cancelled solve finishes before the next one starts.
+    private final ExecutorService solverExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("maze-solver").factory());
+    private Task<?> solveTask = null;
+
+    // Solves remembered per maze, so picking the same start and goal again answers at once
+    private static final int PATH_CACHE_ENTRIES = 256;
+
+    // Fleet robots replan every half window of this many time steps
+    private static final int FLEET_WINDOW = 16;
+    private static final double FLEET_SECONDS_PER_STEP = 0.15;
+    private final DoubleProperty fleetTime = new SimpleDoubleProperty();
+
+    @FXML
+    public void initialize() {
+        mazePane.getChildren().add(mazeView);
+        mazeView.setOnCellClicked(this::onCellClicked);
+        fleetTime.addListener((_, _, time) -> mazeView.setFleetTime(time.doubleValue()));
+
+        setupComboBoxes();
+        setupBatteryComboBox();
+        algorithmComboBox.getItems().addAll(SolveMode.values());
+        algorithmComboBox.setValue(SolveMode.OPTIMAL);
+        layoutComboBox.getItems().addAll(Layout.values());
+        layoutComboBox.setValue(Layout.TERRAIN);
+        layoutComboBox.setOnAction(_ -> refreshMaze());
+        updateGrid(rowsComboBox.getValue(), colsComboBox.getValue());
+
+        refreshButton.setOnAction(_ -> refreshMaze());
+        resetSelectionsButton.setOnAction(_ -> resetSelectionsAndPath()); // Reset Selections Button Action
+        cancelSolveButton.setOnAction(_ -> {
+            cancelSolving();
+            batteryLevelLabel.setText("Solving Cancelled");
+        });
+        setSolvingControlsVisible(false);
+    }
+
+    private void setupBatteryComboBox() {
+        batteryComboBox.getItems().addAll(10, 20, 30, 40, 50, 60, 70, 90 , 100, 1000, 10000, 100000); // Example battery levels, larger ones for big mazes
+        batteryComboBox.setValue(100); // Default battery level
+        updateBatteryLabel(batteryComboBox.getValue()); // Initialize label with default value
+        batteryComboBox.setOnAction(e -> updateBatteryLabel(batteryComboBox.getValue())); // Update label on combo box change
+    }
+
+    private void updateBatteryLabel(int batteryValue) {
+        batteryLevelLabel.setText("Initial Battery: " + batteryValue);
+    }
+    private void updateBatteryLabelFinal(int finalBattery) {
+        batteryLevelLabel.setText("Final Battery Remaining: " + finalBattery);
+    }
+
+
+    private void refreshMaze() {
+        // Simply update the grid using current rows/cols from the combo boxes.
+        updateGrid(rowsComboBox.getValue(), colsComboBox.getValue());
+    }
+
+    private void resetSelectionsAndPath() {
+        cancelSolving();
+        startSelected = null;
+        goalSelected = null;
+        batteryLevelLabel.setText(""); // Clear battery label on reset
+
+        stopAnimations();
+
+        // Remove the "S"/"G" markers, the path, the robot and what the search explored
+        mazeView.setStart(null);
+        mazeView.setGoal(null);
+        mazeView.clearPath();
+        mazeView.hideRobot();
+        mazeView.clearFleet();
+        mazeView.clearSearch();
+    }
+
+
+    private void setupComboBoxes() {
+        rowsComboBox.getItems().addAll(MAZE_SIZES);
+        colsComboBox.getItems().addAll(MAZE_SIZES);
+        rowsComboBox.setValue(3);
+        colsComboBox.setValue(3);
+        rowsComboBox.setOnAction(_ -> updateGrid(rowsComboBox.getValue(), colsComboBox.getValue()));
+        colsComboBox.setOnAction(_ -> updateGrid(rowsComboBox.getValue(), colsComboBox.getValue()));
+
+    }
+
+    /**
+     * Updates the grid. Here we create a Maze instance (stored in currentMaze)
+     * that is used for both painting the grid and later for solving.
+     */
+    private void updateGrid(int rows, int cols) {
+        // Reset selections when grid is updated.
+        resetSelectionsAndPath();
+
+        // Create one Maze instance and generate the maze layout.
+        // (We initially pass dummy start/end values; we will update them later based on user selection.)
+        currentMaze = new Maze(rows, cols, new Coordinate(0, 0), new Coordinate(rows - 1, cols - 1));
+        currentMaze.generateMaze(layoutComboBox.getValue().generator, new SplittableRandom().nextLong());
+        currentMaze.usePathCache(PATH_CACHE_ENTRIES);
+        mazeView.setGrid(currentMaze.getGrid());
+    }
+
+    /**
+     * Records start and goal selections from clicks on the maze view.
+     */
+    private void onCellClicked(Coordinate clicked) {
+        // Check if both are already selected; if so, reset
+        if (startSelected != null && goalSelected != null) {
+            resetSelectionsAndPath();
+        }
+
+        MazeCell cell = currentMaze.getCell(clicked.row(), clicked.col());
+        if (startSelected == null) {
+            if (cell.getTerrain() == MazeCell.Terrain.WALL) {
+                showDialog("Error", "You can't start in a wall", Alert.AlertType.ERROR);
+            } else {
+                startSelected = clicked;
+                mazeView.setStart(clicked);
+            }
+        } else if (goalSelected == null && !startSelected.equals(clicked)) {
+            if (cell.getTerrain() == MazeCell.Terrain.WALL) {
+                showDialog("Error", "You can't end in a wall", Alert.AlertType.ERROR);
+            } else {
+                goalSelected = clicked;
+                mazeView.setGoal(clicked);
+                runMazeSolving();
+            }
+        }
+    }
+
+
+    private void showDialog(String title, String message, Alert.AlertType alertType) {
+        Alert alert = new Alert(alertType);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+
+    /**
+     * Once start and goal are chosen, solve the maze on the background executor.
+     * The result is applied to the scene back on the FX thread.
+     */
+    private void runMazeSolving() {
+        cancelSolving();
+        if (algorithmComboBox.getValue().fleetSize > 0) {
+            runFleetPlanning(algorithmComboBox.getValue().fleetSize);
+            return;
+        }
+        int initialBattery = batteryComboBox.getValue(); // Get battery value from ComboBox
+
+        batteryLevelLabel.setText("Solving Maze..."); // Indicate solving process
+
+        // IMPORTANT: Do NOT call generateMaze() again! We want to use the existing layout.
+        SearchBudget anytimeBudget = algorithmComboBox.getValue().budget;
+        MazeSolveTask task = new MazeSolveTask(currentMaze, startSelected, goalSelected, initialBattery, anytimeBudget);
+        if (anytimeBudget != null) {
+            // Show each improved path as it arrives; the final one is animated as usual
+            task.improvedPathProperty().addListener((_, _, path) -> {
+                if (task == solveTask && task.isRunning() && path != null) {
+                    mazeView.setPath(path);
+                    mazeView.revealPath(path.length());
+                }
+            });
+            task.messageProperty().addListener((_, _, message) -> {
+                if (task == solveTask) {
+                    batteryLevelLabel.setText(message);
+                }
+            });
+        }
+        mazeView.clearSearch();
+        SearchSnapshotBuffer snapshots = showSearchCheckBox.isSelected()
+                ? new SearchSnapshotBuffer(currentMaze.getGrid().size(), SEARCH_FRAME_MILLIS)
+                : null;
+        if (snapshots != null) {
+            task.setWatcher(snapshots);
+            watchSearch(snapshots);
+        }
+        task.setOnSucceeded(_ -> {
+            if (task == solveTask) {
+                finishSolving();
+                if (snapshots != null) {
+                    // A solve answered without searching, such as a cached one, sends no last frame
+                    showLastSearchFrame(snapshots);
+                }
+                applySolution(task.getValue());
+            }
+        });
+        task.setOnFailed(_ -> {
+            if (task == solveTask) {
+                finishSolving();
+                stopSearchFeed();
+                batteryLevelLabel.setText("Solving Failed");
+                showDialog("Error", "Solving failed: " + task.getException().getMessage(), Alert.AlertType.ERROR);
+            }
+        });
+
+        solveTask = task;
+        solveProgressBar.progressProperty().bind(task.progressProperty());
+        setSolvingControlsVisible(true);
+        solverExecutor.submit(task);
+    }
+
+    /**
+     * Plans the selected robot together with a fleet of others on the background executor, then
+     * animates them all at once. The other robots' starts and goals are drawn from the maze's
+     * generation seed, so a maze always gets the same fleet.
+     */
+    private void runFleetPlanning(int fleetSize) {
+        batteryLevelLabel.setText("Planning Fleet...");
+        FleetPlanTask task = new FleetPlanTask(currentMaze, pickFleet(fleetSize), FLEET_WINDOW);
+        task.setOnSucceeded(_ -> {
+            if (task == solveTask) {
+                finishSolving();
+                animateFleet(task.getValue());
+            }
+        });
+        task.setOnFailed(_ -> {
+            if (task == solveTask) {
+                finishSolving();
+                batteryLevelLabel.setText("Fleet Planning Failed");
+                showDialog("Error", "Fleet planning failed: " + task.getException().getMessage(), Alert.AlertType.ERROR);
+            }
+        });
+
+        solveTask = task;
+        solveProgressBar.progressProperty().bind(task.progressProperty());
+        setSolvingControlsVisible(true);
+        solverExecutor.submit(task);
+    }
+
+    /**
+     * The selected start and goal as the first robot, followed by up to {@code fleetSize - 1}
+     * robots on random open cells; no two robots share a start or a goal.
+     */
+    private List<CooperativePlanner.Agent> pickFleet(int fleetSize) {
+        int rows = currentMaze.getGrid().getRows();
+        int cols = currentMaze.getGrid().getCols();
+        List<CooperativePlanner.Agent> agents = new ArrayList<>();
+        agents.add(new CooperativePlanner.Agent(startSelected, goalSelected));
+        Set<Coordinate> starts = new HashSet<>(Set.of(startSelected));
+        Set<Coordinate> goals = new HashSet<>(Set.of(goalSelected));
+
+        SplittableRandom random = new SplittableRandom(currentMaze.getGenerationSeed());
+        // Small or walled-in mazes may not fit the whole fleet; give up after a fair number of draws
+        for (int attempt = 0; attempt < fleetSize * 50 && agents.size() < fleetSize; attempt++) {
+            Coordinate start = new Coordinate(random.nextInt(rows), random.nextInt(cols));
+            Coordinate goal = new Coordinate(random.nextInt(rows), random.nextInt(cols));
+            if (start.equals(goal) || isWall(start) || isWall(goal)
+                    || starts.contains(start) || goals.contains(goal)) {
+                continue;
+            }
+            starts.add(start);
+            goals.add(goal);
+            agents.add(new CooperativePlanner.Agent(start, goal));
+        }
+        return agents;
+    }
+
+    private boolean isWall(Coordinate coordinate) {
+        return currentMaze.getCell(coordinate.row(), coordinate.col()).getTerrain() == MazeCell.Terrain.WALL;
+    }
+
+    /**
+     * Moves every robot of the fleet along its plan, one time step per tick, waits included.
+     */
+    private void animateFleet(List<CooperativePlanner.Plan> plans) {
+        int[][] timelines = new int[plans.size()][];
+        int makespan = 0;
+        int arrived = 0;
+        for (int i = 0; i < plans.size(); i++) {
+            CooperativePlanner.Plan plan = plans.get(i);
+            timelines[i] = plan.toCellArray();
+            makespan = Math.max(makespan, plan.steps());
+            if (plan.isArrived()) {
+                arrived++;
+            }
+        }
+        batteryLevelLabel.setText(String.format("%d of %d robots arrive in %d steps", arrived, plans.size(), makespan));
+
+        mazeView.setFleet(timelines);
+        fleetTime.set(0);
+        Timeline timeline = new Timeline(new KeyFrame(
+                Duration.seconds(Math.max(makespan, 1) * FLEET_SECONDS_PER_STEP),
+                new KeyValue(fleetTime, makespan, Interpolator.LINEAR)));
+        fleetAnimation = timeline;
+        timeline.play();
+    }
+
+    /**
+     * Shows what the search explored so far on every pulse that has something new, until the
+     * search's last frame. The solver never waits for the view: frames it offers while the view
+     * is busy are merged into the next one.
+     */
+    private void watchSearch(SearchSnapshotBuffer snapshots) {
+        stopSearchFeed();
+        searchFeed = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                SearchSnapshotBuffer.Frame frame = snapshots.poll();
+                if (frame != null) {
+                    mazeView.addSearchCells(frame.opened(), frame.closed());
+                    if (frame.finished()) {
+                        stop();
+                    }
+                }
+            }
+        };
+        searchFeed.start();
+    }
+
+    private void showLastSearchFrame(SearchSnapshotBuffer snapshots) {
+        SearchSnapshotBuffer.Frame frame = snapshots.poll();
+        if (frame != null) {
+            mazeView.addSearchCells(frame.opened(), frame.closed());
+        }
+        stopSearchFeed();
+    }
+
+    private void stopSearchFeed() {
+        if (searchFeed != null) {
+            searchFeed.stop();
+            searchFeed = null;
+        }
+    }
+
+    private void stopAnimations() {
+        if (pathPlayer != null) {
+            pathPlayer.stop();
+            pathPlayer = null;
+        }
+        if (fleetAnimation != null) {
+            fleetAnimation.stop();
+            fleetAnimation = null;
+        }
+        stopSearchFeed();
+    }
+
+    /**
+     * Cancels the solve in flight, if any. Its result, should it still arrive, is ignored.
+     */
+    private void cancelSolving() {
+        if (solveTask != null) {
+            solveTask.cancel();
+            finishSolving();
+            stopSearchFeed();
+        }
+    }
+
+    private void finishSolving() {
+        solveTask = null;
+        solveProgressBar.progressProperty().unbind();
+        setSolvingControlsVisible(false);
+    }
+
+    private void setSolvingControlsVisible(boolean visible) {
+        solveProgressBar.setVisible(visible);
+        solveProgressBar.setManaged(visible);
+        cancelSolveButton.setVisible(visible);
+        cancelSolveButton.setManaged(visible);
+    }
+
+    /**
+     * Shows the outcome of a finished solve: the animated path and the remaining battery,
+     * or a dialog when no path exists.
+     */
+    private void applySolution(MazePath solution) {
+
+        if (solution.isEmpty()) {
+            batteryLevelLabel.setText("No Path Found or Battery Depleted"); // Update label if no path
+            showDialog("No Path found", "there is no path from S to G in this maze or no path with the given battery", Alert.AlertType.INFORMATION);
+        } else {
+            drawAnimatedPath(solution);
+            MazePath solvedPath = currentMaze.getSolutionPath(); // Get the solution path to access destination node
+            if (solvedPath != null && !solvedPath.isEmpty()) {
+                // Solution found, update battery label with remaining battery from the last node in path
+                com.iyed_houhou.mazesolvationsemulation.application.models.Node destinationNode = currentMaze.getDestinationNode(); // Assume getter added in Maze.java
+                if (destinationNode != null) {
+                    updateBatteryLabelFinal(destinationNode.battery); // Update with final battery
+                } else {
+                    batteryLevelLabel.setText("Solution Found, Battery Unknown"); // Fallback if no destination node
+                }
+
+            } else {
+                batteryLevelLabel.setText("Solution Found, Battery Info N/A"); // Fallback if no solution path
+
+            }
+        }
+    }
+
+    /**
+     * Walks a robot through the centers of the path's cells, revealing the path behind it.
+     */
+    private void drawAnimatedPath(MazePath mazePath) {
+        if (mazePath == null || mazePath.isEmpty()) {
+            return;
+        }
+        if (pathPlayer != null) {
+            pathPlayer.stop();
+        }
+        pathPlayer = new PathPlayer(mazeView, mazePath, PATH_SECONDS_PER_STEP);
+        pathPlayer.start();
+    }
+}
@@ -0,0 +1,119 @@
+package com.iyed_houhou.mazesolvationsemulation.application.controllers;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.Maze;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchBudget;
+import com.iyed_houhou.mazesolvationsemulation.application.search.SearchListener;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs one maze solve on a background thread. Progress is the number of expanded cells relative
+ * to the grid size, and cancelling the task stops the search at its next expansion.
+ * <p>
+ * Given a budget, the solve is anytime: each improved path is published on
+ * {@link #improvedPathProperty()}, and its cost and suboptimality bound as the message, while the
+ * search goes on. The task's value is only ever the final path.
+ * <p>
+ * A watcher, if set before the task runs, hears about every search event as well; it is called on
+ * the search thread, so it must be quick and hand its findings over without waiting.
+ */
+class MazeSolveTask extends Task<MazePath> {
+    private static final int PROGRESS_INTERVAL = 1024; // expansions between progress updates
+
+    private final Maze maze;
+    private final Coordinate start;
+    private final Coordinate goal;
+    private final int initialBattery;
+    private final SearchBudget anytimeBudget;  // null for a single optimal solve
+    private final ReadOnlyObjectWrapper<MazePath> improvedPath = new ReadOnlyObjectWrapper<>(this, "improvedPath");
+    private final AtomicReference<MazePath> pendingImprovement = new AtomicReference<>();
+    private SearchListener watcher = SearchListener.NONE;
+
+    MazeSolveTask(Maze maze, Coordinate start, Coordinate goal, int initialBattery) {
+        this(maze, start, goal, initialBattery, null);
+    }
+
+    MazeSolveTask(Maze maze, Coordinate start, Coordinate goal, int initialBattery, SearchBudget anytimeBudget) {
+        this.maze = maze;
+        this.start = start;
+        this.goal = goal;
+        this.initialBattery = initialBattery;
+        this.anytimeBudget = anytimeBudget;
+    }
+
+    void setWatcher(SearchListener watcher) {
+        this.watcher = watcher;
+    }
+
+    /**
+     * The latest path an anytime solve has found, set on the FX thread. Like the task's own
+     * updates, paths that arrive faster than the FX thread takes them are coalesced.
+     */
+    ReadOnlyObjectProperty<MazePath> improvedPathProperty() {
+        return improvedPath.getReadOnlyProperty();
+    }
+
+    private void publishImprovement(MazePath path) {
+        if (pendingImprovement.getAndSet(path) == null) {
+            Platform.runLater(() -> improvedPath.set(pendingImprovement.getAndSet(null)));
+        }
+    }
+
+    @Override
+    protected MazePath call() {
+        long totalCells = (long) maze.getGrid().size();
+        SearchListener progressListener = new SearchListener() {
+            private long expanded;
+
+            @Override
+            public void searchStarted(int start, int goal) {
+                watcher.searchStarted(start, goal);
+            }
+
+            @Override
+            public void nodePushed(int cell, double f) {
+                watcher.nodePushed(cell, f);
+            }
+
+            @Override
+            public void searchFinished(boolean goalReached) {
+                watcher.searchFinished(goalReached);
+            }
+
+            @Override
+            public void nodeExpanded(int cell, double g, int battery) {
+                watcher.nodeExpanded(cell, g, battery);
+                if (++expanded % PROGRESS_INTERVAL == 0) {
+                    // The label search can expand a cell more than once, so cap the estimate
+                    updateProgress(Math.min(expanded, totalCells), totalCells);
+                }
+            }
+
+            @Override
+            public boolean shouldStop() {
+                return isCancelled();
+            }
+        };
+
+        maze.setStartingCell(start);
+        maze.setEndCell(goal);
+        MazePath solution;
+        if (anytimeBudget == null) {
+            solution = maze.solveMazeAStar(initialBattery, progressListener);
+        } else {
+            solution = maze.solveMazeAnytime(initialBattery, anytimeBudget, improvement -> {
+                publishImprovement(improvement.path());
+                updateMessage(String.format("Path cost %.0f, at most %.2fx optimal",
+                        improvement.cost(), improvement.suboptimalityBound()));
+            }, progressListener);
+        }
+        updateProgress(totalCells, totalCells);
+        return solution;
+    }
+}
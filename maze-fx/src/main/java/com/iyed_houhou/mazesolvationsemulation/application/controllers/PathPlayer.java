@@ -0,0 +1,70 @@
+package com.iyed_houhou.mazesolvationsemulation.application.controllers;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import com.iyed_houhou.mazesolvationsemulation.application.views.MazeCanvasView;
+import javafx.animation.AnimationTimer;
+
+/**
+ * Walks the robot along a path, one step every {@code secondsPerStep}. Each pulse works out where
+ * the robot is from the time elapsed and the packed cells, and extends the trail up to the last
+ * cell it reached, so nothing is prepared per step and playback starts at once however long the
+ * path. A slow frame makes the robot jump ahead rather than fall behind.
+ */
+class PathPlayer extends AnimationTimer {
+    private final MazeCanvasView view;
+    private final int[] cells;
+    private final int cols;
+    private final double secondsPerStep;
+    private long startNanos = -1;
+
+    /**
+     * The path is shown on the view right away, with only its first cell revealed.
+     */
+    PathPlayer(MazeCanvasView view, MazePath path, double secondsPerStep) {
+        this.view = view;
+        this.cells = path.toCellArray();
+        this.cols = path.getCols();
+        this.secondsPerStep = secondsPerStep;
+        view.setPath(path);
+        view.revealPath(1);
+        place(cells[0], cells[0], 0);
+    }
+
+    @Override
+    public void handle(long now) {
+        if (startNanos < 0) {
+            startNanos = now;
+        }
+        double position = (now - startNanos) / 1e9 / secondsPerStep;
+        int step = (int) position;
+        if (step >= cells.length - 1) {
+            int last = cells[cells.length - 1];
+            place(cells[Math.max(cells.length - 2, 0)], last, 1);
+            view.revealPath(cells.length);
+            stop();
+            return;
+        }
+        place(cells[step], cells[step + 1], position - step);
+        view.revealPath(step + 1);
+    }
+
+    /**
+     * Puts the robot {@code fraction} of the way from one cell to the next, facing the move.
+     */
+    private void place(int from, int to, double fraction) {
+        int fromRow = from / cols;
+        int fromCol = from % cols;
+        int toRow = to / cols;
+        int toCol = to % cols;
+        double angle = 0;  // facing right, also when standing still
+        if (toCol < fromCol) {
+            angle = 180;
+        } else if (toRow > fromRow) {
+            angle = 90;
+        } else if (toRow < fromRow) {
+            angle = -90;
+        }
+        view.moveRobot(fromRow + (toRow - fromRow) * fraction + 0.5,
+                fromCol + (toCol - fromCol) * fraction + 0.5, angle);
+    }
+}
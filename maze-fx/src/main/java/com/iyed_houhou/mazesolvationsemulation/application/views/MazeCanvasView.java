@@ -0,0 +1,615 @@
+package com.iyed_houhou.mazesolvationsemulation.application.views;
+
+import com.iyed_houhou.mazesolvationsemulation.application.models.Coordinate;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeCell;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazeGrid;
+import com.iyed_houhou.mazesolvationsemulation.application.models.MazePath;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Draws a maze on a single {@link Canvas}. Terrain is rasterized straight from the packed
+ * {@link MazeGrid} into a pixel buffer, so the cost of a frame depends on the view size and not
+ * on the number of cells. Scrolling zooms around the cursor, dragging pans, and a click without
+ * a drag is turned into a cell coordinate.
+ * <p>
+ * Start/goal markers and the solution path only repaint the cells they touch; zooming, panning
+ * and resizing repaint the whole view.
+ * <p>
+ * A fleet of robots is drawn on a transparent canvas over the maze, so moving every robot each
+ * frame never touches the terrain. A search in progress gets a canvas of its own under the fleet,
+ * tinting the cells it has queued and expanded so far.
+ */
+public class MazeCanvasView extends Pane {
+    // Colors follow styles.css (cell-wall, cell-water, ...), indexed by Terrain ordinal
+    private static final int[] TERRAIN_ARGB = new int[MazeCell.Terrain.values().length];
+    private static final int BORDER_ARGB = 0xFFA88A60;
+    private static final int BACKGROUND_ARGB = 0xFFE0D8B0;
+    private static final Color PATH_COLOR = Color.web("#ff6347");
+    private static final Color LABEL_COLOR = Color.web("#5e3a1d");
+    private static final Color START_COLOR = Color.web("#2e8b57");
+    private static final Color GOAL_COLOR = Color.web("#b22222");
+    private static final int SEARCH_OPEN_ARGB = 0x99FFB347;
+    private static final int SEARCH_CLOSED_ARGB = 0x666A5ACD;
+    private static final byte SEARCH_OPEN = 1;
+    private static final byte SEARCH_CLOSED = 2;
+
+    private static final double GRID_LINE_MIN_SCALE = 8;  // px per cell before cell borders are drawn
+    private static final double LABEL_MIN_SCALE = 14;     // px per cell before "S"/"G" text is drawn
+    private static final double MAX_SCALE = 96;
+    private static final double ZOOM_STEP = 1.25;
+    private static final int FLEET_TRAIL_MAX_CELLS = 50_000;  // total route cells up to which fleet routes are drawn
+
+    static {
+        TERRAIN_ARGB[MazeCell.Terrain.WALL.ordinal()] = 0xFF776E65;
+        TERRAIN_ARGB[MazeCell.Terrain.WATER.ordinal()] = 0xFF5DADE2;
+        TERRAIN_ARGB[MazeCell.Terrain.SAND.ordinal()] = 0xFFF0E68C;
+        TERRAIN_ARGB[MazeCell.Terrain.GRASS.ordinal()] = 0xFF8FBC8F;
+        TERRAIN_ARGB[MazeCell.Terrain.EMPTY.ordinal()] = 0xFFC8B090;
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final Canvas searchLayer = new Canvas();
+    private final Canvas fleetLayer = new Canvas();
+    private final Rectangle robot = new Rectangle();
+
+    private MazeGrid grid;
+    private boolean needsFit;
+
+    // Viewport: screen = offset + cell * scale
+    private double scale = 1;
+    private double offsetX;
+    private double offsetY;
+    private double minScale = 0.01;
+
+    private Coordinate start;
+    private Coordinate goal;
+    private int[] pathCells = new int[0];
+    private int visibleSteps;
+
+    private double robotRow;
+    private double robotCol;
+
+    // Per robot, the cell it holds at each time step; robots stay on their last cell
+    private int[][] fleet = new int[0][];
+    private Color[] fleetColors = new Color[0];
+    private double fleetTime;
+
+    // Per cell, SEARCH_OPEN or SEARCH_CLOSED once a search got there; empty until one is shown
+    private byte[] searchState = new byte[0];
+
+    private double pressX;
+    private double pressY;
+    private double pressOffsetX;
+    private double pressOffsetY;
+
+    private int[] pixelBuffer = new int[0];
+    private int[] columnLookup = new int[0];
+    private Consumer<Coordinate> onCellClicked;
+
+    public MazeCanvasView() {
+        setPrefSize(1000, 750);
+        setMinSize(0, 0);
+
+        canvas.setManaged(false);
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        searchLayer.setManaged(false);
+        searchLayer.setMouseTransparent(true);
+        searchLayer.widthProperty().bind(widthProperty());
+        searchLayer.heightProperty().bind(heightProperty());
+        fleetLayer.setManaged(false);
+        fleetLayer.setMouseTransparent(true);
+        fleetLayer.widthProperty().bind(widthProperty());
+        fleetLayer.heightProperty().bind(heightProperty());
+        robot.setManaged(false);
+        robot.setMouseTransparent(true);
+        robot.setVisible(false);
+        robot.getStyleClass().add("robot");
+        getChildren().addAll(canvas, searchLayer, fleetLayer, robot);
+
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        widthProperty().addListener((_, _, _) -> onResize());
+        heightProperty().addListener((_, _, _) -> onResize());
+        installMouseHandlers();
+    }
+
+    public void setOnCellClicked(Consumer<Coordinate> handler) {
+        this.onCellClicked = handler;
+    }
+
+    /**
+     * Shows a new maze, fitted to the view. Markers and path are cleared.
+     */
+    public void setGrid(MazeGrid grid) {
+        this.grid = grid;
+        this.start = null;
+        this.goal = null;
+        this.pathCells = new int[0];
+        this.visibleSteps = 0;
+        robot.setVisible(false);
+        clearFleet();
+        clearSearch();
+        needsFit = true;
+        if (getWidth() > 0 && getHeight() > 0) {
+            fitToView();
+            redrawAll();
+        }
+    }
+
+    public void setStart(Coordinate cell) {
+        Coordinate previous = start;
+        start = cell;
+        redrawCell(previous);
+        redrawCell(cell);
+    }
+
+    public void setGoal(Coordinate cell) {
+        Coordinate previous = goal;
+        goal = cell;
+        redrawCell(previous);
+        redrawCell(cell);
+    }
+
+    /**
+     * Replaces the path. Nothing of the new path is drawn until {@link #revealPath(int)} is called.
+     */
+    public void setPath(MazePath path) {
+        clearPath();
+        // Paths are packed the same way as the grid, so the cells can be used as they are
+        pathCells = path.toCellArray();
+    }
+
+    /**
+     * Extends the drawn part of the path to its first {@code steps} cells. Only the new segments
+     * are painted, on top of what is already there.
+     */
+    public void revealPath(int steps) {
+        steps = Math.min(steps, pathCells.length);
+        if (steps <= visibleSteps) {
+            return;
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        preparePathStroke(gc);
+        gc.beginPath();
+        int from = Math.max(visibleSteps - 1, 0);
+        gc.moveTo(centerX(pathCells[from]), centerY(pathCells[from]));
+        for (int i = from + 1; i < steps; i++) {
+            gc.lineTo(centerX(pathCells[i]), centerY(pathCells[i]));
+        }
+        gc.stroke();
+        // Keep the markers readable where the path runs over them
+        if (visibleSteps == 0) {
+            drawMarker(gc, start, "S", START_COLOR);
+        }
+        if (steps == pathCells.length) {
+            drawMarker(gc, goal, "G", GOAL_COLOR);
+        }
+        visibleSteps = steps;
+    }
+
+    public void clearPath() {
+        if (visibleSteps > 0) {
+            int minRow = Integer.MAX_VALUE, minCol = Integer.MAX_VALUE, maxRow = -1, maxCol = -1;
+            for (int i = 0; i < visibleSteps; i++) {
+                int row = grid.rowOf(pathCells[i]);
+                int col = grid.colOf(pathCells[i]);
+                minRow = Math.min(minRow, row);
+                maxRow = Math.max(maxRow, row);
+                minCol = Math.min(minCol, col);
+                maxCol = Math.max(maxCol, col);
+            }
+            pathCells = new int[0];
+            visibleSteps = 0;
+            redrawCells(minRow, minCol, maxRow, maxCol);
+        } else {
+            pathCells = new int[0];
+        }
+    }
+
+    /**
+     * Places the robot at a fractional cell position; (row + 0.5, col + 0.5) is the center of a cell.
+     */
+    public void moveRobot(double row, double col, double angle) {
+        robotRow = row;
+        robotCol = col;
+        robot.setRotate(angle);
+        robot.setVisible(true);
+        positionRobot();
+    }
+
+    public void hideRobot() {
+        robot.setVisible(false);
+    }
+
+    /**
+     * Shows a fleet: one array per robot with the cell it holds at each time step. Robots start
+     * at time 0; see {@link #setFleetTime(double)}.
+     */
+    public void setFleet(int[][] timelines) {
+        fleet = timelines;
+        fleetColors = new Color[timelines.length];
+        for (int i = 0; i < timelines.length; i++) {
+            // Golden-angle hues keep neighbouring robot numbers apart
+            fleetColors[i] = Color.hsb(i * 137.508 % 360, 0.8, 0.85);
+        }
+        fleetTime = 0;
+        redrawFleet();
+    }
+
+    /**
+     * Moves every robot of the fleet to where it is at the given, possibly fractional, time step.
+     */
+    public void setFleetTime(double time) {
+        fleetTime = time;
+        redrawFleet();
+    }
+
+    public void clearFleet() {
+        fleet = new int[0][];
+        fleetColors = new Color[0];
+        fleetLayer.getGraphicsContext2D().clearRect(0, 0, fleetLayer.getWidth(), fleetLayer.getHeight());
+    }
+
+    /**
+     * Marks cells a search has queued and expanded since the previous call; a cell expanded stays
+     * shown as expanded. Repaints the search canvas once, whatever the number of cells.
+     */
+    public void addSearchCells(int[] opened, int[] closed) {
+        if (grid == null) {
+            return;
+        }
+        if (searchState.length != grid.size()) {
+            searchState = new byte[grid.size()];
+        }
+        for (int cell : opened) {
+            if (searchState[cell] == 0) {
+                searchState[cell] = SEARCH_OPEN;
+            }
+        }
+        for (int cell : closed) {
+            searchState[cell] = SEARCH_CLOSED;
+        }
+        redrawSearch();
+    }
+
+    public void clearSearch() {
+        searchState = new byte[0];
+        searchLayer.getGraphicsContext2D().clearRect(0, 0, searchLayer.getWidth(), searchLayer.getHeight());
+    }
+
+    private void installMouseHandlers() {
+        setOnScroll(e -> {
+            if (grid != null && e.getDeltaY() != 0) {
+                zoomAt(e.getX(), e.getY(), e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP);
+            }
+        });
+        setOnMousePressed(e -> {
+            pressX = e.getX();
+            pressY = e.getY();
+            pressOffsetX = offsetX;
+            pressOffsetY = offsetY;
+        });
+        setOnMouseDragged(e -> {
+            if (grid != null) {
+                offsetX = pressOffsetX + e.getX() - pressX;
+                offsetY = pressOffsetY + e.getY() - pressY;
+                redrawAll();
+            }
+        });
+        setOnMouseClicked(e -> {
+            if (grid == null || onCellClicked == null || e.getButton() != MouseButton.PRIMARY || !e.isStillSincePress()) {
+                return;
+            }
+            int row = (int) Math.floor((e.getY() - offsetY) / scale);
+            int col = (int) Math.floor((e.getX() - offsetX) / scale);
+            if (grid.isInside(row, col)) {
+                onCellClicked.accept(new Coordinate(row, col));
+            }
+        });
+    }
+
+    private void zoomAt(double x, double y, double factor) {
+        double newScale = Math.clamp(scale * factor, minScale, MAX_SCALE);
+        // Keep the cell under the cursor where it is
+        offsetX = x - (x - offsetX) * newScale / scale;
+        offsetY = y - (y - offsetY) * newScale / scale;
+        scale = newScale;
+        redrawAll();
+    }
+
+    private void onResize() {
+        if (grid == null) {
+            return;
+        }
+        if (needsFit) {
+            fitToView();
+        }
+        redrawAll();
+    }
+
+    private void fitToView() {
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        scale = Math.min(getWidth() / grid.getCols(), getHeight() / grid.getRows());
+        minScale = scale / 4;
+        offsetX = (getWidth() - grid.getCols() * scale) / 2;
+        offsetY = (getHeight() - grid.getRows() * scale) / 2;
+        needsFit = false;
+    }
+
+    private void redrawAll() {
+        redrawPixels(0, 0, (int) Math.ceil(canvas.getWidth()), (int) Math.ceil(canvas.getHeight()));
+        positionRobot();
+        redrawSearch();
+        redrawFleet();
+    }
+
+    /**
+     * Rasterizes the search state like the terrain, one lookup per pixel, so a frame costs the
+     * same however much of the grid the search has covered.
+     */
+    private void redrawSearch() {
+        GraphicsContext gc = searchLayer.getGraphicsContext2D();
+        gc.clearRect(0, 0, searchLayer.getWidth(), searchLayer.getHeight());
+        if (searchState.length == 0 || grid == null) {
+            return;
+        }
+        int width = (int) Math.ceil(searchLayer.getWidth());
+        int height = (int) Math.ceil(searchLayer.getHeight());
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (pixelBuffer.length < width * height) {
+            pixelBuffer = new int[width * height];
+        }
+        if (columnLookup.length < width) {
+            columnLookup = new int[width];
+        }
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        for (int x = 0; x < width; x++) {
+            int col = (int) Math.floor((x + 0.5 - offsetX) / scale);
+            columnLookup[x] = col < 0 || col >= cols ? -1 : col;
+        }
+        for (int y = 0; y < height; y++) {
+            int row = (int) Math.floor((y + 0.5 - offsetY) / scale);
+            int base = y * width;
+            if (row < 0 || row >= rows) {
+                Arrays.fill(pixelBuffer, base, base + width, 0);
+                continue;
+            }
+            int rowStart = row * cols;
+            for (int x = 0; x < width; x++) {
+                int col = columnLookup[x];
+                int argb = 0;
+                if (col >= 0) {
+                    byte state = searchState[rowStart + col];
+                    if (state == SEARCH_CLOSED) {
+                        argb = SEARCH_CLOSED_ARGB;
+                    } else if (state == SEARCH_OPEN) {
+                        argb = SEARCH_OPEN_ARGB;
+                    }
+                }
+                pixelBuffer[base + x] = argb;
+            }
+        }
+        gc.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixelBuffer, 0, width);
+    }
+
+    private void redrawFleet() {
+        GraphicsContext gc = fleetLayer.getGraphicsContext2D();
+        gc.clearRect(0, 0, fleetLayer.getWidth(), fleetLayer.getHeight());
+        if (fleet.length == 0 || grid == null) {
+            return;
+        }
+        long routeCells = 0;
+        for (int[] timeline : fleet) {
+            routeCells += timeline.length;
+        }
+        if (routeCells <= FLEET_TRAIL_MAX_CELLS) {
+            gc.setLineWidth(Math.clamp(scale * 0.12, 1, 2));
+            gc.setGlobalAlpha(0.45);
+            for (int i = 0; i < fleet.length; i++) {
+                int[] timeline = fleet[i];
+                gc.setStroke(fleetColors[i]);
+                gc.beginPath();
+                gc.moveTo(centerX(timeline[0]), centerY(timeline[0]));
+                for (int t = 1; t < timeline.length; t++) {
+                    gc.lineTo(centerX(timeline[t]), centerY(timeline[t]));
+                }
+                gc.stroke();
+            }
+            gc.setGlobalAlpha(1);
+        }
+
+        int step = (int) Math.floor(fleetTime);
+        double fraction = fleetTime - step;
+        double size = Math.max(scale * 0.6, 4);
+        for (int i = 0; i < fleet.length; i++) {
+            int[] timeline = fleet[i];
+            int from = timeline[Math.min(step, timeline.length - 1)];
+            int to = timeline[Math.min(step + 1, timeline.length - 1)];
+            double x = centerX(from) + (centerX(to) - centerX(from)) * fraction;
+            double y = centerY(from) + (centerY(to) - centerY(from)) * fraction;
+            gc.setFill(fleetColors[i]);
+            gc.fillOval(x - size / 2, y - size / 2, size, size);
+        }
+    }
+
+    /**
+     * Repaints a start or goal cell, together with the dot drawn over it when zoomed out, which
+     * can be many times larger than the cell.
+     */
+    private void redrawCell(Coordinate cell) {
+        if (cell == null || grid == null) {
+            return;
+        }
+        double reach = Math.max(scale, markerDotSize()) / 2;
+        double centerX = offsetX + (cell.col() + 0.5) * scale;
+        double centerY = offsetY + (cell.row() + 0.5) * scale;
+        redrawPixels((int) Math.floor(centerX - reach) - 1, (int) Math.floor(centerY - reach) - 1,
+                (int) Math.ceil(centerX + reach) + 1, (int) Math.ceil(centerY + reach) + 1);
+    }
+
+    private void redrawCells(int minRow, int minCol, int maxRow, int maxCol) {
+        if (grid == null) {
+            return;
+        }
+        int x0 = (int) Math.floor(offsetX + minCol * scale) - 1;
+        int y0 = (int) Math.floor(offsetY + minRow * scale) - 1;
+        int x1 = (int) Math.ceil(offsetX + (maxCol + 1) * scale) + 1;
+        int y1 = (int) Math.ceil(offsetY + (maxRow + 1) * scale) + 1;
+        redrawPixels(x0, y0, x1, y1);
+    }
+
+    /**
+     * Repaints the screen rectangle [x0, x1) x [y0, y1): terrain first, then path and markers
+     * clipped to the same rectangle.
+     */
+    private void redrawPixels(int x0, int y0, int x1, int y1) {
+        if (grid == null) {
+            return;
+        }
+        x0 = Math.max(x0, 0);
+        y0 = Math.max(y0, 0);
+        x1 = Math.min(x1, (int) Math.ceil(canvas.getWidth()));
+        y1 = Math.min(y1, (int) Math.ceil(canvas.getHeight()));
+        int width = x1 - x0;
+        int height = y1 - y0;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        rasterizeTerrain(x0, y0, width, height);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.getPixelWriter().setPixels(x0, y0, width, height, PixelFormat.getIntArgbInstance(), pixelBuffer, 0, width);
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(x0, y0, width, height);
+        gc.clip();
+        if (visibleSteps > 1) {
+            preparePathStroke(gc);
+            gc.beginPath();
+            gc.moveTo(centerX(pathCells[0]), centerY(pathCells[0]));
+            for (int i = 1; i < visibleSteps; i++) {
+                gc.lineTo(centerX(pathCells[i]), centerY(pathCells[i]));
+            }
+            gc.stroke();
+        }
+        drawMarker(gc, start, "S", START_COLOR);
+        drawMarker(gc, goal, "G", GOAL_COLOR);
+        gc.restore();
+    }
+
+    private void rasterizeTerrain(int x0, int y0, int width, int height) {
+        if (pixelBuffer.length < width * height) {
+            pixelBuffer = new int[width * height];
+        }
+        if (columnLookup.length < width) {
+            columnLookup = new int[width];
+        }
+        boolean gridLines = scale >= GRID_LINE_MIN_SCALE;
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+
+        // Column of every pixel in the span, or -1 outside the maze; the first pixel of a cell is its border
+        int previousCol = (int) Math.floor((x0 - 1 + 0.5 - offsetX) / scale);
+        for (int x = 0; x < width; x++) {
+            int col = (int) Math.floor((x0 + x + 0.5 - offsetX) / scale);
+            boolean border = gridLines && col != previousCol;
+            previousCol = col;
+            columnLookup[x] = col < 0 || col >= cols ? -1 : (border ? -2 - col : col);
+        }
+
+        int previousRow = (int) Math.floor((y0 - 1 + 0.5 - offsetY) / scale);
+        for (int y = 0; y < height; y++) {
+            int row = (int) Math.floor((y0 + y + 0.5 - offsetY) / scale);
+            boolean rowBorder = gridLines && row != previousRow;
+            previousRow = row;
+            int base = y * width;
+            if (row < 0 || row >= rows) {
+                Arrays.fill(pixelBuffer, base, base + width, BACKGROUND_ARGB);
+                continue;
+            }
+            int rowStart = row * cols;
+            for (int x = 0; x < width; x++) {
+                int lookup = columnLookup[x];
+                int argb;
+                if (lookup == -1) {
+                    argb = BACKGROUND_ARGB;
+                } else if (lookup < -1 || rowBorder) {
+                    argb = BORDER_ARGB;
+                } else {
+                    argb = TERRAIN_ARGB[grid.terrainCode(rowStart + lookup)];
+                }
+                pixelBuffer[base + x] = argb;
+            }
+        }
+    }
+
+    private void preparePathStroke(GraphicsContext gc) {
+        gc.setStroke(PATH_COLOR);
+        gc.setLineWidth(Math.clamp(scale * 0.25, 1.5, 4));
+    }
+
+    private void drawMarker(GraphicsContext gc, Coordinate cell, String text, Color color) {
+        if (cell == null) {
+            return;
+        }
+        double x = offsetX + cell.col() * scale;
+        double y = offsetY + cell.row() * scale;
+        if (scale >= LABEL_MIN_SCALE) {
+            gc.setFill(LABEL_COLOR);
+            gc.setFont(Font.font(null, FontWeight.BOLD, Math.min(scale * 0.5, 24)));
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.fillText(text, x + scale / 2, y + scale / 2);
+        } else {
+            // Too small for text: a dot that stays visible however far out we zoom
+            double size = markerDotSize();
+            gc.setFill(color);
+            gc.fillOval(x + scale / 2 - size / 2, y + scale / 2 - size / 2, size, size);
+        }
+    }
+
+    private double markerDotSize() {
+        return Math.max(scale, 5);
+    }
+
+    private double centerX(int cell) {
+        return offsetX + (grid.colOf(cell) + 0.5) * scale;
+    }
+
+    private double centerY(int cell) {
+        return offsetY + (grid.rowOf(cell) + 0.5) * scale;
+    }
+
+    private void positionRobot() {
+        double size = Math.max(scale * 0.3, 4);
+        robot.setWidth(size);
+        robot.setHeight(size);
+        robot.setX(-size / 2);
+        robot.setY(-size / 2);
+        robot.setTranslateX(offsetX + robotCol * scale);
+        robot.setTranslateY(offsetY + robotRow * scale);
+    }
+}
@@ -1,5 +1,7 @@
 module com.iyed_houhou.mazesolvationsemulation {
-    requires javafx.controls;
+    requires com.iyed_houhou.mazesolvationsemulation.core;
+    // Main extends Application and takes a Stage; javafx.controls passes javafx.graphics on
+    requires transitive javafx.controls;
     requires javafx.fxml;
 
     // Open packages containing FXML files
@@ -9,6 +11,3 @@ module com.iyed_houhou.mazesolvationsemulation {
     // Export main package
     exports com.iyed_houhou.mazesolvationsemulation.application;
 }
-
-
-